@@ -0,0 +1,68 @@
+package com.diozero.benchmarks;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Benchmarks
+ * Filename:     BenchmarkProviders.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.diozero.benchmarks.fake.FakeNativeDeviceFactory;
+import com.diozero.internal.provider.mock.MockDeviceFactory;
+import com.diozero.internal.spi.BaseNativeDeviceFactory;
+
+/**
+ * The device factories that each benchmark is parameterised over.
+ * <ul>
+ * <li>{@link #MOCK}: the <code>diozero-provider-mock</code> device factory</li>
+ * <li>{@link #FAKE_NATIVE}: in-memory replicas of the built-in JNI devices that
+ * follow the same layering and error handling as
+ * <code>NativeGpioOutputDevice</code>, <code>NativeI2CDeviceSMBus</code> and
+ * <code>DefaultNativeSpiDevice</code>, minus the system calls</li>
+ * </ul>
+ */
+public class BenchmarkProviders {
+	public static final String MOCK = "mock";
+	public static final String FAKE_NATIVE = "fake-native";
+
+	public static BaseNativeDeviceFactory create(String provider) {
+		BaseNativeDeviceFactory device_factory;
+		switch (provider) {
+		case MOCK:
+			device_factory = new MockDeviceFactory();
+			break;
+		case FAKE_NATIVE:
+			device_factory = new FakeNativeDeviceFactory();
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown provider '" + provider + "'");
+		}
+		device_factory.start();
+
+		return device_factory;
+	}
+}
@@ -0,0 +1,65 @@
+package com.diozero.benchmarks;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Benchmarks
+ * Filename:     BenchmarkRunner.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the diozero benchmarks with the GC profiler always enabled so that every
+ * result reports the allocation rate (<code>gc.alloc.rate.norm</code>, bytes per
+ * operation) alongside the throughput and latency percentiles. Accepts the
+ * standard JMH command line options, e.g. <code>I2CBenchmark -p provider=mock</code>.
+ */
+public class BenchmarkRunner {
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		CommandLineOptions cmd_options = new CommandLineOptions(args);
+		if (cmd_options.shouldHelp() || cmd_options.shouldList() || cmd_options.shouldListWithParams()
+				|| cmd_options.shouldListProfilers() || cmd_options.shouldListResultFormats()) {
+			// Defer to the standard JMH entry point for the informational options
+			try {
+				org.openjdk.jmh.Main.main(args);
+			} catch (Exception e) {
+				throw new RunnerException(e);
+			}
+			return;
+		}
+
+		Options options = new OptionsBuilder().parent(cmd_options).addProfiler(GCProfiler.class).build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,191 @@
+package com.diozero.benchmarks;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Benchmarks
+ * Filename:     DisplayBenchmark.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.diozero.api.DigitalOutputDevice;
+import com.diozero.api.SpiConstants;
+import com.diozero.api.SpiDevice;
+import com.diozero.devices.oled.FrameBufferConverter;
+import com.diozero.devices.oled.MonochromeSsdOled;
+import com.diozero.devices.oled.SH1106;
+import com.diozero.devices.oled.SSD1306;
+import com.diozero.devices.oled.SSD1331;
+import com.diozero.devices.oled.SSD1351;
+import com.diozero.devices.oled.SsdOled;
+import com.diozero.devices.oled.SsdOledCommunicationChannel;
+import com.diozero.devices.oled.SsdOledCommunicationChannel.SpiCommunicationChannel;
+import com.diozero.internal.spi.BaseNativeDeviceFactory;
+
+/**
+ * Frames per second for each OLED display type, connected via SPI to the
+ * fake-native provider so that the results reflect image conversion, dirty
+ * region tracking and channel overhead rather than bus speed.
+ * <ul>
+ * <li><code>fullFrame</code>: alternates between two images that differ in
+ * every pixel</li>
+ * <li><code>partialFrame</code>: alternates between two images that differ in
+ * a single 16x8 region, e.g. a clock digit</li>
+ * <li><code>convert</code>: image to frame buffer conversion only</li>
+ * </ul>
+ * The <code>imageType</code> parameter selects between images in the
+ * display's native type and <code>TYPE_INT_RGB</code> images.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Dtinylog.writer.level=warn", "-Djava.awt.headless=true" })
+public class DisplayBenchmark {
+	private static final int CONTROLLER = 0;
+	private static final int CHIP_SELECT = 0;
+	private static final int DC_GPIO = 22;
+	private static final int RESET_GPIO = 27;
+	private static final String NATIVE = "native";
+	private static final String RGB = "rgb";
+
+	@Param({ "SSD1306", "SH1106", "SSD1331", "SSD1351" })
+	public String display;
+
+	@Param({ NATIVE, RGB })
+	public String imageType;
+
+	private BaseNativeDeviceFactory deviceFactory;
+	private SsdOled oled;
+	private BufferedImage[] fullFrames;
+	private BufferedImage[] partialFrames;
+	private byte[] frameBuffer;
+	private int frame;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		deviceFactory = BenchmarkProviders.create(BenchmarkProviders.FAKE_NATIVE);
+		SpiDevice spi_device = new SpiDevice(deviceFactory, CONTROLLER, CHIP_SELECT,
+				SpiConstants.DEFAULT_SPI_CLOCK_FREQUENCY, SpiConstants.DEFAULT_SPI_CLOCK_MODE,
+				SpiConstants.DEFAULT_LSB_FIRST);
+		DigitalOutputDevice dc_pin = DigitalOutputDevice.Builder.builder(DC_GPIO).setDeviceFactory(deviceFactory)
+				.build();
+		DigitalOutputDevice reset_pin = DigitalOutputDevice.Builder.builder(RESET_GPIO)
+				.setDeviceFactory(deviceFactory).build();
+		SsdOledCommunicationChannel channel = new SpiCommunicationChannel(spi_device, dc_pin, reset_pin);
+
+		switch (display) {
+		case "SSD1306":
+			oled = new SSD1306(channel, MonochromeSsdOled.Height.TALL);
+			break;
+		case "SH1106":
+			oled = new SH1106(channel);
+			break;
+		case "SSD1331":
+			oled = new SSD1331(channel);
+			break;
+		case "SSD1351":
+			oled = new SSD1351(channel);
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown display '" + display + "'");
+		}
+
+		int image_type = imageType.equals(NATIVE) ? oled.getNativeImageType() : BufferedImage.TYPE_INT_RGB;
+		int width = oled.getWidth();
+		int height = oled.getHeight();
+		Random random = new Random(1234);
+		BufferedImage image = new BufferedImage(width, height, image_type);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				image.setRGB(x, y, random.nextInt());
+			}
+		}
+		BufferedImage inverted = new BufferedImage(width, height, image_type);
+		BufferedImage digit = new BufferedImage(width, height, image_type);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				inverted.setRGB(x, y, ~image.getRGB(x, y));
+				digit.setRGB(x, y, image.getRGB(x, y));
+			}
+		}
+		Graphics2D g2d = digit.createGraphics();
+		g2d.clearRect(width / 2, height / 2, 16, 8);
+		g2d.dispose();
+
+		fullFrames = new BufferedImage[] { image, inverted };
+		partialFrames = new BufferedImage[] { image, digit };
+		frameBuffer = new byte[oled.getNativeImageType() == BufferedImage.TYPE_BYTE_BINARY ? width * height / 8
+				: 2 * width * height];
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown() {
+		oled.close();
+		deviceFactory.close();
+	}
+
+	@Benchmark
+	public void fullFrame() {
+		oled.display(fullFrames[frame++ & 1]);
+	}
+
+	@Benchmark
+	public void partialFrame() {
+		oled.display(partialFrames[frame++ & 1]);
+	}
+
+	@Benchmark
+	public byte[] convert() {
+		BufferedImage image = fullFrames[frame++ & 1];
+		if (oled.getNativeImageType() == BufferedImage.TYPE_BYTE_BINARY) {
+			FrameBufferConverter.toMonochromePages(image, 1, frameBuffer);
+		} else {
+			FrameBufferConverter.toRgb565(image, frameBuffer);
+		}
+		return frameBuffer;
+	}
+}
@@ -0,0 +1,124 @@
+package com.diozero.benchmarks;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Benchmarks
+ * Filename:     EventDispatchBenchmark.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.diozero.api.DigitalInputDevice;
+import com.diozero.api.DigitalInputEvent;
+import com.diozero.api.GpioEventTrigger;
+import com.diozero.api.GpioPullUpDown;
+import com.diozero.api.PinInfo;
+import com.diozero.internal.provider.builtin.gpio.GpioChip;
+import com.diozero.internal.provider.builtin.gpio.GpioLineEventListener;
+import com.diozero.internal.spi.AbstractInputDevice;
+import com.diozero.internal.spi.BaseNativeDeviceFactory;
+
+/**
+ * Cost of delivering a single edge event from the provider's internal input
+ * device to a listener registered on a {@link DigitalInputDevice}, i.e. the
+ * path taken for every event once it has been read from the kernel. Providers
+ * whose internal device accepts line events (fake-native) are driven through
+ * that path, others via {@link AbstractInputDevice#accept}. The listener
+ * parameter selects an event object listener or a primitive event listener.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dtinylog.writer.level=warn")
+public class EventDispatchBenchmark {
+	private static final int GPIO = 24;
+
+	@Param({ BenchmarkProviders.MOCK, BenchmarkProviders.FAKE_NATIVE })
+	public String provider;
+
+	@Param({ "object", "primitive" })
+	public String listener;
+
+	private BaseNativeDeviceFactory deviceFactory;
+	private DigitalInputDevice input;
+	private AbstractInputDevice<DigitalInputEvent> internalDevice;
+	private GpioLineEventListener lineEventListener;
+	private boolean value;
+
+	@Setup(Level.Trial)
+	public void setup(Blackhole blackhole) {
+		deviceFactory = BenchmarkProviders.create(provider);
+		input = DigitalInputDevice.Builder.builder(GPIO).setPullUpDown(GpioPullUpDown.NONE)
+				.setTrigger(GpioEventTrigger.BOTH).setDeviceFactory(deviceFactory).build();
+		if (listener.equals("primitive")) {
+			input.addEventListener((gpio, val, epochTime, nanoTime) -> blackhole.consume(nanoTime));
+		} else {
+			input.addListener(event -> blackhole.consume(event.getNanoTime()));
+		}
+		PinInfo pin_info = deviceFactory.getBoardPinInfo().getByGpioNumberOrThrow(GPIO);
+		internalDevice = deviceFactory.getDevice(deviceFactory.createPinKey(pin_info));
+		if (internalDevice instanceof GpioLineEventListener) {
+			lineEventListener = (GpioLineEventListener) internalDevice;
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown() {
+		input.close();
+		deviceFactory.close();
+	}
+
+	@Benchmark
+	public void dispatch() {
+		value = !value;
+		if (lineEventListener == null) {
+			internalDevice.accept(new DigitalInputEvent(GPIO, System.currentTimeMillis(), System.nanoTime(), value));
+		} else {
+			lineEventListener.event(0,
+					value ? GpioChip.GPIOEVENT_EVENT_RISING_EDGE : GpioChip.GPIOEVENT_EVENT_FALLING_EDGE,
+					System.currentTimeMillis(), System.nanoTime());
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package com.diozero.benchmarks;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Benchmarks
+ * Filename:     GpioBenchmark.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.diozero.api.DigitalInputDevice;
+import com.diozero.api.DigitalOutputDevice;
+import com.diozero.api.GpioPullUpDown;
+import com.diozero.internal.spi.BaseNativeDeviceFactory;
+
+/**
+ * Per-call overhead of the digital GPIO read / write paths through the
+ * device / device factory layers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dtinylog.writer.level=warn")
+public class GpioBenchmark {
+	private static final int OUTPUT_GPIO = 18;
+	private static final int INPUT_GPIO = 23;
+
+	@Param({ BenchmarkProviders.MOCK, BenchmarkProviders.FAKE_NATIVE })
+	public String provider;
+
+	private BaseNativeDeviceFactory deviceFactory;
+	private DigitalOutputDevice output;
+	private DigitalInputDevice input;
+	private boolean value;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		deviceFactory = BenchmarkProviders.create(provider);
+		output = DigitalOutputDevice.Builder.builder(OUTPUT_GPIO).setDeviceFactory(deviceFactory).build();
+		input = DigitalInputDevice.Builder.builder(INPUT_GPIO).setPullUpDown(GpioPullUpDown.NONE)
+				.setDeviceFactory(deviceFactory).build();
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown() {
+		input.close();
+		output.close();
+		deviceFactory.close();
+	}
+
+	@Benchmark
+	public void digitalOutputSetValue() {
+		value = !value;
+		output.setValue(value);
+	}
+
+	@Benchmark
+	public boolean digitalInputGetValue() {
+		return input.getValue();
+	}
+}
@@ -0,0 +1,131 @@
+package com.diozero.benchmarks;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Benchmarks
+ * Filename:     I2CBenchmark.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.diozero.api.I2CDevice;
+import com.diozero.api.I2CTransaction;
+import com.diozero.internal.spi.BaseNativeDeviceFactory;
+
+/**
+ * Per-call overhead of the I2C register access helpers, including the
+ * <code>synchronized (delegate)</code> wrapper in {@link I2CDevice}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dtinylog.writer.level=warn")
+public class I2CBenchmark {
+	private static final int CONTROLLER = 1;
+	private static final int ADDRESS = 0x68;
+	private static final int REGISTER = 0x3b;
+	private static final int BLOCK_LENGTH = 14;
+	private static final int REGISTER2 = 0x43;
+	private static final int BLOCK2_LENGTH = 6;
+
+	@Param({ BenchmarkProviders.MOCK, BenchmarkProviders.FAKE_NATIVE })
+	public String provider;
+
+	private BaseNativeDeviceFactory deviceFactory;
+	private I2CDevice device;
+	private byte[] buffer;
+	private byte[] buffer2;
+	private I2CTransaction transaction;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		deviceFactory = BenchmarkProviders.create(provider);
+		device = I2CDevice.builder(ADDRESS).setController(CONTROLLER).setDeviceFactory(deviceFactory).build();
+		buffer = new byte[BLOCK_LENGTH];
+		buffer2 = new byte[BLOCK2_LENGTH];
+		transaction = device.transaction().readRegister(REGISTER, BLOCK_LENGTH).readRegister(REGISTER2,
+				BLOCK2_LENGTH);
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown() {
+		device.close();
+		deviceFactory.close();
+	}
+
+	@Benchmark
+	public byte readByteData() {
+		return device.readByteData(REGISTER);
+	}
+
+	@Benchmark
+	public void writeByteData() {
+		device.writeByteData(REGISTER, (byte) 0x55);
+	}
+
+	@Benchmark
+	public short readShort() {
+		return device.readShort(REGISTER);
+	}
+
+	@Benchmark
+	public boolean readBit() {
+		return device.readBit(REGISTER, 3);
+	}
+
+	@Benchmark
+	public int readI2CBlockData() {
+		return device.readI2CBlockData(REGISTER, buffer);
+	}
+
+	@Benchmark
+	public int readTwoBlocks() {
+		return device.readI2CBlockData(REGISTER, buffer) + device.readI2CBlockData(REGISTER2, buffer2);
+	}
+
+	@Benchmark
+	public short readTwoBlocksTransaction() {
+		return transaction.execute().getShort(1, 0);
+	}
+}
@@ -0,0 +1,103 @@
+package com.diozero.benchmarks;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Benchmarks
+ * Filename:     SpiBenchmark.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.diozero.api.SpiConstants;
+import com.diozero.api.SpiDevice;
+import com.diozero.internal.spi.BaseNativeDeviceFactory;
+
+/**
+ * Per-call overhead of SPI transfers for a typical 3 byte ADC conversion
+ * (MCP3008) and a display sized bulk write.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dtinylog.writer.level=warn")
+public class SpiBenchmark {
+	private static final int CONTROLLER = 0;
+	private static final int CHIP_SELECT = 0;
+
+	@Param({ BenchmarkProviders.MOCK, BenchmarkProviders.FAKE_NATIVE })
+	public String provider;
+
+	@Param({ "1024" })
+	public int writeLength;
+
+	private BaseNativeDeviceFactory deviceFactory;
+	private SpiDevice device;
+	private byte[] adcCommand;
+	private byte[] writeBuffer;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		deviceFactory = BenchmarkProviders.create(provider);
+		device = new SpiDevice(deviceFactory, CONTROLLER, CHIP_SELECT, SpiConstants.DEFAULT_SPI_CLOCK_FREQUENCY,
+				SpiConstants.DEFAULT_SPI_CLOCK_MODE, SpiConstants.DEFAULT_LSB_FIRST);
+		adcCommand = new byte[] { 0x01, (byte) 0x80, 0x00 };
+		writeBuffer = new byte[writeLength];
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown() {
+		device.close();
+		deviceFactory.close();
+	}
+
+	@Benchmark
+	public byte[] writeAndRead() {
+		return device.writeAndRead(adcCommand);
+	}
+
+	@Benchmark
+	public void write() {
+		device.write(writeBuffer);
+	}
+}
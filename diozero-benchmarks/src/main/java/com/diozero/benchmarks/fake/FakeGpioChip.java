@@ -0,0 +1,104 @@
+package com.diozero.benchmarks.fake;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Benchmarks
+ * Filename:     FakeGpioChip.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.diozero.api.DeviceMode;
+import com.diozero.api.RuntimeIOException;
+
+/**
+ * In-memory replica of the GPIO character device: lines are addressed by
+ * handle (the equivalent of the line fd) and accessed via calls that return a
+ * negative errno style value on failure, as per <code>NativeGpioDevice</code>.
+ */
+public class FakeGpioChip {
+	private static final int NUM_LINES = 256;
+	private static final int EBADF = -9;
+
+	private final DeviceMode[] modes;
+	private final int[] values;
+
+	public FakeGpioChip() {
+		modes = new DeviceMode[NUM_LINES];
+		values = new int[NUM_LINES];
+		for (int i = 0; i < NUM_LINES; i++) {
+			modes[i] = DeviceMode.UNKNOWN;
+		}
+	}
+
+	public int provisionGpioInputDevice(int offset) {
+		return provision(offset, DeviceMode.DIGITAL_INPUT, 0);
+	}
+
+	public int provisionGpioOutputDevice(int offset, int initialValue) {
+		return provision(offset, DeviceMode.DIGITAL_OUTPUT, initialValue);
+	}
+
+	private int provision(int offset, DeviceMode mode, int initialValue) {
+		if (offset < 0 || offset >= NUM_LINES) {
+			throw new IllegalArgumentException("Invalid GPIO offset " + offset + " must 0.." + (NUM_LINES - 1));
+		}
+		modes[offset] = mode;
+		values[offset] = initialValue;
+
+		// The line handle is simply the offset
+		return offset;
+	}
+
+	public int getValue(int lineFd) {
+		if (lineFd < 0 || lineFd >= NUM_LINES) {
+			return EBADF;
+		}
+		return values[lineFd];
+	}
+
+	public int setValue(int lineFd, int value) {
+		if (lineFd < 0 || lineFd >= NUM_LINES) {
+			return EBADF;
+		}
+		values[lineFd] = value;
+		return 0;
+	}
+
+	public void close(int lineFd) {
+		if (lineFd < 0 || lineFd >= NUM_LINES) {
+			throw new RuntimeIOException("Invalid line handle " + lineFd);
+		}
+		modes[lineFd] = DeviceMode.UNKNOWN;
+	}
+
+	DeviceMode getMode(int gpio) {
+		if (gpio < 0 || gpio >= NUM_LINES) {
+			return DeviceMode.UNKNOWN;
+		}
+		return modes[gpio];
+	}
+}
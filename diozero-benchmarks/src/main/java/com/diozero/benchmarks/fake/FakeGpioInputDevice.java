@@ -0,0 +1,115 @@
+package com.diozero.benchmarks.fake;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Benchmarks
+ * Filename:     FakeGpioInputDevice.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.diozero.api.DigitalInputEvent;
+import com.diozero.api.GpioEventTrigger;
+import com.diozero.api.GpioPullUpDown;
+import com.diozero.api.PinInfo;
+import com.diozero.api.RuntimeIOException;
+import com.diozero.api.function.DeviceEventConsumer;
+import com.diozero.api.function.DigitalInputEventListener;
+import com.diozero.internal.provider.builtin.gpio.GpioChip;
+import com.diozero.internal.provider.builtin.gpio.GpioLineEventListener;
+import com.diozero.internal.spi.AbstractInputDevice;
+import com.diozero.internal.spi.GpioDigitalInputDeviceInterface;
+
+/**
+ * Replica of <code>NativeGpioInputDevice</code> backed by a
+ * {@link FakeGpioChip}. Events are injected either as line events via
+ * {@link #event(int, int, long, long)}, as the GPIO chip event processing
+ * thread does, or by calling {@link #accept(DigitalInputEvent)} directly.
+ */
+public class FakeGpioInputDevice extends AbstractInputDevice<DigitalInputEvent>
+		implements GpioDigitalInputDeviceInterface, GpioLineEventListener {
+	private final FakeGpioChip chip;
+	private final int gpio;
+	private final int offset;
+	private final int lineFd;
+
+	public FakeGpioInputDevice(FakeNativeDeviceFactory deviceFactory, String key, FakeGpioChip chip,
+			PinInfo pinInfo, GpioPullUpDown pud, GpioEventTrigger trigger) {
+		super(key, deviceFactory);
+
+		this.chip = chip;
+		gpio = pinInfo.getDeviceNumber();
+		offset = pinInfo.getLineOffset();
+		if (offset == PinInfo.NOT_DEFINED) {
+			throw new IllegalArgumentException("Line offset not defined for pin " + pinInfo);
+		}
+
+		lineFd = chip.provisionGpioInputDevice(offset);
+	}
+
+	@Override
+	public int getGpio() {
+		return gpio;
+	}
+
+	@Override
+	public boolean getValue() throws RuntimeIOException {
+		int rc = chip.getValue(lineFd);
+		if (rc < 0) {
+			throw new RuntimeIOException("Error in getValue() for line " + offset + ": " + rc);
+		}
+		return rc == 0 ? false : true;
+	}
+
+	@Override
+	public void setDebounceTimeMillis(int debounceTime) {
+		throw new UnsupportedOperationException("Debounce not supported");
+	}
+
+	@Override
+	public void accept(DigitalInputEvent event) {
+		chip.setValue(lineFd, event.getValue() ? 1 : 0);
+		super.accept(event);
+	}
+
+	@Override
+	public void event(int fd, int eventDataId, long epochTimeMs, long timestampNanos) {
+		boolean value = eventDataId == GpioChip.GPIOEVENT_EVENT_RISING_EDGE;
+		chip.setValue(lineFd, value ? 1 : 0);
+		DeviceEventConsumer<DigitalInputEvent> listener = getListener();
+		if (listener instanceof DigitalInputEventListener) {
+			((DigitalInputEventListener) listener).event(gpio, value, epochTimeMs, timestampNanos);
+		} else {
+			super.accept(new DigitalInputEvent(gpio, epochTimeMs, timestampNanos, value));
+		}
+	}
+
+	@Override
+	protected void closeDevice() {
+		super.closeDevice();
+		chip.close(lineFd);
+	}
+}
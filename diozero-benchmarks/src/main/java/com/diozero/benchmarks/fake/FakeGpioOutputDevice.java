@@ -0,0 +1,89 @@
+package com.diozero.benchmarks.fake;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Benchmarks
+ * Filename:     FakeGpioOutputDevice.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.diozero.api.PinInfo;
+import com.diozero.api.RuntimeIOException;
+import com.diozero.internal.spi.AbstractDevice;
+import com.diozero.internal.spi.GpioDigitalOutputDeviceInterface;
+
+/**
+ * Replica of <code>NativeGpioOutputDevice</code> backed by a
+ * {@link FakeGpioChip}.
+ */
+public class FakeGpioOutputDevice extends AbstractDevice implements GpioDigitalOutputDeviceInterface {
+	private final FakeGpioChip chip;
+	private final int gpio;
+	private final int offset;
+	private final int lineFd;
+
+	public FakeGpioOutputDevice(FakeNativeDeviceFactory deviceFactory, String key, FakeGpioChip chip,
+			PinInfo pinInfo, boolean initialValue) {
+		super(key, deviceFactory);
+
+		this.chip = chip;
+		gpio = pinInfo.getDeviceNumber();
+		offset = pinInfo.getLineOffset();
+		if (offset == PinInfo.NOT_DEFINED) {
+			throw new IllegalArgumentException("Line offset not defined for pin " + pinInfo);
+		}
+
+		lineFd = chip.provisionGpioOutputDevice(offset, initialValue ? 1 : 0);
+	}
+
+	@Override
+	public int getGpio() {
+		return gpio;
+	}
+
+	@Override
+	public boolean getValue() throws RuntimeIOException {
+		int rc = chip.getValue(lineFd);
+		if (rc < 0) {
+			throw new RuntimeIOException("Error in getValue() for line " + offset + ": " + rc);
+		}
+		return rc == 0 ? false : true;
+	}
+
+	@Override
+	public void setValue(boolean value) throws RuntimeIOException {
+		int rc = chip.setValue(lineFd, value ? 1 : 0);
+		if (rc < 0) {
+			throw new RuntimeIOException("Error in setValue(" + value + ") for line " + offset + ": " + rc);
+		}
+	}
+
+	@Override
+	protected void closeDevice() {
+		chip.close(lineFd);
+	}
+}
@@ -0,0 +1,253 @@
+package com.diozero.benchmarks.fake;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Benchmarks
+ * Filename:     FakeI2CDevice.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.tinylog.Logger;
+
+import com.diozero.api.I2CDevice;
+import com.diozero.api.I2CDeviceInterface;
+import com.diozero.api.I2CException;
+import com.diozero.internal.spi.AbstractDevice;
+import com.diozero.internal.spi.InternalI2CDeviceInterface;
+
+/**
+ * Replica of <code>NativeI2CDeviceSMBus</code> - same function checks and
+ * retry handling - with the <code>NativeI2C</code> ioctls replaced by accesses
+ * to an in-memory 256 byte register file. Block reads copy into the caller's
+ * buffer as the JNI layer does.
+ */
+public class FakeI2CDevice extends AbstractDevice implements InternalI2CDeviceInterface {
+	private static final int EAGAIN = -11;
+	private static final int ETIMEDOUT = -110;
+	private static final int NUM_REGISTERS = 256;
+	private static final int NUM_RETRIES = 2;
+
+	private final int controller;
+	private final int deviceAddress;
+	private final int funcs;
+	private final byte[] registers;
+	private int pointer;
+
+	public FakeI2CDevice(FakeNativeDeviceFactory deviceFactory, String key, int controller, int address,
+			int funcs) {
+		super(key, deviceFactory);
+
+		this.controller = controller;
+		this.deviceAddress = address;
+		this.funcs = funcs;
+		registers = new byte[NUM_REGISTERS];
+	}
+
+	public int getController() {
+		return controller;
+	}
+
+	public int getDeviceAddress() {
+		return deviceAddress;
+	}
+
+	@Override
+	protected void closeDevice() {
+		Logger.trace("closeDevice {}", getKey());
+	}
+
+	@Override
+	public boolean probe(I2CDevice.ProbeMode mode) {
+		return true;
+	}
+
+	@Override
+	public void writeQuick(byte bit) {
+		checkFunc(I2CDeviceInterface.I2C_FUNC_SMBUS_QUICK, "I2C_FUNC_SMBUS_QUICK");
+	}
+
+	@Override
+	public byte readByte() {
+		checkFunc(I2CDeviceInterface.I2C_FUNC_SMBUS_READ_BYTE, "I2C_FUNC_SMBUS_READ_BYTE");
+
+		int rc = EAGAIN;
+		for (int i = 0; i < NUM_RETRIES && (rc == EAGAIN || rc == ETIMEDOUT); i++) {
+			rc = next() & 0xff;
+		}
+		return (byte) rc;
+	}
+
+	@Override
+	public void writeByte(byte data) {
+		checkFunc(I2CDeviceInterface.I2C_FUNC_SMBUS_WRITE_BYTE, "I2C_FUNC_SMBUS_WRITE_BYTE");
+
+		pointer = data & 0xff;
+	}
+
+	@Override
+	public byte readByteData(int registerAddress) {
+		checkFunc(I2CDeviceInterface.I2C_FUNC_SMBUS_READ_BYTE_DATA, "I2C_FUNC_SMBUS_READ_BYTE_DATA");
+
+		int rc = EAGAIN;
+		for (int i = 0; i < NUM_RETRIES && (rc == EAGAIN || rc == ETIMEDOUT); i++) {
+			rc = registers[registerAddress & 0xff] & 0xff;
+		}
+
+		if (rc < 0) {
+			throw new I2CException("Error in SMBus.readByteData for device " + getKey() + ": " + rc, rc);
+		}
+
+		return (byte) rc;
+	}
+
+	@Override
+	public void writeByteData(int registerAddress, byte data) {
+		checkFunc(I2CDeviceInterface.I2C_FUNC_SMBUS_WRITE_BYTE_DATA, "I2C_FUNC_SMBUS_WRITE_BYTE_DATA");
+
+		registers[registerAddress & 0xff] = data;
+	}
+
+	@Override
+	public short readWordData(int registerAddress) {
+		checkFunc(I2CDeviceInterface.I2C_FUNC_SMBUS_READ_WORD_DATA, "I2C_FUNC_SMBUS_READ_WORD_DATA");
+
+		return (short) ((registers[registerAddress & 0xff] & 0xff)
+				| (registers[(registerAddress + 1) & 0xff] << 8));
+	}
+
+	@Override
+	public void writeWordData(int registerAddress, short data) {
+		checkFunc(I2CDeviceInterface.I2C_FUNC_SMBUS_WRITE_WORD_DATA, "I2C_FUNC_SMBUS_WRITE_WORD_DATA");
+
+		registers[registerAddress & 0xff] = (byte) data;
+		registers[(registerAddress + 1) & 0xff] = (byte) (data >> 8);
+	}
+
+	@Override
+	public short processCall(int registerAddress, short data) {
+		writeWordData(registerAddress, data);
+		return readWordData(registerAddress);
+	}
+
+	@Override
+	public byte[] readBlockData(int registerAddress) {
+		// SMBus block reads allocate the result array in the JNI layer
+		byte[] buffer = new byte[Math.min(registers[registerAddress & 0xff] & 0xff, MAX_I2C_BLOCK_SIZE)];
+		copyFromRegisters(registerAddress + 1, buffer, buffer.length);
+		return buffer;
+	}
+
+	@Override
+	public void writeBlockData(int registerAddress, byte... data) {
+		registers[registerAddress & 0xff] = (byte) data.length;
+		copyToRegisters(registerAddress + 1, data, data.length);
+	}
+
+	@Override
+	public byte[] blockProcessCall(int registerAddress, byte... txData) {
+		writeBlockData(registerAddress, txData);
+		return readBlockData(registerAddress);
+	}
+
+	@Override
+	public int readI2CBlockData(int registerAddress, byte[] buffer) {
+		checkFunc(I2CDeviceInterface.I2C_FUNC_SMBUS_READ_I2C_BLOCK, "I2C_FUNC_SMBUS_READ_I2C_BLOCK");
+
+		copyFromRegisters(registerAddress, buffer, buffer.length);
+		return buffer.length;
+	}
+
+	@Override
+	public void writeI2CBlockData(int registerAddress, byte... data) {
+		checkFunc(I2CDeviceInterface.I2C_FUNC_SMBUS_WRITE_I2C_BLOCK, "I2C_FUNC_SMBUS_WRITE_I2C_BLOCK");
+
+		copyToRegisters(registerAddress, data, data.length);
+	}
+
+	@Override
+	public int readBytes(byte[] buffer) {
+		copyFromRegisters(pointer, buffer, buffer.length);
+		return buffer.length;
+	}
+
+	@Override
+	public void writeBytes(byte... data) {
+		if (data.length > 0) {
+			pointer = data[0] & 0xff;
+			for (int i = 1; i < data.length; i++) {
+				registers[pointer] = data[i];
+				pointer = (pointer + 1) % NUM_REGISTERS;
+			}
+		}
+	}
+
+	@Override
+	public void readWrite(I2CMessage[] messages, byte[] buffer) {
+		int buffer_pos = 0;
+		for (I2CMessage message : messages) {
+			if (message.isRead()) {
+				for (int i = 0; i < message.getLength(); i++) {
+					buffer[buffer_pos++] = next();
+				}
+			} else if (message.getLength() > 0) {
+				pointer = buffer[buffer_pos++] & 0xff;
+				for (int i = 1; i < message.getLength(); i++) {
+					registers[pointer] = buffer[buffer_pos++];
+					pointer = (pointer + 1) % NUM_REGISTERS;
+				}
+			}
+		}
+	}
+
+	private void checkFunc(int func, String name) {
+		if ((funcs & func) == 0) {
+			Logger.warn("Function {} isn't supported for device {}", name, getKey());
+			throw new UnsupportedOperationException("Function " + name + " isn't supported for device " + getKey());
+		}
+	}
+
+	private byte next() {
+		byte b = registers[pointer];
+		pointer = (pointer + 1) % NUM_REGISTERS;
+		return b;
+	}
+
+	private void copyFromRegisters(int registerAddress, byte[] buffer, int length) {
+		pointer = registerAddress & 0xff;
+		for (int i = 0; i < length; i++) {
+			buffer[i] = next();
+		}
+	}
+
+	private void copyToRegisters(int registerAddress, byte[] data, int length) {
+		pointer = registerAddress & 0xff;
+		for (int i = 0; i < length; i++) {
+			registers[pointer] = data[i];
+			pointer = (pointer + 1) % NUM_REGISTERS;
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package com.diozero.benchmarks.fake;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Benchmarks
+ * Filename:     FakeNativeDeviceFactory.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import com.diozero.api.DeviceMode;
+import com.diozero.api.GpioEventTrigger;
+import com.diozero.api.GpioPullUpDown;
+import com.diozero.api.I2CConstants.AddressSize;
+import com.diozero.api.I2CDeviceInterface;
+import com.diozero.api.PinInfo;
+import com.diozero.api.RuntimeIOException;
+import com.diozero.api.SerialConstants.DataBits;
+import com.diozero.api.SerialConstants.Parity;
+import com.diozero.api.SerialConstants.StopBits;
+import com.diozero.api.SpiClockMode;
+import com.diozero.internal.spi.AnalogInputDeviceInterface;
+import com.diozero.internal.spi.AnalogOutputDeviceInterface;
+import com.diozero.internal.spi.BaseNativeDeviceFactory;
+import com.diozero.internal.spi.GpioDigitalInputDeviceInterface;
+import com.diozero.internal.spi.GpioDigitalInputOutputDeviceInterface;
+import com.diozero.internal.spi.GpioDigitalOutputDeviceInterface;
+import com.diozero.internal.spi.InternalI2CDeviceInterface;
+import com.diozero.internal.spi.InternalPwmOutputDeviceInterface;
+import com.diozero.internal.spi.InternalSerialDeviceInterface;
+import com.diozero.internal.spi.InternalServoDeviceInterface;
+import com.diozero.internal.spi.InternalSpiDeviceInterface;
+import com.diozero.sbc.BoardInfo;
+
+/**
+ * Stand-in for the built-in <code>DefaultDeviceFactory</code> that provisions
+ * in-memory replicas of the GPIO character device, I2C SMBus and spidev JNI
+ * devices. Every GPIO number is valid and maps to line offset = GPIO number on
+ * chip 0.
+ */
+public class FakeNativeDeviceFactory extends BaseNativeDeviceFactory {
+	private static final int DEFAULT_PWM_FREQUENCY = 100;
+	private static final int I2C_FUNCS = I2CDeviceInterface.I2C_FUNC_I2C
+			| I2CDeviceInterface.I2C_FUNC_SMBUS_READ_BYTE | I2CDeviceInterface.I2C_FUNC_SMBUS_WRITE_BYTE
+			| I2CDeviceInterface.I2C_FUNC_SMBUS_READ_BYTE_DATA | I2CDeviceInterface.I2C_FUNC_SMBUS_WRITE_BYTE_DATA
+			| I2CDeviceInterface.I2C_FUNC_SMBUS_READ_WORD_DATA | I2CDeviceInterface.I2C_FUNC_SMBUS_WRITE_WORD_DATA
+			| I2CDeviceInterface.I2C_FUNC_SMBUS_READ_I2C_BLOCK | I2CDeviceInterface.I2C_FUNC_SMBUS_WRITE_I2C_BLOCK;
+
+	private final FakeGpioChip chip;
+	private int boardPwmFrequency = DEFAULT_PWM_FREQUENCY;
+	private int boardServoFrequency = DEFAULT_PWM_FREQUENCY;
+
+	public FakeNativeDeviceFactory() {
+		chip = new FakeGpioChip();
+	}
+
+	@Override
+	public String getName() {
+		return getClass().getSimpleName();
+	}
+
+	@Override
+	protected BoardInfo lookupBoardInfo() {
+		return new FakeBoardInfo();
+	}
+
+	@Override
+	public void shutdown() {
+		// Nothing to do
+	}
+
+	@Override
+	public int getBoardPwmFrequency() {
+		return boardPwmFrequency;
+	}
+
+	@Override
+	public void setBoardPwmFrequency(int pwmFrequency) {
+		boardPwmFrequency = pwmFrequency;
+	}
+
+	@Override
+	public int getBoardServoFrequency() {
+		return boardServoFrequency;
+	}
+
+	@Override
+	public void setBoardServoFrequency(int servoFrequency) {
+		boardServoFrequency = servoFrequency;
+	}
+
+	@Override
+	public List<Integer> getI2CBusNumbers() {
+		return Arrays.asList(Integer.valueOf(1));
+	}
+
+	@Override
+	public int getI2CFunctionalities(int controller) {
+		return I2C_FUNCS;
+	}
+
+	@Override
+	public DeviceMode getGpioMode(int gpio) {
+		return chip.getMode(gpio);
+	}
+
+	@Override
+	public int getGpioValue(int gpio) {
+		return chip.getValue(gpio);
+	}
+
+	@Override
+	public GpioDigitalInputDeviceInterface createDigitalInputDevice(String key, PinInfo pinInfo, GpioPullUpDown pud,
+			GpioEventTrigger trigger) {
+		return new FakeGpioInputDevice(this, key, chip, pinInfo, pud, trigger);
+	}
+
+	@Override
+	public GpioDigitalOutputDeviceInterface createDigitalOutputDevice(String key, PinInfo pinInfo,
+			boolean initialValue) {
+		return new FakeGpioOutputDevice(this, key, chip, pinInfo, initialValue);
+	}
+
+	@Override
+	public GpioDigitalInputOutputDeviceInterface createDigitalInputOutputDevice(String key, PinInfo pinInfo,
+			DeviceMode mode) {
+		throw new UnsupportedOperationException("Digital input / output devices not supported by this provider");
+	}
+
+	@Override
+	public InternalPwmOutputDeviceInterface createPwmOutputDevice(String key, PinInfo pinInfo, int pwmFrequency,
+			float initialValue) {
+		throw new UnsupportedOperationException("PWM output not supported by this provider");
+	}
+
+	@Override
+	public InternalServoDeviceInterface createServoDevice(String key, PinInfo pinInfo, int frequencyHz,
+			int minPulseWidthUs, int maxPulseWidthUs, int initialPulseWidthUs) {
+		throw new UnsupportedOperationException("Servo output not supported by this provider");
+	}
+
+	@Override
+	public AnalogInputDeviceInterface createAnalogInputDevice(String key, PinInfo pinInfo) {
+		throw new UnsupportedOperationException("Analog input not supported by this provider");
+	}
+
+	@Override
+	public AnalogOutputDeviceInterface createAnalogOutputDevice(String key, PinInfo pinInfo, float initialValue) {
+		throw new UnsupportedOperationException("Analog output not supported by this provider");
+	}
+
+	@Override
+	public InternalSpiDeviceInterface createSpiDevice(String key, int controller, int chipSelect, int frequency,
+			SpiClockMode spiClockMode, boolean lsbFirst) throws RuntimeIOException {
+		return new FakeSpiDevice(this, key, controller, chipSelect, frequency, spiClockMode, lsbFirst);
+	}
+
+	@Override
+	public InternalI2CDeviceInterface createI2CDevice(String key, int controller, int address,
+			AddressSize addressSize) throws RuntimeIOException {
+		return new FakeI2CDevice(this, key, controller, address, I2C_FUNCS);
+	}
+
+	@Override
+	public InternalSerialDeviceInterface createSerialDevice(String key, String deviceFilename, int baud,
+			DataBits dataBits, StopBits stopBits, Parity parity, boolean readBlocking, int minReadChars,
+			int readTimeoutMillis) throws RuntimeIOException {
+		throw new UnsupportedOperationException("Serial devices not supported by this provider");
+	}
+
+	private static class FakeBoardInfo extends BoardInfo {
+		private static final int CHIP = 0;
+
+		FakeBoardInfo() {
+			super("diozero", "fake-native", -1, "fake", "1.0");
+		}
+
+		@Override
+		public void populateBoardPinInfo() {
+			// Pins are added on demand
+		}
+
+		@Override
+		public Optional<PinInfo> getByGpioNumber(int gpio) {
+			return Optional.of(super.getByGpioNumber(gpio).orElseGet(() -> addGpioPinInfo(gpio, "GPIO" + gpio,
+					PinInfo.NOT_DEFINED, PinInfo.DIGITAL_IN_OUT, CHIP, gpio)));
+		}
+	}
+}
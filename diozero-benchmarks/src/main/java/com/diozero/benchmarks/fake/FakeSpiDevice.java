@@ -0,0 +1,100 @@
+package com.diozero.benchmarks.fake;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Benchmarks
+ * Filename:     FakeSpiDevice.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.tinylog.Logger;
+
+import com.diozero.api.RuntimeIOException;
+import com.diozero.api.SpiClockMode;
+import com.diozero.internal.spi.AbstractDevice;
+import com.diozero.internal.spi.InternalSpiDeviceInterface;
+
+/**
+ * Replica of <code>DefaultNativeSpiDevice</code> / <code>NativeSpiDevice</code>
+ * with MOSI looped back to MISO. Transfers copy the transmit data into a
+ * receive array in the same way that the JNI <code>spiTransfer</code> call
+ * does.
+ */
+public class FakeSpiDevice extends AbstractDevice implements InternalSpiDeviceInterface {
+	private final int controller;
+	private final int chipSelect;
+
+	public FakeSpiDevice(FakeNativeDeviceFactory deviceFactory, String key, int controller, int chipSelect,
+			int frequency, SpiClockMode spiClockMode, boolean lsbFirst) {
+		super(key, deviceFactory);
+
+		this.controller = controller;
+		this.chipSelect = chipSelect;
+	}
+
+	@Override
+	protected void closeDevice() throws RuntimeIOException {
+		Logger.trace("closeDevice() {}", getKey());
+	}
+
+	@Override
+	public int getController() {
+		return controller;
+	}
+
+	@Override
+	public int getChipSelect() {
+		return chipSelect;
+	}
+
+	@Override
+	public void write(byte... txBuffer) {
+		write(txBuffer, 0, txBuffer.length);
+	}
+
+	@Override
+	public void write(byte[] txBuffer, int txOffset, int length) {
+		spiTransfer(txBuffer, txOffset, length, null);
+	}
+
+	@Override
+	public byte[] writeAndRead(byte... txBuffer) throws RuntimeIOException {
+		byte[] rx_buffer = new byte[txBuffer.length];
+		spiTransfer(txBuffer, 0, txBuffer.length, rx_buffer);
+		return rx_buffer;
+	}
+
+	private static int spiTransfer(byte[] txBuffer, int txOffset, int length, byte[] rxBuffer) {
+		if (txOffset < 0 || length < 0 || txOffset + length > txBuffer.length) {
+			throw new IllegalArgumentException("Invalid offset / length " + txOffset + " / " + length);
+		}
+		if (rxBuffer != null) {
+			System.arraycopy(txBuffer, txOffset, rxBuffer, 0, length);
+		}
+		return length;
+	}
+}
@@ -0,0 +1,113 @@
+package com.diozero.internal.provider.builtin.gpio;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Benchmarks
+ * Filename:     GpioChipEventBenchmark.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link GpioChip} event dispatch path: the JNI upcall
+ * {@link GpioChip#event(int, int, long, long)} through to the registered
+ * {@link GpioLineEventListener} on the event processing thread. The native
+ * epoll event loop is started as normal; a spare epoll file descriptor stands
+ * in for the GPIO line so that no GPIO hardware is required (Linux only).
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dtinylog.writer.level=warn")
+public class GpioChipEventBenchmark {
+	private GpioChip chip;
+	private int lineFd;
+	private CountingListener listener;
+
+	@Setup(Level.Trial)
+	public void setup() throws ReflectiveOperationException {
+		Constructor<GpioChip> constructor = GpioChip.class.getDeclaredConstructor(String.class, String.class,
+				int.class, GpioLine[].class);
+		constructor.setAccessible(true);
+		chip = constructor.newInstance("gpiochip0", "benchmark", Integer.valueOf(-1), new GpioLine[0]);
+
+		lineFd = NativeGpioDevice.epollCreate();
+		if (lineFd < 0) {
+			throw new IllegalStateException("Error creating placeholder line fd: " + lineFd);
+		}
+		listener = new CountingListener();
+		chip.register(lineFd, listener);
+	}
+
+	@TearDown(Level.Trial)
+	public void teardown() {
+		chip.deregister(lineFd);
+		NativeGpioDevice.close(lineFd);
+	}
+
+	/**
+	 * Single event latency - post one event and wait for the listener to receive
+	 * it.
+	 */
+	@Benchmark
+	public long dispatch() {
+		long expected = listener.count + 1;
+		chip.event(lineFd, GpioChip.GPIOEVENT_EVENT_RISING_EDGE, System.currentTimeMillis(), System.nanoTime());
+		while (listener.count < expected) {
+			Thread.onSpinWait();
+		}
+		return listener.lastTimestampNanos;
+	}
+
+	static final class CountingListener implements GpioLineEventListener {
+		volatile long count;
+		volatile long lastTimestampNanos;
+
+		@Override
+		public void event(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos) {
+			lastTimestampNanos = timestampNanos;
+			count++;
+		}
+	}
+}
@@ -31,21 +31,26 @@ package com.diozero.api;
  * #L%
  */
 
+import java.util.Arrays;
 import java.util.function.LongConsumer;
 
+import com.diozero.api.function.DigitalInputEventListener;
 import com.diozero.util.EventLock;
 
 /**
  * Abstract base class for low-level GPIO digital input devices.
  */
 public abstract class AbstractDigitalInputDevice extends GpioInputDevice<DigitalInputEvent>
-		implements DigitalInputDeviceInterface {
+		implements DigitalInputDeviceInterface, DigitalInputEventListener {
+	private static final DigitalInputEventListener[] NO_EVENT_LISTENERS = new DigitalInputEventListener[0];
+
 	protected boolean activeHigh;
 	private LongConsumer activatedConsumer;
 	private LongConsumer deactivatedConsumer;
 	private boolean listenerEnabled;
 	private EventLock highEvent;
 	private EventLock lowEvent;
+	private volatile DigitalInputEventListener[] eventListeners;
 
 	public AbstractDigitalInputDevice(PinInfo pinInfo, boolean activeHigh) {
 		super(pinInfo);
@@ -53,6 +58,7 @@ public abstract class AbstractDigitalInputDevice extends GpioInputDevice<Digital
 		this.activeHigh = activeHigh;
 		highEvent = new EventLock();
 		lowEvent = new EventLock();
+		eventListeners = NO_EVENT_LISTENERS;
 	}
 
 	/**
@@ -76,7 +82,8 @@ public abstract class AbstractDigitalInputDevice extends GpioInputDevice<Digital
 	@Override
 	protected void disableDeviceListener() {
 		// Ignore if there is an activated / deactivated consumer or listeners
-		if (activatedConsumer == null && deactivatedConsumer == null && !hasListeners()) {
+		if (activatedConsumer == null && deactivatedConsumer == null && !hasListeners()
+				&& eventListeners.length == 0) {
 			if (listenerEnabled) {
 				removeListener();
 				listenerEnabled = false;
@@ -84,22 +91,132 @@ public abstract class AbstractDigitalInputDevice extends GpioInputDevice<Digital
 		}
 	}
 
+	/**
+	 * Event object path, delegates to {@link #processEvent(int, boolean, long, long)}.
+	 * Subclasses should override {@link #processEvent(int, boolean, long, long)}
+	 * rather than this method so that events are handled identically regardless
+	 * of how the provider delivers them; an override of this method doesn't see
+	 * events that are delivered via {@link #event(int, boolean, long, long)}.
+	 */
 	@Override
 	public void accept(DigitalInputEvent event) {
-		event.setActiveHigh(activeHigh);
+		processEvent(event.getGpio(), event.getValue(), event.getEpochTime(), event.getNanoTime());
+	}
 
-		EventLock e = event.getValue() ? highEvent : lowEvent;
+	/**
+	 * Primitive event path used by providers that can deliver edge events without
+	 * first creating a {@link DigitalInputEvent}, delegates to
+	 * {@link #processEvent(int, boolean, long, long)}.
+	 *
+	 * @param gpio      the GPIO number
+	 * @param value     the underlying GPIO state
+	 * @param epochTime the event time in milliseconds since the epoch
+	 * @param nanoTime  the event time in nanoseconds
+	 */
+	@Override
+	public final void event(int gpio, boolean value, long epochTime, long nanoTime) {
+		processEvent(gpio, value, epochTime, nanoTime);
+	}
+
+	/**
+	 * Handle an event from the provider. The default implementation passes the
+	 * event straight to {@link #dispatchEvent(int, boolean, long, long)};
+	 * subclasses that filter or transform events (e.g. debouncing or smoothing)
+	 * override this method and call
+	 * {@link #dispatchEvent(int, boolean, long, long)} for each event that is to
+	 * be reported. A {@link DigitalInputEvent} is only created if there are
+	 * {@link #addListener(com.diozero.api.function.DeviceEventConsumer) event
+	 * object listeners}.
+	 *
+	 * @param gpio      the GPIO number
+	 * @param value     the underlying GPIO state
+	 * @param epochTime the event time in milliseconds since the epoch
+	 * @param nanoTime  the event time in nanoseconds
+	 */
+	protected void processEvent(int gpio, boolean value, long epochTime, long nanoTime) {
+		dispatchEvent(gpio, value, epochTime, nanoTime);
+	}
+
+	/**
+	 * Deliver an event to all registered consumers and listeners. Only creates a
+	 * {@link DigitalInputEvent} if there are event object listeners.
+	 *
+	 * @param gpio      the GPIO number
+	 * @param value     the underlying GPIO state
+	 * @param epochTime the event time in milliseconds since the epoch
+	 * @param nanoTime  the event time in nanoseconds
+	 */
+	protected void dispatchEvent(int gpio, boolean value, long epochTime, long nanoTime) {
+		EventLock e = value ? highEvent : lowEvent;
 		e.set();
 
-		if (activatedConsumer != null && event.isActive()) {
-			activatedConsumer.accept(event.getNanoTime());
+		boolean active = value == activeHigh;
+		if (activatedConsumer != null && active) {
+			activatedConsumer.accept(nanoTime);
+		}
+
+		if (deactivatedConsumer != null && !active) {
+			deactivatedConsumer.accept(nanoTime);
 		}
 
-		if (deactivatedConsumer != null && !event.isActive()) {
-			deactivatedConsumer.accept(event.getNanoTime());
+		DigitalInputEventListener[] listeners = eventListeners;
+		for (int i = 0; i < listeners.length; i++) {
+			listeners[i].event(gpio, value, epochTime, nanoTime);
 		}
 
-		super.accept(event);
+		if (hasListeners()) {
+			DigitalInputEvent event = new DigitalInputEvent(gpio, epochTime, nanoTime, value);
+			event.setActiveHigh(activeHigh);
+			super.accept(event);
+		}
+	}
+
+	/**
+	 * Add a listener that receives events as primitive values. Unlike
+	 * {@link #addListener(com.diozero.api.function.DeviceEventConsumer)
+	 * addListener}, no event object is created per event if the provider supports
+	 * primitive event delivery.
+	 *
+	 * @param listener Callback instance
+	 */
+	public synchronized void addEventListener(DigitalInputEventListener listener) {
+		DigitalInputEventListener[] listeners = eventListeners;
+		for (DigitalInputEventListener l : listeners) {
+			if (l == listener) {
+				return;
+			}
+		}
+		listeners = Arrays.copyOf(listeners, listeners.length + 1);
+		listeners[listeners.length - 1] = listener;
+		eventListeners = listeners;
+		enableDeviceListener();
+	}
+
+	/**
+	 * Remove a specific primitive event listener
+	 *
+	 * @param listener Callback instance to remove
+	 */
+	public synchronized void removeEventListener(DigitalInputEventListener listener) {
+		DigitalInputEventListener[] listeners = eventListeners;
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] == listener) {
+				DigitalInputEventListener[] updated = new DigitalInputEventListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, updated, 0, i);
+				System.arraycopy(listeners, i + 1, updated, i, updated.length - i);
+				eventListeners = updated;
+				break;
+			}
+		}
+		if (eventListeners.length == 0) {
+			disableDeviceListener();
+		}
+	}
+
+	@Override
+	public void removeAllListeners() {
+		eventListeners = NO_EVENT_LISTENERS;
+		super.removeAllListeners();
 	}
 
 	/**
@@ -31,11 +31,14 @@ package com.diozero.api;
  * #L%
  */
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.tinylog.Logger;
 
+import com.diozero.api.function.AnalogSampleBlockConsumer;
 import com.diozero.api.function.DeviceEventConsumer;
 import com.diozero.internal.spi.AnalogInputDeviceFactoryInterface;
 import com.diozero.internal.spi.AnalogInputDeviceInterface;
@@ -125,6 +128,8 @@ public class AnalogInputDevice extends GpioInputDevice<AnalogInputEvent> impleme
 	private float percentChange;
 	private AtomicBoolean stopScheduler;
 	private float range;
+	private List<AnalogSampleBlockConsumer> blockListeners = new CopyOnWriteArrayList<>();
+	private boolean capturing;
 
 	/**
 	 * @param adcNumber GPIO to which the device is connected.
@@ -161,6 +166,7 @@ public class AnalogInputDevice extends GpioInputDevice<AnalogInputEvent> impleme
 	public void close() throws RuntimeIOException {
 		Logger.trace("close()");
 		stopScheduler.set(true);
+		stopCapture();
 		device.close();
 	}
 
@@ -281,4 +287,73 @@ public class AnalogInputDevice extends GpioInputDevice<AnalogInputEvent> impleme
 		this.pollInterval = pollInterval;
 		addListener(listener);
 	}
+
+	/**
+	 * Whether the underlying device supports continuous hardware-paced capture,
+	 * see {@link #startCapture(float, int)}
+	 *
+	 * @return true if continuous capture is supported
+	 */
+	public boolean isCaptureSupported() {
+		return device.isCaptureSupported();
+	}
+
+	/**
+	 * Register a listener for blocks of samples from a continuous capture
+	 *
+	 * @see #startCapture(float, int)
+	 * @param listener the block listener
+	 */
+	public void addBlockListener(AnalogSampleBlockConsumer listener) {
+		blockListeners.add(listener);
+	}
+
+	public void removeBlockListener(AnalogSampleBlockConsumer listener) {
+		blockListeners.remove(listener);
+	}
+
+	/**
+	 * Start continuously capturing samples at the specified frequency. Blocks of
+	 * unscaled samples are delivered to all registered
+	 * {@link #addBlockListener(AnalogSampleBlockConsumer) block listeners} from a
+	 * background thread; the sample array is reused for each block.
+	 *
+	 * @param sampleFrequency the requested sample frequency (Hz)
+	 * @param blockSize       number of samples per block
+	 * @throws RuntimeIOException            if an I/O error occurs
+	 * @throws UnsupportedOperationException if the device doesn't support
+	 *                                       continuous capture
+	 */
+	public synchronized void startCapture(float sampleFrequency, int blockSize) throws RuntimeIOException {
+		if (capturing) {
+			throw new IllegalStateException("Capture already in progress for device " + device.getKey());
+		}
+		if (blockSize < 1) {
+			throw new IllegalArgumentException("Invalid block size " + blockSize);
+		}
+		device.startCapture(sampleFrequency, blockSize, this::acceptBlock);
+		capturing = true;
+	}
+
+	/**
+	 * Stop a continuous capture, does nothing if a capture isn't in progress
+	 *
+	 * @throws RuntimeIOException if an I/O error occurs
+	 */
+	public synchronized void stopCapture() throws RuntimeIOException {
+		if (capturing) {
+			capturing = false;
+			device.stopCapture();
+		}
+	}
+
+	public synchronized boolean isCapturing() {
+		return capturing;
+	}
+
+	private void acceptBlock(long epochTime, long nanoTime, float[] samples, int count) {
+		for (AnalogSampleBlockConsumer listener : blockListeners) {
+			listener.accept(epochTime, nanoTime, samples, count);
+		}
+	}
 }
@@ -0,0 +1,455 @@
+package com.diozero.api;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     AnalogSampleStream.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.tinylog.Logger;
+
+import com.diozero.api.function.Action;
+import com.diozero.api.function.AnalogSampleBlockConsumer;
+import com.diozero.util.DiozeroScheduler;
+import com.diozero.util.SleepUtil;
+
+/**
+ * <p>
+ * Continuous, hardware-paced stream of samples from an analog-to-digital
+ * converter. Samples are either read when the ADC signals that a conversion is
+ * ready (a data ready / ALERT GPIO) or from a tight timed loop for ADCs that
+ * don't have a data ready output.
+ * </p>
+ *
+ * <p>
+ * Samples are written to a preallocated ring buffer of primitive values so
+ * that the producer doesn't allocate. Consumers either pull blocks of samples
+ * using {@link #read(float[], long[], int, int, long)} or
+ * {@link #subscribe(int, AnalogSampleBlockConsumer) subscribe} to have blocks
+ * delivered from a separate thread; only one of these can be used for a
+ * stream. The producer is paced by the ADC and cannot be slowed down, if the
+ * consumer falls behind and the ring buffer fills then new samples are dropped
+ * and counted as {@link #getOverrunCount() overruns}.
+ * </p>
+ *
+ * <p>
+ * If reading from the ADC or the subscriber fails then the stream stops
+ * running; the failure is available via {@link #getError()} and is thrown by
+ * {@link #read(float[], long[], int, int, long) read} once all samples that
+ * were read before the failure have been consumed.
+ * </p>
+ *
+ * <p>
+ * Sample values are unscaled, i.e. 0..1 or -1..1 (if signed).
+ * </p>
+ *
+ * <pre>
+ * try (McpAdc adc = new McpAdc(McpAdc.Type.MCP3208, 0, 3.3f);
+ * 		AnalogSampleStream stream = adc.createSampleStream(0, 50_000, 8192)) {
+ * 	stream.subscribe(1024, (epochTime, nanoTime, samples, count) -&gt; process(samples, count));
+ * 	stream.start();
+ * 	...
+ * }
+ * </pre>
+ */
+public class AnalogSampleStream implements AutoCloseable {
+	/**
+	 * Reads a single unscaled sample from the ADC
+	 */
+	@FunctionalInterface
+	public interface SampleReader {
+		float read() throws RuntimeIOException;
+	}
+
+	private static final long WAIT_INTERVAL_NS = TimeUnit.MICROSECONDS.toNanos(100);
+
+	private final String name;
+	private final SampleReader reader;
+	private final DigitalInputDevice dataReadyPin;
+	private final float sampleFrequency;
+	private final Action stopAction;
+
+	private final int mask;
+	private final float[] samples;
+	private final long[] nanoTimes;
+	// Index of the next sample to be read, only written by the consumer
+	private final AtomicLong head;
+	// Index of the next sample to be written, only written by the producer
+	private final AtomicLong tail;
+	private volatile Thread waitingConsumer;
+	private final AtomicLong overrunCount;
+
+	private volatile boolean running;
+	private volatile RuntimeException error;
+	// Whether the stream has been started and not yet stopped, guarded by this
+	private boolean started;
+	private long startNanoTime;
+	private Future<?> producerFuture;
+	private Future<?> subscriberFuture;
+	private AnalogSampleBlockConsumer subscriber;
+	private int subscriberBlockSize;
+
+	/**
+	 * Create a stream that reads a sample each time the data ready pin is
+	 * activated
+	 *
+	 * @param name         name for this stream, used in log messages
+	 * @param dataReadyPin the ADC data ready pin
+	 * @param capacity     the ring buffer capacity (rounded up to a power of 2)
+	 * @param reader       reads a sample from the ADC
+	 * @param stopAction   action to run when the stream is stopped, e.g. to
+	 *                     return the ADC to single-shot mode; can be null
+	 * @return the new stream, must be {@link #start() started}
+	 */
+	public static AnalogSampleStream triggered(String name, DigitalInputDevice dataReadyPin, int capacity,
+			SampleReader reader, Action stopAction) {
+		return new AnalogSampleStream(name, reader, dataReadyPin, 0, capacity, stopAction);
+	}
+
+	/**
+	 * Create a stream that reads samples from a timed loop on a dedicated thread
+	 *
+	 * @param name            name for this stream, used in log messages
+	 * @param sampleFrequency sample frequency (Hz), or 0 to read samples as fast
+	 *                        as possible
+	 * @param capacity        the ring buffer capacity (rounded up to a power of 2)
+	 * @param reader          reads a sample from the ADC
+	 * @param stopAction      action to run when the stream is stopped; can be null
+	 * @return the new stream, must be {@link #start() started}
+	 */
+	public static AnalogSampleStream polled(String name, float sampleFrequency, int capacity, SampleReader reader,
+			Action stopAction) {
+		if (sampleFrequency < 0) {
+			throw new IllegalArgumentException("Invalid sample frequency " + sampleFrequency);
+		}
+		return new AnalogSampleStream(name, reader, null, sampleFrequency, capacity, stopAction);
+	}
+
+	private AnalogSampleStream(String name, SampleReader reader, DigitalInputDevice dataReadyPin,
+			float sampleFrequency, int capacity, Action stopAction) {
+		if (capacity < 2) {
+			throw new IllegalArgumentException("Capacity must be at least 2, was " + capacity);
+		}
+
+		this.name = name;
+		this.reader = reader;
+		this.dataReadyPin = dataReadyPin;
+		this.sampleFrequency = sampleFrequency;
+		this.stopAction = stopAction;
+
+		int size = Integer.highestOneBit(capacity - 1) << 1;
+		mask = size - 1;
+		samples = new float[size];
+		nanoTimes = new long[size];
+		head = new AtomicLong();
+		tail = new AtomicLong();
+		overrunCount = new AtomicLong();
+	}
+
+	/**
+	 * Start streaming samples into the ring buffer
+	 */
+	public synchronized void start() {
+		if (started) {
+			return;
+		}
+
+		Logger.debug("Starting sample stream {}", name);
+		started = true;
+		error = null;
+		running = true;
+		startNanoTime = System.nanoTime();
+		if (subscriber != null) {
+			AnalogSampleBlockConsumer consumer = subscriber;
+			int block_size = subscriberBlockSize;
+			subscriberFuture = DiozeroScheduler.getDaemonInstance().submit(() -> deliverBlocks(block_size, consumer));
+		}
+		if (dataReadyPin != null) {
+			dataReadyPin.whenActivated(nanoTime -> {
+				if (running) {
+					try {
+						offer(reader.read(), nanoTime);
+					} catch (RuntimeException e) {
+						failed(e);
+					}
+				}
+			});
+		} else {
+			producerFuture = DiozeroScheduler.getHighPriorityInstance().submit(this::pollLoop);
+		}
+	}
+
+	/**
+	 * Stop streaming, samples already in the ring buffer can still be read
+	 */
+	public synchronized void stop() {
+		if (!started) {
+			return;
+		}
+
+		Logger.debug("Stopping sample stream {}", name);
+		started = false;
+		running = false;
+		if (dataReadyPin != null) {
+			dataReadyPin.whenActivated(null);
+		}
+		await(producerFuture);
+		producerFuture = null;
+		// The subscriber flushes any remaining samples before exiting
+		await(subscriberFuture);
+		subscriberFuture = null;
+		if (stopAction != null) {
+			stopAction.action();
+		}
+	}
+
+	private static void await(Future<?> future) {
+		if (future != null) {
+			try {
+				future.get(1, TimeUnit.SECONDS);
+			} catch (Exception e) {
+				Logger.debug(e, "Error waiting for sample stream thread: {}", e);
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		stop();
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * @return the error that stopped this stream, null if the stream hasn't failed
+	 */
+	public RuntimeException getError() {
+		return error;
+	}
+
+	private void failed(RuntimeException e) {
+		Logger.error(e, "Error in sample stream {}: {}", name, e);
+		if (error == null) {
+			error = e;
+		}
+		running = false;
+		Thread waiter = waitingConsumer;
+		if (waiter != null) {
+			LockSupport.unpark(waiter);
+		}
+	}
+
+	/**
+	 * Deliver blocks of samples to the consumer on a separate thread. Must be
+	 * called before the stream is started; replaces any existing subscriber.
+	 *
+	 * @param blockSize number of samples per block, must not exceed the capacity
+	 * @param consumer  the block consumer, the sample array is reused for each
+	 *                  block
+	 */
+	public synchronized void subscribe(int blockSize, AnalogSampleBlockConsumer consumer) {
+		if (running) {
+			throw new IllegalStateException("Stream " + name + " is already running");
+		}
+		if (blockSize < 1 || blockSize > capacity()) {
+			throw new IllegalArgumentException("Invalid block size " + blockSize + ", capacity " + capacity());
+		}
+		subscriber = consumer;
+		subscriberBlockSize = blockSize;
+	}
+
+	private void pollLoop() {
+		long period_ns = sampleFrequency == 0 ? 0 : Math.round(1_000_000_000d / sampleFrequency);
+		long next = System.nanoTime();
+		try {
+			while (running) {
+				long now = System.nanoTime();
+				offer(reader.read(), now);
+
+				if (period_ns > 0) {
+					next += period_ns;
+					long delay = next - System.nanoTime();
+					if (delay > 0) {
+						SleepUtil.busySleep(delay);
+					} else if (delay < -period_ns) {
+						// Fallen more than a sample behind, don't try to catch up
+						next = System.nanoTime();
+					}
+				}
+			}
+		} catch (RuntimeException e) {
+			failed(e);
+		}
+	}
+
+	private void offer(float sample, long nanoTime) {
+		long t = tail.get();
+		if (t - head.get() > mask) {
+			overrunCount.incrementAndGet();
+			return;
+		}
+
+		int slot = (int) t & mask;
+		samples[slot] = sample;
+		nanoTimes[slot] = nanoTime;
+		tail.set(t + 1);
+
+		Thread waiter = waitingConsumer;
+		if (waiter != null) {
+			LockSupport.unpark(waiter);
+		}
+	}
+
+	/**
+	 * Read available samples, waiting up to the specified timeout for at least
+	 * one sample to become available
+	 *
+	 * @param dest          destination for the sample values
+	 * @param destNanoTimes destination for the {@link System#nanoTime()} that each
+	 *                      sample was read, can be null
+	 * @param offset        offset in the destination arrays
+	 * @param length        maximum number of samples to read
+	 * @param timeoutMillis maximum time to wait, 0 to not wait
+	 * @return the number of samples read
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws RuntimeIOException   if the stream has failed and there are no
+	 *                              more samples to read
+	 */
+	public int read(float[] dest, long[] destNanoTimes, int offset, int length, long timeoutMillis)
+			throws InterruptedException, RuntimeIOException {
+		if (available() == 0 && timeoutMillis > 0) {
+			awaitSamples(1, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+		}
+
+		long h = head.get();
+		int count = (int) Math.min(tail.get() - h, length);
+		RuntimeException e = error;
+		if (count == 0 && e != null) {
+			throw new RuntimeIOException("Sample stream " + name + " failed: " + e, e);
+		}
+		for (int i = 0; i < count; i++) {
+			int slot = (int) (h + i) & mask;
+			dest[offset + i] = samples[slot];
+			if (destNanoTimes != null) {
+				destNanoTimes[offset + i] = nanoTimes[slot];
+			}
+		}
+		head.lazySet(h + count);
+
+		return count;
+	}
+
+	private boolean awaitSamples(int count, long deadline) throws InterruptedException {
+		waitingConsumer = Thread.currentThread();
+		try {
+			// Re-check after publishing the waiter to avoid a lost wake-up
+			while (available() < count) {
+				if (!running) {
+					return false;
+				}
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				LockSupport.parkNanos(this, Math.min(remaining, WAIT_INTERVAL_NS));
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+			return true;
+		} finally {
+			waitingConsumer = null;
+		}
+	}
+
+	private void deliverBlocks(int blockSize, AnalogSampleBlockConsumer consumer) {
+		float[] block = new float[blockSize];
+		long[] block_nano_times = new long[blockSize];
+		try {
+			while (running || available() > 0) {
+				if (!running && available() < blockSize) {
+					// Flush the final partial block
+					int count = read(block, block_nano_times, 0, blockSize, 0);
+					consumer.accept(System.currentTimeMillis(), block_nano_times[count - 1], block, count);
+					break;
+				}
+				if (awaitSamples(blockSize, System.nanoTime() + TimeUnit.SECONDS.toNanos(1))) {
+					read(block, block_nano_times, 0, blockSize, 0);
+					consumer.accept(System.currentTimeMillis(), block_nano_times[blockSize - 1], block, blockSize);
+				}
+			}
+		} catch (InterruptedException e) {
+			// Stopped
+		} catch (RuntimeException e) {
+			failed(e);
+		}
+	}
+
+	/**
+	 * @return the number of samples available to read
+	 */
+	public int available() {
+		return (int) (tail.get() - head.get());
+	}
+
+	public int capacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * @return the total number of samples written to the ring buffer
+	 */
+	public long getSampleCount() {
+		return tail.get();
+	}
+
+	/**
+	 * @return the number of samples dropped because the ring buffer was full
+	 */
+	public long getOverrunCount() {
+		return overrunCount.get();
+	}
+
+	/**
+	 * @return the average sample rate (Hz) since the stream was started
+	 */
+	public float getMeasuredSampleRate() {
+		long elapsed = System.nanoTime() - startNanoTime;
+		if (startNanoTime == 0 || elapsed <= 0) {
+			return 0;
+		}
+		return (float) ((getSampleCount() + overrunCount.get()) * 1_000_000_000d / elapsed);
+	}
+}
@@ -31,24 +31,26 @@ package com.diozero.api;
  * #L%
  */
 
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.tinylog.Logger;
 
 import com.diozero.internal.spi.GpioDeviceFactoryInterface;
 import com.diozero.sbc.DeviceFactoryHelper;
 import com.diozero.util.DiozeroScheduler;
-import com.diozero.util.SleepUtil;
 
 /**
  * Digital input device with debounce logic. The goal of this debounce
  * implementation is to only detect level changes that are held for the
  * specified debounce time. All other level changes that are shorter than that
  * duration will be ignored.
+ *
+ * If the provider is able to debounce events itself (e.g. kernel debounce for
+ * the built-in gpiochip provider on Linux 5.10+) then that is used. Otherwise
+ * events are debounced in software by a state machine that is driven by the
+ * event timestamps; a one-shot timer is only started when there is a pending
+ * level change that has not yet been followed by another edge.
  */
 public class DebouncedDigitalInputDevice extends DigitalInputDevice {
 	public static class Builder {
@@ -132,14 +134,24 @@ public class DebouncedDigitalInputDevice extends DigitalInputDevice {
 		}
 	}
 
-	private int debounceTimeMs;
-	private Queue<DigitalInputEvent> eventQueue;
-	private Future<?> changeDetectionFuture;
-	private AtomicBoolean running;
+	private final int debounceTimeMs;
+	private final long debounceTimeNs;
+	private final boolean hardwareDebounce;
+	private final Runnable deadlineTask;
+	// Software debounce state, guarded by this
 	private boolean lastReportedValue;
 	private boolean nextValue;
 	private long changeTimeMs;
 	private long changeTimeNs;
+	private long deadlineChangeTimeNs;
+	private ScheduledFuture<?> deadlineFuture;
+	private boolean closed;
+	// Debounced change waiting to be dispatched outside of the lock, guarded by this
+	private boolean pending;
+	private boolean pendingValue;
+	private long pendingEpochTime;
+	private long pendingNanoTime;
+	private boolean dispatching;
 
 	/**
 	 * @param gpio           GPIO
@@ -225,37 +237,61 @@ public class DebouncedDigitalInputDevice extends DigitalInputDevice {
 		}
 
 		this.debounceTimeMs = debounceTimeMs;
+		debounceTimeNs = TimeUnit.MILLISECONDS.toNanos(debounceTimeMs);
+		deadlineTask = this::deadline;
+
+		hardwareDebounce = setHardwareDebounceTimeMillis(debounceTimeMs);
+		Logger.debug("Using {} debounce for GPIO {}", hardwareDebounce ? "provider" : "software",
+				Integer.valueOf(getGpio()));
 
 		// Initialise nextValue and lastReportedValue to the current value
 		nextValue = lastReportedValue = getValue();
 		changeTimeMs = System.currentTimeMillis();
 		changeTimeNs = System.nanoTime();
+	}
 
-		eventQueue = new ConcurrentLinkedQueue<>();
-		running = new AtomicBoolean(true);
-		changeDetectionFuture = DiozeroScheduler.getNonDaemonInstance().submit(this::changeDetection);
+	public int getDebounceTimeMs() {
+		return debounceTimeMs;
+	}
+
+	/**
+	 * Check if events are debounced by the provider rather than in software.
+	 *
+	 * @return true if the provider debounces events for this device
+	 */
+	public boolean isHardwareDebounce() {
+		return hardwareDebounce;
 	}
 
 	@Override
-	public void accept(DigitalInputEvent event) {
-		eventQueue.add(event);
+	protected void processEvent(int gpio, boolean value, long epochTime, long nanoTime) {
+		if (hardwareDebounce) {
+			dispatchEvent(gpio, value, epochTime, nanoTime);
+		} else {
+			if (edge(value, epochTime, nanoTime)) {
+				dispatchPending();
+			}
+		}
 	}
 
 	@Override
 	public void close() {
 		Logger.trace("close()");
-		if (running.getAndSet(false)) {
-			changeDetectionFuture.cancel(true);
-			try {
-				changeDetectionFuture.get(1, TimeUnit.MILLISECONDS);
-			} catch (Exception e) {
-				// Ignore
+		synchronized (this) {
+			closed = true;
+			if (deadlineFuture != null) {
+				deadlineFuture.cancel(false);
+				deadlineFuture = null;
 			}
 		}
 		super.close();
 	}
 
 	/*-
+	 * Only report a change to nextValue once it has been held for debounceTimeMs,
+	 * i.e. when the next edge arrives at least debounceTimeMs after the change or
+	 * when the deadline timer fires with no further change.
+	 *
 	 *               +--------------+              +--------------+              +--------------+              +------
 	 *               |              |              |              |              |              |              |
 	 * --------------+              +--------------+              +--------------+              +--------------+
@@ -266,71 +302,116 @@ public class DebouncedDigitalInputDevice extends DigitalInputDevice {
 	 * nV=0      nV=0      nV=1      nV=1
 	 * lV=0      lV=0      lV=0      lV=0
 	 */
-	public void changeDetection() {
-		long start_ms;
-		while (running.get()) {
-			start_ms = System.currentTimeMillis();
-
-			// Process all events in eventQueue
-			// No need to synchronise as we're using a ConcurrentLinkedQueue
-
-			// Process all events on the queue
-			DigitalInputEvent event = eventQueue.poll();
-			while (event != null) {
-				// Check if the previous event was held for debounceTimeMs.
-				// This can happen if an event occurred mid-sleep hence isn't caught by the
-				// check at the end of the event processing loop.
-				if (nextValue != lastReportedValue && (event.getEpochTime() - changeTimeMs) >= debounceTimeMs) {
-					super.accept(new DigitalInputEvent(getGpio(), changeTimeMs, changeTimeNs, nextValue));
-					lastReportedValue = nextValue;
-					changeTimeMs = event.getEpochTime();
-				}
+	private synchronized boolean edge(boolean value, long epochTime, long nanoTime) {
+		// Report the pending change if it was held for debounceTimeMs before this edge
+		if (nextValue != lastReportedValue && nanoTime - changeTimeNs >= debounceTimeNs) {
+			report();
+		}
 
-				boolean value = event.getValue();
+		// Note that you sometimes get repeat events for the same value
+		if (value != nextValue) {
+			nextValue = value;
+			changeTimeMs = epochTime;
+			changeTimeNs = nanoTime;
+		}
 
-				// Record the time of change if there is a difference between event value and
-				// the next value to be reported.
-				// Note that you sometimes get repeat events for the same value.
-				if (value != nextValue) {
-					changeTimeMs = event.getEpochTime();
-					changeTimeNs = event.getNanoTime();
-					nextValue = value;
-				}
+		if (nextValue != lastReportedValue && deadlineFuture == null && !closed) {
+			deadlineChangeTimeNs = changeTimeNs;
+			deadlineFuture = DiozeroScheduler.getNonDaemonInstance().schedule(deadlineTask, debounceTimeNs,
+					TimeUnit.NANOSECONDS);
+		}
 
-				// Get the next event (if there is one)
-				event = eventQueue.poll();
-			}
+		return startDispatching();
+	}
+
+	private void deadline() {
+		boolean dispatch;
+		synchronized (this) {
+			dispatch = checkDeadline();
+		}
+		if (dispatch) {
+			dispatchPending();
+		}
+	}
+
+	private boolean checkDeadline() {
+		deadlineFuture = null;
+		if (closed || nextValue == lastReportedValue) {
+			return false;
+		}
+
+		if (changeTimeNs == deadlineChangeTimeNs) {
+			// No further change since the timer was started
+			report();
+		} else {
+			// The level changed again after the timer was started - wait until the new
+			// value has been held for debounceTimeMs. Only relative event timestamps are
+			// used so that this works regardless of the provider's timestamp clock.
+			long delay_ns = changeTimeNs - deadlineChangeTimeNs;
+			deadlineChangeTimeNs = changeTimeNs;
+			deadlineFuture = DiozeroScheduler.getNonDaemonInstance().schedule(deadlineTask, delay_ns,
+					TimeUnit.NANOSECONDS);
+		}
 
-			// Only fire an event when there has been a change to the last reported value
-			// that has been held for at least debounceTimeMs
-			if (nextValue != lastReportedValue) {
-				// Note that an event might have arrived during the sleep period
-				long diff_ms = System.currentTimeMillis() - changeTimeMs;
-				/*-
-				Logger.debug("nextValue ({}) != lastReportedValue ({}), diff_ms: {}, debounceTimeMs: {}",
-						Boolean.valueOf(nextValue), Boolean.valueOf(lastReportedValue), Long.valueOf(diff_ms),
-						Long.valueOf(debounceTimeMs));
-						*/
-				if (diff_ms >= debounceTimeMs) {
-					// FIXME This calls out to user code in the same thread hence can delay start of
-					// the next loop
-					super.accept(new DigitalInputEvent(getGpio(), changeTimeMs, changeTimeNs, nextValue));
-					lastReportedValue = nextValue;
-					// Reset the changeTimeMs value so we don't send this event again
-					changeTimeMs = System.currentTimeMillis();
-					changeTimeNs = System.nanoTime();
+		return startDispatching();
+	}
+
+	/*
+	 * Must be called while holding the lock. Listeners are never invoked while
+	 * holding the lock so that they can safely call back into this device; the
+	 * reported change is captured here and dispatched by dispatchPending.
+	 */
+	private void report() {
+		lastReportedValue = nextValue;
+		if (pending) {
+			// Reverts a change that hasn't been dispatched yet, i.e. no net change
+			pending = false;
+		} else {
+			pending = true;
+			pendingValue = nextValue;
+			pendingEpochTime = changeTimeMs;
+			pendingNanoTime = changeTimeNs;
+		}
+	}
+
+	/*
+	 * Must be called while holding the lock. Returns true if the calling thread is
+	 * to dispatch the pending change; only one thread dispatches at a time so that
+	 * changes are always delivered in the order that they were reported.
+	 */
+	private boolean startDispatching() {
+		if (dispatching || !pending) {
+			return false;
+		}
+		dispatching = true;
+		return true;
+	}
+
+	private void dispatchPending() {
+		int gpio = getGpio();
+		while (true) {
+			boolean value;
+			long epoch_time;
+			long nano_time;
+			synchronized (this) {
+				if (!pending) {
+					dispatching = false;
+					return;
 				}
+				pending = false;
+				value = pendingValue;
+				epoch_time = pendingEpochTime;
+				nano_time = pendingNanoTime;
 			}
-
-			// Sleep for debounceTimeMs - the time taken to process events
-			long sleep_ms = debounceTimeMs - (System.currentTimeMillis() - start_ms);
-			if (sleep_ms > 0) {
-				SleepUtil.sleepMillis(sleep_ms);
-			} else if (Logger.isDebugEnabled()) {
-				Logger.debug("Not sleeping - sleep_ms: {}", Long.valueOf(sleep_ms));
+			try {
+				dispatchEvent(gpio, value, epoch_time, nano_time);
+			} catch (RuntimeException e) {
+				// Let the next reporting thread carry on dispatching
+				synchronized (this) {
+					dispatching = false;
+				}
+				throw e;
 			}
 		}
-
-		Logger.debug("Exiting run loop");
 	}
 }
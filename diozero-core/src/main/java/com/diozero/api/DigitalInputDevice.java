@@ -33,6 +33,8 @@ package com.diozero.api;
 
 import org.tinylog.Logger;
 
+import com.diozero.internal.spi.DeviceOperation;
+import com.diozero.internal.spi.DeviceRecorder;
 import com.diozero.internal.spi.GpioDeviceFactoryInterface;
 import com.diozero.internal.spi.GpioDigitalInputDeviceInterface;
 import com.diozero.sbc.DeviceFactoryHelper;
@@ -136,6 +138,7 @@ public class DigitalInputDevice extends AbstractDigitalInputDevice {
 	}
 
 	private final GpioDigitalInputDeviceInterface delegate;
+	private final DeviceRecorder recorder;
 	private final GpioPullUpDown pud;
 	private final GpioEventTrigger trigger;
 
@@ -204,6 +207,7 @@ public class DigitalInputDevice extends AbstractDigitalInputDevice {
 		super(pinInfo, activeHigh);
 
 		this.delegate = deviceFactory.provisionDigitalInputDevice(pinInfo, pud, trigger);
+		recorder = DeviceRecorder.of(delegate);
 		this.pud = pud;
 		this.trigger = trigger;
 	}
@@ -248,7 +252,15 @@ public class DigitalInputDevice extends AbstractDigitalInputDevice {
 	 */
 	@Override
 	public boolean getValue() throws RuntimeIOException {
-		return delegate.getValue();
+		long start = recorder.start();
+		try {
+			boolean result = delegate.getValue();
+			recorder.end(DeviceOperation.READ, start, 0);
+			return result;
+		} catch (RuntimeException e) {
+			recorder.error(DeviceOperation.READ);
+			throw e;
+		}
 	}
 
 	/**
@@ -260,7 +272,25 @@ public class DigitalInputDevice extends AbstractDigitalInputDevice {
 	 * @throws RuntimeIOException If an I/O error occurred.
 	 */
 	public boolean isActive() throws RuntimeIOException {
-		return delegate.getValue() == activeHigh;
+		long start = recorder.start();
+		try {
+			boolean result = delegate.getValue() == activeHigh;
+			recorder.end(DeviceOperation.READ, start, 0);
+			return result;
+		} catch (RuntimeException e) {
+			recorder.error(DeviceOperation.READ);
+			throw e;
+		}
+	}
+
+	/**
+	 * Ask the provider to debounce events for this device.
+	 *
+	 * @param debounceTimeMs debounce time in milliseconds
+	 * @return true if the provider now debounces events for this device
+	 */
+	boolean setHardwareDebounceTimeMillis(int debounceTimeMs) {
+		return delegate.setHardwareDebounceTimeMillis(debounceTimeMs);
 	}
 
 	@Override
@@ -33,6 +33,8 @@ package com.diozero.api;
 
 import org.tinylog.Logger;
 
+import com.diozero.internal.spi.DeviceOperation;
+import com.diozero.internal.spi.DeviceRecorder;
 import com.diozero.internal.spi.GpioDeviceFactoryInterface;
 import com.diozero.internal.spi.GpioDigitalInputOutputDeviceInterface;
 import com.diozero.sbc.DeviceFactoryHelper;
@@ -44,6 +46,7 @@ import com.diozero.sbc.DeviceFactoryHelper;
  */
 public class DigitalInputOutputDevice extends AbstractDigitalInputDevice {
 	private GpioDigitalInputOutputDeviceInterface delegate;
+	private DeviceRecorder recorder;
 	private DeviceMode mode;
 
 	/**
@@ -80,6 +83,7 @@ public class DigitalInputOutputDevice extends AbstractDigitalInputDevice {
 		super(pinInfo, false);
 
 		this.delegate = deviceFactory.provisionDigitalInputOutputDevice(pinInfo, mode);
+		recorder = DeviceRecorder.of(delegate);
 		this.mode = mode;
 	}
 
@@ -128,7 +132,15 @@ public class DigitalInputOutputDevice extends AbstractDigitalInputDevice {
 	 */
 	@Override
 	public boolean getValue() throws RuntimeIOException {
-		return delegate.getValue();
+		long start = recorder.start();
+		try {
+			boolean result = delegate.getValue();
+			recorder.end(DeviceOperation.READ, start, 0);
+			return result;
+		} catch (RuntimeException e) {
+			recorder.error(DeviceOperation.READ);
+			throw e;
+		}
 	}
 
 	/**
@@ -141,7 +153,14 @@ public class DigitalInputOutputDevice extends AbstractDigitalInputDevice {
 		if (mode != DeviceMode.DIGITAL_OUTPUT) {
 			throw new IllegalStateException("Can only set output value for digital output pins");
 		}
-		delegate.setValue(value);
+		long start = recorder.start();
+		try {
+			delegate.setValue(value);
+			recorder.end(DeviceOperation.WRITE, start, 0);
+		} catch (RuntimeException e) {
+			recorder.error(DeviceOperation.WRITE);
+			throw e;
+		}
 	}
 
 	@Override
@@ -31,17 +31,14 @@
 
 package com.diozero.api;
 
-import java.util.concurrent.Future;
-import java.util.concurrent.atomic.AtomicBoolean;
-
 import org.tinylog.Logger;
 
 import com.diozero.api.function.Action;
+import com.diozero.internal.spi.DeviceOperation;
+import com.diozero.internal.spi.DeviceRecorder;
 import com.diozero.internal.spi.GpioDeviceFactoryInterface;
 import com.diozero.internal.spi.GpioDigitalOutputDeviceInterface;
 import com.diozero.sbc.DeviceFactoryHelper;
-import com.diozero.util.DiozeroScheduler;
-import com.diozero.util.SleepUtil;
 
 /**
  * Provides generic digital (on/off) output control with support for active high
@@ -103,9 +100,9 @@ public class DigitalOutputDevice extends GpioDevice {
 	public static final int INFINITE_ITERATIONS = -1;
 
 	private boolean activeHigh;
-	private AtomicBoolean running;
-	private Future<?> future;
+	private OnOffLoop onOffLoop;
 	private GpioDigitalOutputDeviceInterface delegate;
+	private DeviceRecorder recorder;
 	private int cycleCount;
 
 	/**
@@ -156,8 +153,12 @@ public class DigitalOutputDevice extends GpioDevice {
 		super(pinInfo);
 
 		this.delegate = deviceFactory.provisionDigitalOutputDevice(pinInfo, activeHigh == initialValue);
+		recorder = DeviceRecorder.of(delegate);
 		this.activeHigh = activeHigh;
-		running = new AtomicBoolean();
+		onOffLoop = new OnOffLoop(() -> setValue(activeHigh), () -> {
+			setValue(!activeHigh);
+			cycleCount++;
+		});
 	}
 
 	@Override
@@ -170,57 +171,8 @@ public class DigitalOutputDevice extends GpioDevice {
 		}
 	}
 
-	private void onOffLoop(int onTimeMs, int offTimeMs, int n, Action stopAction) throws RuntimeIOException {
-		running.set(true);
-		cycleCount = 0;
-		if (n > 0) {
-			for (int i = 0; i < n && running.get(); i++) {
-				onOff(onTimeMs, offTimeMs);
-			}
-			running.set(false);
-		} else if (n == INFINITE_ITERATIONS) {
-			while (running.get()) {
-				onOff(onTimeMs, offTimeMs);
-			}
-		}
-		if (stopAction != null) {
-			stopAction.action();
-		}
-	}
-
-	private void onOff(int onTimeMs, int offTimeMs) throws RuntimeIOException {
-		setValue(activeHigh);
-		try {
-			Thread.sleep(onTimeMs);
-		} catch (InterruptedException e) {
-			running.set(false);
-		}
-
-		setValue(!activeHigh);
-		cycleCount++;
-
-		if (!running.get()) {
-			return;
-		}
-
-		try {
-			Thread.sleep(offTimeMs);
-		} catch (InterruptedException e) {
-			running.set(false);
-		}
-	}
-
 	public void stopOnOffLoop() {
-		running.set(false);
-		if (future != null) {
-			future.cancel(true);
-			try {
-				future.get();
-			} catch (Exception e) {
-				// Ignore
-			}
-			future = null;
-		}
+		onOffLoop.stop();
 	}
 
 	// Exposed operations
@@ -261,7 +213,15 @@ public class DigitalOutputDevice extends GpioDevice {
 	 * @throws RuntimeIOException If an I/O error occurred.
 	 */
 	public boolean isOn() throws RuntimeIOException {
-		return activeHigh == delegate.getValue();
+		long start = recorder.start();
+		try {
+			boolean result = activeHigh == delegate.getValue();
+			recorder.end(DeviceOperation.READ, start, 0);
+			return result;
+		} catch (RuntimeException e) {
+			recorder.error(DeviceOperation.READ);
+			throw e;
+		}
 	}
 
 	/**
@@ -282,7 +242,14 @@ public class DigitalOutputDevice extends GpioDevice {
 	 * @throws RuntimeIOException If an I/O error occurs
 	 */
 	public void setValue(boolean value) throws RuntimeIOException {
-		delegate.setValue(value);
+		long start = recorder.start();
+		try {
+			delegate.setValue(value);
+			recorder.end(DeviceOperation.WRITE, start, 0);
+		} catch (RuntimeException e) {
+			recorder.error(DeviceOperation.WRITE);
+			throw e;
+		}
 	}
 
 	/**
@@ -300,13 +267,8 @@ public class DigitalOutputDevice extends GpioDevice {
 	public void onOffLoop(float onTime, float offTime, int n, boolean background, Action stopAction)
 			throws RuntimeIOException {
 		stopOnOffLoop();
-		int on_ms = (int) (onTime * SleepUtil.MS_IN_SEC);
-		int off_ms = (int) (offTime * SleepUtil.MS_IN_SEC);
-		if (background) {
-			future = DiozeroScheduler.getNonDaemonInstance().submit(() -> onOffLoop(on_ms, off_ms, n, stopAction));
-		} else {
-			onOffLoop(on_ms, off_ms, n, stopAction);
-		}
+		cycleCount = 0;
+		onOffLoop.start(onTime, offTime, n, background, stopAction);
 	}
 
 	public boolean isActiveHigh() {
@@ -0,0 +1,301 @@
+package com.diozero.api;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     GpioLineGroup.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.tinylog.Logger;
+
+import com.diozero.api.function.Action;
+import com.diozero.internal.spi.GpioDeviceFactoryInterface;
+import com.diozero.internal.spi.GpioDigitalOutputGroupInterface;
+import com.diozero.sbc.DeviceFactoryHelper;
+import com.diozero.util.SleepUtil;
+
+/**
+ * A group of up to 64 digital outputs that are updated together. When supported
+ * by the provider (e.g. the built-in provider on Linux 5.10+) all lines on the
+ * same GPIO chip are written with a single system call, otherwise each line is
+ * written individually. Bit n of all values and masks corresponds to the n'th
+ * GPIO in the group; values are compensated for active low / high logic, i.e.
+ * a set bit means "on".
+ */
+public class GpioLineGroup implements DeviceInterface {
+	public static final int MAX_LINES = GpioDigitalOutputGroupInterface.MAX_LINES;
+
+	public static class Builder {
+		public static Builder builder(int... gpios) {
+			return new Builder(gpios);
+		}
+
+		private int[] gpios;
+		private boolean activeHigh = true;
+		private long initialValues;
+		private GpioDeviceFactoryInterface deviceFactory;
+
+		public Builder(int... gpios) {
+			this.gpios = gpios;
+		}
+
+		public Builder setActiveHigh(boolean activeHigh) {
+			this.activeHigh = activeHigh;
+			return this;
+		}
+
+		/**
+		 * Set the initial on / off state of the lines.
+		 *
+		 * @param initialValues initial values, bit n corresponds to the n'th GPIO
+		 * @return this builder
+		 */
+		public Builder setInitialValues(long initialValues) {
+			this.initialValues = initialValues;
+			return this;
+		}
+
+		public Builder setDeviceFactory(GpioDeviceFactoryInterface deviceFactory) {
+			this.deviceFactory = deviceFactory;
+			return this;
+		}
+
+		public GpioLineGroup build() {
+			// Default to the native device factory if not set
+			if (deviceFactory == null) {
+				deviceFactory = DeviceFactoryHelper.getNativeDeviceFactory();
+			}
+
+			return new GpioLineGroup(deviceFactory, activeHigh, initialValues, gpios);
+		}
+	}
+
+	private final GpioDigitalOutputGroupInterface delegate;
+	private final boolean activeHigh;
+	private final long allLines;
+	private final OnOffLoop onOffLoop;
+
+	/**
+	 * @param gpios The GPIOs in the group, maximum 64.
+	 * @throws RuntimeIOException If an I/O error occurred.
+	 */
+	public GpioLineGroup(int... gpios) throws RuntimeIOException {
+		this(DeviceFactoryHelper.getNativeDeviceFactory(), gpios);
+	}
+
+	/**
+	 * @param deviceFactory Device factory to use to provision the GPIOs.
+	 * @param gpios         The GPIOs in the group, maximum 64.
+	 * @throws RuntimeIOException If an I/O error occurred.
+	 */
+	public GpioLineGroup(GpioDeviceFactoryInterface deviceFactory, int... gpios) throws RuntimeIOException {
+		this(deviceFactory, true, 0, gpios);
+	}
+
+	/**
+	 * @param deviceFactory Device factory to use to provision the GPIOs.
+	 * @param activeHigh    If true then setting a bit will set the line high.
+	 * @param initialValues Initial on / off values.
+	 * @param gpios         The GPIOs in the group, maximum 64.
+	 * @throws RuntimeIOException If an I/O error occurred.
+	 */
+	public GpioLineGroup(GpioDeviceFactoryInterface deviceFactory, boolean activeHigh, long initialValues,
+			int... gpios) throws RuntimeIOException {
+		if (gpios.length < 1 || gpios.length > MAX_LINES) {
+			throw new IllegalArgumentException("Invalid number of GPIOs " + gpios.length + ", must be 1.." + MAX_LINES);
+		}
+		PinInfo[] pin_infos = new PinInfo[gpios.length];
+		for (int i = 0; i < gpios.length; i++) {
+			pin_infos[i] = deviceFactory.getBoardPinInfo().getByGpioNumberOrThrow(gpios[i]);
+		}
+
+		this.activeHigh = activeHigh;
+		allLines = gpios.length == MAX_LINES ? -1L : (1L << gpios.length) - 1;
+		delegate = deviceFactory.provisionDigitalOutputGroup(pin_infos, toRaw(initialValues) & allLines);
+		onOffLoop = new OnOffLoop(this::on, this::off);
+	}
+
+	private long toRaw(long values) {
+		return activeHigh ? values : ~values;
+	}
+
+	@Override
+	public void close() {
+		Logger.trace("close()");
+		stopOnOffLoop();
+		if (delegate.isOpen()) {
+			off();
+			delegate.close();
+		}
+	}
+
+	/**
+	 * Get the number of GPIOs in this group.
+	 *
+	 * @return the number of GPIOs
+	 */
+	public int size() {
+		return delegate.getLineCount();
+	}
+
+	/**
+	 * Get the GPIO for the line at the specified index.
+	 *
+	 * @param index index within this group
+	 * @return GPIO number
+	 */
+	public int getGpio(int index) {
+		return delegate.getGpio(index);
+	}
+
+	public boolean isActiveHigh() {
+		return activeHigh;
+	}
+
+	/**
+	 * Get the on / off state of all lines.
+	 *
+	 * @return bit n is set if the n'th line is on
+	 * @throws RuntimeIOException If an I/O error occurred.
+	 */
+	public long getValues() throws RuntimeIOException {
+		return toRaw(delegate.getValues()) & allLines;
+	}
+
+	/**
+	 * Turn all lines on or off in one operation.
+	 *
+	 * @param values bit n turns the n'th line on
+	 * @throws RuntimeIOException If an I/O error occurred.
+	 */
+	public void setValues(long values) throws RuntimeIOException {
+		delegate.setValues(allLines, toRaw(values));
+	}
+
+	/**
+	 * Turn the lines selected by the mask on or off in one operation, all other
+	 * lines are unchanged.
+	 *
+	 * @param mask   the lines to update
+	 * @param values bit n turns the n'th line on
+	 * @throws RuntimeIOException If an I/O error occurred.
+	 */
+	public void setValues(long mask, long values) throws RuntimeIOException {
+		delegate.setValues(mask & allLines, toRaw(values));
+	}
+
+	/**
+	 * Play a compiled waveform on this group. All steps are executed in a single
+	 * loop on the calling thread, step delays use
+	 * {@link SleepUtil#busySleep(long) busy sleep} for nanosecond resolution.
+	 * Steps are only as fast as the provider can update the lines - fastest with
+	 * the built-in provider and fast GPIO enabled.
+	 *
+	 * @param waveform the waveform to play
+	 * @throws RuntimeIOException If an I/O error occurred.
+	 */
+	public void play(GpioWaveform waveform) throws RuntimeIOException {
+		final long[] masks = waveform.masks;
+		final long[] values = waveform.values;
+		final long[] delays_ns = waveform.delaysNs;
+		for (int i = 0; i < waveform.stepCount; i++) {
+			long mask = masks[i] & allLines;
+			if (mask != 0) {
+				delegate.setValues(mask, toRaw(values[i]));
+			}
+			if (delays_ns[i] > 0) {
+				SleepUtil.busySleep(delays_ns[i]);
+			}
+		}
+	}
+
+	/**
+	 * Turn an individual line on or off.
+	 *
+	 * @param index index within this group
+	 * @param on    new on / off value
+	 * @throws RuntimeIOException If an I/O error occurred.
+	 */
+	public void setOn(int index, boolean on) throws RuntimeIOException {
+		setValues(1L << index, on ? -1L : 0);
+	}
+
+	public boolean isOn(int index) throws RuntimeIOException {
+		return (getValues() & (1L << index)) != 0;
+	}
+
+	/**
+	 * Turn all lines on. Note that this method does not check if the on-off loop
+	 * is running.
+	 *
+	 * @throws RuntimeIOException If an I/O error occurred.
+	 */
+	public void on() throws RuntimeIOException {
+		setValues(allLines);
+	}
+
+	/**
+	 * Turn all lines off. Note that this method does not check if the on-off loop
+	 * is running.
+	 *
+	 * @throws RuntimeIOException If an I/O error occurred.
+	 */
+	public void off() throws RuntimeIOException {
+		setValues(0);
+	}
+
+	/**
+	 * Toggle the state of all lines.
+	 *
+	 * @throws RuntimeIOException If an I/O error occurred.
+	 */
+	public void toggle() throws RuntimeIOException {
+		setValues(~getValues());
+	}
+
+	/**
+	 * Toggle all lines on-off.
+	 *
+	 * @param onTime     On time in seconds.
+	 * @param offTime    Off time in seconds.
+	 * @param n          Number of iterations. Set to &lt;0 to blink indefinitely.
+	 * @param background If true start a background thread to control the blink and
+	 *                   return immediately. If false, only return once the blink
+	 *                   iterations have finished.
+	 * @param stopAction Action to perform when the loop finishes
+	 * @throws RuntimeIOException If an I/O error occurs
+	 */
+	public void onOffLoop(float onTime, float offTime, int n, boolean background, Action stopAction)
+			throws RuntimeIOException {
+		onOffLoop.start(onTime, offTime, n, background, stopAction);
+	}
+
+	public void stopOnOffLoop() {
+		onOffLoop.stop();
+	}
+}
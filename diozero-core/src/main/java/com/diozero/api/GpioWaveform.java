@@ -0,0 +1,207 @@
+package com.diozero.api;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     GpioWaveform.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+/**
+ * A compiled sequence of steps for bit-banging a protocol on a
+ * {@link GpioLineGroup}. Each step sets the lines selected by a mask and then
+ * busy waits for the step's delay. Bit n of all masks and values corresponds to
+ * the n'th GPIO in the group; values are on / off states, i.e. compensated for
+ * active low / high logic when played.
+ * <p>
+ * Waveforms are immutable and can be played any number of times via
+ * {@link GpioLineGroup#play(GpioWaveform)}, which executes all steps in a single
+ * loop against the group's underlying provider implementation (the GPIO v2
+ * multi-line ioctl or memory mapped GPIO registers for the built-in provider).
+ * </p>
+ *
+ * <pre>
+ * // Clock out 0b10 on line 0 using line 1 as the clock, 200ns per phase
+ * GpioWaveform waveform = GpioWaveform.Builder.builder() //
+ * 		.set(0b11, 0b00, 200).set(0b10, 0b10, 200) //
+ * 		.set(0b11, 0b01, 200).set(0b10, 0b10, 200) //
+ * 		.build();
+ * group.play(waveform);
+ * </pre>
+ */
+public final class GpioWaveform {
+	public static class Builder {
+		private static final int INITIAL_CAPACITY = 16;
+
+		public static Builder builder() {
+			return new Builder();
+		}
+
+		private long[] masks;
+		private long[] values;
+		private long[] delaysNs;
+		private int stepCount;
+
+		public Builder() {
+			masks = new long[INITIAL_CAPACITY];
+			values = new long[INITIAL_CAPACITY];
+			delaysNs = new long[INITIAL_CAPACITY];
+		}
+
+		/**
+		 * Add a step that updates the lines selected by the mask with no delay.
+		 *
+		 * @param mask   the lines to update
+		 * @param values bit n turns the n'th line on
+		 * @return this builder
+		 */
+		public Builder set(long mask, long values) {
+			return set(mask, values, 0);
+		}
+
+		/**
+		 * Add a step that updates the lines selected by the mask and then waits.
+		 *
+		 * @param mask       the lines to update
+		 * @param values     bit n turns the n'th line on
+		 * @param delayNanos time to hold the lines in this state, in nanoseconds
+		 * @return this builder
+		 */
+		public Builder set(long mask, long values, long delayNanos) {
+			if (delayNanos < 0) {
+				throw new IllegalArgumentException("Invalid delay " + delayNanos + ", must be >= 0");
+			}
+			ensureCapacity(stepCount + 1);
+			this.masks[stepCount] = mask;
+			this.values[stepCount] = values & mask;
+			this.delaysNs[stepCount] = delayNanos;
+			stepCount++;
+			return this;
+		}
+
+		/**
+		 * Extend the delay of the last step, or add a delay-only step if there are no
+		 * steps yet.
+		 *
+		 * @param delayNanos additional delay in nanoseconds
+		 * @return this builder
+		 */
+		public Builder delay(long delayNanos) {
+			if (stepCount == 0) {
+				return set(0, 0, delayNanos);
+			}
+			if (delayNanos < 0) {
+				throw new IllegalArgumentException("Invalid delay " + delayNanos + ", must be >= 0");
+			}
+			delaysNs[stepCount - 1] += delayNanos;
+			return this;
+		}
+
+		/**
+		 * Append all steps from a previously compiled waveform.
+		 *
+		 * @param waveform the waveform to append
+		 * @return this builder
+		 */
+		public Builder append(GpioWaveform waveform) {
+			ensureCapacity(stepCount + waveform.stepCount);
+			System.arraycopy(waveform.masks, 0, masks, stepCount, waveform.stepCount);
+			System.arraycopy(waveform.values, 0, values, stepCount, waveform.stepCount);
+			System.arraycopy(waveform.delaysNs, 0, delaysNs, stepCount, waveform.stepCount);
+			stepCount += waveform.stepCount;
+			return this;
+		}
+
+		/**
+		 * Remove all steps so that this builder can be reused.
+		 *
+		 * @return this builder
+		 */
+		public Builder clear() {
+			stepCount = 0;
+			return this;
+		}
+
+		private void ensureCapacity(int capacity) {
+			if (capacity > masks.length) {
+				int new_capacity = Math.max(capacity, masks.length * 2);
+				masks = Arrays.copyOf(masks, new_capacity);
+				values = Arrays.copyOf(values, new_capacity);
+				delaysNs = Arrays.copyOf(delaysNs, new_capacity);
+			}
+		}
+
+		public GpioWaveform build() {
+			return new GpioWaveform(Arrays.copyOf(masks, stepCount), Arrays.copyOf(values, stepCount),
+					Arrays.copyOf(delaysNs, stepCount));
+		}
+	}
+
+	final long[] masks;
+	final long[] values;
+	final long[] delaysNs;
+	final int stepCount;
+
+	private GpioWaveform(long[] masks, long[] values, long[] delaysNs) {
+		this.masks = masks;
+		this.values = values;
+		this.delaysNs = delaysNs;
+		stepCount = masks.length;
+	}
+
+	public int getStepCount() {
+		return stepCount;
+	}
+
+	public long getMask(int step) {
+		return masks[step];
+	}
+
+	public long getValues(int step) {
+		return values[step];
+	}
+
+	public long getDelayNanos(int step) {
+		return delaysNs[step];
+	}
+
+	/**
+	 * Get the minimum time taken to play this waveform, i.e. the sum of all step
+	 * delays.
+	 *
+	 * @return the total delay in nanoseconds
+	 */
+	public long getDurationNanos() {
+		long total = 0;
+		for (long delay : delaysNs) {
+			total += delay;
+		}
+		return total;
+	}
+}
@@ -36,6 +36,8 @@ import java.nio.ByteOrder;
 
 import org.tinylog.Logger;
 
+import com.diozero.internal.spi.DeviceOperation;
+import com.diozero.internal.spi.DeviceRecorder;
 import com.diozero.internal.spi.I2CDeviceFactoryInterface;
 import com.diozero.internal.spi.InternalI2CDeviceInterface;
 import com.diozero.sbc.DeviceFactoryHelper;
@@ -154,7 +156,9 @@ public class I2CDevice implements I2CDeviceInterface {
 		return new Builder(address);
 	}
 
+	private I2CDeviceFactoryInterface deviceFactory;
 	private InternalI2CDeviceInterface delegate;
+	private DeviceRecorder recorder;
 	private int controller;
 	private int address;
 	private I2CConstants.AddressSize addressSize;
@@ -247,6 +251,8 @@ public class I2CDevice implements I2CDeviceInterface {
 	public I2CDevice(I2CDeviceFactoryInterface deviceFactory, int controller, int address,
 			I2CConstants.AddressSize addressSize, ByteOrder byteOrder) throws RuntimeIOException {
 		delegate = deviceFactory.provisionI2CDevice(controller, address, addressSize);
+		recorder = DeviceRecorder.of(delegate);
+		this.deviceFactory = deviceFactory;
 
 		this.controller = controller;
 		this.address = address;
@@ -297,7 +303,14 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public void writeQuick(byte bit) {
 		synchronized (delegate) {
-			delegate.writeQuick(bit);
+			long start = recorder.start();
+			try {
+				delegate.writeQuick(bit);
+				recorder.end(DeviceOperation.WRITE, start, 0);
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.WRITE);
+				throw e;
+			}
 		}
 	}
 
@@ -307,7 +320,15 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public byte readByte() throws RuntimeIOException {
 		synchronized (delegate) {
-			return delegate.readByte();
+			long start = recorder.start();
+			try {
+				byte result = delegate.readByte();
+				recorder.end(DeviceOperation.READ, start, 1);
+				return result;
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.READ);
+				throw e;
+			}
 		}
 	}
 
@@ -317,7 +338,14 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public void writeByte(byte data) throws RuntimeIOException {
 		synchronized (delegate) {
-			delegate.writeByte(data);
+			long start = recorder.start();
+			try {
+				delegate.writeByte(data);
+				recorder.end(DeviceOperation.WRITE, start, 1);
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.WRITE);
+				throw e;
+			}
 		}
 	}
 
@@ -327,7 +355,15 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public byte readByteData(int register) throws RuntimeIOException {
 		synchronized (delegate) {
-			return delegate.readByteData(register);
+			long start = recorder.start();
+			try {
+				byte result = delegate.readByteData(register);
+				recorder.end(DeviceOperation.READ, start, 1);
+				return result;
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.READ);
+				throw e;
+			}
 		}
 	}
 
@@ -337,7 +373,14 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public void writeByteData(int register, byte value) throws RuntimeIOException {
 		synchronized (delegate) {
-			delegate.writeByteData(register, value);
+			long start = recorder.start();
+			try {
+				delegate.writeByteData(register, value);
+				recorder.end(DeviceOperation.WRITE, start, 1);
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.WRITE);
+				throw e;
+			}
 		}
 	}
 
@@ -351,7 +394,15 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public short readWordData(int register) throws RuntimeIOException {
 		synchronized (delegate) {
-			return delegate.readWordData(register);
+			long start = recorder.start();
+			try {
+				short result = delegate.readWordData(register);
+				recorder.end(DeviceOperation.READ, start, 2);
+				return result;
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.READ);
+				throw e;
+			}
 		}
 	}
 
@@ -366,7 +417,14 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public void writeWordData(int register, short value) throws RuntimeIOException {
 		synchronized (delegate) {
-			delegate.writeWordData(register, value);
+			long start = recorder.start();
+			try {
+				delegate.writeWordData(register, value);
+				recorder.end(DeviceOperation.WRITE, start, 2);
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.WRITE);
+				throw e;
+			}
 		}
 	}
 
@@ -380,7 +438,15 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public short readWordSwapped(int register) throws RuntimeIOException {
 		synchronized (delegate) {
-			return delegate.readWordSwapped(register);
+			long start = recorder.start();
+			try {
+				short result = delegate.readWordSwapped(register);
+				recorder.end(DeviceOperation.READ, start, 2);
+				return result;
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.READ);
+				throw e;
+			}
 		}
 	}
 
@@ -394,7 +460,14 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public void writeWordSwapped(int register, short value) throws RuntimeIOException {
 		synchronized (delegate) {
-			delegate.writeWordSwapped(register, value);
+			long start = recorder.start();
+			try {
+				delegate.writeWordSwapped(register, value);
+				recorder.end(DeviceOperation.WRITE, start, 2);
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.WRITE);
+				throw e;
+			}
 		}
 	}
 
@@ -404,7 +477,15 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public short processCall(int register, short data) {
 		synchronized (delegate) {
-			return delegate.processCall(register, data);
+			long start = recorder.start();
+			try {
+				short result = delegate.processCall(register, data);
+				recorder.end(DeviceOperation.TRANSFER, start, 4);
+				return result;
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.TRANSFER);
+				throw e;
+			}
 		}
 	}
 
@@ -414,7 +495,15 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public byte[] readBlockData(int register) {
 		synchronized (delegate) {
-			return delegate.readBlockData(register);
+			long start = recorder.start();
+			try {
+				byte[] result = delegate.readBlockData(register);
+				recorder.end(DeviceOperation.READ, start, result.length);
+				return result;
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.READ);
+				throw e;
+			}
 		}
 	}
 
@@ -424,7 +513,14 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public void writeBlockData(int register, byte... data) {
 		synchronized (delegate) {
-			delegate.writeBlockData(register, data);
+			long start = recorder.start();
+			try {
+				delegate.writeBlockData(register, data);
+				recorder.end(DeviceOperation.WRITE, start, data.length);
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.WRITE);
+				throw e;
+			}
 		}
 	}
 
@@ -434,7 +530,15 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public byte[] blockProcessCall(int register, byte... txData) {
 		synchronized (delegate) {
-			return delegate.blockProcessCall(register, txData);
+			long start = recorder.start();
+			try {
+				byte[] result = delegate.blockProcessCall(register, txData);
+				recorder.end(DeviceOperation.TRANSFER, start, txData.length + result.length);
+				return result;
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.TRANSFER);
+				throw e;
+			}
 		}
 	}
 
@@ -444,7 +548,15 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public int readI2CBlockData(int register, byte[] buffer) {
 		synchronized (delegate) {
-			return delegate.readI2CBlockData(register, buffer);
+			long start = recorder.start();
+			try {
+				int result = delegate.readI2CBlockData(register, buffer);
+				recorder.end(DeviceOperation.READ, start, result);
+				return result;
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.READ);
+				throw e;
+			}
 		}
 	}
 
@@ -454,7 +566,14 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public void writeI2CBlockData(int register, byte... data) throws RuntimeIOException {
 		synchronized (delegate) {
-			delegate.writeI2CBlockData(register, data);
+			long start = recorder.start();
+			try {
+				delegate.writeI2CBlockData(register, data);
+				recorder.end(DeviceOperation.WRITE, start, data.length);
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.WRITE);
+				throw e;
+			}
 		}
 	}
 
@@ -468,7 +587,15 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public int readBytes(byte[] buffer) throws RuntimeIOException {
 		synchronized (delegate) {
-			return delegate.readBytes(buffer);
+			long start = recorder.start();
+			try {
+				int result = delegate.readBytes(buffer);
+				recorder.end(DeviceOperation.READ, start, result);
+				return result;
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.READ);
+				throw e;
+			}
 		}
 	}
 
@@ -478,7 +605,14 @@ public class I2CDevice implements I2CDeviceInterface {
 	@Override
 	public void writeBytes(byte... data) throws RuntimeIOException {
 		synchronized (delegate) {
-			delegate.writeBytes(data);
+			long start = recorder.start();
+			try {
+				delegate.writeBytes(data);
+				recorder.end(DeviceOperation.WRITE, start, data.length);
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.WRITE);
+				throw e;
+			}
 		}
 	}
 
@@ -489,10 +623,154 @@ public class I2CDevice implements I2CDeviceInterface {
 	public void readWrite(I2CMessage[] messages, byte[] buffer) {
 		// TODO Validate that buffer is big enough
 		synchronized (delegate) {
-			delegate.readWrite(messages, buffer);
+			long start = recorder.start();
+			try {
+				delegate.readWrite(messages, buffer);
+				recorder.end(DeviceOperation.TRANSFER, start, buffer.length);
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.TRANSFER);
+				throw e;
+			}
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int readI2CBlockData(int register, ByteBuffer dst) throws RuntimeIOException {
+		// Heap buffers are copied by the JNI layer anyway, only direct buffers
+		// benefit from the provider's ByteBuffer implementation
+		if (!dst.isDirect()) {
+			return I2CDeviceInterface.super.readI2CBlockData(register, dst);
+		}
+		synchronized (delegate) {
+			long start = recorder.start();
+			try {
+				int result = delegate.readI2CBlockData(register, dst);
+				recorder.end(DeviceOperation.READ, start, result);
+				return result;
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.READ);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeI2CBlockData(int register, ByteBuffer src) throws RuntimeIOException {
+		if (!src.isDirect()) {
+			I2CDeviceInterface.super.writeI2CBlockData(register, src);
+			return;
+		}
+		int length = src.remaining();
+		synchronized (delegate) {
+			long start = recorder.start();
+			try {
+				delegate.writeI2CBlockData(register, src);
+				recorder.end(DeviceOperation.WRITE, start, length);
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.WRITE);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int readBytes(ByteBuffer dst) throws RuntimeIOException {
+		if (!dst.isDirect()) {
+			return I2CDeviceInterface.super.readBytes(dst);
+		}
+		synchronized (delegate) {
+			long start = recorder.start();
+			try {
+				int result = delegate.readBytes(dst);
+				recorder.end(DeviceOperation.READ, start, result);
+				return result;
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.READ);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeBytes(ByteBuffer src) throws RuntimeIOException {
+		if (!src.isDirect()) {
+			I2CDeviceInterface.super.writeBytes(src);
+			return;
+		}
+		int length = src.remaining();
+		synchronized (delegate) {
+			long start = recorder.start();
+			try {
+				delegate.writeBytes(src);
+				recorder.end(DeviceOperation.WRITE, start, length);
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.WRITE);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void readWrite(I2CTransaction transaction) throws RuntimeIOException {
+		synchronized (delegate) {
+			long start = recorder.start();
+			try {
+				delegate.readWrite(transaction);
+				recorder.end(DeviceOperation.TRANSFER, start, transaction.getDataLength());
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.TRANSFER);
+				throw e;
+			}
+		}
+	}
+
+	/*
+	 * Execute messages for another device address on the same controller, used by
+	 * providers that can only address a single device per combined transaction.
+	 * Uses the device that is already open at that address if there is one,
+	 * otherwise one is provisioned for the duration of the operation.
+	 */
+	void readWrite(int deviceAddress, I2CMessage[] messages, byte[] buffer) throws RuntimeIOException {
+		InternalI2CDeviceInterface device = deviceFactory
+				.getDevice(deviceFactory.createI2CKey(controller, deviceAddress));
+		if (device != null) {
+			synchronized (device) {
+				device.readWrite(messages, buffer);
+			}
+		} else {
+			try (InternalI2CDeviceInterface other_device = deviceFactory.provisionI2CDevice(controller,
+					deviceAddress, addressSize)) {
+				other_device.readWrite(messages, buffer);
+			}
+		}
+	}
+
+	/**
+	 * Create a new transaction for executing a batch of reads and writes in a
+	 * single combined I2C transaction. Messages target this device unless a
+	 * different {@link I2CTransaction#address(int) address} is specified.
+	 *
+	 * @return a new empty transaction
+	 */
+	public I2CTransaction transaction() {
+		return new I2CTransaction(this, address);
+	}
+
 	//
 	// I2CDevice utility methods
 	//
@@ -546,23 +824,6 @@ public class I2CDevice implements I2CDeviceInterface {
 		return buffer;
 	}
 
-	/**
-	 * Utility method that wraps {@link I2CDevice#writeBytes(byte[])} to write the
-	 * available bytes in the specified {@link ByteBuffer ByteBuffer}. The byte
-	 * order of data in the ByteBuffer is unchanged.
-	 *
-	 * @see I2CDevice#writeBytes(byte[])
-	 * @see ByteBuffer#put(byte[])
-	 *
-	 * @param buffer the {@link ByteBuffer} containing the data to write
-	 * @throws RuntimeIOException if an I/O error occurs
-	 */
-	public void writeBytes(ByteBuffer buffer) throws RuntimeIOException {
-		byte[] tx_buf = new byte[buffer.remaining()];
-		buffer.get(tx_buf);
-		writeBytes(tx_buf);
-	}
-
 	/**
 	 * Utility method that wraps {@link I2CDevice#readI2CBlockData(int, byte[])} to
 	 * read the specified number of bytes and return as a new byte array.
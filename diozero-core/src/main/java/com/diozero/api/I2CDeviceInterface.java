@@ -33,6 +33,7 @@ package com.diozero.api;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -77,6 +78,38 @@ public interface I2CDeviceInterface extends I2CSMBusInterface {
 	 */
 	void writeBytes(byte... data) throws RuntimeIOException;
 
+	/**
+	 * Read <code>dst.remaining()</code> bytes from the device into
+	 * <code>dst</code>, without the 32 byte limit imposed by SMBus. The position
+	 * of <code>dst</code> is advanced by the number of bytes read. Providers can
+	 * read into {@link ByteBuffer#isDirect() direct} buffers without copying.
+	 *
+	 * @param dst the buffer to read into
+	 * @return the number of bytes read
+	 * @throws RuntimeIOException if an I/O error occurs
+	 */
+	default int readBytes(ByteBuffer dst) throws RuntimeIOException {
+		byte[] data = new byte[dst.remaining()];
+		int read = readBytes(data);
+		dst.put(data, 0, read);
+		return read;
+	}
+
+	/**
+	 * Write the remaining bytes in <code>src</code> to the device, without the 32
+	 * byte limit imposed by SMBus. The position of <code>src</code> is advanced by
+	 * the number of bytes written. Providers can write
+	 * {@link ByteBuffer#isDirect() direct} buffers without copying.
+	 *
+	 * @param src the data to write
+	 * @throws RuntimeIOException if an I/O error occurs
+	 */
+	default void writeBytes(ByteBuffer src) throws RuntimeIOException {
+		byte[] data = new byte[src.remaining()];
+		src.get(data);
+		writeBytes(data);
+	}
+
 	/**
 	 * Utility method to simplify the {@link #readWrite(I2CMessage[], byte[])}
 	 * method at the cost of a bit of performance.
@@ -117,6 +150,27 @@ public interface I2CDeviceInterface extends I2CSMBusInterface {
 	 */
 	void readWrite(I2CMessage[] messages, byte[] buffer);
 
+	/**
+	 * Execute all of the messages in a transaction as a single combined I2C
+	 * transaction. Data read from the device(s) is written to the transaction's
+	 * buffer.
+	 *
+	 * The default implementation delegates to
+	 * {@link #readWrite(I2CMessage[], byte[])}. Transactions that target several
+	 * device addresses are executed as a sequence of combined transactions, one
+	 * for each run of consecutive messages to the same address.
+	 *
+	 * @param transaction the transaction to execute
+	 * @throws RuntimeIOException if an I/O error occurs
+	 */
+	default void readWrite(I2CTransaction transaction) throws RuntimeIOException {
+		if (transaction.isSingleAddress()) {
+			readWrite(transaction.getMessages(), transaction.getBuffer());
+		} else {
+			transaction.readWriteByAddress(this);
+		}
+	}
+
 	/**
 	 * Utility method to simplify the {@link #readWrite(I2CMessage[], byte[])}
 	 * method at the cost of a bit of performance.
@@ -31,6 +31,8 @@ package com.diozero.api;
  * #L%
  */
 
+import java.nio.ByteBuffer;
+
 /**
  * I2C device interface
  * <a href="https://www.kernel.org/doc/Documentation/i2c/smbus-protocol">Linux
@@ -394,4 +396,42 @@ public interface I2CSMBusInterface extends DeviceInterface {
 	 * @throws RuntimeIOException if an I/O error occurs
 	 */
 	void writeI2CBlockData(int register, byte... data) throws RuntimeIOException;
+
+	/**
+	 * I2C Block Read into a {@link ByteBuffer}, reads up to
+	 * <code>dst.remaining()</code> bytes (maximum of 32). The position of
+	 * <code>dst</code> is advanced by the number of bytes read. Providers can read
+	 * into {@link ByteBuffer#isDirect() direct} buffers without copying.
+	 *
+	 * @see #readI2CBlockData(int, byte[])
+	 *
+	 * @param register the register to read from
+	 * @param dst      the buffer to read into
+	 * @return the number of bytes actually read
+	 * @throws RuntimeIOException if an I/O error occurs
+	 */
+	default int readI2CBlockData(int register, ByteBuffer dst) throws RuntimeIOException {
+		byte[] data = new byte[Math.min(dst.remaining(), MAX_I2C_BLOCK_SIZE)];
+		int read = readI2CBlockData(register, data);
+		dst.put(data, 0, read);
+		return read;
+	}
+
+	/**
+	 * I2C Block Write of the remaining bytes in <code>src</code> (maximum of 32).
+	 * The position of <code>src</code> is advanced by the number of bytes written.
+	 * Providers can write {@link ByteBuffer#isDirect() direct} buffers without
+	 * copying.
+	 *
+	 * @see #writeI2CBlockData(int, byte...)
+	 *
+	 * @param register the register to write to
+	 * @param src      the data to write
+	 * @throws RuntimeIOException if an I/O error occurs
+	 */
+	default void writeI2CBlockData(int register, ByteBuffer src) throws RuntimeIOException {
+		byte[] data = new byte[src.remaining()];
+		src.get(data);
+		writeI2CBlockData(register, data);
+	}
 }
@@ -0,0 +1,451 @@
+package com.diozero.api;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     I2CTransaction.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import com.diozero.api.I2CDeviceInterface.I2CMessage;
+
+/**
+ * <p>
+ * A batch of I2C reads and writes that are executed as a single combined I2C
+ * transaction (one <code>I2C_RDWR</code> ioctl on Linux). Messages can target
+ * several device addresses on the same I2C controller; providers that can only
+ * address one device per transaction execute each run of messages to the same
+ * address in turn.
+ * </p>
+ *
+ * <p>
+ * Transactions are intended to be built once and executed repeatedly; data read
+ * from the devices is stored in a buffer owned by the transaction that is
+ * reused for each execution, so no objects are created when executing.
+ * </p>
+ *
+ * <p>
+ * Example - read accelerometer / gyro data from an IMU and pressure data from a
+ * barometer in a single transaction:
+ * </p>
+ *
+ * <pre>
+ * I2CTransaction txn = imu.transaction().readRegister(0x3b, 14).address(0x77).readRegister(0xf7, 6);
+ * while (running) {
+ * 	txn.execute();
+ * 	short accel_x = txn.getShort(0, 0);
+ * 	int pressure_msb = txn.getUByte(1, 0);
+ * 	...
+ * }
+ * </pre>
+ *
+ * <p>
+ * Instances are not thread safe.
+ * </p>
+ */
+public class I2CTransaction {
+	/**
+	 * Maximum number of messages in a single transaction (I2C_RDWR_IOCTL_MAX_MSGS)
+	 */
+	public static final int MAX_MESSAGES = 42;
+	private static final int INITIAL_BUFFER_SIZE = 64;
+
+	private final I2CDeviceInterface device;
+	private final int defaultAddress;
+	private int address;
+	private final int[] addresses;
+	private final int[] flags;
+	private final int[] lengths;
+	private int numMessages;
+	private byte[] buffer;
+	private int bufferLength;
+	private final int[] readOffsets;
+	private final int[] readLengths;
+	private int numReads;
+	private I2CMessage[] messages;
+
+	/**
+	 * @param device         the device used to execute this transaction
+	 * @param defaultAddress the address for messages that haven't had an
+	 *                       {@link #address(int) address} specified
+	 */
+	public I2CTransaction(I2CDeviceInterface device, int defaultAddress) {
+		this.device = device;
+		this.defaultAddress = defaultAddress;
+		address = defaultAddress;
+
+		addresses = new int[MAX_MESSAGES];
+		flags = new int[MAX_MESSAGES];
+		lengths = new int[MAX_MESSAGES];
+		buffer = new byte[INITIAL_BUFFER_SIZE];
+		readOffsets = new int[MAX_MESSAGES];
+		readLengths = new int[MAX_MESSAGES];
+	}
+
+	/**
+	 * Set the device address for all subsequent messages in this transaction
+	 *
+	 * @param deviceAddress the I2C device address
+	 * @return this transaction
+	 */
+	public I2CTransaction address(int deviceAddress) {
+		address = deviceAddress;
+		return this;
+	}
+
+	/**
+	 * Read data from the current register position
+	 *
+	 * @param length number of bytes to read
+	 * @return this transaction
+	 */
+	public I2CTransaction read(int length) {
+		addRead(I2CMessage.I2C_M_RD, length);
+		return this;
+	}
+
+	/**
+	 * Write the register address and then read data using a repeated start
+	 *
+	 * @param register the register to read from
+	 * @param length   number of bytes to read
+	 * @return this transaction
+	 */
+	public I2CTransaction readRegister(int register, int length) {
+		if (numMessages + 2 > MAX_MESSAGES) {
+			throw new IllegalStateException("Maximum number of messages (" + MAX_MESSAGES + ") exceeded");
+		}
+		int offset = addMessage(I2CMessage.I2C_M_WR, 1);
+		buffer[offset] = (byte) register;
+		addRead(I2CMessage.I2C_M_RD, length);
+		return this;
+	}
+
+	/**
+	 * Write data without a register address
+	 *
+	 * @param data the data to write
+	 * @return this transaction
+	 */
+	public I2CTransaction write(byte... data) {
+		int offset = addMessage(I2CMessage.I2C_M_WR, data.length);
+		System.arraycopy(data, 0, buffer, offset, data.length);
+		return this;
+	}
+
+	/**
+	 * Write data to the specified register
+	 *
+	 * @param register the register to write to
+	 * @param data     the data to write
+	 * @return this transaction
+	 */
+	public I2CTransaction writeRegister(int register, byte... data) {
+		int offset = addMessage(I2CMessage.I2C_M_WR, data.length + 1);
+		buffer[offset] = (byte) register;
+		System.arraycopy(data, 0, buffer, offset + 1, data.length);
+		return this;
+	}
+
+	/**
+	 * Write a single byte to the specified register
+	 *
+	 * @param register the register to write to
+	 * @param value    the byte value to write
+	 * @return this transaction
+	 */
+	public I2CTransaction writeByteData(int register, int value) {
+		int offset = addMessage(I2CMessage.I2C_M_WR, 2);
+		buffer[offset] = (byte) register;
+		buffer[offset + 1] = (byte) value;
+		return this;
+	}
+
+	/**
+	 * Remove all messages from this transaction and reset the address to the
+	 * default address
+	 *
+	 * @return this transaction
+	 */
+	public I2CTransaction clear() {
+		numMessages = 0;
+		bufferLength = 0;
+		numReads = 0;
+		address = defaultAddress;
+		messages = null;
+		return this;
+	}
+
+	/**
+	 * Execute all messages in a single combined I2C transaction
+	 *
+	 * @return this transaction
+	 * @throws RuntimeIOException if an I/O error occurs
+	 */
+	public I2CTransaction execute() throws RuntimeIOException {
+		if (numMessages > 0) {
+			device.readWrite(this);
+		}
+		return this;
+	}
+
+	/*
+	 * Execute each run of consecutive messages that target the same address as a
+	 * separate combined transaction, for devices that can only address a single
+	 * device per transaction. Messages for the default address are executed by
+	 * defaultAddressDevice.
+	 */
+	void readWriteByAddress(I2CDeviceInterface defaultAddressDevice) throws RuntimeIOException {
+		int start = 0;
+		int offset = 0;
+		while (start < numMessages) {
+			int msg_address = addresses[start];
+			int end = start;
+			int length = 0;
+			while (end < numMessages && addresses[end] == msg_address) {
+				length += lengths[end];
+				end++;
+			}
+
+			I2CMessage[] msgs = new I2CMessage[end - start];
+			for (int i = start; i < end; i++) {
+				msgs[i - start] = new I2CMessage(flags[i], lengths[i]);
+			}
+			byte[] data = Arrays.copyOfRange(buffer, offset, offset + length);
+			if (msg_address == defaultAddress) {
+				defaultAddressDevice.readWrite(msgs, data);
+			} else if (device instanceof I2CDevice) {
+				((I2CDevice) device).readWrite(msg_address, msgs, data);
+			} else {
+				throw new UnsupportedOperationException(
+						"Unable to access I2C device 0x" + Integer.toHexString(msg_address) + " from this device");
+			}
+			System.arraycopy(data, 0, buffer, offset, length);
+
+			start = end;
+			offset += length;
+		}
+	}
+
+	private void addRead(int flag, int length) {
+		readOffsets[numReads] = bufferLength;
+		readLengths[numReads] = length;
+		addMessage(flag, length);
+		numReads++;
+	}
+
+	private int addMessage(int flag, int length) {
+		if (numMessages == MAX_MESSAGES) {
+			throw new IllegalStateException("Maximum number of messages (" + MAX_MESSAGES + ") exceeded");
+		}
+		if (length < 0) {
+			throw new IllegalArgumentException("Invalid message length " + length);
+		}
+		addresses[numMessages] = address;
+		flags[numMessages] = flag;
+		lengths[numMessages] = length;
+		numMessages++;
+
+		if (bufferLength + length > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, bufferLength + length));
+		}
+		int offset = bufferLength;
+		bufferLength += length;
+		messages = null;
+
+		return offset;
+	}
+
+	public int getMessageCount() {
+		return numMessages;
+	}
+
+	public int getReadCount() {
+		return numReads;
+	}
+
+	/**
+	 * @return the total number of bytes read and written by this transaction
+	 */
+	public int getDataLength() {
+		return bufferLength;
+	}
+
+	/**
+	 * @return true if all messages target the default device address
+	 */
+	public boolean isSingleAddress() {
+		for (int i = 0; i < numMessages; i++) {
+			if (addresses[i] != defaultAddress) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public int getDefaultAddress() {
+		return defaultAddress;
+	}
+
+	/**
+	 * Per-message device addresses, only the first {@link #getMessageCount()}
+	 * entries are valid
+	 *
+	 * @return message device addresses
+	 */
+	public int[] getAddresses() {
+		return addresses;
+	}
+
+	/**
+	 * Per-message I2C flags, only the first {@link #getMessageCount()} entries are
+	 * valid
+	 *
+	 * @return message flags
+	 */
+	public int[] getFlags() {
+		return flags;
+	}
+
+	/**
+	 * Per-message lengths, only the first {@link #getMessageCount()} entries are
+	 * valid
+	 *
+	 * @return message lengths
+	 */
+	public int[] getLengths() {
+		return lengths;
+	}
+
+	/**
+	 * The data buffer that is associated with the messages, see
+	 * {@link I2CDeviceInterface#readWrite(I2CMessage[], byte[])}
+	 *
+	 * @return the transaction data buffer
+	 */
+	public byte[] getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * The messages in this transaction for use with
+	 * {@link I2CDeviceInterface#readWrite(I2CMessage[], byte[])}; note that this
+	 * doesn't include the message addresses. The array is cached until this
+	 * transaction is modified.
+	 *
+	 * @return the messages in this transaction
+	 */
+	public I2CMessage[] getMessages() {
+		I2CMessage[] msgs = messages;
+		if (msgs == null) {
+			msgs = new I2CMessage[numMessages];
+			for (int i = 0; i < numMessages; i++) {
+				msgs[i] = new I2CMessage(flags[i], lengths[i]);
+			}
+			messages = msgs;
+		}
+		return msgs;
+	}
+
+	/**
+	 * Get the offset in the {@link #getBuffer() buffer} for the specified read
+	 *
+	 * @param read the read index, in the order that the reads were added
+	 * @return buffer offset for the data read
+	 */
+	public int getReadOffset(int read) {
+		checkRead(read);
+		return readOffsets[read];
+	}
+
+	public int getReadLength(int read) {
+		checkRead(read);
+		return readLengths[read];
+	}
+
+	public byte getByte(int read, int index) {
+		return buffer[offset(read, index, 1)];
+	}
+
+	public short getUByte(int read, int index) {
+		return (short) (buffer[offset(read, index, 1)] & 0xff);
+	}
+
+	/**
+	 * Get a big endian short value from the data read
+	 *
+	 * @param read  the read index, in the order that the reads were added
+	 * @param index byte offset within the read data
+	 * @return the short value
+	 */
+	public short getShort(int read, int index) {
+		int offset = offset(read, index, 2);
+		return (short) ((buffer[offset] << 8) | (buffer[offset + 1] & 0xff));
+	}
+
+	/**
+	 * Get a little endian short value from the data read
+	 *
+	 * @param read  the read index, in the order that the reads were added
+	 * @param index byte offset within the read data
+	 * @return the short value
+	 */
+	public short getShortLE(int read, int index) {
+		int offset = offset(read, index, 2);
+		return (short) ((buffer[offset + 1] << 8) | (buffer[offset] & 0xff));
+	}
+
+	/**
+	 * Copy the data read into the specified array
+	 *
+	 * @param read the read index, in the order that the reads were added
+	 * @param dest the destination array, must be at least as long as the read
+	 * @return the number of bytes copied
+	 */
+	public int getBytes(int read, byte[] dest) {
+		int length = getReadLength(read);
+		System.arraycopy(buffer, readOffsets[read], dest, 0, length);
+		return length;
+	}
+
+	private int offset(int read, int index, int size) {
+		checkRead(read);
+		if (index < 0 || index + size > readLengths[read]) {
+			throw new IndexOutOfBoundsException(
+					"Index " + index + " out of bounds for read " + read + " of length " + readLengths[read]);
+		}
+		return readOffsets[read] + index;
+	}
+
+	private void checkRead(int read) {
+		if (read < 0 || read >= numReads) {
+			throw new IndexOutOfBoundsException("Read " + read + " out of bounds for " + numReads + " reads");
+		}
+	}
+}
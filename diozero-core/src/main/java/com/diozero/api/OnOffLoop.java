@@ -0,0 +1,134 @@
+package com.diozero.api;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     OnOffLoop.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.diozero.api.function.Action;
+import com.diozero.util.DiozeroScheduler;
+import com.diozero.util.SleepUtil;
+
+/**
+ * Blink loop shared by the digital output devices; alternates between the on
+ * and off actions either in the calling thread or in a background thread.
+ */
+final class OnOffLoop {
+	private final Action onAction;
+	private final Action offAction;
+	private final AtomicBoolean running;
+	private Future<?> future;
+
+	/**
+	 * @param onAction  Action to turn the output(s) on.
+	 * @param offAction Action to turn the output(s) off, invoked once per cycle.
+	 */
+	OnOffLoop(Action onAction, Action offAction) {
+		this.onAction = onAction;
+		this.offAction = offAction;
+		running = new AtomicBoolean();
+	}
+
+	/**
+	 * Stop any existing loop and start a new one.
+	 *
+	 * @param onTime     On time in seconds.
+	 * @param offTime    Off time in seconds.
+	 * @param n          Number of iterations. Set to &lt;0 to blink indefinitely.
+	 * @param background If true start a background thread to control the blink and
+	 *                   return immediately. If false, only return once the blink
+	 *                   iterations have finished.
+	 * @param stopAction Action to perform when the loop finishes
+	 * @throws RuntimeIOException If an I/O error occurs
+	 */
+	void start(float onTime, float offTime, int n, boolean background, Action stopAction) throws RuntimeIOException {
+		stop();
+		int on_ms = (int) (onTime * SleepUtil.MS_IN_SEC);
+		int off_ms = (int) (offTime * SleepUtil.MS_IN_SEC);
+		if (background) {
+			future = DiozeroScheduler.getNonDaemonInstance().submit(() -> run(on_ms, off_ms, n, stopAction));
+		} else {
+			run(on_ms, off_ms, n, stopAction);
+		}
+	}
+
+	void stop() {
+		running.set(false);
+		if (future != null) {
+			future.cancel(true);
+			try {
+				future.get();
+			} catch (Exception e) {
+				// Ignore
+			}
+			future = null;
+		}
+	}
+
+	private void run(int onTimeMs, int offTimeMs, int n, Action stopAction) throws RuntimeIOException {
+		running.set(true);
+		if (n > 0) {
+			for (int i = 0; i < n && running.get(); i++) {
+				onOff(onTimeMs, offTimeMs);
+			}
+			running.set(false);
+		} else if (n == DigitalOutputDevice.INFINITE_ITERATIONS) {
+			while (running.get()) {
+				onOff(onTimeMs, offTimeMs);
+			}
+		}
+		if (stopAction != null) {
+			stopAction.action();
+		}
+	}
+
+	private void onOff(int onTimeMs, int offTimeMs) throws RuntimeIOException {
+		onAction.action();
+		try {
+			Thread.sleep(onTimeMs);
+		} catch (InterruptedException e) {
+			running.set(false);
+		}
+
+		offAction.action();
+
+		if (!running.get()) {
+			return;
+		}
+
+		try {
+			Thread.sleep(offTimeMs);
+		} catch (InterruptedException e) {
+			running.set(false);
+		}
+	}
+}
@@ -40,6 +40,8 @@ import java.util.List;
 
 import org.tinylog.Logger;
 
+import com.diozero.internal.spi.DeviceOperation;
+import com.diozero.internal.spi.DeviceRecorder;
 import com.diozero.internal.spi.InternalSerialDeviceInterface;
 import com.diozero.sbc.DeviceFactoryHelper;
 
@@ -363,6 +365,7 @@ public class SerialDevice implements SerialConstants, SerialDeviceInterface {
 	}
 
 	private InternalSerialDeviceInterface delegate;
+	private DeviceRecorder recorder;
 	private String deviceFilename;
 
 	/**
@@ -427,6 +430,7 @@ public class SerialDevice implements SerialConstants, SerialDeviceInterface {
 			boolean readBlocking, int minReadChars, int readTimeoutMillis) throws RuntimeIOException {
 		delegate = DeviceFactoryHelper.getNativeDeviceFactory().provisionSerialDevice(deviceFilename, baud, dataBits,
 				stopBits, parity, readBlocking, minReadChars, readTimeoutMillis);
+		recorder = DeviceRecorder.of(delegate);
 
 		this.deviceFilename = deviceFilename;
 	}
@@ -456,7 +460,15 @@ public class SerialDevice implements SerialConstants, SerialDeviceInterface {
 	 */
 	@Override
 	public int read() throws RuntimeIOException {
-		return delegate.read();
+		long start = recorder.start();
+		try {
+			int result = delegate.read();
+			recorder.end(DeviceOperation.READ, start, result < 0 ? 0 : 1);
+			return result;
+		} catch (RuntimeException e) {
+			recorder.error(DeviceOperation.READ);
+			throw e;
+		}
 	}
 
 	/**
@@ -464,7 +476,15 @@ public class SerialDevice implements SerialConstants, SerialDeviceInterface {
 	 */
 	@Override
 	public byte readByte() throws RuntimeIOException {
-		return delegate.readByte();
+		long start = recorder.start();
+		try {
+			byte result = delegate.readByte();
+			recorder.end(DeviceOperation.READ, start, 1);
+			return result;
+		} catch (RuntimeException e) {
+			recorder.error(DeviceOperation.READ);
+			throw e;
+		}
 	}
 
 	/**
@@ -472,7 +492,14 @@ public class SerialDevice implements SerialConstants, SerialDeviceInterface {
 	 */
 	@Override
 	public void writeByte(byte bVal) throws RuntimeIOException {
-		delegate.writeByte(bVal);
+		long start = recorder.start();
+		try {
+			delegate.writeByte(bVal);
+			recorder.end(DeviceOperation.WRITE, start, 1);
+		} catch (RuntimeException e) {
+			recorder.error(DeviceOperation.WRITE);
+			throw e;
+		}
 	}
 
 	/**
@@ -480,7 +507,15 @@ public class SerialDevice implements SerialConstants, SerialDeviceInterface {
 	 */
 	@Override
 	public int read(byte[] buffer) throws RuntimeIOException {
-		return delegate.read(buffer);
+		long start = recorder.start();
+		try {
+			int result = delegate.read(buffer);
+			recorder.end(DeviceOperation.READ, start, Math.max(result, 0));
+			return result;
+		} catch (RuntimeException e) {
+			recorder.error(DeviceOperation.READ);
+			throw e;
+		}
 	}
 
 	/**
@@ -488,7 +523,14 @@ public class SerialDevice implements SerialConstants, SerialDeviceInterface {
 	 */
 	@Override
 	public void write(byte... buffer) throws RuntimeIOException {
-		delegate.write(buffer);
+		long start = recorder.start();
+		try {
+			delegate.write(buffer);
+			recorder.end(DeviceOperation.WRITE, start, buffer.length);
+		} catch (RuntimeException e) {
+			recorder.error(DeviceOperation.WRITE);
+			throw e;
+		}
 	}
 
 	/**
@@ -31,10 +31,11 @@ package com.diozero.api;
  * #L%
  */
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.tinylog.Logger;
 
 import com.diozero.internal.spi.GpioDeviceFactoryInterface;
 import com.diozero.sbc.DeviceFactoryHelper;
@@ -48,14 +49,17 @@ import com.diozero.util.DiozeroScheduler;
  * 
  * <p>
  * This class extends {@link com.diozero.api.DigitalInputDevice
- * DigitalInputDevice} with a queue which is added to whenever the input device
- * is active. The number of the active events in the queue is compared to a
- * threshold which is used to determine the state of the 'active' property.
+ * DigitalInputDevice} with a circular buffer of the times of active events.
+ * Each time an active event arrives the number of active events within the
+ * last eventAge milliseconds is compared to a threshold which is used to
+ * determine the state of the 'active' property.
  * </p>
  * 
  * <p>
- * Any active events over the specified eventAge are removed by a background
- * thread.
+ * If eventDetectPeriod is &gt; 0 a background task reverts the device to
+ * inactive one eventDetectPeriod after it became active. Otherwise the device
+ * reverts to inactive on the next inactive event from the underlying GPIO and
+ * no background task is used.
  * </p>
  * 
  * <p>
@@ -173,14 +177,20 @@ public class SmoothedInputDevice extends DigitalInputDevice implements Runnable
 		}
 	}
 
-	private int threshold;
-	private int eventAge;
+	// Read by the event thread, may be changed from any thread
+	private volatile int threshold;
+	private volatile int eventAge;
 	private int eventDetectPeriod;
-	private final Queue<Long> queue;
-	// For the event smoothing logic
-	private Predicate<Long> removePredicate;
-	private long eventCheckTimeMs;
-	private boolean currentlyActive;
+	// Epoch times (ms) of active events; the buffer and indices are only accessed
+	// by the event thread
+	private long[] eventTimes;
+	// Index of the oldest event that counts towards the threshold
+	private long head;
+	// Index of the next event to be written
+	private long tail;
+	private final AtomicBoolean currentlyActive;
+	private volatile long activeTimeMs;
+	private ScheduledFuture<?> eventDetectFuture;
 
 	/**
 	 * @param gpio              GPIO to which the device is connected.
@@ -188,9 +198,10 @@ public class SmoothedInputDevice extends DigitalInputDevice implements Runnable
 	 *                          PULL_DOWN.
 	 * @param threshold         The value above which the device will be considered
 	 *                          "on".
-	 * @param eventAge          The time in milliseconds to keep active events in
-	 *                          the queue.
-	 * @param eventDetectPeriod How frequently to check for events.
+	 * @param eventAge          The time window in milliseconds within which
+	 *                          threshold active events must occur.
+	 * @param eventDetectPeriod How frequently to check for events, &lt;= 0 for
+	 *                          no background check.
 	 * @throws RuntimeIOException if an I/O error occurs
 	 */
 	public SmoothedInputDevice(int gpio, GpioPullUpDown pud, int threshold, int eventAge, int eventDetectPeriod)
@@ -205,9 +216,10 @@ public class SmoothedInputDevice extends DigitalInputDevice implements Runnable
 	 *                          PULL_DOWN.
 	 * @param threshold         The value above which the device will be considered
 	 *                          "on".
-	 * @param eventAge          The time in milliseconds to keep active events in
-	 *                          the queue.
-	 * @param eventDetectPeriod How frequently to check for events.
+	 * @param eventAge          The time window in milliseconds within which
+	 *                          threshold active events must occur.
+	 * @param eventDetectPeriod How frequently to check for events, &lt;= 0 for
+	 *                          no background check.
 	 * @throws RuntimeIOException if an I/O error occurs
 	 */
 	public SmoothedInputDevice(GpioDeviceFactoryInterface deviceFactory, int gpio, GpioPullUpDown pud, int threshold,
@@ -224,59 +236,94 @@ public class SmoothedInputDevice extends DigitalInputDevice implements Runnable
 	 * @param activeHigh        Set to true if digital 1 is to be treated as active
 	 * @param threshold         The value above which the device will be considered
 	 *                          "on"
-	 * @param eventAge          The time in milliseconds to keep active events in
-	 *                          the queue
-	 * @param eventDetectPeriod How frequently to check for events
-	 * @throws RuntimeIOException if an I/O error occurs
+	 * @param eventAge          The time window in milliseconds within which
+	 *                          threshold active events must occur
+	 * @param eventDetectPeriod How frequently to check for events, &lt;= 0 for
+	 *                          no background check
+	 * @throws RuntimeIOException       if an I/O error occurs
+	 * @throws IllegalArgumentException if the threshold is less than 1
 	 */
 	public SmoothedInputDevice(GpioDeviceFactoryInterface deviceFactory, PinInfo pinInfo, GpioPullUpDown pud,
 			boolean activeHigh, int threshold, int eventAge, int eventDetectPeriod) throws RuntimeIOException {
 		super(deviceFactory, pinInfo, pud, GpioEventTrigger.BOTH, activeHigh);
 
+		if (threshold < 1) {
+			throw new IllegalArgumentException("Threshold must be >= 1");
+		}
+
 		this.threshold = threshold;
 		this.eventAge = eventAge;
 		this.eventDetectPeriod = eventDetectPeriod;
 
-		queue = new LinkedList<>();
-		removePredicate = time -> time.longValue() < (eventCheckTimeMs - eventAge);
-		DiozeroScheduler.getNonDaemonInstance().scheduleAtFixedRate(this, eventDetectPeriod, eventDetectPeriod,
-				TimeUnit.MILLISECONDS);
+		eventTimes = new long[capacityFor(threshold)];
+		currentlyActive = new AtomicBoolean();
+		if (eventDetectPeriod > 0) {
+			eventDetectFuture = DiozeroScheduler.getNonDaemonInstance().scheduleAtFixedRate(this, eventDetectPeriod,
+					eventDetectPeriod, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private static int capacityFor(int threshold) {
+		// Power of two so that the slot index is a simple mask
+		return threshold == 1 ? 1 : Integer.highestOneBit(threshold - 1) << 1;
+	}
+
+	@Override
+	public void close() {
+		Logger.trace("close()");
+		if (eventDetectFuture != null) {
+			eventDetectFuture.cancel(false);
+			eventDetectFuture = null;
+		}
+		super.close();
 	}
 
 	@Override
-	public void accept(DigitalInputEvent event) {
-		event.setActiveHigh(activeHigh);
-		// Only add active events to the queue
-		if (event.isActive()) {
-			synchronized (queue) {
-				queue.add(Long.valueOf(event.getEpochTime()));
+	protected void processEvent(int gpio, boolean value, long epochTime, long nanoTime) {
+		if (value != activeHigh) {
+			// Without a background task the device reverts to inactive on the next inactive
+			// event
+			if (eventDetectFuture == null && currentlyActive.compareAndSet(true, false)) {
+				dispatchEvent(gpio, !activeHigh, epochTime, nanoTime);
+			}
+			return;
+		}
+
+		int thr = threshold;
+		if (thr > eventTimes.length) {
+			// The threshold has been increased, pending events are discarded
+			eventTimes = new long[capacityFor(thr)];
+			head = tail;
+		}
+
+		// Only active events are added to the buffer
+		int mask = eventTimes.length - 1;
+		eventTimes[(int) tail & mask] = epochTime;
+		tail++;
+
+		// Keep at most threshold events, the oldest of which determines whether the
+		// threshold has been reached within eventAge
+		if (tail - head > thr) {
+			head = tail - thr;
+		}
+		int age = eventAge;
+		if (tail - head == thr && (age < 0 || epochTime - eventTimes[(int) head & mask] <= age)) {
+			// If an event is fired then clear the buffer of all events
+			head = tail;
+			if (currentlyActive.compareAndSet(false, true)) {
+				activeTimeMs = epochTime;
+				dispatchEvent(gpio, activeHigh, epochTime, nanoTime);
 			}
 		}
 	}
 
 	@Override
 	public void run() {
-		long nano_time = System.nanoTime();
-		eventCheckTimeMs = System.currentTimeMillis();
-		synchronized (queue) {
-			// Purge any old events
-			queue.removeIf(removePredicate);
-
-			// Check if the number of events exceeds the threshold
-			if (currentlyActive) {
-				super.accept(new DigitalInputEvent(getGpio(), eventCheckTimeMs, nano_time, !activeHigh));
-				currentlyActive = false;
-				// If an event is fired then clear the queue of all events
-				queue.clear();
-			} else if (queue.size() >= threshold) {
-				if (!currentlyActive) {
-					super.accept(new DigitalInputEvent(getGpio(), eventCheckTimeMs, nano_time, activeHigh));
-					currentlyActive = true;
-
-					// If an event is fired then clear the queue of all events
-					queue.clear();
-				}
-			}
+		// Revert to inactive once the device has been active for eventDetectPeriod
+		long now_ms = System.currentTimeMillis();
+		if (currentlyActive.get() && now_ms - activeTimeMs >= eventDetectPeriod
+				&& currentlyActive.compareAndSet(true, false)) {
+			dispatchEvent(getGpio(), !activeHigh, now_ms, System.nanoTime());
 		}
 	}
 
@@ -297,11 +344,16 @@ public class SmoothedInputDevice extends DigitalInputDevice implements Runnable
 	 * @param threshold New threshold value.
 	 */
 	public void setThreshold(int threshold) {
+		if (threshold < 1) {
+			throw new IllegalArgumentException("Threshold must be >= 1");
+		}
+		// The event buffer is resized by the event thread if required
 		this.threshold = threshold;
 	}
 
 	/**
-	 * The time in milliseconds to keep items in the queue.
+	 * The time window in milliseconds within which threshold active events must
+	 * occur, &lt;0 for no limit.
 	 * 
 	 * @return The event age (milliseconds).
 	 */
@@ -319,7 +371,8 @@ public class SmoothedInputDevice extends DigitalInputDevice implements Runnable
 	}
 
 	/**
-	 * How frequently (in milliseconds) to check the state of the queue.
+	 * How frequently (in milliseconds) to check whether an active device should
+	 * revert to inactive, &lt;= 0 if not checked periodically.
 	 * 
 	 * @return The event detection period (milliseconds)
 	 */
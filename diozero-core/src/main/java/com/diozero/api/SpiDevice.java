@@ -31,8 +31,12 @@ package com.diozero.api;
  * #L%
  */
 
+import java.nio.ByteBuffer;
+
 import org.tinylog.Logger;
 
+import com.diozero.internal.spi.DeviceOperation;
+import com.diozero.internal.spi.DeviceRecorder;
 import com.diozero.internal.spi.InternalSpiDeviceInterface;
 import com.diozero.internal.spi.SpiDeviceFactoryInterface;
 import com.diozero.sbc.DeviceFactoryHelper;
@@ -138,6 +142,7 @@ public class SpiDevice implements SpiDeviceInterface {
 	}
 
 	private InternalSpiDeviceInterface delegate;
+	private DeviceRecorder recorder;
 	private int maxBufferSize;
 
 	public SpiDevice(int chipSelect) throws RuntimeIOException {
@@ -160,6 +165,7 @@ public class SpiDevice implements SpiDeviceInterface {
 	public SpiDevice(SpiDeviceFactoryInterface deviceFactory, int controller, int chipSelect, int frequency,
 			SpiClockMode mode, boolean lsbFirst) throws RuntimeIOException {
 		delegate = deviceFactory.provisionSpiDevice(controller, chipSelect, frequency, mode, lsbFirst);
+		recorder = DeviceRecorder.of(delegate);
 		maxBufferSize = deviceFactory.getSpiBufferSize();
 	}
 
@@ -190,6 +196,17 @@ public class SpiDevice implements SpiDeviceInterface {
 		return delegate.getChipSelect();
 	}
 
+	/**
+	 * Get the maximum number of bytes that the provider can transfer in a single
+	 * SPI message (e.g. the spidev bufsiz module parameter). Larger writes via
+	 * {@link #write(byte...)} are split into messages of this size.
+	 *
+	 * @return the maximum transfer size in bytes
+	 */
+	public int getMaxBufferSize() {
+		return maxBufferSize;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -198,7 +215,14 @@ public class SpiDevice implements SpiDeviceInterface {
 		int written = 0;
 		do {
 			int to_write = Math.min(txBuffer.length - written, maxBufferSize);
-			delegate.write(txBuffer, written, to_write);
+			long start = recorder.start();
+			try {
+				delegate.write(txBuffer, written, to_write);
+				recorder.end(DeviceOperation.WRITE, start, to_write);
+			} catch (RuntimeException e) {
+				recorder.error(DeviceOperation.WRITE);
+				throw e;
+			}
 			written += to_write;
 		} while (written < txBuffer.length);
 	}
@@ -208,7 +232,14 @@ public class SpiDevice implements SpiDeviceInterface {
 	 */
 	@Override
 	public void write(byte[] txBuffer, int txOffset, int length) throws RuntimeIOException {
-		delegate.write(txBuffer, txOffset, length);
+		long start = recorder.start();
+		try {
+			delegate.write(txBuffer, txOffset, length);
+			recorder.end(DeviceOperation.WRITE, start, length);
+		} catch (RuntimeException e) {
+			recorder.error(DeviceOperation.WRITE);
+			throw e;
+		}
 	}
 
 	/**
@@ -216,6 +247,82 @@ public class SpiDevice implements SpiDeviceInterface {
 	 */
 	@Override
 	public byte[] writeAndRead(byte... out) throws RuntimeIOException {
-		return delegate.writeAndRead(out);
+		long start = recorder.start();
+		try {
+			byte[] result = delegate.writeAndRead(out);
+			recorder.end(DeviceOperation.TRANSFER, start, out.length);
+			return result;
+		} catch (RuntimeException e) {
+			recorder.error(DeviceOperation.TRANSFER);
+			throw e;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>
+	 * Large buffers are written in chunks of the kernel SPI buffer size.
+	 * </p>
+	 */
+	@Override
+	public void write(ByteBuffer src) throws RuntimeIOException {
+		if (!src.isDirect()) {
+			// Heap buffers are copied by the JNI layer anyway, only direct buffers
+			// benefit from the provider's ByteBuffer implementation
+			if (src.hasArray()) {
+				int offset = src.arrayOffset() + src.position();
+				int length = src.remaining();
+				int written = 0;
+				while (written < length) {
+					int to_write = Math.min(length - written, maxBufferSize);
+					write(src.array(), offset + written, to_write);
+					written += to_write;
+				}
+				src.position(src.limit());
+			} else {
+				SpiDeviceInterface.super.write(src);
+			}
+			return;
+		}
+
+		int limit = src.limit();
+		try {
+			while (src.position() < limit) {
+				int to_write = Math.min(limit - src.position(), maxBufferSize);
+				src.limit(src.position() + to_write);
+				long start = recorder.start();
+				try {
+					delegate.write(src);
+					recorder.end(DeviceOperation.WRITE, start, to_write);
+				} catch (RuntimeException e) {
+					recorder.error(DeviceOperation.WRITE);
+					throw e;
+				}
+			}
+		} finally {
+			src.limit(limit);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeAndRead(ByteBuffer src, ByteBuffer dst) throws RuntimeIOException {
+		if (!src.isDirect() || !dst.isDirect()) {
+			SpiDeviceInterface.super.writeAndRead(src, dst);
+			return;
+		}
+
+		int length = src.remaining();
+		long start = recorder.start();
+		try {
+			delegate.writeAndRead(src, dst);
+			recorder.end(DeviceOperation.TRANSFER, start, length);
+		} catch (RuntimeException e) {
+			recorder.error(DeviceOperation.TRANSFER);
+			throw e;
+		}
 	}
 }
@@ -31,6 +31,9 @@ package com.diozero.api;
  * #L%
  */
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
 /**
  * <a href="https://en.wikipedia.org/wiki/Serial_Peripheral_Interface">Serial Peripheral Interface (SPI)</a>
  */
@@ -77,4 +80,44 @@ public interface SpiDeviceInterface extends DeviceInterface {
 	 * @throws RuntimeIOException if an I/O error occurs
 	 */
 	byte[] writeAndRead(byte... data) throws RuntimeIOException;
+
+	/**
+	 * Write the remaining bytes in <code>src</code> to the device. The position of
+	 * <code>src</code> is advanced by the number of bytes written. Providers can
+	 * write {@link ByteBuffer#isDirect() direct} buffers without copying.
+	 *
+	 * @param src the data to write
+	 * @throws RuntimeIOException if an I/O error occurs
+	 */
+	default void write(ByteBuffer src) throws RuntimeIOException {
+		int length = src.remaining();
+		if (src.hasArray()) {
+			write(src.array(), src.arrayOffset() + src.position(), length);
+			src.position(src.position() + length);
+		} else {
+			byte[] data = new byte[length];
+			src.get(data);
+			write(data);
+		}
+	}
+
+	/**
+	 * Write the remaining bytes in <code>src</code> to the device while reading
+	 * the same number of bytes into <code>dst</code>. The positions of both
+	 * buffers are advanced by the number of bytes transferred. Providers can
+	 * transfer {@link ByteBuffer#isDirect() direct} buffers without copying.
+	 *
+	 * @param src the data to write
+	 * @param dst the buffer to read into, must have at least
+	 *            <code>src.remaining()</code> bytes remaining
+	 * @throws RuntimeIOException if an I/O error occurs
+	 */
+	default void writeAndRead(ByteBuffer src, ByteBuffer dst) throws RuntimeIOException {
+		if (dst.remaining() < src.remaining()) {
+			throw new BufferOverflowException();
+		}
+		byte[] data = new byte[src.remaining()];
+		src.get(data);
+		dst.put(writeAndRead(data));
+	}
 }
@@ -0,0 +1,63 @@
+package com.diozero.api.function;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     AnalogSampleBlockConsumer.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+/**
+ * Receives blocks of analog samples from a continuous capture. Sample values
+ * are unscaled, i.e. normalised to the range 0..1 (if unsigned) or -1..1 (if
+ * signed), see {@link com.diozero.api.AnalogInputDevice#getUnscaledValue()}.
+ *
+ * <p>
+ * The sample array is owned by the producer and is reused for subsequent
+ * blocks; implementations must copy any samples that they need to retain after
+ * returning.
+ * </p>
+ *
+ * <p>
+ * This is a <a href="package-summary.html">functional interface</a> whose
+ * functional method is {@link #accept(long, long, float[], int)}.
+ */
+@FunctionalInterface
+public interface AnalogSampleBlockConsumer {
+	/**
+	 * Process a block of samples
+	 *
+	 * @param epochTime the time the last sample in the block was read (ms since
+	 *                  epoch)
+	 * @param nanoTime  the value of {@link System#nanoTime()} when the last sample
+	 *                  in the block was read
+	 * @param samples   the sample values, only the first <code>count</code>
+	 *                  entries are valid
+	 * @param count     number of samples in this block
+	 */
+	void accept(long epochTime, long nanoTime, float[] samples, int count);
+}
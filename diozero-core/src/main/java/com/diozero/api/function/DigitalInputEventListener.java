@@ -0,0 +1,56 @@
+package com.diozero.api.function;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     DigitalInputEventListener.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+/**
+ * Primitive specialisation of a {@link com.diozero.api.DigitalInputEvent
+ * DigitalInputEvent} listener. Edge events are delivered as individual values
+ * so that providers that support it can dispatch events from the underlying
+ * GPIO driver through to application code without allocating.
+ *
+ * <p>
+ * This is a <a href="package-summary.html">functional interface</a> whose
+ * functional method is {@link #event(int, boolean, long, long)}.
+ */
+@FunctionalInterface
+public interface DigitalInputEventListener {
+	/**
+	 * Process a digital input edge event.
+	 *
+	 * @param gpio      the GPIO number
+	 * @param value     the underlying GPIO state, not compensated for active high /
+	 *                  low logic
+	 * @param epochTime the event time in milliseconds since the epoch
+	 * @param nanoTime  the event time in nanoseconds, as reported by the provider
+	 */
+	void event(int gpio, boolean value, long epochTime, long nanoTime);
+}
@@ -59,12 +59,14 @@ import java.util.function.Consumer;
 import org.tinylog.Logger;
 
 import com.diozero.api.AnalogInputEvent;
+import com.diozero.api.AnalogSampleStream;
 import com.diozero.api.DeviceInterface;
 import com.diozero.api.DigitalInputDevice;
 import com.diozero.api.Event;
 import com.diozero.api.I2CDevice;
 import com.diozero.api.I2CDeviceInterface;
 import com.diozero.api.I2CDeviceInterface.I2CMessage;
+import com.diozero.api.I2CTransaction;
 import com.diozero.api.PinInfo;
 import com.diozero.api.RuntimeIOException;
 import com.diozero.api.sandpit.EventQueue;
@@ -1024,6 +1026,25 @@ public class Ads112C04 extends AbstractDeviceFactory implements AnalogInputDevic
 	 * @return the raw analog data reading in signed short format
 	 */
 	public short getReadingOnDataReadyBit() {
+		int bytes_to_read = getDataLength();
+
+		// Logger.debug("Waiting for data to be available...");
+		// Wait for the Data Ready bit to be set in config register #2
+		while (true) {
+			if ((readConfigRegister(ConfigRegister._2) & C2_DATA_RDY_MASK) != 0) {
+				break;
+			}
+			// 100 nS
+			SleepUtil.busySleep(100);
+		}
+		// Logger.debug("Data available");
+
+		// SleepUtil.sleepMillis(2);
+
+		return readData(bytes_to_read);
+	}
+
+	private int getDataLength() {
 		/*-
 		 * DC enabled and CRC disabled is 3 bytes (1 DC, 2 data)
 		 * DC enabled and CRC enabled is 5 bytes (1 DC, 2 data, 2 CRC).
@@ -1041,21 +1062,34 @@ public class Ads112C04 extends AbstractDeviceFactory implements AnalogInputDevic
 				bytes_to_read++;
 			}
 		}
+		return bytes_to_read;
+	}
 
-		// Logger.debug("Waiting for data to be available...");
-		// Wait for the Data Ready bit to be set in config register #2
-		while (true) {
-			if ((readConfigRegister(ConfigRegister._2) & C2_DATA_RDY_MASK) != 0) {
-				break;
-			}
-			// 100 nS
-			SleepUtil.busySleep(100);
-		}
-		// Logger.debug("Data available");
+	/**
+	 * Create a stream that reads a sample each time the DRDY pin signals that a
+	 * conversion is ready, i.e. at the configured data rate. The device is
+	 * switched to continuous mode for the specified ADC number (non-differential)
+	 * when the stream is created and back to single-shot mode when it is stopped.
+	 * Each sample is read with a prebuilt {@link I2CTransaction} so no objects are
+	 * created per sample.
+	 *
+	 * @param adcNumber the ADC to continuously read from (non-differential mode)
+	 * @param drdyPin   input device connected to the DRDY pin
+	 * @param capacity  ring buffer capacity
+	 * @return the sample stream, must be {@link AnalogSampleStream#start()
+	 *         started}
+	 */
+	public AnalogSampleStream createSampleStream(int adcNumber, DigitalInputDevice drdyPin, int capacity) {
+		int data_length = getDataLength();
+		I2CTransaction txn = device.transaction().write(COMMAND_RDATA).read(data_length);
 
-		// SleepUtil.sleepMillis(2);
+		setContinuousModeNonDifferential(adcNumber);
 
-		return readData(bytes_to_read);
+		return AnalogSampleStream.triggered(getName() + "-" + adcNumber, drdyPin, capacity, () -> {
+			txn.execute();
+			ByteBuffer bb = ByteBuffer.wrap(txn.getBuffer(), txn.getReadOffset(0), data_length);
+			return decodeData(bb) / (float) Short.MAX_VALUE;
+		}, this::setSingleShotMode);
 	}
 
 	public short readData(int bytes_to_read) {
@@ -1081,7 +1115,10 @@ public class Ads112C04 extends AbstractDeviceFactory implements AnalogInputDevic
 			Hex.dumpByteArray(buffer);
 		}
 
-		ByteBuffer bb = ByteBuffer.wrap(buffer, 1, bytes_to_read);
+		return decodeData(ByteBuffer.wrap(buffer, 1, bytes_to_read));
+	}
+
+	private short decodeData(ByteBuffer bb) {
 		bb.order(ByteOrder.BIG_ENDIAN);
 		int counter = -1;
 		if (dataCounter.isEnabled()) {
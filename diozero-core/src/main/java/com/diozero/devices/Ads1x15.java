@@ -37,6 +37,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.tinylog.Logger;
 
 import com.diozero.api.AnalogInputEvent;
+import com.diozero.api.AnalogSampleStream;
 import com.diozero.api.DeviceInterface;
 import com.diozero.api.DigitalInputDevice;
 import com.diozero.api.I2CConstants;
@@ -409,6 +410,38 @@ public class Ads1x15 extends AbstractDeviceFactory implements AnalogInputDeviceF
 	public void setContinousMode(DigitalInputDevice readyPin, int adcNumber, FloatConsumer callback) {
 		gettingValues = new AtomicBoolean(false);
 
+		enableContinuousMode(adcNumber);
+
+		this.readyPin = readyPin;
+		readyPin.whenActivated(nanoTime -> {
+			lastResult = RangeUtil.map(readConversionData(adcNumber), 0, Short.MAX_VALUE, 0, 1f);
+			callback.accept(lastResult);
+		});
+		readyPin.whenDeactivated(nanoTime -> Logger.debug("Deactive!!!"));
+	}
+
+	/**
+	 * Create a stream that reads a sample each time the ALERT/RDY pin signals
+	 * that a conversion is ready, i.e. at the configured
+	 * {@link #getDataRate() data rate}. The device is switched to continuous mode
+	 * when the stream is created and back to single mode when it is stopped.
+	 *
+	 * @param readyPin  input device connected to the ALERT/RDY pin
+	 * @param adcNumber the ADC channel to sample
+	 * @param capacity  ring buffer capacity
+	 * @return the sample stream, must be {@link AnalogSampleStream#start()
+	 *         started}
+	 */
+	public AnalogSampleStream createSampleStream(DigitalInputDevice readyPin, int adcNumber, int capacity) {
+		enableContinuousMode(adcNumber);
+		this.readyPin = readyPin;
+
+		return AnalogSampleStream.triggered(getName() + "-" + adcNumber, readyPin, capacity,
+				() -> RangeUtil.map(readConversionData(adcNumber), 0, Short.MAX_VALUE, 0, 1f),
+				() -> setSingleMode(adcNumber));
+	}
+
+	private void enableContinuousMode(int adcNumber) {
 		mode = Mode.CONTINUOUS;
 		comparatorPolarity = ComparatorPolarity.ACTIVE_HIGH;
 		comparatorQueue = ComparatorQueue.ASSERT_ONE_CONV;
@@ -431,13 +464,6 @@ public class Ads1x15 extends AbstractDeviceFactory implements AnalogInputDeviceF
 		device.writeI2CBlockData(ADDR_POINTER_HIGH_THRESH, (byte) 0x80, (byte) 0x00);
 		// SleepUtil.sleepMillis(1);
 		device.writeI2CBlockData(ADDR_POINTER_LO_THRESH, (byte) 0x00, (byte) 0x00);
-
-		this.readyPin = readyPin;
-		readyPin.whenActivated(nanoTime -> {
-			lastResult = RangeUtil.map(readConversionData(adcNumber), 0, Short.MAX_VALUE, 0, 1f);
-			callback.accept(lastResult);
-		});
-		readyPin.whenDeactivated(nanoTime -> Logger.debug("Deactive!!!"));
 	}
 
 	public float getLastResult() {
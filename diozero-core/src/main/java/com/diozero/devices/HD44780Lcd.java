@@ -51,9 +51,18 @@ import com.diozero.util.SleepUtil;
  * <a href="https://www.sparkfun.com/datasheets/LCD/HD44780.pdf">HD44780
  * Datasheet</a>.
  * </p>
+ * <p>
+ * The display is driven in 4-bit mode via an {@link LcdConnection}. When
+ * connected directly to GPIOs prefer
+ * {@link LcdConnection.GpioGroupLcdConnection GpioGroupLcdConnection}, which
+ * updates the data and control pins together, over
+ * {@link LcdConnection.GpioLcdConnection GpioLcdConnection}.
+ * </p>
  */
 public class HD44780Lcd implements LcdInterface {
 	private static final boolean DEFAULT_BACKLIGHT_STATE = true;
+	// Time to hold enable high and then low when writing each nibble
+	private static final long ENABLE_PULSE_NS = 50_000;
 
 	private static final byte DB0 = (byte) (1 << 0);
 	private static final byte DB1 = (byte) (1 << 1);
@@ -220,7 +229,6 @@ public class HD44780Lcd implements LcdInterface {
 	private final boolean dataInHighNibble;
 	private final int registerSelectDataMask;
 	private final int dataReadMask;
-	private final int enableMask;
 	private final int backlightOnMask;
 	private boolean backlightEnabled;
 	private final int columns;
@@ -256,7 +264,6 @@ public class HD44780Lcd implements LcdInterface {
 		dataInHighNibble = lcdConnection.isDataInHighNibble();
 		registerSelectDataMask = 1 << lcdConnection.getRegisterSelectBit();
 		dataReadMask = 1 << lcdConnection.getDataReadWriteBit();
-		enableMask = 1 << lcdConnection.getEnableBit();
 		backlightOnMask = 1 << lcdConnection.getBacklightBit();
 
 		// Initialise the display. From p45/46 of the datasheet:
@@ -326,14 +333,8 @@ public class HD44780Lcd implements LcdInterface {
 		}
 		data |= (byte) (instruction ? 0 : registerSelectDataMask) | (backlightEnabled ? backlightOnMask : 0);
 
-		lcdConnection.write((byte) (data | enableMask));
-		// 50us delay enough?
-		// SleepUtil.sleepMicros(50);
-		SleepUtil.busySleep(50_000);
-		lcdConnection.write(data);
 		// 50us delay enough?
-		// SleepUtil.sleepMicros(50);
-		SleepUtil.busySleep(50_000);
+		lcdConnection.writeEnablePulse(data, ENABLE_PULSE_NS);
 	}
 
 	public int getColumnCount() {
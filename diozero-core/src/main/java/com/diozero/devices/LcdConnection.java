@@ -35,10 +35,14 @@ import java.util.Arrays;
 
 import com.diozero.api.DeviceInterface;
 import com.diozero.api.DigitalOutputDevice;
+import com.diozero.api.GpioLineGroup;
+import com.diozero.api.GpioWaveform;
 import com.diozero.api.RuntimeIOException;
 import com.diozero.devices.mcp23xxx.MCP23xxx;
 import com.diozero.internal.spi.GpioDeviceFactoryInterface;
+import com.diozero.sbc.DeviceFactoryHelper;
 import com.diozero.util.BitManipulation;
+import com.diozero.util.SleepUtil;
 
 /**
  * Interface for connecting to LCD displays using 4-bit data mode (D4-D7).
@@ -49,6 +53,21 @@ import com.diozero.util.BitManipulation;
 public interface LcdConnection extends AutoCloseable {
     void write(byte value);
 
+    /**
+     * Write the value with the {@link #getEnableBit() enable} bit set and then
+     * cleared, holding each state for the specified time. The LCD latches the
+     * data on the falling edge of enable.
+     *
+     * @param value     the payload, excluding the enable bit
+     * @param holdNanos time to hold each state in nanoseconds
+     */
+    default void writeEnablePulse(byte value, long holdNanos) {
+        write((byte) (value | (1 << getEnableBit())));
+        SleepUtil.busySleep(holdNanos);
+        write(value);
+        SleepUtil.busySleep(holdNanos);
+    }
+
     /**
      * Control whether the data bits are in the first or last 4-bits
      *
@@ -487,4 +506,156 @@ public interface LcdConnection extends AutoCloseable {
             registerSelectPin.close();
         }
     }
+
+    /**
+     * Connection via GPIOs where all pins are provisioned as a single
+     * {@link GpioLineGroup} so that the data and control pins are updated
+     * together rather than one at a time - with the built-in provider this is one
+     * system call per GPIO chip, or one register write per bank if fast GPIO is
+     * enabled. Pin assignments are as per {@link GpioLcdConnection}.
+     */
+    public static class GpioGroupLcdConnection implements LcdConnection {
+        private static final int DATA_RW_BIT = 4;
+        private static final int REGISTER_SELECT_BIT = 5;
+        private static final int ENABLE_BIT = 6;
+        private static final int BACKLIGHT_BIT = 7;
+
+        private final GpioLineGroup lines;
+        // Payload bit for each line in the group
+        private final int[] payloadBits;
+        // True if line n corresponds to payload bit n
+        private final boolean direct;
+        // Compiled enable pulse waveforms indexed by payload, built on demand
+        private final GpioWaveform[] enablePulses;
+        private long enablePulseHoldNanos;
+
+        /**
+         * Use the default device factory and specify GPIO numbers.
+         *
+         * @param d4                 GPIO number for d4 pin
+         * @param d5                 GPIO number for d5 pin
+         * @param d6                 GPIO number for d6 pin
+         * @param d7                 GPIO number for d7 pin
+         * @param backlightGpio      backlight control GPIO number (set to -1 if not
+         *                           connected)
+         * @param enableGpio         enable GPIO number
+         * @param dataRwGpio         data read/write GPIO number (not used - connect to
+         *                           GND, set to -1 if not connected)
+         * @param registerSelectGpio register select GPIO number
+         */
+        public GpioGroupLcdConnection(int d4, int d5, int d6, int d7, int backlightGpio, int enableGpio,
+                                      int dataRwGpio, int registerSelectGpio) {
+            this(DeviceFactoryHelper.getNativeDeviceFactory(), d4, d5, d6, d7, backlightGpio, enableGpio, dataRwGpio,
+                 registerSelectGpio);
+        }
+
+        /**
+         * Use the specified device factory and specify GPIO numbers.
+         *
+         * @param deviceFactory      the device factory to use for provisioning the
+         *                           GPIOs
+         * @param d4                 GPIO number for d4 pin
+         * @param d5                 GPIO number for d5 pin
+         * @param d6                 GPIO number for d6 pin
+         * @param d7                 GPIO number for d7 pin
+         * @param backlightGpio      backlight control GPIO number (set to -1 if not
+         *                           connected)
+         * @param enableGpio         enable GPIO number
+         * @param dataRwGpio         data read/write GPIO number (not used - connect to
+         *                           GND, set to -1 if not connected)
+         * @param registerSelectGpio register select GPIO number
+         */
+        public GpioGroupLcdConnection(GpioDeviceFactoryInterface deviceFactory, int d4, int d5, int d6, int d7,
+                                      int backlightGpio, int enableGpio, int dataRwGpio, int registerSelectGpio) {
+            // Indexed by payload bit
+            int[] gpios_by_bit = { d4, d5, d6, d7, dataRwGpio, registerSelectGpio, enableGpio, backlightGpio };
+            int count = 0;
+            for (int gpio : gpios_by_bit) {
+                if (gpio != -1) {
+                    count++;
+                }
+            }
+            int[] gpios = new int[count];
+            payloadBits = new int[count];
+            boolean identity = true;
+            int index = 0;
+            for (int bit = 0; bit < gpios_by_bit.length; bit++) {
+                if (gpios_by_bit[bit] != -1) {
+                    identity &= index == bit;
+                    gpios[index] = gpios_by_bit[bit];
+                    payloadBits[index] = bit;
+                    index++;
+                }
+            }
+            direct = identity;
+            enablePulses = new GpioWaveform[256];
+
+            lines = GpioLineGroup.Builder.builder(gpios).setDeviceFactory(deviceFactory).build();
+        }
+
+        @Override
+        public void write(byte values) {
+            lines.setValues(toLineValues(values));
+        }
+
+        @Override
+        public void writeEnablePulse(byte value, long holdNanos) {
+            if (holdNanos != enablePulseHoldNanos) {
+                Arrays.fill(enablePulses, null);
+                enablePulseHoldNanos = holdNanos;
+            }
+            GpioWaveform waveform = enablePulses[value & 0xff];
+            if (waveform == null) {
+                long all_lines = (1L << payloadBits.length) - 1;
+                waveform = GpioWaveform.Builder.builder()
+                        .set(all_lines, toLineValues((byte) (value | (1 << ENABLE_BIT))), holdNanos)
+                        .set(all_lines, toLineValues(value), holdNanos).build();
+                enablePulses[value & 0xff] = waveform;
+            }
+            lines.play(waveform);
+        }
+
+        private long toLineValues(byte values) {
+            if (direct) {
+                return values & 0xff;
+            }
+            long line_values = 0;
+            for (int i = 0; i < payloadBits.length; i++) {
+                if (BitManipulation.isBitSet(values, payloadBits[i])) {
+                    line_values |= 1L << i;
+                }
+            }
+            return line_values;
+        }
+
+        @Override
+        public boolean isDataInHighNibble() {
+            return false;
+        }
+
+        @Override
+        public int getRegisterSelectBit() {
+            return REGISTER_SELECT_BIT;
+        }
+
+        @Override
+        public int getDataReadWriteBit() {
+            return DATA_RW_BIT;
+        }
+
+        @Override
+        public int getEnableBit() {
+            return ENABLE_BIT;
+        }
+
+        @Override
+        public int getBacklightBit() {
+            return BACKLIGHT_BIT;
+        }
+
+        @Override
+        public void close() throws RuntimeIOException {
+            lines.close();
+        }
+    }
 }
@@ -36,6 +36,8 @@ import java.util.Arrays;
 import java.util.List;
 
 import com.diozero.api.DeviceInterface;
+import com.diozero.api.DigitalOutputDevice;
+import com.diozero.api.GpioLineGroup;
 import com.diozero.api.RuntimeIOException;
 import com.diozero.api.function.Action;
 import com.diozero.internal.spi.GpioDeviceFactoryInterface;
@@ -43,6 +45,8 @@ import com.diozero.sbc.DeviceFactoryHelper;
 import com.diozero.util.RangeUtil;
 
 public class LedBarGraph implements DeviceInterface {
+	// Set when constructed from GPIOs so that all LEDs are updated in one operation
+	private GpioLineGroup group;
 	private List<LED> leds;
 	private float value;
 
@@ -55,9 +59,13 @@ public class LedBarGraph implements DeviceInterface {
 	}
 
 	public LedBarGraph(GpioDeviceFactoryInterface deviceFactory, boolean activeHigh, int... gpios) {
-		leds = new ArrayList<>();
-		for (int gpio : gpios) {
-			leds.add(new LED(deviceFactory, gpio, activeHigh, false));
+		if (gpios.length <= GpioLineGroup.MAX_LINES) {
+			group = new GpioLineGroup(deviceFactory, activeHigh, 0, gpios);
+		} else {
+			leds = new ArrayList<>();
+			for (int gpio : gpios) {
+				leds.add(new LED(deviceFactory, gpio, activeHigh, false));
+			}
 		}
 	}
 
@@ -70,23 +78,43 @@ public class LedBarGraph implements DeviceInterface {
 	}
 
 	public void on() {
-		leds.forEach(LED::on);
+		if (group == null) {
+			leds.forEach(LED::on);
+		} else {
+			group.on();
+		}
 	}
 
 	public void off() {
-		leds.forEach(LED::off);
+		if (group == null) {
+			leds.forEach(LED::off);
+		} else {
+			group.off();
+		}
 	}
 
 	public void toggle() {
-		leds.forEach(LED::toggle);
+		if (group == null) {
+			leds.forEach(LED::toggle);
+		} else {
+			group.toggle();
+		}
 	}
 
 	public void blink() {
-		leds.forEach(LED::blink);
+		if (group == null) {
+			leds.forEach(LED::blink);
+		} else {
+			group.onOffLoop(1, 1, DigitalOutputDevice.INFINITE_ITERATIONS, true, null);
+		}
 	}
 
 	public void blink(float onTime, float offTime, int iterations, Action stopAction) {
-		leds.forEach(led -> led.blink(onTime, offTime, iterations, true, stopAction));
+		if (group == null) {
+			leds.forEach(led -> led.blink(onTime, offTime, iterations, true, stopAction));
+		} else {
+			group.onOffLoop(onTime, offTime, iterations, true, stopAction);
+		}
 	}
 
 	/**
@@ -107,14 +135,29 @@ public class LedBarGraph implements DeviceInterface {
 	 */
 	public void setValue(float newValue) {
 		value = RangeUtil.constrain(newValue, -1, 1);
-		int light_up_to = Math.round(value * leds.size());
-		for (int i = 0; i < leds.size(); i++) {
-			leds.get(i).setOn(light_up_to >= 0 ? i <= light_up_to : i >= leds.size() + light_up_to);
+		int size = group == null ? leds.size() : group.size();
+		int light_up_to = Math.round(value * size);
+		if (group == null) {
+			for (int i = 0; i < size; i++) {
+				leds.get(i).setOn(light_up_to >= 0 ? i <= light_up_to : i >= size + light_up_to);
+			}
+		} else {
+			long values = 0;
+			for (int i = 0; i < size; i++) {
+				if (light_up_to >= 0 ? i <= light_up_to : i >= size + light_up_to) {
+					values |= 1L << i;
+				}
+			}
+			group.setValues(values);
 		}
 	}
 
 	@Override
 	public void close() throws RuntimeIOException {
-		leds.forEach(LED::close);
+		if (group == null) {
+			leds.forEach(LED::close);
+		} else {
+			group.close();
+		}
 	}
 }
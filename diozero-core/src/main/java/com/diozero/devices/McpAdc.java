@@ -36,6 +36,7 @@ import java.nio.ByteBuffer;
 import org.tinylog.Logger;
 
 import com.diozero.api.AnalogInputEvent;
+import com.diozero.api.AnalogSampleStream;
 import com.diozero.api.DeviceInterface;
 import com.diozero.api.PinInfo;
 import com.diozero.api.RuntimeIOException;
@@ -125,6 +126,14 @@ public class McpAdc extends AbstractDeviceFactory implements AnalogInputDeviceFa
 	 * @throws RuntimeIOException
 	 */
 	private int getRawValue(int adcPin, boolean differentialRead) throws RuntimeIOException {
+		byte[] in = spiDevice.writeAndRead(createCommand(adcPin, differentialRead));
+		// Logger.debug(String.format("0x%x, 0x%x, 0x%x",
+		// Byte.valueOf(in.get(0)), Byte.valueOf(in.get(1)), Byte.valueOf(in.get(2))));
+
+		return extractValue(ByteBuffer.wrap(in));
+	}
+
+	private byte[] createCommand(int adcPin, boolean differentialRead) {
 		if (adcPin < 0 || adcPin >= type.getNumPins()) {
 			throw new IllegalArgumentException(
 					"Invalid channel number (" + adcPin + "), must be >= 0 and < " + type.getNumPins());
@@ -151,15 +160,10 @@ public class McpAdc extends AbstractDeviceFactory implements AnalogInputDeviceFa
 		tx[index++] = (byte) 0;
 		tx[index++] = (byte) 0;
 
-		byte[] in = spiDevice.writeAndRead(tx);
-		// Logger.debug(String.format("0x%x, 0x%x, 0x%x",
-		// Byte.valueOf(in.get(0)), Byte.valueOf(in.get(1)), Byte.valueOf(in.get(2))));
-
-		return extractValue(in);
+		return tx;
 	}
 
-	private int extractValue(byte[] rx) {
-		ByteBuffer in = ByteBuffer.wrap(rx);
+	private int extractValue(ByteBuffer in) {
 		// MCP3301 has just one input so doesn't need to send any control data,
 		// therefore only receives 2 bytes
 		// Skip the first byte for all other MCP33xx models
@@ -194,6 +198,35 @@ public class McpAdc extends AbstractDeviceFactory implements AnalogInputDeviceFa
 		return getRawValue(adcPin, false) / (float) type.getRange();
 	}
 
+	/**
+	 * Create a stream that continuously samples the specified pin from a timed
+	 * loop. Each sample is a single SPI transfer using preallocated direct buffers
+	 * so no objects are created per sample. The maximum achievable rate is limited
+	 * by the SPI clock frequency, see {@link Type#getMaxFreq2v7()}.
+	 *
+	 * @param adcPin          Pin on the MCP device
+	 * @param sampleFrequency sample frequency (Hz), 0 to sample as fast as
+	 *                        possible
+	 * @param capacity        ring buffer capacity
+	 * @return the sample stream, must be {@link AnalogSampleStream#start()
+	 *         started}
+	 */
+	public AnalogSampleStream createSampleStream(int adcPin, float sampleFrequency, int capacity) {
+		byte[] command = createCommand(adcPin, false);
+		ByteBuffer tx = ByteBuffer.allocateDirect(command.length);
+		tx.put(command);
+		ByteBuffer rx = ByteBuffer.allocateDirect(command.length);
+		float range = type.getRange();
+
+		return AnalogSampleStream.polled(getName() + "-" + adcPin, sampleFrequency, capacity, () -> {
+			tx.rewind();
+			rx.clear();
+			spiDevice.writeAndRead(tx, rx);
+			rx.flip();
+			return extractValue(rx) / range;
+		}, null);
+	}
+
 	@Override
 	public AnalogInputDeviceInterface createAnalogInputDevice(String key, PinInfo pinInfo) throws RuntimeIOException {
 		return new McpAdcAnalogInputDevice(this, key, pinInfo.getDeviceNumber());
@@ -31,6 +31,7 @@ package com.diozero.devices;
  * #L%
  */
 
+import java.util.Arrays;
 import java.util.EnumSet;
 
 import org.tinylog.Logger;
@@ -38,7 +39,9 @@ import org.tinylog.Logger;
 import com.diozero.api.DeviceMode;
 import com.diozero.api.DigitalOutputDevice;
 import com.diozero.api.GpioEventTrigger;
+import com.diozero.api.GpioLineGroup;
 import com.diozero.api.GpioPullUpDown;
+import com.diozero.api.GpioWaveform;
 import com.diozero.api.PinInfo;
 import com.diozero.api.RuntimeIOException;
 import com.diozero.internal.SoftwarePwmOutputDevice;
@@ -51,6 +54,7 @@ import com.diozero.internal.spi.GpioDigitalOutputDeviceInterface;
 import com.diozero.internal.spi.InternalPwmOutputDeviceInterface;
 import com.diozero.internal.spi.PwmOutputDeviceFactoryInterface;
 import com.diozero.sbc.BoardPinInfo;
+import com.diozero.sbc.DeviceFactoryHelper;
 import com.diozero.util.BitManipulation;
 import com.diozero.util.MutableByte;
 import com.diozero.util.SleepUtil;
@@ -99,6 +103,10 @@ public class OutputShiftRegister extends AbstractDeviceFactory
 		implements GpioDeviceFactoryInterface, PwmOutputDeviceFactoryInterface, GpioExpander {
 	private static final String DEVICE_NAME = "OutputShiftRegister";
 	private static final int DEFAULT_PWM_FREQUENCY = 50;
+	// Bit positions within the line group
+	private static final long DATA_BIT = 1 << 0;
+	private static final long CLOCK_BIT = 1 << 1;
+	private static final long LATCH_BIT = 1 << 2;
 
 	/** DS: Serial Data Input [SER Pin 14] */
 	private final DigitalOutputDevice dataPin;
@@ -106,6 +114,16 @@ public class OutputShiftRegister extends AbstractDeviceFactory
 	private final DigitalOutputDevice clockPin;
 	/** ST_CP. Storage Register Clock Pin / Shift Output [RCLK Pin 12] */
 	private final DigitalOutputDevice latchPin;
+	/**
+	 * Data, clock and latch as a single line group (bits 0, 1 and 2), null if
+	 * constructed from individual output devices
+	 */
+	private final GpioLineGroup pins;
+	// Reused to compile the waveform for each flush when using the line group
+	private final GpioWaveform.Builder waveformBuilder;
+	// The last compiled waveform and the buffer values that it transfers
+	private GpioWaveform waveform;
+	private boolean[] waveformValues;
 
 	private boolean[] buf;
 	private boolean[] values;
@@ -113,24 +131,38 @@ public class OutputShiftRegister extends AbstractDeviceFactory
 	private BoardPinInfo boardPinInfo;
 
 	public OutputShiftRegister(int dataGpio, int clockGpio, int latchGpio, int numOutputs) {
-		this(new DigitalOutputDevice(dataGpio), new DigitalOutputDevice(clockGpio), new DigitalOutputDevice(latchGpio),
-				numOutputs);
+		this(DeviceFactoryHelper.getNativeDeviceFactory(), dataGpio, clockGpio, latchGpio, numOutputs);
 	}
 
+	/**
+	 * The data, clock and latch GPIOs are provisioned as a single line group so
+	 * that data and clock can be updated together.
+	 *
+	 * @param deviceFactory Device factory to use to provision the GPIOs
+	 * @param dataGpio      Serial data input GPIO
+	 * @param clockGpio     Shift register clock GPIO
+	 * @param latchGpio     Storage register clock GPIO
+	 * @param numOutputs    Number of outputs
+	 */
 	public OutputShiftRegister(GpioDeviceFactoryInterface deviceFactory, int dataGpio, int clockGpio, int latchGpio,
 			int numOutputs) {
-		this(DigitalOutputDevice.Builder.builder(dataGpio).setDeviceFactory(deviceFactory).build(),
-				DigitalOutputDevice.Builder.builder(clockGpio).setDeviceFactory(deviceFactory).build(),
-				DigitalOutputDevice.Builder.builder(latchGpio).setDeviceFactory(deviceFactory).build(), numOutputs);
+		this(null, null, null, new GpioLineGroup(deviceFactory, dataGpio, clockGpio, latchGpio), numOutputs);
 	}
 
 	public OutputShiftRegister(DigitalOutputDevice dataPin, DigitalOutputDevice clockPin, DigitalOutputDevice latchPin,
 			int numOutputs) {
+		this(dataPin, clockPin, latchPin, null, numOutputs);
+	}
+
+	private OutputShiftRegister(DigitalOutputDevice dataPin, DigitalOutputDevice clockPin,
+			DigitalOutputDevice latchPin, GpioLineGroup pins, int numOutputs) {
 		super(DEVICE_NAME);
 
 		this.dataPin = dataPin;
 		this.clockPin = clockPin;
 		this.latchPin = latchPin;
+		this.pins = pins;
+		waveformBuilder = pins == null ? null : GpioWaveform.Builder.builder();
 
 		buf = new boolean[numOutputs];
 		values = new boolean[numOutputs];
@@ -191,6 +223,11 @@ public class OutputShiftRegister extends AbstractDeviceFactory
 	}
 
 	public void flush() {
+		if (pins != null) {
+			flushGroup();
+			return;
+		}
+
 		// Ground the latch pin and hold low for as long as you are transmitting
 		latchPin.off();
 		SleepUtil.busySleep(100);
@@ -204,6 +241,35 @@ public class OutputShiftRegister extends AbstractDeviceFactory
 		latchPin.on();
 	}
 
+	private void flushGroup() {
+		if (waveform == null || !Arrays.equals(buf, waveformValues)) {
+			waveform = compileWaveform();
+			waveformValues = buf.clone();
+		}
+
+		pins.play(waveform);
+		System.arraycopy(buf, 0, values, 0, buf.length);
+	}
+
+	private GpioWaveform compileWaveform() {
+		// Compile the whole transfer into a single waveform
+		waveformBuilder.clear();
+		// Latch low for as long as you are transmitting
+		waveformBuilder.set(LATCH_BIT, 0, 100);
+		for (int i = buf.length - 1; i >= 0; i--) {
+			// Clock low and data in one operation (SER hold time after SRCLK is 0ns)
+			// Max SER before SRCLK high
+			waveformBuilder.set(DATA_BIT | CLOCK_BIT, buf[i] ? DATA_BIT : 0, 125);
+			// Max SRCLK pulse duration is 100ns
+			waveformBuilder.set(CLOCK_BIT, CLOCK_BIT, 100);
+		}
+		// SRCLK high before RCLK high
+		waveformBuilder.set(DATA_BIT | CLOCK_BIT, 0, 100);
+		waveformBuilder.set(LATCH_BIT, LATCH_BIT);
+
+		return waveformBuilder.build();
+	}
+
 	private void shiftOut() {
 		/*- Arduino code:
 		void shiftOut(uint8_t dataPin, uint8_t clockPin, uint8_t bitOrder, uint8_t val) {
@@ -245,9 +311,13 @@ public class OutputShiftRegister extends AbstractDeviceFactory
 	public void close() throws RuntimeIOException {
 		clear();
 
-		latchPin.close();
-		clockPin.close();
-		dataPin.close();
+		if (pins == null) {
+			latchPin.close();
+			clockPin.close();
+			dataPin.close();
+		} else {
+			pins.close();
+		}
 	}
 
 	@Override
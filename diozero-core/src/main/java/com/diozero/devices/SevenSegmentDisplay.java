@@ -31,10 +31,8 @@ package com.diozero.devices;
  * #L%
  */
 
-import java.util.Arrays;
-
 import com.diozero.api.DeviceInterface;
-import com.diozero.api.DigitalOutputDevice;
+import com.diozero.api.GpioLineGroup;
 import com.diozero.internal.spi.GpioDeviceFactoryInterface;
 import com.diozero.sbc.DeviceFactoryHelper;
 
@@ -64,25 +62,25 @@ import com.diozero.sbc.DeviceFactoryHelper;
  * </pre>
  */
 public class SevenSegmentDisplay implements DeviceInterface {
-	private static final boolean[][] NUMBERS = { //
-			{ true, true, true, true, true, true, false }, // 0
-			{ false, true, true, false, false, false, false }, // 1
-			{ true, true, false, true, true, false, true }, // 2
-			{ true, true, true, true, false, false, true }, // 3
-			{ false, true, true, false, false, true, true }, // 4
-			{ true, false, true, true, false, true, true }, // 5
-			{ true, false, true, true, true, true, true }, // 6
-			{ true, true, true, false, false, false, false }, // 7
-			{ true, true, true, true, true, true, true }, // 8
-			{ true, true, true, true, false, true, true }, // 9
+	private static final int NUM_SEGMENTS = 7;
+	// Segment bit masks for each number, bit 0 is segment A
+	private static final long[] NUMBERS = { //
+			0b0111111, // 0
+			0b0000110, // 1
+			0b1011011, // 2
+			0b1001111, // 3
+			0b1100110, // 4
+			0b1101101, // 5
+			0b1111101, // 6
+			0b0000111, // 7
+			0b1111111, // 8
+			0b1101111, // 9
 	};
 
-	// Length 7 - one for each segment
-	private DigitalOutputDevice[] segments;
-	private DigitalOutputDevice decimalPoint;
-	private DigitalOutputDevice semicolon;
+	// One line for each segment, all updated in one operation
+	private GpioLineGroup segments;
 	// Control which digit is displayed, arbitrary length
-	private DigitalOutputDevice[] digitControl;
+	private GpioLineGroup digitControl;
 
 	public SevenSegmentDisplay(int aGpio, int bGpio, int cGpio, int dGpio, int eGpio, int fGpio, int gGpio,
 			int[] digitControlGpios) {
@@ -93,51 +91,43 @@ public class SevenSegmentDisplay implements DeviceInterface {
 	public SevenSegmentDisplay(GpioDeviceFactoryInterface deviceFactory, int aGpio, int bGpio, int cGpio, int dGpio,
 			int eGpio, int fGpio, int gGpio, int[] digitControlGpios) {
 		// TODO Include DP and Colon
-		segments = new DigitalOutputDevice[7];
-		int i = 0;
-		segments[i++] = new DigitalOutputDevice(deviceFactory, aGpio, true, false);
-		segments[i++] = new DigitalOutputDevice(deviceFactory, bGpio, true, false);
-		segments[i++] = new DigitalOutputDevice(deviceFactory, cGpio, true, false);
-		segments[i++] = new DigitalOutputDevice(deviceFactory, dGpio, true, false);
-		segments[i++] = new DigitalOutputDevice(deviceFactory, eGpio, true, false);
-		segments[i++] = new DigitalOutputDevice(deviceFactory, fGpio, true, false);
-		segments[i++] = new DigitalOutputDevice(deviceFactory, gGpio, true, false);
-
-		digitControl = new DigitalOutputDevice[digitControlGpios.length];
-		for (i = 0; i < digitControlGpios.length; i++) {
-			digitControl[i] = new DigitalOutputDevice(deviceFactory, digitControlGpios[i], false, false);
+		segments = new GpioLineGroup(deviceFactory, true, 0, aGpio, bGpio, cGpio, dGpio, eGpio, fGpio, gGpio);
+		try {
+			digitControl = new GpioLineGroup(deviceFactory, false, 0, digitControlGpios);
+		} catch (RuntimeException e) {
+			segments.close();
+			throw e;
 		}
 	}
 
 	@Override
 	public void close() {
-		Arrays.asList(digitControl).forEach(DeviceInterface::close);
-		Arrays.asList(segments).forEach(DeviceInterface::close);
+		digitControl.close();
+		segments.close();
 	}
 
 	public void displayNumbers(int value, boolean[] onDigits) {
-		if (onDigits.length > digitControl.length) {
+		if (onDigits.length > digitControl.size()) {
 			throw new IllegalArgumentException("Too many digits specified (" + onDigits.length
-					+ "), array length must be 1.." + digitControl.length);
+					+ "), array length must be 1.." + digitControl.size());
 		}
 		if (value > NUMBERS.length - 1) {
 			throw new IllegalArgumentException("Invalid value " + value + " - only numbers 0..9 are supported");
 		}
 
-		for (int i = 0; i < digitControl.length; i++) {
-			digitControl[i].setOn(onDigits[i]);
+		long digits = 0;
+		for (int i = 0; i < onDigits.length; i++) {
+			if (onDigits[i]) {
+				digits |= 1L << i;
+			}
 		}
+		digitControl.setValues(digits);
 
-		boolean[] values = NUMBERS[value];
-		for (int i = 0; i < segments.length; i++) {
-			segments[i].setOn(values[i]);
-		}
+		segments.setValues(NUMBERS[value]);
 	}
 
 	public void enableDigit(int digit) {
-		for (int i = 0; i < digitControl.length; i++) {
-			digitControl[i].setOn(i == digit);
-		}
+		digitControl.setValues(1L << digit);
 	}
 
 	public void displayNumber(int value) {
@@ -145,20 +135,21 @@ public class SevenSegmentDisplay implements DeviceInterface {
 			throw new IllegalArgumentException("Invalid value " + value + " - only numbers 0..9 are supported");
 		}
 
-		boolean[] values = NUMBERS[value];
-		for (int i = 0; i < segments.length; i++) {
-			segments[i].setOn(values[i]);
-		}
+		segments.setValues(NUMBERS[value]);
 	}
 
 	public void display(boolean[] values) {
-		if (values.length != segments.length) {
+		if (values.length != NUM_SEGMENTS) {
 			throw new IllegalArgumentException(
-					"Invalid values array length (" + values.length + ") - must be " + segments.length);
+					"Invalid values array length (" + values.length + ") - must be " + NUM_SEGMENTS);
 		}
 
-		for (int i = 0; i < segments.length; i++) {
-			segments[i].setOn(values[i]);
+		long bits = 0;
+		for (int i = 0; i < NUM_SEGMENTS; i++) {
+			if (values[i]) {
+				bits |= 1L << i;
+			}
 		}
+		segments.setValues(bits);
 	}
 }
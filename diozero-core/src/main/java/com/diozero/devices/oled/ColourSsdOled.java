@@ -31,11 +31,7 @@ package com.diozero.devices.oled;
  * #L%
  */
 
-import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferUShort;
-
-import org.tinylog.Logger;
 
 import com.diozero.api.DigitalOutputDevice;
 import com.diozero.devices.oled.SsdOledCommunicationChannel.SpiCommunicationChannel;
@@ -71,6 +67,12 @@ public abstract class ColourSsdOled extends SsdOled {
 		return buffer;
 	}
 
+	@Override
+	protected int getBytesPerColumn() {
+		// 16 bit colour, MSB first
+		return 2;
+	}
+
 	@Override
 	public void display(BufferedImage image) {
 		if (image.getWidth() != width || image.getHeight() != height) {
@@ -78,25 +80,9 @@ public abstract class ColourSsdOled extends SsdOled {
 					+ image.getHeight() + "), must be " + width + "x" + height);
 		}
 
-		// Make sure the image is of the correct type
-		BufferedImage image_to_display = image;
-		if (image.getType() != imageType) {
-			Logger.warn("Source image type ({}) doesn't match native image type ({}); converting",
-					Integer.valueOf(image.getType()), Integer.valueOf(imageType));
-			image_to_display = new BufferedImage(width, height, imageType);
-			final Graphics2D g2d = image_to_display.createGraphics();
-
-			g2d.drawImage(image, 0, 0, null);
-			g2d.dispose();
-		}
-
-		short[] image_data = ((DataBufferUShort) image_to_display.getRaster().getDataBuffer()).getData();
-		for (int i = 0; i < image_data.length; i++) {
-			buffer[2 * i] = (byte) ((image_data[i] >> 8) & 0xff);
-			buffer[2 * i + 1] = (byte) (image_data[i] & 0xff);
-		}
+		FrameBufferConverter.toRgb565(image, buffer);
 
-		show();
+		update();
 	}
 
 	public void setPixel(int x, int y, byte red, byte green, byte blue, boolean display) {
@@ -109,6 +95,7 @@ public abstract class ColourSsdOled extends SsdOled {
 		if (display) {
 			goTo(x, y);
 			data(index, 2);
+			markTransmitted(x, y, x, y);
 		}
 	}
 
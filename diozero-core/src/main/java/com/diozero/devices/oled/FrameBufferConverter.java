@@ -0,0 +1,295 @@
+package com.diozero.devices.oled;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     FrameBufferConverter.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.Arrays;
+
+/**
+ * Converts {@link BufferedImage} contents into the native frame buffer layouts
+ * of the OLED controllers. Known image types are read directly from the
+ * underlying {@link DataBuffer}; all other image types fall back to the
+ * generic {@link Raster} / {@link BufferedImage#getRGB(int, int)} accessors.
+ * Output is written into the supplied frame buffer, nothing is allocated per
+ * pixel.
+ */
+public final class FrameBufferConverter {
+	private FrameBufferConverter() {
+	}
+
+	/**
+	 * Convert an image to the monochrome page layout, i.e. one byte per column
+	 * for each page of 8 rows with the top row in the least significant bit. A
+	 * pixel is turned on if its first sample (the red component for RGB images)
+	 * is greater than or equal to the threshold.
+	 *
+	 * @param image     the image, the frame buffer is expected to be
+	 *                  {@code image width * image height / 8} bytes
+	 * @param threshold the sampling threshold for turning a pixel on
+	 * @param buffer    the frame buffer to write to
+	 */
+	public static void toMonochromePages(BufferedImage image, int threshold, byte[] buffer) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		Raster raster = image.getRaster();
+		SampleModel sample_model = raster.getSampleModel();
+		DataBuffer data_buffer = raster.getDataBuffer();
+
+		if (isUntranslated(raster) && sample_model instanceof MultiPixelPackedSampleModel
+				&& data_buffer instanceof DataBufferByte && width % 8 == 0 && height % 8 == 0) {
+			MultiPixelPackedSampleModel mpp_model = (MultiPixelPackedSampleModel) sample_model;
+			if (mpp_model.getPixelBitStride() == 1 && mpp_model.getDataBitOffset() == 0) {
+				// 1 bit per pixel, sample values are either 0 or 1
+				if (threshold <= 0) {
+					Arrays.fill(buffer, 0, width * height / 8, (byte) 0xff);
+				} else if (threshold > 1) {
+					Arrays.fill(buffer, 0, width * height / 8, (byte) 0);
+				} else {
+					transposeBinary(((DataBufferByte) data_buffer).getData(), mpp_model.getScanlineStride(), width,
+							height, buffer);
+				}
+				return;
+			}
+		}
+
+		if (isUntranslated(raster) && sample_model instanceof ComponentSampleModel
+				&& data_buffer instanceof DataBufferByte && sample_model.getNumBands() == 1) {
+			ComponentSampleModel cs_model = (ComponentSampleModel) sample_model;
+			if (cs_model.getPixelStride() == 1 && cs_model.getBandOffsets()[0] == 0) {
+				byte[] data = ((DataBufferByte) data_buffer).getData();
+				int scanline_stride = cs_model.getScanlineStride();
+				for (int y = 0; y < height; y++) {
+					int page_offset = (y / 8) * width;
+					byte bit = (byte) (1 << (y & 7));
+					if (bit == 1) {
+						Arrays.fill(buffer, page_offset, page_offset + width, (byte) 0);
+					}
+					int row_offset = y * scanline_stride;
+					for (int x = 0; x < width; x++) {
+						if ((data[row_offset + x] & 0xff) >= threshold) {
+							buffer[page_offset + x] |= bit;
+						}
+					}
+				}
+				return;
+			}
+		}
+
+		int[] rgb_data = getRgbData(image);
+		if (rgb_data != null) {
+			for (int y = 0; y < height; y++) {
+				int page_offset = (y / 8) * width;
+				byte bit = (byte) (1 << (y & 7));
+				if (bit == 1) {
+					Arrays.fill(buffer, page_offset, page_offset + width, (byte) 0);
+				}
+				int row_offset = y * width;
+				for (int x = 0; x < width; x++) {
+					// Sample 0 is the red component
+					if (((rgb_data[row_offset + x] >> 16) & 0xff) >= threshold) {
+						buffer[page_offset + x] |= bit;
+					}
+				}
+			}
+			return;
+		}
+
+		// Generic path, one row of samples at a time
+		int[] row = new int[width];
+		for (int y = 0; y < height; y++) {
+			int page_offset = (y / 8) * width;
+			byte bit = (byte) (1 << (y & 7));
+			if (bit == 1) {
+				Arrays.fill(buffer, page_offset, page_offset + width, (byte) 0);
+			}
+			raster.getSamples(0, y, width, 1, 0, row);
+			for (int x = 0; x < width; x++) {
+				if (row[x] >= threshold) {
+					buffer[page_offset + x] |= bit;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Convert an image to big-endian RGB565, i.e. two bytes per pixel with the
+	 * most significant byte first. Translucent pixels are composited onto black.
+	 *
+	 * @param image  the image, the frame buffer is expected to be
+	 *               {@code 2 * image width * image height} bytes
+	 * @param buffer the frame buffer to write to
+	 */
+	public static void toRgb565(BufferedImage image, byte[] buffer) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int num_pixels = width * height;
+		Raster raster = image.getRaster();
+
+		if (image.getType() == BufferedImage.TYPE_USHORT_565_RGB && isUntranslated(raster)
+				&& ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride() == width) {
+			// Already in the native pixel format, MSB is transmitted first
+			short[] data = ((DataBufferUShort) raster.getDataBuffer()).getData();
+			for (int i = 0; i < num_pixels; i++) {
+				buffer[2 * i] = (byte) (data[i] >> 8);
+				buffer[2 * i + 1] = (byte) data[i];
+			}
+			return;
+		}
+
+		int[] rgb_data = getRgbData(image);
+		if (rgb_data != null) {
+			boolean premultiply = image.getType() == BufferedImage.TYPE_INT_ARGB;
+			for (int i = 0; i < num_pixels; i++) {
+				putRgb565(buffer, i, premultiply ? premultiply(rgb_data[i]) : rgb_data[i]);
+			}
+			return;
+		}
+
+		if (image.getType() == BufferedImage.TYPE_3BYTE_BGR && isUntranslated(raster)
+				&& ((ComponentSampleModel) raster.getSampleModel()).getScanlineStride() == 3 * width) {
+			byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+			for (int i = 0; i < num_pixels; i++) {
+				int colour = (data[3 * i + 2] & 0xff) << 16 | (data[3 * i + 1] & 0xff) << 8 | (data[3 * i] & 0xff);
+				putRgb565(buffer, i, colour);
+			}
+			return;
+		}
+
+		// Generic path, one row of pixels at a time
+		int[] row = new int[width];
+		for (int y = 0; y < height; y++) {
+			image.getRGB(0, y, width, 1, row, 0, width);
+			for (int x = 0; x < width; x++) {
+				putRgb565(buffer, y * width + x, premultiply(row[x]));
+			}
+		}
+	}
+
+	/**
+	 * Get the pixel array for images of type RGB, ARGB and ARGB_PRE that are
+	 * stored contiguously.
+	 */
+	private static int[] getRgbData(BufferedImage image) {
+		int type = image.getType();
+		if (type != BufferedImage.TYPE_INT_RGB && type != BufferedImage.TYPE_INT_ARGB
+				&& type != BufferedImage.TYPE_INT_ARGB_PRE) {
+			return null;
+		}
+		Raster raster = image.getRaster();
+		if (!isUntranslated(raster)
+				|| ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride() != image.getWidth()) {
+			return null;
+		}
+		return ((DataBufferInt) raster.getDataBuffer()).getData();
+	}
+
+	/*
+	 * Sub-images share the parent's data buffer; only take the fast paths if the
+	 * raster starts at the beginning of the data buffer.
+	 */
+	private static boolean isUntranslated(Raster raster) {
+		return raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0
+				&& raster.getDataBuffer().getNumBanks() == 1 && raster.getDataBuffer().getOffset() == 0;
+	}
+
+	private static int premultiply(int argb) {
+		int alpha = argb >>> 24;
+		if (alpha == 0xff) {
+			return argb;
+		}
+		int red = ((argb >> 16) & 0xff) * alpha / 0xff;
+		int green = ((argb >> 8) & 0xff) * alpha / 0xff;
+		int blue = (argb & 0xff) * alpha / 0xff;
+		return red << 16 | green << 8 | blue;
+	}
+
+	private static void putRgb565(byte[] buffer, int pixel, int rgb) {
+		// rrrrrggg gggbbbbb
+		buffer[2 * pixel] = (byte) (((rgb >> 16) & 0xf8) | ((rgb >> 13) & 0x07));
+		buffer[2 * pixel + 1] = (byte) (((rgb >> 5) & 0xe0) | ((rgb >> 3) & 0x1f));
+	}
+
+	/*
+	 * 1 bit per pixel images store 8 horizontal pixels per byte, most significant
+	 * bit first, whereas a page stores 8 vertical pixels per byte, least
+	 * significant bit first. Each 8x8 block is transposed as a single 64-bit
+	 * word.
+	 */
+	private static void transposeBinary(byte[] data, int scanlineStride, int width, int height, byte[] buffer) {
+		int blocks = width / 8;
+		for (int page = 0; page < height / 8; page++) {
+			int row_offset = page * 8 * scanlineStride;
+			int page_offset = page * width;
+			for (int block = 0; block < blocks; block++) {
+				// Byte n of the word is row n of the block, bit m is the pixel at column 7-m
+				long word = 0;
+				for (int row = 0; row < 8; row++) {
+					word |= (data[row_offset + row * scanlineStride + block] & 0xffL) << (row * 8);
+				}
+				if (word == 0) {
+					Arrays.fill(buffer, page_offset + block * 8, page_offset + block * 8 + 8, (byte) 0);
+					continue;
+				}
+				word = transpose8x8(word);
+				// Byte n of the word is now bit n of every row, i.e. the pixels at column 7-n
+				int column_offset = page_offset + block * 8;
+				for (int column = 0; column < 8; column++) {
+					buffer[column_offset + column] = (byte) (word >>> ((7 - column) * 8));
+				}
+			}
+		}
+	}
+
+	/*
+	 * Transpose an 8x8 bit matrix where bit (8 * row + column) is element [row,
+	 * column], see "Hacker's Delight" section 7-3.
+	 */
+	static long transpose8x8(long x) {
+		long t;
+		t = (x ^ (x >>> 7)) & 0x00aa00aa00aa00aaL;
+		x = x ^ t ^ (t << 7);
+		t = (x ^ (x >>> 14)) & 0x0000cccc0000ccccL;
+		x = x ^ t ^ (t << 14);
+		t = (x ^ (x >>> 28)) & 0x00000000f0f0f0f0L;
+		x = x ^ t ^ (t << 28);
+		return x;
+	}
+}
@@ -31,7 +31,6 @@ package com.diozero.devices.oled;
  */
 
 import java.awt.image.BufferedImage;
-import java.awt.image.Raster;
 
 /**
  * Purportedly common items for "black/white" OLED screens.
@@ -178,6 +177,12 @@ public abstract class MonochromeSsdOled extends SsdOled {
         return buffer;
     }
 
+    @Override
+    protected int getBytesPerColumn() {
+        // Each byte is a vertical strip of 8 pixels within a page
+        return 1;
+    }
+
     @Override
     public void display(BufferedImage image) {
         display(image, 1);
@@ -193,20 +198,9 @@ public abstract class MonochromeSsdOled extends SsdOled {
         if (image.getWidth() != width || image.getHeight() != height) {
             throw new IllegalArgumentException("Invalid input image dimensions, must be " + width + "x" + height);
         }
-        /*
-         * Unfortunately it isn't possible to render from a byte array even if the image is already in binary format
-         */
-        //byte[] image_data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
-        //System.arraycopy(image_data, 0, buffer, 0, image_data.length);
-        Raster r = image.getRaster();
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                //int[] pixel = r.getPixel(x, y, new int[] {});
-                setPixel(x, y, r.getSample(x, y, 0) >= threshold);
-            }
-        }
+        FrameBufferConverter.toMonochromePages(image, threshold, getBuffer());
 
-        show();
+        update();
     }
 
     /**
@@ -108,6 +108,7 @@ public class SH1106 extends MonochromeSsdOled {
 
 	@Override
 	protected void init() {
+		invalidateTransmittedBuffer();
 		setDisplayOn(false);
 		_INIT_SEQUENCE.forEach((this::command));
 		setDisplayOn(true);
@@ -136,5 +137,27 @@ public class SH1106 extends MonochromeSsdOled {
 			channel.sendCommand(selectRow);
 			channel.sendData(getBuffer(), width * p, width);
 		}
+		markTransmitted();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * > Overridden for page mode, the column start address is set for each page as there is no address window.
+	 * </p>
+	 */
+	@Override
+	protected void showRegion(int startColumn, int startPage, int endColumn, int endPage) {
+		int column = rowOffset + startColumn;
+		byte columnStartHigh = (byte) (SET_HIGHER_COLUMN_START_ADDR | (column >> 4));
+		byte columnStartLow = (byte) (SET_LOWER_COLUMN_START_ADDR | (column & 0x0f));
+
+		for (int p = startPage; p <= endPage; p++) {
+			channel.sendCommand(columnStartHigh);
+			channel.sendCommand(columnStartLow);
+			channel.sendCommand((byte) (SET_PAGE_START_ADDR | p));
+			channel.sendData(getBuffer(), width * p + startColumn, endColumn - startColumn + 1);
+		}
+		markTransmitted(startColumn, startPage, endColumn, endPage);
 	}
 }
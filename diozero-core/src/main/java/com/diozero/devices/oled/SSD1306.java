@@ -201,4 +201,10 @@ public class SSD1306 extends MonochromeSsdOled {
 		setDisplayOn(true);
 	}
 
+	@Override
+	protected void setWindow(int startColumn, int startPage, int endColumn, int endPage) {
+		// These commands are only for horizontal or vertical addressing modes
+		command(SET_COLUMN_ADDR, (byte) startColumn, (byte) endColumn);
+		command(SET_PAGE_ADDR, (byte) startPage, (byte) endPage);
+	}
 }
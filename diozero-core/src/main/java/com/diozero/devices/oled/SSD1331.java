@@ -99,6 +99,10 @@ public class SSD1331 extends ColourSsdOled {
 		super(controller, chipSelect, dcPin, resetPin, WIDTH, HEIGHT, BufferedImage.TYPE_USHORT_565_RGB);
 	}
 
+	public SSD1331(SsdOledCommunicationChannel commChannel) {
+		super(commChannel, WIDTH, HEIGHT, BufferedImage.TYPE_USHORT_565_RGB);
+	}
+
 	@Override
 	protected void init() {
 		reset();
@@ -150,6 +154,12 @@ public class SSD1331 extends ColourSsdOled {
 		command(SET_ROW_ADDRESS, (byte) y, (byte) (height - 1));
 	}
 
+	@Override
+	protected void setWindow(int startColumn, int startRow, int endColumn, int endRow) {
+		command(SET_COLUMN_ADDRESS, (byte) startColumn, (byte) endColumn);
+		command(SET_ROW_ADDRESS, (byte) startRow, (byte) endRow);
+	}
+
 	/**
 	 * Sets if the display should be inverted
 	 * 
@@ -105,6 +105,11 @@ public class SSD1351 extends ColourSsdOled {
 		super(controller, chipSelect, dcPin, resetPin, WIDTH, HEIGHT, BufferedImage.TYPE_USHORT_565_RGB);
 	}
 
+	public SSD1351(SsdOledCommunicationChannel commChannel) {
+		// Limit to 5-6-5 image type for now (65k colours)
+		super(commChannel, WIDTH, HEIGHT, BufferedImage.TYPE_USHORT_565_RGB);
+	}
+
 	private void commandAndData(byte command, byte... data) {
 		// Single byte command (D/C# = 0)
 		// Multiple byte command (D/C# = 0 for first byte, D/C# = 1 for other bytes)
@@ -119,8 +124,8 @@ public class SSD1351 extends ColourSsdOled {
 	}
 
 	@Override
-	protected void data(int offset, int length) {
-		channel.sendData(getBuffer(), offset, length);
+	protected void data(byte[] buffer, int offset, int length) {
+		channel.sendData(buffer, offset, length);
 		channel.sendCommand(WRITE_RAM_COMMAND);
 	}
 
@@ -222,6 +227,13 @@ public class SSD1351 extends ColourSsdOled {
 		command(WRITE_RAM_COMMAND);
 	}
 
+	@Override
+	protected void setWindow(int startColumn, int startRow, int endColumn, int endRow) {
+		commandAndData(SET_COLUMN_ADDRESS, (byte) startColumn, (byte) endColumn);
+		commandAndData(SET_ROW_ADDRESS, (byte) startRow, (byte) endRow);
+		command(WRITE_RAM_COMMAND);
+	}
+
 	@Override
 	public void invertDisplay(boolean invert) {
 		command(invert ? DISPLAY_MODE_INVERSE : DISPLAY_MODE_NORMAL);
@@ -31,9 +31,9 @@ package com.diozero.devices.oled;
  * #L%
  */
 
+import java.awt.AlphaComposite;
 import java.awt.Font;
 import java.awt.Graphics2D;
-import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.util.Arrays;
 
@@ -50,6 +50,12 @@ public abstract class SsdOled implements DeviceInterface {
 	protected final int height;
 
 	protected int imageType;
+	// Copy of the buffer contents as last transmitted, null if not yet known
+	private byte[] transmittedBuffer;
+	// Scratch space for packing a partial-width region into a single transfer
+	private byte[] regionBuffer;
+	// Reused by scaleImage while the scaled size is unchanged
+	private BufferedImage scaledImage;
 
 	protected SsdOled(SsdOledCommunicationChannel channel, int width, int height, int imageType) {
 		this.channel = channel;
@@ -65,12 +71,36 @@ public abstract class SsdOled implements DeviceInterface {
 	 */
 	protected abstract byte[] getBuffer();
 
+	/**
+	 * The buffer is organised as rows of {@code width} columns; a row is a page
+	 * of 8 pixel rows for monochrome displays and a single pixel row for colour
+	 * displays.
+	 *
+	 * @return the number of buffer bytes for each column in a buffer row
+	 */
+	protected abstract int getBytesPerColumn();
+
+	/**
+	 * Initialise the display; implementations must call {@link #reset()} or
+	 * {@link #invalidateTransmittedBuffer()} as the display contents are no longer
+	 * known.
+	 */
 	protected abstract void init();
 
 	protected void reset() {
+		invalidateTransmittedBuffer();
 		channel.reset();
 	}
 
+	/**
+	 * Forget what was last transmitted, e.g. after the display has been reset or
+	 * re-initialised, so that the next {@link #update()} displays the entire
+	 * buffer.
+	 */
+	protected void invalidateTransmittedBuffer() {
+		transmittedBuffer = null;
+	}
+
 	protected void command(byte... commands) {
 		channel.sendCommand(commands);
 	}
@@ -80,11 +110,30 @@ public abstract class SsdOled implements DeviceInterface {
 	}
 
 	protected void data(int offset, int length) {
-		channel.sendData(getBuffer(), offset, length);
+		data(getBuffer(), offset, length);
+	}
+
+	protected void data(byte[] buffer, int offset, int length) {
+		channel.sendData(buffer, offset, length);
 	}
 
 	protected abstract void goTo(int x, int y);
 
+	/**
+	 * Restrict subsequent data writes to the specified window, inclusive. Used by
+	 * the default {@link #showRegion(int, int, int, int) showRegion}
+	 * implementation; displays that have no address window must override
+	 * showRegion instead.
+	 *
+	 * @param startColumn first column
+	 * @param startRow    first buffer row (page for monochrome displays)
+	 * @param endColumn   last column
+	 * @param endRow      last buffer row (page for monochrome displays)
+	 */
+	protected void setWindow(int startColumn, int startRow, int endColumn, int endRow) {
+		throw new UnsupportedOperationException(getClass().getSimpleName() + " has no address window");
+	}
+
 	protected void home() {
 		goTo(0, 0);
 	}
@@ -95,10 +144,126 @@ public abstract class SsdOled implements DeviceInterface {
 	public void show() {
 		home();
 		data();
+		markTransmitted();
 	}
 
 	/**
-	 * Fills the buffer with the image and immediately displays it
+	 * Displays only those parts of the buffer that have changed since they were
+	 * last transmitted. Each run of consecutive changed buffer rows (pages for
+	 * monochrome displays) is written as a single window spanning the changed
+	 * columns. The entire buffer is displayed if nothing has been transmitted
+	 * yet.
+	 */
+	public void update() {
+		if (transmittedBuffer == null) {
+			show();
+			return;
+		}
+
+		byte[] buffer = getBuffer();
+		int bytes_per_column = getBytesPerColumn();
+		int row_length = width * bytes_per_column;
+		int rows = buffer.length / row_length;
+
+		int dirty_start_row = -1;
+		int dirty_start_byte = row_length;
+		int dirty_end_byte = -1;
+		for (int row = 0; row <= rows; row++) {
+			int first = -1;
+			if (row < rows) {
+				int offset = row * row_length;
+				first = Arrays.mismatch(buffer, offset, offset + row_length, transmittedBuffer, offset,
+						offset + row_length);
+				if (first >= 0) {
+					int last = row_length - 1;
+					while (buffer[offset + last] == transmittedBuffer[offset + last]) {
+						last--;
+					}
+					if (dirty_start_row == -1) {
+						dirty_start_row = row;
+					}
+					dirty_start_byte = Math.min(dirty_start_byte, first);
+					dirty_end_byte = Math.max(dirty_end_byte, last);
+				}
+			}
+			if (first == -1 && dirty_start_row != -1) {
+				showRegion(dirty_start_byte / bytes_per_column, dirty_start_row, dirty_end_byte / bytes_per_column,
+						row - 1);
+				dirty_start_row = -1;
+				dirty_start_byte = row_length;
+				dirty_end_byte = -1;
+			}
+		}
+	}
+
+	/**
+	 * Transmits the specified region of the buffer, inclusive.
+	 *
+	 * @param startColumn first column
+	 * @param startRow    first buffer row (page for monochrome displays)
+	 * @param endColumn   last column
+	 * @param endRow      last buffer row (page for monochrome displays)
+	 */
+	protected void showRegion(int startColumn, int startRow, int endColumn, int endRow) {
+		byte[] buffer = getBuffer();
+		int bytes_per_column = getBytesPerColumn();
+		int row_length = width * bytes_per_column;
+		int num_rows = endRow - startRow + 1;
+
+		setWindow(startColumn, startRow, endColumn, endRow);
+		if (startColumn == 0 && endColumn == width - 1) {
+			data(buffer, startRow * row_length, num_rows * row_length);
+		} else {
+			int region_row_length = (endColumn - startColumn + 1) * bytes_per_column;
+			if (regionBuffer == null) {
+				regionBuffer = new byte[buffer.length];
+			}
+			for (int i = 0; i < num_rows; i++) {
+				System.arraycopy(buffer, (startRow + i) * row_length + startColumn * bytes_per_column, regionBuffer,
+						i * region_row_length, region_row_length);
+			}
+			data(regionBuffer, 0, num_rows * region_row_length);
+		}
+		markTransmitted(startColumn, startRow, endColumn, endRow);
+	}
+
+	/**
+	 * Record that the entire buffer has been transmitted to the device.
+	 */
+	protected void markTransmitted() {
+		byte[] buffer = getBuffer();
+		if (transmittedBuffer == null) {
+			transmittedBuffer = new byte[buffer.length];
+		}
+		System.arraycopy(buffer, 0, transmittedBuffer, 0, buffer.length);
+	}
+
+	/**
+	 * Record that the specified region of the buffer, inclusive, has been
+	 * transmitted to the device.
+	 *
+	 * @param startColumn first column
+	 * @param startRow    first buffer row (page for monochrome displays)
+	 * @param endColumn   last column
+	 * @param endRow      last buffer row (page for monochrome displays)
+	 */
+	protected void markTransmitted(int startColumn, int startRow, int endColumn, int endRow) {
+		if (transmittedBuffer == null) {
+			// The rest of the display contents are unknown
+			return;
+		}
+		int bytes_per_column = getBytesPerColumn();
+		int row_length = width * bytes_per_column;
+		int length = (endColumn - startColumn + 1) * bytes_per_column;
+		for (int row = startRow; row <= endRow; row++) {
+			int offset = row * row_length + startColumn * bytes_per_column;
+			System.arraycopy(getBuffer(), offset, transmittedBuffer, offset, length);
+		}
+	}
+
+	/**
+	 * Fills the buffer with the image and immediately displays it; only the
+	 * regions that differ from the last transmitted frame are sent to the device.
 	 * 
 	 * @param image the image to display
 	 */
@@ -138,7 +303,8 @@ public abstract class SsdOled implements DeviceInterface {
 	/**
 	 * Scales the image to fit. This will scale up or down, depending on the relative sizes.
 	 * <p>
-	 * This <b>DOES NOT</b> display the image.
+	 * This <b>DOES NOT</b> display the image. The returned image is reused by
+	 * subsequent calls that result in the same scaled size.
 	 * </p>
 	 *
 	 * @param image the image to scale
@@ -152,9 +318,15 @@ public abstract class SsdOled implements DeviceInterface {
 			float scale = Math.min(width / imageWd, height / imageHt);
 			int w = (int) Math.floor(imageWd * scale);
 			int y = (int) Math.floor(imageHt * scale);
-			Image scaledInstance = image.getScaledInstance(w, y, Image.SCALE_DEFAULT);
-			showThis = new BufferedImage(w, y, getNativeImageType());
-			showThis.getGraphics().drawImage(scaledInstance, 0, 0, null);
+			if (scaledImage == null || scaledImage.getWidth() != w || scaledImage.getHeight() != y) {
+				scaledImage = new BufferedImage(w, y, getNativeImageType());
+			}
+			showThis = scaledImage;
+			Graphics2D g2d = showThis.createGraphics();
+			// Replace rather than blend with the previous contents
+			g2d.setComposite(AlphaComposite.Src);
+			g2d.drawImage(image, 0, 0, w, y, null);
+			g2d.dispose();
 		}
 		return showThis;
 	}
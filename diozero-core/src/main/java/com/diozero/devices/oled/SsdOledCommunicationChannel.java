@@ -31,10 +31,18 @@ package com.diozero.devices.oled;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
 import org.tinylog.Logger;
 
 import com.diozero.api.DigitalOutputDevice;
 import com.diozero.api.I2CDeviceInterface;
+import com.diozero.api.RuntimeIOException;
 import com.diozero.api.SpiDevice;
 import com.diozero.api.SpiDeviceInterface;
 import com.diozero.util.SleepUtil;
@@ -93,13 +101,28 @@ public interface SsdOledCommunicationChannel extends AutoCloseable {
 	void sendData(byte[] buffer, int offset, int length);
 
 	/**
-	 * SPI channel, with a data pin and a reset pin.
+	 * The maximum number of bytes that are sent to the device in a single bus
+	 * transfer; larger writes are split into multiple transfers.
+	 *
+	 * @return the maximum transfer size in bytes
+	 */
+	default int getMaxTransferSize() {
+		return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * SPI channel, with a data pin and a reset pin. The data / command pin is only
+	 * changed when switching between commands and data, writes are split into
+	 * transfers that fit within the spidev buffer size.
 	 */
 	class SpiCommunicationChannel implements SsdOledCommunicationChannel {
 		public static final int SPI_FREQUENCY = 8_000_000;
 		private final SpiDeviceInterface device;
 		private final DigitalOutputDevice dcPin;
 		private final DigitalOutputDevice resetPin;
+		private final int maxTransferSize;
+		// Current level of the data / command pin, null if not yet set
+		private Boolean dataMode;
 
 		public SpiCommunicationChannel(int controller, int chipSelect, DigitalOutputDevice dcPin,
 				DigitalOutputDevice resetPin) {
@@ -118,16 +141,31 @@ public interface SsdOledCommunicationChannel extends AutoCloseable {
 			this.device = device;
 			this.dcPin = dcPin;
 			this.resetPin = resetPin;
+			if (device instanceof SpiDevice) {
+				maxTransferSize = ((SpiDevice) device).getMaxBufferSize();
+			} else {
+				maxTransferSize = Integer.MAX_VALUE;
+			}
 		}
 
 		@Override
 		public void write(byte... buffer) {
-			device.write(buffer);
+			write(buffer, 0, buffer.length);
 		}
 
 		@Override
 		public void write(byte[] txBuffer, int txOffset, int length) {
-			device.write(txBuffer, txOffset, length);
+			int written = 0;
+			do {
+				int to_write = Math.min(length - written, maxTransferSize);
+				device.write(txBuffer, txOffset + written, to_write);
+				written += to_write;
+			} while (written < length);
+		}
+
+		@Override
+		public int getMaxTransferSize() {
+			return maxTransferSize;
 		}
 
 		@Override
@@ -147,20 +185,27 @@ public interface SsdOledCommunicationChannel extends AutoCloseable {
 
 		@Override
 		public void sendCommand(byte... commands) {
-			dcPin.setOn(false);
-			device.write(commands);
+			setDataMode(false);
+			write(commands);
 		}
 
 		@Override
 		public void sendData(byte... buffer) {
-			dcPin.setOn(true);
-			device.write(buffer);
+			setDataMode(true);
+			write(buffer);
 		}
 
 		@Override
 		public void sendData(byte[] buffer, int offset, int length) {
-			dcPin.setOn(true);
-			device.write(buffer, offset, length);
+			setDataMode(true);
+			write(buffer, offset, length);
+		}
+
+		private void setDataMode(boolean data) {
+			if (dataMode == null || dataMode.booleanValue() != data) {
+				dcPin.setOn(data);
+				dataMode = Boolean.valueOf(data);
+			}
 		}
 	}
 
@@ -227,4 +272,290 @@ public interface SsdOledCommunicationChannel extends AutoCloseable {
 			write(output);
 		}
 	}
+
+	/**
+	 * Asynchronous decorator for another channel. All transfers are queued and
+	 * performed on a dedicated writer thread, rather than a thread from the shared
+	 * {@link com.diozero.util.DiozeroScheduler DiozeroScheduler} pool as it runs
+	 * for the lifetime of the channel, so that callers only block if the
+	 * bounded queue is full. Data is copied when queued so that the caller can
+	 * immediately reuse its buffer.
+	 * <p>
+	 * Consecutive commands, and consecutive data writes, that are waiting in the
+	 * queue are coalesced into a single transfer of up to
+	 * {@link SsdOledCommunicationChannel#getMaxTransferSize()} bytes, minimising
+	 * the number of data / command pin transitions and bus transfers. Errors
+	 * raised on the writer thread are reported by the next call to this channel;
+	 * transfers that were queued before the failure was reported are discarded.
+	 * </p>
+	 *
+	 * <pre>
+	 * SsdOledCommunicationChannel channel = new AsyncCommunicationChannel(
+	 * 		new SpiCommunicationChannel(controller, chipSelect, dcPin, resetPin));
+	 * try (SsdOled oled = new SSD1306(channel, Height.TALL)) {
+	 * 	oled.display(image);
+	 * }
+	 * </pre>
+	 */
+	class AsyncCommunicationChannel implements SsdOledCommunicationChannel {
+		public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+		private enum Type {
+			COMMAND, DATA, WRITE, RESET, FLUSH, CLOSE
+		}
+
+		private static final class Transfer {
+			final Type type;
+			final byte[] data;
+			final CountDownLatch completed;
+			// The number of errors reported to callers when this transfer was queued
+			final int generation;
+
+			Transfer(Type type, byte[] data, CountDownLatch completed, int generation) {
+				this.type = type;
+				this.data = data;
+				this.completed = completed;
+				this.generation = generation;
+			}
+		}
+
+		private final SsdOledCommunicationChannel delegate;
+		private final BlockingQueue<Transfer> queue;
+		private final int maxTransferSize;
+		// Owned by the writer thread
+		private final List<Transfer> batch;
+		private byte[] burst;
+		private volatile boolean running;
+		// Owned by the writer thread, the generation of the transfer that failed
+		private int failedGeneration;
+		private volatile RuntimeException error;
+		private volatile int generation;
+		private final Thread writerThread;
+
+		public AsyncCommunicationChannel(SsdOledCommunicationChannel delegate) {
+			this(delegate, DEFAULT_QUEUE_CAPACITY);
+		}
+
+		/**
+		 * @param delegate      the channel to perform the transfers
+		 * @param queueCapacity the maximum number of queued transfers before callers
+		 *                      block
+		 */
+		public AsyncCommunicationChannel(SsdOledCommunicationChannel delegate, int queueCapacity) {
+			if (queueCapacity < 1) {
+				throw new IllegalArgumentException("Invalid queue capacity " + queueCapacity + ", must be >= 1");
+			}
+
+			this.delegate = delegate;
+			queue = new ArrayBlockingQueue<>(queueCapacity);
+			maxTransferSize = delegate.getMaxTransferSize();
+			batch = new ArrayList<>(queueCapacity);
+			burst = new byte[0];
+
+			failedGeneration = -1;
+			running = true;
+			writerThread = new Thread(this::run, "diozero-SsdOled-writer-" + hashCode());
+			writerThread.start();
+		}
+
+		@Override
+		public void write(byte... buffer) {
+			write(buffer, 0, buffer.length);
+		}
+
+		@Override
+		public void write(byte[] buffer, int offset, int length) {
+			enqueue(Type.WRITE, Arrays.copyOfRange(buffer, offset, offset + length), null);
+		}
+
+		@Override
+		public void reset() {
+			enqueue(Type.RESET, null, null);
+		}
+
+		@Override
+		public void sendCommand(byte... commands) {
+			enqueue(Type.COMMAND, commands.clone(), null);
+		}
+
+		@Override
+		public void sendData(byte... buffer) {
+			sendData(buffer, 0, buffer.length);
+		}
+
+		@Override
+		public void sendData(byte[] buffer, int offset, int length) {
+			enqueue(Type.DATA, Arrays.copyOfRange(buffer, offset, offset + length), null);
+		}
+
+		@Override
+		public int getMaxTransferSize() {
+			return maxTransferSize;
+		}
+
+		/**
+		 * Get the number of transfers that are queued but not yet started.
+		 *
+		 * @return the number of queued transfers
+		 */
+		public int getQueuedCount() {
+			return queue.size();
+		}
+
+		/**
+		 * Block until all previously queued transfers have completed.
+		 *
+		 * @throws RuntimeIOException if a transfer failed
+		 */
+		public void flush() throws RuntimeIOException {
+			CountDownLatch completed = new CountDownLatch(1);
+			enqueue(Type.FLUSH, null, completed);
+			try {
+				completed.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeIOException("Interrupted waiting for transfers to complete", e);
+			}
+			checkError();
+		}
+
+		@Override
+		public void close() {
+			Logger.trace("close()");
+			if (running) {
+				try {
+					queue.put(new Transfer(Type.CLOSE, null, null, generation));
+					writerThread.join();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					writerThread.interrupt();
+				}
+				running = false;
+			}
+			delegate.close();
+		}
+
+		private void enqueue(Type type, byte[] data, CountDownLatch completed) {
+			checkError();
+			if (!running) {
+				throw new RuntimeIOException("Channel is closed");
+			}
+			try {
+				queue.put(new Transfer(type, data, completed, generation));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeIOException("Interrupted waiting to queue transfer", e);
+			}
+		}
+
+		private synchronized void checkError() {
+			RuntimeException e = error;
+			if (e != null) {
+				error = null;
+				// Transfers queued from now on are executed
+				generation++;
+				throw new RuntimeIOException("Error in asynchronous transfer: " + e.getMessage(), e);
+			}
+		}
+
+		private void run() {
+			Logger.debug("Started writer thread");
+			boolean closing = false;
+			try {
+				while (!closing) {
+					batch.add(queue.take());
+					queue.drainTo(batch);
+					closing = process();
+					batch.clear();
+				}
+			} catch (InterruptedException e) {
+				Logger.debug("Writer thread interrupted");
+			} finally {
+				running = false;
+				// Release anyone waiting on a flush that will now never be processed
+				for (Transfer transfer : queue) {
+					if (transfer.completed != null) {
+						transfer.completed.countDown();
+					}
+				}
+			}
+			Logger.debug("Writer thread finished");
+		}
+
+		private boolean process() {
+			boolean closing = false;
+			int i = 0;
+			while (i < batch.size()) {
+				Transfer transfer = batch.get(i);
+				// Coalesce subsequent transfers of the same type and generation
+				int length = transfer.data == null ? 0 : transfer.data.length;
+				int next = i + 1;
+				if (transfer.data != null) {
+					while (next < batch.size() && batch.get(next).type == transfer.type
+							&& batch.get(next).generation == transfer.generation
+							&& length + batch.get(next).data.length <= maxTransferSize) {
+						length += batch.get(next).data.length;
+						next++;
+					}
+				}
+
+				if (transfer.generation <= failedGeneration) {
+					// Discard transfers that were queued before the failure was reported
+					if (transfer.type == Type.FLUSH) {
+						transfer.completed.countDown();
+					} else if (transfer.type == Type.CLOSE) {
+						closing = true;
+					}
+					i = next;
+					continue;
+				}
+
+				try {
+					switch (transfer.type) {
+					case COMMAND:
+						delegate.sendCommand(coalesce(i, next, length));
+						break;
+					case DATA:
+						delegate.sendData(coalesce(i, next, length), 0, length);
+						break;
+					case WRITE:
+						delegate.write(coalesce(i, next, length), 0, length);
+						break;
+					case RESET:
+						delegate.reset();
+						break;
+					case FLUSH:
+						transfer.completed.countDown();
+						break;
+					case CLOSE:
+						closing = true;
+						break;
+					}
+				} catch (RuntimeException e) {
+					Logger.error(e, "Error in {} transfer: {}", transfer.type, e);
+					failedGeneration = transfer.generation;
+					error = e;
+				}
+				i = next;
+			}
+			return closing;
+		}
+
+		private byte[] coalesce(int from, int to, int length) {
+			if (to - from == 1) {
+				return batch.get(from).data;
+			}
+			if (burst.length < length) {
+				burst = new byte[length];
+			}
+			int offset = 0;
+			for (int i = from; i < to; i++) {
+				byte[] data = batch.get(i).data;
+				System.arraycopy(data, 0, burst, offset, data.length);
+				offset += data.length;
+			}
+			// Commands are sent as a complete array
+			return batch.get(from).type == Type.COMMAND ? Arrays.copyOf(burst, length) : burst;
+		}
+	}
 }
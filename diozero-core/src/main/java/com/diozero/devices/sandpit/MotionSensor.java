@@ -60,7 +60,7 @@ public class MotionSensor extends SmoothedInputDevice {
 	/**
 	 * @param gpio The GPIO to which the motion sensor is attached.
 	 * @param threshold The value above which the device will be considered "on".
-	 * @param eventAge The time in milliseconds to keep active events in the queue.
+	 * @param eventAge The time window in milliseconds within which threshold active events must occur.
 	 * @param eventDetectPeriod How frequently to check for events.
 	 * @throws RuntimeIOException If an I/O error occurred.
 	 */
@@ -73,7 +73,7 @@ public class MotionSensor extends SmoothedInputDevice {
 	 * @param gpio The GPIO to which the motion sensor is attached.
 	 * @param pud Pull up/down configuration
 	 * @param threshold The value above which the device will be considered "on".
-	 * @param eventAge The time in milliseconds to keep active events in the queue.
+	 * @param eventAge The time window in milliseconds within which threshold active events must occur.
 	 * @param eventDetectPeriod How frequently to check for events.
 	 * @throws RuntimeIOException If an I/O error occurred.
 	 */
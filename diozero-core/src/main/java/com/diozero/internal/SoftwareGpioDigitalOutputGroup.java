@@ -0,0 +1,117 @@
+package com.diozero.internal;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     SoftwareGpioDigitalOutputGroup.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.tinylog.Logger;
+
+import com.diozero.api.PinInfo;
+import com.diozero.internal.spi.AbstractDevice;
+import com.diozero.internal.spi.GpioDeviceFactoryInterface;
+import com.diozero.internal.spi.GpioDigitalOutputDeviceInterface;
+import com.diozero.internal.spi.GpioDigitalOutputGroupInterface;
+
+/**
+ * GPIO output group for providers that cannot update several lines at once -
+ * each line is provisioned as an individual output device and written in turn.
+ */
+public class SoftwareGpioDigitalOutputGroup extends AbstractDevice implements GpioDigitalOutputGroupInterface {
+	private final GpioDigitalOutputDeviceInterface[] outputs;
+	private long values;
+
+	public SoftwareGpioDigitalOutputGroup(String key, GpioDeviceFactoryInterface deviceFactory, PinInfo[] pinInfos,
+			long initialValues) {
+		super(key, deviceFactory);
+
+		outputs = new GpioDigitalOutputDeviceInterface[pinInfos.length];
+		try {
+			for (int i = 0; i < pinInfos.length; i++) {
+				outputs[i] = deviceFactory.provisionDigitalOutputDevice(pinInfos[i], (initialValues & (1L << i)) != 0);
+				outputs[i].setChild(true);
+			}
+		} catch (RuntimeException e) {
+			closeOutputs();
+			throw e;
+		}
+		values = initialValues;
+	}
+
+	@Override
+	public int getLineCount() {
+		return outputs.length;
+	}
+
+	@Override
+	public int getGpio(int index) {
+		return outputs[index].getGpio();
+	}
+
+	@Override
+	public synchronized long getValues() {
+		long result = 0;
+		for (int i = 0; i < outputs.length; i++) {
+			if (outputs[i].getValue()) {
+				result |= 1L << i;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized void setValues(long mask, long newValues) {
+		// Only write the lines that are actually changing
+		long changed = mask & (values ^ newValues);
+		while (changed != 0) {
+			int i = Long.numberOfTrailingZeros(changed);
+			if (i >= outputs.length) {
+				break;
+			}
+			outputs[i].setValue((newValues & (1L << i)) != 0);
+			changed &= changed - 1;
+		}
+		values = (values & ~mask) | (newValues & mask);
+	}
+
+	@Override
+	protected void closeDevice() {
+		Logger.trace("closeDevice() {}", getKey());
+		closeOutputs();
+	}
+
+	private void closeOutputs() {
+		for (GpioDigitalOutputDeviceInterface output : outputs) {
+			// The diozero shutdown handler closes devices in an arbitrary order
+			if (output != null && output.isOpen()) {
+				output.close();
+			}
+		}
+	}
+}
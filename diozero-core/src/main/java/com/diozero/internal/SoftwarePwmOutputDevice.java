@@ -76,7 +76,7 @@ public class SoftwarePwmOutputDevice extends AbstractDevice implements InternalP
 
 	public void start() {
 		if (!running.getAndSet(true)) {
-			future = DiozeroScheduler.getNonDaemonInstance().submit(this::dutyLoop);
+			future = DiozeroScheduler.getHighPriorityInstance().submit(this::dutyLoop);
 		}
 	}
 
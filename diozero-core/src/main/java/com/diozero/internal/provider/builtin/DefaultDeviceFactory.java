@@ -46,6 +46,7 @@ import com.diozero.api.PinInfo;
 import com.diozero.api.RuntimeIOException;
 import com.diozero.api.SerialConstants;
 import com.diozero.api.SpiClockMode;
+import com.diozero.internal.SoftwareGpioDigitalOutputGroup;
 import com.diozero.internal.SoftwarePwmOutputDevice;
 import com.diozero.internal.board.GenericLinuxArmBoardInfo;
 import com.diozero.internal.board.odroid.OdroidC2SysFsPwmOutputDevice;
@@ -59,6 +60,7 @@ import com.diozero.internal.spi.BaseNativeDeviceFactory;
 import com.diozero.internal.spi.GpioDigitalInputDeviceInterface;
 import com.diozero.internal.spi.GpioDigitalInputOutputDeviceInterface;
 import com.diozero.internal.spi.GpioDigitalOutputDeviceInterface;
+import com.diozero.internal.spi.GpioDigitalOutputGroupInterface;
 import com.diozero.internal.spi.InternalI2CDeviceInterface;
 import com.diozero.internal.spi.InternalPwmOutputDeviceInterface;
 import com.diozero.internal.spi.InternalSerialDeviceInterface;
@@ -79,6 +81,7 @@ public class DefaultDeviceFactory extends BaseNativeDeviceFactory {
 	private static final String I2C_USE_JAVA_RAF_PROP = "diozero.i2c.javaraf";
 	private static final String I2C_SLAVE_FORCE_PROP = "diozero.i2c.slaveforce";
 	private static final String GPIO_ADD_UNCONFIGURED_GPIOS_PROP = "diozero.gpio.autoconfig";
+	private static final String GPIO_FAST_PROP = "diozero.gpio.fast";
 
 	private static final boolean GPIO_USE_CHARDEV_DEFAULT = true;
 
@@ -90,6 +93,7 @@ public class DefaultDeviceFactory extends BaseNativeDeviceFactory {
 	private boolean i2cUseJavaRaf;
 	private boolean i2cSlaveForce;
 	private boolean addUnconfiguredGpios;
+	private boolean fastGpio;
 	private MmapGpioInterface mmapGpio;
 
 	public DefaultDeviceFactory() {
@@ -97,6 +101,7 @@ public class DefaultDeviceFactory extends BaseNativeDeviceFactory {
 		i2cUseJavaRaf = PropertyUtil.isPropertySet(I2C_USE_JAVA_RAF_PROP);
 		i2cSlaveForce = PropertyUtil.isPropertySet(I2C_SLAVE_FORCE_PROP);
 		addUnconfiguredGpios = PropertyUtil.isPropertySet(GPIO_ADD_UNCONFIGURED_GPIOS_PROP);
+		fastGpio = PropertyUtil.isPropertySet(GPIO_FAST_PROP);
 	}
 
 	@Override
@@ -315,6 +320,57 @@ public class DefaultDeviceFactory extends BaseNativeDeviceFactory {
 		return Diozero.UNKNOWN_VALUE;
 	}
 
+	/**
+	 * Get the memory mapped GPIO implementation that output and input / output
+	 * devices use for value access of the specified GPIO.
+	 *
+	 * @param gpio the GPIO number
+	 * @return the mmap GPIO implementation, null if not supported by this SoC for
+	 *         the specified GPIO
+	 */
+	MmapGpioInterface getMmapGpio(int gpio) {
+		if (mmapGpio == null) {
+			return null;
+		}
+
+		// The SoC's mmap implementation reports the GPIOs that it can access
+		if (mmapGpio.getBank(gpio) == -1) {
+			Logger.debug("Memory mapped GPIO not available for GPIO {}, using the GPIO character device",
+					Integer.valueOf(gpio));
+			return null;
+		}
+
+		return mmapGpio;
+	}
+
+	/**
+	 * Get the memory mapped GPIO implementation to use for digital reads of input
+	 * devices and for output groups. The line is still requested via the GPIO
+	 * character device for ownership and events; only value access bypasses the
+	 * kernel. Enabled via the {@value #GPIO_FAST_PROP} property.
+	 *
+	 * @param gpio the GPIO number
+	 * @return the mmap GPIO implementation, null if fast GPIO is not enabled or
+	 *         not supported by this SoC for the specified GPIO
+	 */
+	MmapGpioInterface getFastGpio(int gpio) {
+		if (!fastGpio) {
+			return null;
+		}
+
+		return getMmapGpio(gpio);
+	}
+
+	private MmapGpioInterface getFastGpio(PinInfo[] pinInfos) {
+		for (PinInfo pin_info : pinInfos) {
+			if (getFastGpio(pin_info.getDeviceNumber()) == null) {
+				return null;
+			}
+		}
+
+		return mmapGpio;
+	}
+
 	@Override
 	public List<Integer> getI2CBusNumbers() {
 		return LocalSystemInfo.getI2CBusNumbers();
@@ -338,7 +394,8 @@ public class DefaultDeviceFactory extends BaseNativeDeviceFactory {
 				throw new IllegalArgumentException("Can't find chip for id " + pinInfo.getChip());
 			}
 
-			return new NativeGpioInputDevice(this, key, chip, pinInfo, pud, trigger, mmapGpio);
+			return new NativeGpioInputDevice(this, key, chip, pinInfo, pud, trigger, mmapGpio,
+					getFastGpio(pinInfo.getDeviceNumber()));
 		}
 
 		// Note not possible to set pud value using sysfs
@@ -358,12 +415,29 @@ public class DefaultDeviceFactory extends BaseNativeDeviceFactory {
 				throw new IllegalArgumentException("Can't find chip for id " + pinInfo.getChip());
 			}
 
-			return new NativeGpioOutputDevice(this, key, chip, pinInfo, initialValue, mmapGpio);
+			return new NativeGpioOutputDevice(this, key, chip, pinInfo, initialValue,
+					getMmapGpio(pinInfo.getDeviceNumber()));
 		}
 
 		return new SysFsDigitalOutputDevice(this, key, pinInfo, initialValue, mmapGpio);
 	}
 
+	@Override
+	public GpioDigitalOutputGroupInterface createDigitalOutputGroup(String key, PinInfo[] pinInfos,
+			long initialValues) {
+		if (gpioUseCharDev) {
+			try {
+				return new NativeGpioOutputGroup(this, key, chips, pinInfos, initialValues, getFastGpio(pinInfos));
+			} catch (RuntimeIOException | UnsatisfiedLinkError e) {
+				// Multi-line requests require the GPIO v2 ABI (Linux 5.10+)
+				Logger.debug("Unable to request GPIO lines {} as a group, reverting to individual lines: {}", key,
+						e.getMessage());
+			}
+		}
+
+		return new SoftwareGpioDigitalOutputGroup(key, this, pinInfos, initialValues);
+	}
+
 	@Override
 	public GpioDigitalInputOutputDeviceInterface createDigitalInputOutputDevice(String key, PinInfo pinInfo,
 			DeviceMode mode) throws RuntimeIOException {
@@ -377,7 +451,8 @@ public class DefaultDeviceFactory extends BaseNativeDeviceFactory {
 				throw new IllegalArgumentException("Can't find chip for id " + pinInfo.getChip());
 			}
 
-			return new NativeGpioInputOutputDevice(this, key, chip, pinInfo, mode, mmapGpio);
+			return new NativeGpioInputOutputDevice(this, key, chip, pinInfo, mode,
+					getMmapGpio(pinInfo.getDeviceNumber()));
 		}
 
 		return new SysFsDigitalInputOutputDevice(this, key, pinInfo, mode);
@@ -31,6 +31,8 @@ package com.diozero.internal.provider.builtin;
  * #L%
  */
 
+import java.nio.ByteBuffer;
+
 import org.tinylog.Logger;
 
 import com.diozero.api.RuntimeIOException;
@@ -41,6 +43,8 @@ import com.diozero.internal.spi.DeviceFactoryInterface;
 import com.diozero.internal.spi.InternalSpiDeviceInterface;
 
 public class DefaultNativeSpiDevice extends AbstractDevice implements InternalSpiDeviceInterface {
+	private static boolean directSupported = true;
+
 	private NativeSpiDevice device;
 
 	public DefaultNativeSpiDevice(DeviceFactoryInterface deviceFactory, String key, int controller, int chipSelect,
@@ -80,4 +84,33 @@ public class DefaultNativeSpiDevice extends AbstractDevice implements InternalSp
 	public byte[] writeAndRead(byte... txBuffer) throws RuntimeIOException {
 		return device.writeAndRead(txBuffer, 0);
 	}
+
+	@Override
+	public void write(ByteBuffer src) throws RuntimeIOException {
+		if (src.isDirect() && directSupported) {
+			try {
+				device.write(src, 0);
+				return;
+			} catch (UnsatisfiedLinkError e) {
+				// Older version of the native library
+				Logger.debug("Direct buffer SPI transfer not available, reverting to byte arrays: {}", e);
+				directSupported = false;
+			}
+		}
+		InternalSpiDeviceInterface.super.write(src);
+	}
+
+	@Override
+	public void writeAndRead(ByteBuffer src, ByteBuffer dst) throws RuntimeIOException {
+		if (src.isDirect() && dst.isDirect() && directSupported) {
+			try {
+				device.writeAndRead(src, dst, 0);
+				return;
+			} catch (UnsatisfiedLinkError e) {
+				Logger.debug("Direct buffer SPI transfer not available, reverting to byte arrays: {}", e);
+				directSupported = false;
+			}
+		}
+		InternalSpiDeviceInterface.super.writeAndRead(src, dst);
+	}
 }
@@ -0,0 +1,161 @@
+package com.diozero.internal.provider.builtin;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     IioScanElement.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.nio.ByteBuffer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A Linux IIO buffer scan element, as described by the
+ * <code>scan_elements/*_index</code> and <code>scan_elements/*_type</code>
+ * sysfs attributes. See the
+ * <a href="https://www.kernel.org/doc/html/latest/driver-api/iio/buffers.html">IIO
+ * buffers</a> kernel documentation.
+ */
+class IioScanElement {
+	// Format: [be|le]:[s|u]bits/storagebits[Xrepeat]>>shift, e.g. le:s12/16>>4
+	private static final Pattern TYPE_PATTERN = Pattern.compile("(be|le):([su])(\\d+)/(\\d+)(?:X(\\d+))?>>(\\d+)");
+
+	private final int index;
+	private final boolean bigEndian;
+	private final boolean signed;
+	private final int realBits;
+	private final int storageBytes;
+	private final int repeat;
+	private final int shift;
+
+	IioScanElement(int index, boolean bigEndian, boolean signed, int realBits, int storageBits, int repeat,
+			int shift) {
+		if (storageBits != 8 && storageBits != 16 && storageBits != 32 && storageBits != 64) {
+			throw new IllegalArgumentException("Unsupported IIO storage bits " + storageBits);
+		}
+		if (realBits < 1 || realBits + shift > storageBits) {
+			throw new IllegalArgumentException(
+					"Invalid IIO real bits (" + realBits + ") / shift (" + shift + ") for storage bits " + storageBits);
+		}
+
+		this.index = index;
+		this.bigEndian = bigEndian;
+		this.signed = signed;
+		this.realBits = realBits;
+		this.storageBytes = storageBits / 8;
+		this.repeat = repeat;
+		this.shift = shift;
+	}
+
+	static IioScanElement parse(int index, String type) {
+		Matcher m = TYPE_PATTERN.matcher(type.trim());
+		if (!m.matches()) {
+			throw new IllegalArgumentException("Invalid IIO scan element type '" + type + "'");
+		}
+		return new IioScanElement(index, m.group(1).equals("be"), m.group(2).equals("s"), Integer.parseInt(m.group(3)),
+				Integer.parseInt(m.group(4)), m.group(5) == null ? 1 : Integer.parseInt(m.group(5)),
+				Integer.parseInt(m.group(6)));
+	}
+
+	/**
+	 * Calculate the byte offset of each element within a scan frame. Elements are
+	 * ordered by index, each element is naturally aligned to its storage size and
+	 * the frame is padded to the largest element storage size.
+	 *
+	 * @param elements the enabled scan elements, sorted by index
+	 * @param offsets  populated with the offset for each element
+	 * @return the total frame size in bytes
+	 */
+	static int layout(IioScanElement[] elements, int[] offsets) {
+		int offset = 0;
+		int max_align = 1;
+		for (int i = 0; i < elements.length; i++) {
+			int align = elements[i].storageBytes;
+			offset = align(offset, align);
+			offsets[i] = offset;
+			offset += elements[i].storageBytes * elements[i].repeat;
+			max_align = Math.max(max_align, align);
+		}
+		return align(offset, max_align);
+	}
+
+	private static int align(int offset, int align) {
+		int rem = offset % align;
+		return rem == 0 ? offset : offset + align - rem;
+	}
+
+	/**
+	 * Extract the value of this element from the buffer
+	 *
+	 * @param buffer the buffer containing scan frames
+	 * @param offset absolute offset of this element in the buffer
+	 * @return the sign-extended value
+	 */
+	long extract(ByteBuffer buffer, int offset) {
+		long raw = 0;
+		if (bigEndian) {
+			for (int i = 0; i < storageBytes; i++) {
+				raw = (raw << 8) | (buffer.get(offset + i) & 0xff);
+			}
+		} else {
+			for (int i = storageBytes - 1; i >= 0; i--) {
+				raw = (raw << 8) | (buffer.get(offset + i) & 0xff);
+			}
+		}
+
+		raw >>>= shift;
+		if (realBits < 64) {
+			raw &= (1L << realBits) - 1;
+			if (signed && (raw & (1L << (realBits - 1))) != 0) {
+				raw -= 1L << realBits;
+			}
+		}
+
+		return raw;
+	}
+
+	/**
+	 * @return the maximum magnitude of values for this element
+	 */
+	float getRange() {
+		return (float) ((1L << (signed ? realBits - 1 : realBits)) - 1);
+	}
+
+	int getIndex() {
+		return index;
+	}
+
+	boolean isSigned() {
+		return signed;
+	}
+
+	int getRealBits() {
+		return realBits;
+	}
+}
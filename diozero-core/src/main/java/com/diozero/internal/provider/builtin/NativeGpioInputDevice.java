@@ -38,6 +38,8 @@ import com.diozero.api.GpioEventTrigger;
 import com.diozero.api.GpioPullUpDown;
 import com.diozero.api.PinInfo;
 import com.diozero.api.RuntimeIOException;
+import com.diozero.api.function.DeviceEventConsumer;
+import com.diozero.api.function.DigitalInputEventListener;
 import com.diozero.internal.provider.builtin.gpio.GpioChip;
 import com.diozero.internal.provider.builtin.gpio.GpioLine;
 import com.diozero.internal.provider.builtin.gpio.GpioLineEventListener;
@@ -50,9 +52,25 @@ public class NativeGpioInputDevice extends AbstractInputDevice<DigitalInputEvent
 	private GpioChip chip;
 	private int gpio;
 	private GpioLine line;
+	private MmapGpioInterface fastGpio;
+	private final GpioPullUpDown pud;
+	private final GpioEventTrigger trigger;
+	private int lastLineSequenceNumber;
 
+	/**
+	 * @param deviceFactory the device factory
+	 * @param key           the device key
+	 * @param chip          the GPIO chip that owns the line
+	 * @param pinInfo       the pin
+	 * @param pud           pull-up / pull-down configuration
+	 * @param trigger       event trigger configuration
+	 * @param mmapGpio      memory mapped GPIO used to configure pull-up /
+	 *                      pull-down, may be null
+	 * @param fastGpio      memory mapped GPIO for fast value reads, null to read
+	 *                      the value via the GPIO character device
+	 */
 	public NativeGpioInputDevice(DefaultDeviceFactory deviceFactory, String key, GpioChip chip, PinInfo pinInfo,
-			GpioPullUpDown pud, GpioEventTrigger trigger, MmapGpioInterface mmapGpio) {
+			GpioPullUpDown pud, GpioEventTrigger trigger, MmapGpioInterface mmapGpio, MmapGpioInterface fastGpio) {
 		super(key, deviceFactory);
 
 		gpio = pinInfo.getDeviceNumber();
@@ -61,6 +79,9 @@ public class NativeGpioInputDevice extends AbstractInputDevice<DigitalInputEvent
 			throw new IllegalArgumentException("Line offset not defined for pin " + pinInfo);
 		}
 		this.chip = chip;
+		this.pud = pud;
+		this.trigger = trigger;
+		this.fastGpio = fastGpio;
 
 		line = chip.provisionGpioInputDevice(offset, pud, trigger);
 		// XXX Remove this once kernel 5.5 is widely adopted - pull-up / pull-down
@@ -77,18 +98,49 @@ public class NativeGpioInputDevice extends AbstractInputDevice<DigitalInputEvent
 
 	@Override
 	public boolean getValue() throws RuntimeIOException {
+		if (fastGpio != null) {
+			return fastGpio.gpioRead(gpio);
+		}
 		return line.getValue() == 0 ? false : true;
 	}
 
 	@Override
 	public void setDebounceTimeMillis(int debounceTime) {
-		Logger.warn("Debounce not supported");
+		if (!setHardwareDebounceTimeMillis(debounceTime)) {
+			Logger.warn("Debounce not supported for GPIO {}", Integer.valueOf(gpio));
+		}
+	}
+
+	@Override
+	public boolean setHardwareDebounceTimeMillis(int debounceTimeMs) {
+		// Kernel debounce requires the line to be re-requested via the GPIO v2 ABI
+		int offset = line.getOffset();
+		boolean listener_enabled = isListenerEnabled();
+		if (listener_enabled) {
+			disableListener();
+		}
+		line.close();
+		boolean debounced;
+		try {
+			line = chip.provisionGpioInputDevice(offset, pud, trigger, debounceTimeMs * 1_000);
+			lastLineSequenceNumber = 0;
+			debounced = debounceTimeMs > 0;
+		} catch (RuntimeIOException | UnsatisfiedLinkError e) {
+			Logger.debug("Kernel debounce not available for GPIO {}: {}", Integer.valueOf(gpio), e.getMessage());
+			line = chip.provisionGpioInputDevice(offset, pud, trigger);
+			debounced = false;
+		}
+		if (listener_enabled) {
+			enableListener();
+		}
+
+		return debounced;
 	}
 
 	@Override
 	protected void enableListener() {
 		Logger.trace("enableListener(), {}", Integer.valueOf(gpio));
-		chip.register(line.getFd(), this);
+		chip.register(line, this);
 	}
 
 	@Override
@@ -97,6 +149,12 @@ public class NativeGpioInputDevice extends AbstractInputDevice<DigitalInputEvent
 		chip.deregister(line.getFd());
 	}
 
+	@Override
+	protected boolean isEventTimeMonotonic() {
+		// GPIO character device event timestamps use CLOCK_MONOTONIC
+		return true;
+	}
+
 	@Override
 	public void closeDevice() {
 		Logger.trace("closeDevice() {}", getKey());
@@ -104,9 +162,31 @@ public class NativeGpioInputDevice extends AbstractInputDevice<DigitalInputEvent
 		line.close();
 	}
 
+	@Override
+	public void event(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos,
+			int lineSequenceNumber) {
+		// Line sequence numbers are only provided for lines requested via the v2 ABI
+		if (lineSequenceNumber != 0) {
+			int last = lastLineSequenceNumber;
+			if (last != 0 && lineSequenceNumber - last > 1) {
+				Logger.warn("Lost {} event(s) for GPIO {}", Integer.valueOf(lineSequenceNumber - last - 1),
+						Integer.valueOf(gpio));
+			}
+			lastLineSequenceNumber = lineSequenceNumber;
+		}
+		event(lineFd, eventDataId, epochTimeMs, timestampNanos);
+	}
+
 	@Override
 	public void event(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos) {
-		accept(new DigitalInputEvent(gpio, epochTimeMs, timestampNanos,
-				eventDataId == GpioChip.GPIOEVENT_EVENT_RISING_EDGE));
+		boolean value = eventDataId == GpioChip.GPIOEVENT_EVENT_RISING_EDGE;
+		DeviceEventConsumer<DigitalInputEvent> listener = getListener();
+		if (listener instanceof DigitalInputEventListener) {
+			// Avoid creating an event object if the listener can accept primitives
+			recordEvent(timestampNanos);
+			((DigitalInputEventListener) listener).event(gpio, value, epochTimeMs, timestampNanos);
+		} else {
+			accept(new DigitalInputEvent(gpio, epochTimeMs, timestampNanos, value));
+		}
 	}
 }
@@ -37,6 +37,8 @@ import com.diozero.api.GpioEventTrigger;
 import com.diozero.api.GpioPullUpDown;
 import com.diozero.api.PinInfo;
 import com.diozero.api.RuntimeIOException;
+import com.diozero.api.function.DeviceEventConsumer;
+import com.diozero.api.function.DigitalInputEventListener;
 import com.diozero.internal.provider.builtin.gpio.GpioChip;
 import com.diozero.internal.provider.builtin.gpio.GpioLine;
 import com.diozero.internal.provider.builtin.gpio.GpioLineEventListener;
@@ -125,8 +127,9 @@ public class NativeGpioInputOutputDevice extends AbstractInputDevice<DigitalInpu
 	public void setValue(boolean value) throws RuntimeIOException {
 		if (mmapGpio == null) {
 			line.setValue(value ? 1 : 0);
+		} else {
+			mmapGpio.gpioWrite(gpio, value);
 		}
-		mmapGpio.gpioWrite(gpio, value);
 	}
 
 	@Override
@@ -139,6 +142,12 @@ public class NativeGpioInputOutputDevice extends AbstractInputDevice<DigitalInpu
 		chip.deregister(line.getFd());
 	}
 
+	@Override
+	protected boolean isEventTimeMonotonic() {
+		// GPIO character device event timestamps use CLOCK_MONOTONIC
+		return true;
+	}
+
 	@Override
 	public void closeDevice() {
 		super.closeDevice();
@@ -147,7 +156,14 @@ public class NativeGpioInputOutputDevice extends AbstractInputDevice<DigitalInpu
 
 	@Override
 	public void event(int gpioOffset, int eventDataId, long epochTimeMs, long timestampNanos) {
-		accept(new DigitalInputEvent(gpio, epochTimeMs, timestampNanos,
-				eventDataId == GpioChip.GPIOEVENT_EVENT_RISING_EDGE));
+		boolean value = eventDataId == GpioChip.GPIOEVENT_EVENT_RISING_EDGE;
+		DeviceEventConsumer<DigitalInputEvent> listener = getListener();
+		if (listener instanceof DigitalInputEventListener) {
+			// Avoid creating an event object if the listener can accept primitives
+			recordEvent(timestampNanos);
+			((DigitalInputEventListener) listener).event(gpio, value, epochTimeMs, timestampNanos);
+		} else {
+			accept(new DigitalInputEvent(gpio, epochTimeMs, timestampNanos, value));
+		}
 	}
 }
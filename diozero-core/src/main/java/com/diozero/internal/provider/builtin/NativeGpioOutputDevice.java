@@ -43,11 +43,22 @@ public class NativeGpioOutputDevice extends AbstractDevice implements GpioDigita
 	private int gpio;
 	private GpioLine line;
 	private MmapGpioInterface mmapGpio;
+	// Last value written, the line is owned by this device so is authoritative
+	private boolean value;
 
+	/**
+	 * @param deviceFactory the device factory
+	 * @param key           the device key
+	 * @param chip          the GPIO chip that owns the line
+	 * @param pinInfo       the pin
+	 * @param initialValue  the initial output value
+	 * @param mmapGpio      memory mapped GPIO for value access, null to write
+	 *                      the value via the GPIO character device
+	 */
 	public NativeGpioOutputDevice(DefaultDeviceFactory deviceFactory, String key, GpioChip chip, PinInfo pinInfo,
 			boolean initialValue, MmapGpioInterface mmapGpio) {
 		super(key, deviceFactory);
-		
+
 		this.mmapGpio = mmapGpio;
 
 		gpio = pinInfo.getDeviceNumber();
@@ -57,6 +68,7 @@ public class NativeGpioOutputDevice extends AbstractDevice implements GpioDigita
 		}
 
 		line = chip.provisionGpioOutputDevice(offset, initialValue ? 1 : 0);
+		value = initialValue;
 	}
 
 	@Override
@@ -67,7 +79,7 @@ public class NativeGpioOutputDevice extends AbstractDevice implements GpioDigita
 	@Override
 	public boolean getValue() throws RuntimeIOException {
 		if (mmapGpio == null) {
-			return line.getValue() == 0 ? false : true;
+			return value;
 		}
 		return mmapGpio.gpioRead(gpio);
 	}
@@ -79,6 +91,7 @@ public class NativeGpioOutputDevice extends AbstractDevice implements GpioDigita
 		} else {
 			mmapGpio.gpioWrite(gpio, value);
 		}
+		this.value = value;
 	}
 
 	@Override
@@ -0,0 +1,258 @@
+package com.diozero.internal.provider.builtin;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     NativeGpioOutputGroup.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.tinylog.Logger;
+
+import com.diozero.api.PinInfo;
+import com.diozero.api.RuntimeIOException;
+import com.diozero.internal.provider.builtin.gpio.GpioChip;
+import com.diozero.internal.provider.builtin.gpio.GpioLineRequest;
+import com.diozero.internal.spi.AbstractDevice;
+import com.diozero.internal.spi.GpioDigitalOutputGroupInterface;
+import com.diozero.internal.spi.MmapGpioInterface;
+
+/**
+ * GPIO output group backed by one GPIO v2 multi-line request per chip so that
+ * all lines on the same chip are updated by a single ioctl. If fast GPIO is
+ * enabled the lines are still requested via the chip but values are written
+ * directly to the memory mapped bank registers, one write per bank.
+ */
+public class NativeGpioOutputGroup extends AbstractDevice implements GpioDigitalOutputGroupInterface {
+	private final int[] gpios;
+	private final GpioLineRequest[] requests;
+	// Index within the group for each bit of each line request
+	private final int[][] groupIndexes;
+	// True if all lines are on the same chip in group order
+	private final boolean direct;
+	// Memory mapped bank access, null if not enabled
+	private final MmapGpioInterface mmapGpio;
+	private int[] banks;
+	// Index into banks and bit within the bank for each line in the group
+	private int[] lineBanks;
+	private int[] lineBankBits;
+	private int[] bankSetBits;
+	private int[] bankClearBits;
+
+	/**
+	 * @param deviceFactory the device factory
+	 * @param key           the device key
+	 * @param chips         GPIO chips by chip id
+	 * @param pinInfos      the GPIOs in the group
+	 * @param initialValues initial raw values, bit n corresponds to pinInfos[n]
+	 * @param mmapGpio      memory mapped GPIO that supports bank operations for
+	 *                      all GPIOs in the group, null to write values via the
+	 *                      GPIO character device
+	 */
+	public NativeGpioOutputGroup(DefaultDeviceFactory deviceFactory, String key, Map<Integer, GpioChip> chips,
+			PinInfo[] pinInfos, long initialValues, MmapGpioInterface mmapGpio) {
+		super(key, deviceFactory);
+
+		gpios = new int[pinInfos.length];
+		Map<GpioChip, List<Integer>> indexes_by_chip = new LinkedHashMap<>();
+		for (int i = 0; i < pinInfos.length; i++) {
+			PinInfo pin_info = pinInfos[i];
+			if (pin_info.getChip() == PinInfo.NOT_DEFINED || pin_info.getLineOffset() == PinInfo.NOT_DEFINED) {
+				throw new IllegalArgumentException("Chip / line offset not defined for pin " + pin_info);
+			}
+			GpioChip chip = chips.get(Integer.valueOf(pin_info.getChip()));
+			if (chip == null) {
+				throw new IllegalArgumentException("Can't find chip for id " + pin_info.getChip());
+			}
+			gpios[i] = pin_info.getDeviceNumber();
+			indexes_by_chip.computeIfAbsent(chip, c -> new ArrayList<>()).add(Integer.valueOf(i));
+		}
+
+		requests = new GpioLineRequest[indexes_by_chip.size()];
+		groupIndexes = new int[requests.length][];
+		int r = 0;
+		try {
+			for (Map.Entry<GpioChip, List<Integer>> entry : indexes_by_chip.entrySet()) {
+				List<Integer> indexes = entry.getValue();
+				int[] offsets = new int[indexes.size()];
+				groupIndexes[r] = new int[indexes.size()];
+				for (int j = 0; j < offsets.length; j++) {
+					int index = indexes.get(j).intValue();
+					groupIndexes[r][j] = index;
+					offsets[j] = pinInfos[index].getLineOffset();
+				}
+				requests[r] = entry.getKey().provisionGpioOutputLines(offsets,
+						toRequestBits(groupIndexes[r], initialValues));
+				r++;
+			}
+		} catch (RuntimeIOException | UnsatisfiedLinkError e) {
+			for (int i = 0; i < r; i++) {
+				requests[i].close();
+			}
+			throw e;
+		}
+		direct = requests.length == 1 && isIdentity(groupIndexes[0]);
+
+		this.mmapGpio = mmapGpio;
+		if (mmapGpio != null) {
+			initialiseBanks();
+		}
+	}
+
+	private void initialiseBanks() {
+		List<Integer> bank_list = new ArrayList<>();
+		lineBanks = new int[gpios.length];
+		lineBankBits = new int[gpios.length];
+		for (int i = 0; i < gpios.length; i++) {
+			Integer bank = Integer.valueOf(mmapGpio.getBank(gpios[i]));
+			int index = bank_list.indexOf(bank);
+			if (index == -1) {
+				index = bank_list.size();
+				bank_list.add(bank);
+			}
+			lineBanks[i] = index;
+			lineBankBits[i] = mmapGpio.getBankBit(gpios[i]);
+		}
+		banks = bank_list.stream().mapToInt(Integer::intValue).toArray();
+		bankSetBits = new int[banks.length];
+		bankClearBits = new int[banks.length];
+		Logger.debug("Fast GPIO enabled for output group {}, {} bank(s)", getKey(), Integer.valueOf(banks.length));
+	}
+
+	private static long toRequestBits(int[] indexes, long groupBits) {
+		long bits = 0;
+		for (int j = 0; j < indexes.length; j++) {
+			if ((groupBits & (1L << indexes[j])) != 0) {
+				bits |= 1L << j;
+			}
+		}
+		return bits;
+	}
+
+	@Override
+	public int getLineCount() {
+		return gpios.length;
+	}
+
+	@Override
+	public int getGpio(int index) {
+		return gpios[index];
+	}
+
+	@Override
+	public long getValues() throws RuntimeIOException {
+		if (mmapGpio != null) {
+			return getBankValues();
+		}
+
+		long values = 0;
+		for (int r = 0; r < requests.length; r++) {
+			int[] indexes = groupIndexes[r];
+			long bits = requests[r].getValues((indexes.length == 64) ? -1L : (1L << indexes.length) - 1);
+			for (int j = 0; j < indexes.length; j++) {
+				if ((bits & (1L << j)) != 0) {
+					values |= 1L << indexes[j];
+				}
+			}
+		}
+		return values;
+	}
+
+	@Override
+	public void setValues(long mask, long values) throws RuntimeIOException {
+		if (mmapGpio != null) {
+			setBankValues(mask, values);
+			return;
+		}
+		if (direct) {
+			requests[0].setValues(mask, values);
+			return;
+		}
+		for (int r = 0; r < requests.length; r++) {
+			int[] indexes = groupIndexes[r];
+			long request_mask = toRequestBits(indexes, mask);
+			if (request_mask != 0) {
+				requests[r].setValues(request_mask, toRequestBits(indexes, values));
+			}
+		}
+	}
+
+	private long getBankValues() {
+		long values = 0;
+		for (int b = 0; b < banks.length; b++) {
+			int levels = mmapGpio.gpioReadBank(banks[b]);
+			for (int i = 0; i < gpios.length; i++) {
+				if (lineBanks[i] == b && (levels & (1 << lineBankBits[i])) != 0) {
+					values |= 1L << i;
+				}
+			}
+		}
+		return values;
+	}
+
+	private synchronized void setBankValues(long mask, long values) {
+		long remaining = mask & (gpios.length == 64 ? -1L : (1L << gpios.length) - 1);
+		while (remaining != 0) {
+			int i = Long.numberOfTrailingZeros(remaining);
+			if ((values & (1L << i)) != 0) {
+				bankSetBits[lineBanks[i]] |= 1 << lineBankBits[i];
+			} else {
+				bankClearBits[lineBanks[i]] |= 1 << lineBankBits[i];
+			}
+			remaining &= remaining - 1;
+		}
+		for (int b = 0; b < banks.length; b++) {
+			if (bankSetBits[b] != 0 || bankClearBits[b] != 0) {
+				mmapGpio.gpioWriteBank(banks[b], bankSetBits[b], bankClearBits[b]);
+				bankSetBits[b] = 0;
+				bankClearBits[b] = 0;
+			}
+		}
+	}
+
+	private static boolean isIdentity(int[] indexes) {
+		for (int j = 0; j < indexes.length; j++) {
+			if (indexes[j] != j) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	protected void closeDevice() {
+		Logger.trace("closeDevice() {}", getKey());
+		for (GpioLineRequest request : requests) {
+			request.close();
+		}
+	}
+}
@@ -35,40 +35,84 @@ import java.io.File;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.tinylog.Logger;
 
 import com.diozero.api.AnalogInputEvent;
 import com.diozero.api.PinInfo;
 import com.diozero.api.RuntimeIOException;
+import com.diozero.api.function.AnalogSampleBlockConsumer;
 import com.diozero.internal.spi.AbstractInputDevice;
 import com.diozero.internal.spi.AnalogInputDeviceInterface;
+import com.diozero.util.DiozeroScheduler;
+import com.diozero.util.PropertyUtil;
 
+/**
+ * Analog input via the Linux Industrial I/O (IIO) sysfs interface. Single
+ * samples are read from <code>in_voltageN_raw</code>; continuous capture uses
+ * the IIO buffer interface, reading binary scan frames from
+ * <code>/dev/iio:deviceN</code>.
+ */
 public class SysFsAnalogInputDevice extends AbstractInputDevice<AnalogInputEvent>
 		implements AnalogInputDeviceInterface {
 	private static final String DEVICE_PATH = "/sys/bus/iio/devices/iio:device";
+	private static final String DEV_PATH = "/dev/iio:device";
+	/** Name of an IIO trigger to use for captures, e.g. "hrtimer0" */
+	public static final String TRIGGER_PROP = "diozero.iio.trigger";
+	// Number of blocks that the kernel buffer can hold
+	private static final int KERNEL_BUFFER_BLOCKS = 4;
+	private static final int STOP_TIMEOUT_MS = 1000;
 
+	private int device;
 	private int adcNumber;
-	private RandomAccessFile voltageScale;
+	private Path devicePath;
 	private RandomAccessFile voltageRaw;
 	private float vRef;
+	// Volts per LSB divided by vRef, or 0 if the device doesn't have a scale
+	private float scaleFactor;
+	private byte[] readBuffer;
+
+	private volatile boolean capturing;
+	private FileChannel captureChannel;
+	private Future<?> captureFuture;
+	private boolean restoreEnable;
 
 	public SysFsAnalogInputDevice(DefaultDeviceFactory deviceFactory, String key, int device, PinInfo pinInfo) {
 		super(key, deviceFactory);
 
+		this.device = device;
 		this.adcNumber = pinInfo.getDeviceNumber();
 		vRef = pinInfo.getAdcVRef();
+		readBuffer = new byte[16];
 
-		Path device_path = Paths.get(DEVICE_PATH + device);
-		File voltage_scale_file = device_path.resolve("in_voltage_scale").toFile();
+		devicePath = Paths.get(DEVICE_PATH + device);
+		File voltage_scale_file = devicePath.resolve("in_voltage_scale").toFile();
 		try {
 			if (voltage_scale_file.exists()) {
-				voltageScale = new RandomAccessFile(voltage_scale_file, "r");
+				// The scale (mV per LSB) is fixed for a given configuration, read it once
+				float scale = Float.parseFloat(readAttribute(voltage_scale_file.toPath()));
+				scaleFactor = scale / 1000f / vRef;
+				Logger.debug("scale: {}, vRef: {}", Float.valueOf(scale), Float.valueOf(vRef));
 			}
-			voltageRaw = new RandomAccessFile(device_path.resolve("in_voltage" + adcNumber + "_raw").toFile(), "r");
-		} catch (IOException e) {
+			voltageRaw = new RandomAccessFile(devicePath.resolve("in_voltage" + adcNumber + "_raw").toFile(), "r");
+		} catch (IOException | NumberFormatException e) {
 			throw new RuntimeIOException("Error opening sysfs analog input files for ADC " + adcNumber, e);
 		}
 	}
@@ -80,41 +124,223 @@ public class SysFsAnalogInputDevice extends AbstractInputDevice<AnalogInputEvent
 
 	@Override
 	public float getValue() throws RuntimeIOException {
+		int raw;
 		try {
 			voltageRaw.seek(0);
-			float raw = Float.parseFloat(voltageRaw.readLine());
+			raw = parseInt(readBuffer, voltageRaw.read(readBuffer));
+		} catch (IOException | NumberFormatException e) {
+			Logger.error("Error: {}" + e, e);
+			throw new RuntimeIOException("Error reading analog input files: " + e, e);
+		}
+
+		if (scaleFactor != 0) {
+			return raw * scaleFactor;
+		}
+		// FIXME Needs to be passed in, this assumes 12-bit
+		return raw / 4095f;
+	}
+
+	private static int parseInt(byte[] buffer, int length) {
+		int i = 0;
+		boolean negative = false;
+		if (length > 0 && buffer[0] == '-') {
+			negative = true;
+			i++;
+		}
+		int value = 0;
+		int digits = 0;
+		for (; i < length; i++) {
+			int digit = buffer[i] - '0';
+			if (digit < 0 || digit > 9) {
+				break;
+			}
+			value = value * 10 + digit;
+			digits++;
+		}
+		if (digits == 0) {
+			throw new NumberFormatException("No digits in raw value");
+		}
+		return negative ? -value : value;
+	}
 
-			float value;
-			if (voltageScale != null) {
-				voltageScale.seek(0);
-				float scale = Float.parseFloat(voltageScale.readLine());
-				value = raw * scale / vRef / 1000f;
+	@Override
+	public boolean isCaptureSupported() {
+		return Files.isDirectory(devicePath.resolve("scan_elements")) && Files.exists(Paths.get(DEV_PATH + device));
+	}
 
-				Logger.debug("raw: {}, scale: {}, vRef: {}", Float.valueOf(raw), Float.valueOf(scale),
-						Float.valueOf(vRef));
+	@Override
+	public synchronized void startCapture(float sampleFrequency, int blockSize, AnalogSampleBlockConsumer consumer)
+			throws RuntimeIOException {
+		if (captureFuture != null) {
+			if (!captureFuture.isDone()) {
+				throw new IllegalStateException("Capture already in progress for device " + getKey());
+			}
+			// The previous capture ended by itself (end of stream or I/O error)
+			stopCapture();
+		}
+
+		Path scan_elements = devicePath.resolve("scan_elements");
+		Path enable_file = scan_elements.resolve("in_voltage" + adcNumber + "_en");
+		IioScanElement element;
+		int element_offset;
+		int frame_size;
+		try {
+			// The buffer must be disabled while it is configured
+			writeAttribute(devicePath.resolve("buffer/enable"), "0");
+			restoreEnable = readAttribute(enable_file).equals("0");
+			writeAttribute(enable_file, "1");
+
+			// Other channels may also be enabled, work out where ours is in each frame
+			List<Path> en_files;
+			try (Stream<Path> files = Files.list(scan_elements)) {
+				en_files = files.filter(f -> f.getFileName().toString().endsWith("_en")).collect(Collectors.toList());
+			}
+			List<IioScanElement> elements = new ArrayList<>();
+			for (Path en : en_files) {
+				if (readAttribute(en).equals("1")) {
+					String prefix = en.getFileName().toString().replaceFirst("_en$", "");
+					elements.add(IioScanElement.parse(
+							Integer.parseInt(readAttribute(scan_elements.resolve(prefix + "_index"))),
+							readAttribute(scan_elements.resolve(prefix + "_type"))));
+				}
+			}
+			elements.sort(Comparator.comparingInt(IioScanElement::getIndex));
+			IioScanElement[] element_array = elements.toArray(new IioScanElement[elements.size()]);
+			int[] offsets = new int[element_array.length];
+			frame_size = IioScanElement.layout(element_array, offsets);
+			int our_index = Integer.parseInt(readAttribute(scan_elements.resolve("in_voltage" + adcNumber + "_index")));
+			int pos = 0;
+			while (element_array[pos].getIndex() != our_index) {
+				pos++;
+			}
+			element = element_array[pos];
+			element_offset = offsets[pos];
+
+			Path trigger_file = devicePath.resolve("trigger/current_trigger");
+			String trigger = PropertyUtil.getProperty(TRIGGER_PROP, null);
+			if (trigger != null && Files.exists(trigger_file)) {
+				writeAttribute(trigger_file, trigger);
+			}
+			Path freq_file = devicePath.resolve("sampling_frequency");
+			if (!Files.exists(freq_file)) {
+				freq_file = devicePath.resolve("in_voltage_sampling_frequency");
+			}
+			if (Files.exists(freq_file)) {
+				writeAttribute(freq_file, Integer.toString(Math.round(sampleFrequency)));
 			} else {
-				// FIXME Needs to be passed in, this assumes 12-bit
-				float range = (float) (Math.pow(2, 12) - 1);
-				value = raw / range;
+				Logger.warn("Sampling frequency can't be set for IIO device {}, rate determined by the trigger",
+						Integer.valueOf(device));
+			}
 
-				Logger.debug("raw: {}, range: {}, vRef: {}", Float.valueOf(raw), Float.valueOf(range),
-						Float.valueOf(vRef));
+			writeAttribute(devicePath.resolve("buffer/length"), Integer.toString(blockSize * KERNEL_BUFFER_BLOCKS));
+			Path watermark_file = devicePath.resolve("buffer/watermark");
+			if (Files.exists(watermark_file)) {
+				writeAttribute(watermark_file, Integer.toString(blockSize));
 			}
+			writeAttribute(devicePath.resolve("buffer/enable"), "1");
 
-			return value;
-		} catch (IOException | NumberFormatException e) {
-			Logger.error("Error: {}" + e, e);
-			throw new RuntimeIOException("Error reading analog input files: " + e, e);
+			captureChannel = FileChannel.open(Paths.get(DEV_PATH + device), StandardOpenOption.READ);
+		} catch (IOException | RuntimeException e) {
+			disableBuffer(enable_file);
+			throw new RuntimeIOException("Error starting IIO capture for ADC " + adcNumber + ": " + e, e);
+		}
+
+		Logger.debug("Started IIO capture for ADC {}, frame size: {}, offset: {}", Integer.valueOf(adcNumber),
+				Integer.valueOf(frame_size), Integer.valueOf(element_offset));
+		capturing = true;
+		FileChannel channel = captureChannel;
+		captureFuture = DiozeroScheduler.getDaemonInstance()
+				.submit(() -> capture(channel, element, element_offset, frame_size, blockSize, consumer));
+	}
+
+	private void capture(FileChannel channel, IioScanElement element, int elementOffset, int frameSize,
+			int blockSize, AnalogSampleBlockConsumer consumer) {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(frameSize * blockSize);
+		float[] samples = new float[blockSize];
+		float factor = scaleFactor != 0 ? scaleFactor : 1 / element.getRange();
+
+		try {
+			while (capturing) {
+				buffer.clear();
+				// Reads block until the watermark is reached, may still return partial blocks
+				while (buffer.hasRemaining()) {
+					if (channel.read(buffer) < 0) {
+						Logger.warn("End of stream reading IIO device {}", Integer.valueOf(device));
+						return;
+					}
+				}
+				long nano_time = System.nanoTime();
+				long epoch_time = System.currentTimeMillis();
+
+				for (int i = 0; i < blockSize; i++) {
+					samples[i] = element.extract(buffer, i * frameSize + elementOffset) * factor;
+				}
+				try {
+					consumer.accept(epoch_time, nano_time, samples, blockSize);
+				} catch (RuntimeException e) {
+					// Don't let a failing consumer silently end the capture
+					Logger.error(e, "Error processing IIO samples for ADC {}: {}", Integer.valueOf(adcNumber), e);
+				}
+			}
+		} catch (ClosedChannelException e) {
+			// Expected when the capture is stopped
+		} catch (IOException e) {
+			Logger.error(e, "Error reading IIO device {}: {}", Integer.valueOf(device), e);
+		} finally {
+			capturing = false;
 		}
 	}
 
+	@Override
+	public synchronized void stopCapture() throws RuntimeIOException {
+		if (captureFuture == null) {
+			return;
+		}
+
+		capturing = false;
+		try {
+			// Unblocks the capture thread
+			captureChannel.close();
+		} catch (IOException e) {
+			// Ignore
+		}
+		try {
+			captureFuture.get(STOP_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException e) {
+			Logger.warn("Error stopping IIO capture for ADC {}: {}", Integer.valueOf(adcNumber), e);
+		}
+		captureFuture = null;
+		captureChannel = null;
+
+		disableBuffer(devicePath.resolve("scan_elements/in_voltage" + adcNumber + "_en"));
+	}
+
+	private void disableBuffer(Path enableFile) {
+		try {
+			writeAttribute(devicePath.resolve("buffer/enable"), "0");
+			if (restoreEnable) {
+				writeAttribute(enableFile, "0");
+			}
+		} catch (IOException e) {
+			Logger.warn("Error disabling IIO buffer for device {}: {}", Integer.valueOf(device), e);
+		}
+	}
+
+	private static String readAttribute(Path path) throws IOException {
+		return new String(Files.readAllBytes(path), StandardCharsets.US_ASCII).trim();
+	}
+
+	private static void writeAttribute(Path path, String value) throws IOException {
+		Files.write(path, value.getBytes(StandardCharsets.US_ASCII));
+	}
+
 	@Override
 	protected void closeDevice() throws RuntimeIOException {
 		Logger.trace("closeDevice() {}", getKey());
+		stopCapture();
 		try {
-			if (voltageScale != null) {
-				voltageScale.close();
-			}
 			voltageRaw.close();
 		} catch (IOException e) {
 			// Ignore
@@ -139,6 +139,12 @@ public class SysFsDigitalInputDevice extends AbstractInputDevice<DigitalInputEve
 		SysFsGpioUtil.unexport(gpio);
 	}
 
+	@Override
+	protected boolean isEventTimeMonotonic() {
+		// Poll event timestamps are taken from CLOCK_MONOTONIC
+		return true;
+	}
+
 	@Override
 	public void notify(long epochTime, long nanoTime, char value) {
 		accept(new DigitalInputEvent(gpio, epochTime, nanoTime, value == HIGH_VALUE));
@@ -32,16 +32,17 @@ package com.diozero.internal.provider.builtin.gpio;
  */
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -56,8 +57,10 @@ import com.diozero.api.GpioPullUpDown;
 import com.diozero.api.RuntimeIOException;
 import com.diozero.util.DiozeroScheduler;
 import com.diozero.util.LibraryLoader;
+import com.diozero.util.PropertyUtil;
 
-public class GpioChip extends GpioChipInfo implements AutoCloseable, GpioLineEventListener {
+public class GpioChip extends GpioChipInfo
+		implements AutoCloseable, GpioLineEventListener, GpioLineEventBatchListener {
 	public static Map<Integer, GpioChip> openAllChips() throws IOException {
 		LibraryLoader.loadSystemUtils();
 
@@ -101,6 +104,10 @@ public class GpioChip extends GpioChipInfo implements AutoCloseable, GpioLineEve
 	}
 
 	private static final int EPOLL_FD_NOT_CREATED = -1;
+	private static final int DEFAULT_EVENT_BUFFER_SIZE = 4096;
+	private static final int EVENT_BATCH_SIZE = 256;
+	private static volatile boolean batchEventLoopSupported = true;
+	private static final GpioLineEventListener[] NO_LISTENERS = new GpioLineEventListener[0];
 	private static final String GPIO_CHIP_FILENAME_PREFIX = "gpiochip";
 
 	// Informational flags
@@ -131,6 +138,20 @@ public class GpioChip extends GpioChipInfo implements AutoCloseable, GpioLineEve
 	private static final int GPIOEVENT_REQUEST_FALLING_EDGE = 1 << 1;
 	private static final int GPIOEVENT_REQUEST_BOTH_EDGES = (1 << 0) | (1 << 1);
 
+	// GPIO v2 line flags, Linux 5.10 onwards
+	// https://elixir.bootlin.com/linux/v5.10/source/include/uapi/linux/gpio.h#L71
+	private static final long GPIO_V2_LINE_FLAG_ACTIVE_LOW = 1 << 1;
+	private static final long GPIO_V2_LINE_FLAG_INPUT = 1 << 2;
+	private static final long GPIO_V2_LINE_FLAG_OUTPUT = 1 << 3;
+	private static final long GPIO_V2_LINE_FLAG_EDGE_RISING = 1 << 4;
+	private static final long GPIO_V2_LINE_FLAG_EDGE_FALLING = 1 << 5;
+	private static final long GPIO_V2_LINE_FLAG_OPEN_DRAIN = 1 << 6;
+	private static final long GPIO_V2_LINE_FLAG_OPEN_SOURCE = 1 << 7;
+	private static final long GPIO_V2_LINE_FLAG_BIAS_PULL_UP = 1 << 8;
+	private static final long GPIO_V2_LINE_FLAG_BIAS_PULL_DOWN = 1 << 9;
+	private static final long GPIO_V2_LINE_FLAG_BIAS_DISABLED = 1 << 10;
+	private static final int GPIO_V2_LINES_MAX = 64;
+
 	// GPIO event types
 	// https://elixir.bootlin.com/linux/v4.9.127/source/include/uapi/linux/gpio.h#L136
 	public static final int GPIOEVENT_EVENT_RISING_EDGE = 0x01;
@@ -142,9 +163,15 @@ public class GpioChip extends GpioChipInfo implements AutoCloseable, GpioLineEve
 	private GpioLine[] lines;
 	private final Map<String, GpioLine> linesByName;
 	private int epollFd;
-	private final Map<Integer, GpioLineEventListener> fdToListener;
+	// Listeners indexed by line fd, replaced on write so that event dispatch can
+	// read it without locking or boxing the fd
+	private volatile GpioLineEventListener[] listenersByFd;
+	private int listenerCount;
 	private final AtomicBoolean running;
-	private final BlockingQueue<NativeGpioEvent> eventQueue;
+	private final GpioEventRingBuffer eventBuffer;
+	private final GpioLineEventListener dispatcher;
+	private final boolean batchEvents;
+	private final ByteBuffer eventBatchBuffer;
 
 	private Future<?> processEventsFuture;
 	private Future<?> eventLoopFuture;
@@ -164,10 +191,28 @@ public class GpioChip extends GpioChipInfo implements AutoCloseable, GpioLineEve
 
 		epollFd = EPOLL_FD_NOT_CREATED;
 
-		fdToListener = new HashMap<>();
+		listenersByFd = NO_LISTENERS;
 
 		running = new AtomicBoolean(false);
-		eventQueue = new LinkedBlockingQueue<>();
+		eventBuffer = new GpioEventRingBuffer(
+				PropertyUtil.getIntProperty("diozero.gpio.eventBufferSize", DEFAULT_EVENT_BUFFER_SIZE));
+		dispatcher = new GpioLineEventListener() {
+			@Override
+			public void event(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos) {
+				dispatch(lineFd, eventDataId, epochTimeMs, timestampNanos, 0);
+			}
+
+			@Override
+			public void event(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos,
+					int lineSequenceNumber) {
+				dispatch(lineFd, eventDataId, epochTimeMs, timestampNanos, lineSequenceNumber);
+			}
+		};
+		batchEvents = PropertyUtil.getBooleanProperty("diozero.gpio.batchEvents", true);
+		eventBatchBuffer = batchEvents
+				? ByteBuffer.allocateDirect(EVENT_BATCH_SIZE * NativeGpioDevice.EVENT_RECORD_SIZE)
+						.order(ByteOrder.nativeOrder())
+				: null;
 	}
 
 	public int getChipId() {
@@ -201,9 +246,53 @@ public class GpioChip extends GpioChipInfo implements AutoCloseable, GpioLineEve
 	}
 
 	public GpioLine provisionGpioInputDevice(int offset, GpioPullUpDown pud, GpioEventTrigger trigger) {
+		return provisionGpioInputDevice(offset, pud, trigger, 0);
+	}
+
+	/**
+	 * Provision an input line, optionally with kernel debounce. Debounce requires
+	 * the GPIO v2 ABI (Linux 5.10+) as well as driver support; if the debounce
+	 * period is 0 the line is requested via the v1 ABI.
+	 *
+	 * @param offset         line offset within this chip
+	 * @param pud            pull up / down configuration
+	 * @param trigger        edge detection
+	 * @param debounceMicros debounce period in microseconds, 0 to disable
+	 * @return the provisioned line
+	 */
+	public GpioLine provisionGpioInputDevice(int offset, GpioPullUpDown pud, GpioEventTrigger trigger,
+			int debounceMicros) {
 		if (offset < 0 || offset >= lines.length) {
 			throw new IllegalArgumentException("Invalid GPIO offset " + offset + " must 0.." + (lines.length - 1));
 		}
+		if (debounceMicros > 0) {
+			long flags = GPIO_V2_LINE_FLAG_INPUT;
+			switch (pud) {
+			case PULL_UP:
+				flags |= GPIO_V2_LINE_FLAG_BIAS_PULL_UP;
+				break;
+			case PULL_DOWN:
+				flags |= GPIO_V2_LINE_FLAG_BIAS_PULL_DOWN;
+				break;
+			case NONE:
+			default:
+				flags |= GPIO_V2_LINE_FLAG_BIAS_DISABLED;
+			}
+			if (trigger == GpioEventTrigger.RISING || trigger == GpioEventTrigger.BOTH) {
+				flags |= GPIO_V2_LINE_FLAG_EDGE_RISING;
+			}
+			if (trigger == GpioEventTrigger.FALLING || trigger == GpioEventTrigger.BOTH) {
+				flags |= GPIO_V2_LINE_FLAG_EDGE_FALLING;
+			}
+
+			int line_fd = NativeGpioDevice.requestLinesV2(chipFd, new int[] { offset }, flags, 0, debounceMicros);
+			if (line_fd < 0) {
+				throw new RuntimeIOException("Error in requestLinesV2: " + line_fd);
+			}
+			lines[offset].setFd(line_fd, true);
+
+			return lines[offset];
+		}
 		// Pull-up / pull-down config available in Kernel 5.5 via gpio_v2_line_flag
 		// GPIO_V2_LINE_FLAG_BIAS_*
 		// https://microhobby.com.br/blog/2020/02/02/new-linux-kernel-5-5-new-interfaces-in-gpiolib/
@@ -258,6 +347,33 @@ public class GpioChip extends GpioChipInfo implements AutoCloseable, GpioLineEve
 		return lines[offset];
 	}
 
+	/**
+	 * Request a set of output lines as a single GPIO v2 line request (Linux
+	 * 5.10+) so that they can be updated atomically with one ioctl.
+	 *
+	 * @param offsets       line offsets within this chip, maximum 64
+	 * @param initialValues initial values, bit n corresponds to offsets[n]
+	 * @return the line request
+	 */
+	public GpioLineRequest provisionGpioOutputLines(int[] offsets, long initialValues) {
+		if (offsets.length < 1 || offsets.length > GPIO_V2_LINES_MAX) {
+			throw new IllegalArgumentException(
+					"Invalid number of lines " + offsets.length + ", must be 1.." + GPIO_V2_LINES_MAX);
+		}
+		for (int offset : offsets) {
+			if (offset < 0 || offset >= lines.length) {
+				throw new IllegalArgumentException(
+						"Invalid GPIO offset " + offset + " must 0.." + (lines.length - 1));
+			}
+		}
+		int fd = NativeGpioDevice.requestLinesV2(chipFd, offsets.clone(), GPIO_V2_LINE_FLAG_OUTPUT, initialValues, 0);
+		if (fd < 0) {
+			throw new RuntimeIOException("Error in requestLinesV2: " + fd);
+		}
+
+		return new GpioLineRequest(this, fd, offsets.clone());
+	}
+
 	@Override
 	public synchronized void close() {
 		Logger.trace("close()");
@@ -277,27 +393,50 @@ public class GpioChip extends GpioChipInfo implements AutoCloseable, GpioLineEve
 		NativeGpioDevice.close(chipFd);
 	}
 
-	public void register(int fd, GpioLineEventListener listener) {
+	public synchronized void register(int fd, GpioLineEventListener listener) {
+		register(fd, false, listener);
+	}
+
+	public synchronized void register(GpioLine line, GpioLineEventListener listener) {
+		register(line.getFd(), line.isV2(), listener);
+	}
+
+	private void register(int fd, boolean v2, GpioLineEventListener listener) {
 		startEventProcessing();
 
-		int rc = NativeGpioDevice.epollAddFileDescriptor(epollFd, fd);
+		int rc = v2 ? NativeGpioDevice.epollAddFileDescriptorV2(epollFd, fd)
+				: NativeGpioDevice.epollAddFileDescriptor(epollFd, fd);
 		if (rc < 0) {
 			throw new RuntimeIOException("Error adding file descriptor '" + fd + "' to epoll");
 		}
 
-		fdToListener.put(Integer.valueOf(fd), listener);
+		GpioLineEventListener[] listeners = listenersByFd;
+		if (fd >= listeners.length) {
+			listeners = Arrays.copyOf(listeners, fd + 1);
+		} else {
+			listeners = listeners.clone();
+		}
+		if (listeners[fd] == null) {
+			listenerCount++;
+		}
+		listeners[fd] = listener;
+		listenersByFd = listeners;
 	}
 
-	public void deregister(int lineFd) {
+	public synchronized void deregister(int lineFd) {
 		if (epollFd == EPOLL_FD_NOT_CREATED) {
 			Logger.debug("Attempt to register an epoll fd without epoll being initiated");
 			return;
 		}
 
-		if (fdToListener.containsKey(Integer.valueOf(lineFd))) {
+		GpioLineEventListener[] listeners = listenersByFd;
+		if (lineFd >= 0 && lineFd < listeners.length && listeners[lineFd] != null) {
 			int rc = NativeGpioDevice.epollRemoveFileDescriptor(epollFd, lineFd);
-			fdToListener.remove(Integer.valueOf(lineFd));
-			if (fdToListener.isEmpty()) {
+			listeners = listeners.clone();
+			listeners[lineFd] = null;
+			listenersByFd = listeners;
+			listenerCount--;
+			if (listenerCount == 0) {
 				stopEventProcessing();
 			}
 			if (rc < 0) {
@@ -308,8 +447,30 @@ public class GpioChip extends GpioChipInfo implements AutoCloseable, GpioLineEve
 
 	@Override
 	public void event(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos) {
-		// Add the event to the tail of the queue
-		eventQueue.offer(new NativeGpioEvent(lineFd, eventDataId, epochTimeMs, timestampNanos));
+		// Add the event to the tail of the ring buffer, waiting if it is full
+		if (!eventBuffer.put(lineFd, eventDataId, epochTimeMs, timestampNanos)) {
+			Logger.warn("Interrupted while waiting to queue event for line fd {}", Integer.valueOf(lineFd));
+		}
+	}
+
+	@Override
+	public void eventBatch(int count, long epochTimeMs) {
+		if (!eventBuffer.putAll(eventBatchBuffer, count, epochTimeMs)) {
+			Logger.warn("Interrupted while waiting to queue a batch of {} events", Integer.valueOf(count));
+		}
+	}
+
+	private void dispatch(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos,
+			int lineSequenceNumber) {
+		GpioLineEventListener[] listeners = listenersByFd;
+		GpioLineEventListener listener = lineFd < listeners.length ? listeners[lineFd] : null;
+		if (listener == null) {
+			// There may still be pending events in the buffer after removing a listener
+			Logger.debug("No listener for line fd {}, event data: '{}'", Integer.valueOf(lineFd),
+					Integer.valueOf(eventDataId));
+		} else {
+			listener.event(lineFd, eventDataId, epochTimeMs, timestampNanos, lineSequenceNumber);
+		}
 	}
 
 	private void eventLoop() {
@@ -319,6 +480,18 @@ public class GpioChip extends GpioChipInfo implements AutoCloseable, GpioLineEve
 		}
 
 		Logger.trace("Starting event loop for chip {}", Integer.valueOf(chipId));
+		if (batchEvents && batchEventLoopSupported) {
+			try {
+				// One upcall per epoll wakeup rather than per event
+				NativeGpioDevice.eventLoopBatch(epollFd, -1, eventBatchBuffer, this);
+				Logger.info("Event loop finished");
+				return;
+			} catch (UnsatisfiedLinkError e) {
+				// Older version of the native library
+				Logger.debug("Batch event loop not available, reverting to one call per event: {}", e);
+				batchEventLoopSupported = false;
+			}
+		}
 		NativeGpioDevice.eventLoop(epollFd, -1, this);
 		Logger.info("Event loop finished");
 	}
@@ -333,8 +506,8 @@ public class GpioChip extends GpioChipInfo implements AutoCloseable, GpioLineEve
 			epollFd = rc;
 
 			running.getAndSet(true);
-			processEventsFuture = DiozeroScheduler.getNonDaemonInstance().submit(this::processEvents);
-			eventLoopFuture = DiozeroScheduler.getNonDaemonInstance().submit(this::eventLoop);
+			processEventsFuture = DiozeroScheduler.getHighPriorityInstance().submit(this::processEvents);
+			eventLoopFuture = DiozeroScheduler.getHighPriorityInstance().submit(this::eventLoop);
 		}
 	}
 
@@ -378,18 +551,10 @@ public class GpioChip extends GpioChipInfo implements AutoCloseable, GpioLineEve
 
 		try {
 			while (running.get()) {
-				// Blocking queue - take the event at the head of the queue, waiting if
-				// necessary until an event becomes available.
-				NativeGpioEvent event = eventQueue.take();
-				Integer line_fd = Integer.valueOf(event.lineFd);
-				GpioLineEventListener listener = fdToListener.get(line_fd);
-				if (listener == null) {
-					// There may still be pending events on the queue after removing a listener
-					Logger.debug("No listener for line fd {}, event data: '{}'", line_fd,
-							Integer.valueOf(event.eventDataId));
-				} else {
-					listener.event(event.lineFd, event.eventDataId, event.epochTimeMs, event.timestampNanos);
-				}
+				// Wait until at least one event is available then deliver everything that
+				// has been queued so far
+				eventBuffer.awaitEvents();
+				eventBuffer.drainTo(dispatcher);
 			}
 		} catch (InterruptedException e) {
 			// Result of the processEventsFuture.cancel(true) call within the
@@ -400,18 +565,4 @@ public class GpioChip extends GpioChipInfo implements AutoCloseable, GpioLineEve
 
 		Logger.debug("Finished");
 	}
-
-	private static class NativeGpioEvent {
-		int lineFd;
-		int eventDataId;
-		long epochTimeMs;
-		long timestampNanos;
-
-		public NativeGpioEvent(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos) {
-			this.lineFd = lineFd;
-			this.eventDataId = eventDataId;
-			this.epochTimeMs = epochTimeMs;
-			this.timestampNanos = timestampNanos;
-		}
-	}
 }
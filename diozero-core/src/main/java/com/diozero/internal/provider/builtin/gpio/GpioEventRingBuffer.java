@@ -0,0 +1,206 @@
+package com.diozero.internal.provider.builtin.gpio;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     GpioEventRingBuffer.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded single-producer / single-consumer queue of GPIO line events. Events
+ * are held in preallocated primitive arrays so that neither publishing nor
+ * consuming an event allocates. The producer is the native epoll event loop
+ * thread, the consumer is the chip's event processing thread.
+ */
+class GpioEventRingBuffer {
+	private static final long PRODUCER_BACK_OFF_NS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final int mask;
+	private final int[] lineFds;
+	private final int[] eventDataIds;
+	private final long[] epochTimes;
+	private final long[] timestamps;
+	private final int[] lineSequenceNumbers;
+	// Index of the next slot to be read, only written by the consumer
+	private final AtomicLong head;
+	// Index of the next slot to be written, only written by the producer
+	private final AtomicLong tail;
+	private volatile Thread waitingConsumer;
+
+	GpioEventRingBuffer(int capacity) {
+		if (capacity < 2) {
+			throw new IllegalArgumentException("Capacity must be at least 2, was " + capacity);
+		}
+		// Round up to a power of two so that the slot index is a simple mask
+		int size = Integer.highestOneBit(capacity - 1) << 1;
+		mask = size - 1;
+		lineFds = new int[size];
+		eventDataIds = new int[size];
+		epochTimes = new long[size];
+		timestamps = new long[size];
+		lineSequenceNumbers = new int[size];
+		head = new AtomicLong();
+		tail = new AtomicLong();
+	}
+
+	int capacity() {
+		return mask + 1;
+	}
+
+	int size() {
+		return (int) (tail.get() - head.get());
+	}
+
+	/**
+	 * Publish an event, producer thread only.
+	 *
+	 * @return false if the buffer is full
+	 */
+	boolean offer(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos) {
+		return offer(lineFd, eventDataId, epochTimeMs, timestampNanos, 0);
+	}
+
+	/**
+	 * Publish an event that carries a kernel line sequence number, producer
+	 * thread only.
+	 *
+	 * @return false if the buffer is full
+	 */
+	boolean offer(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos, int lineSequenceNumber) {
+		long t = tail.get();
+		if (t - head.get() > mask) {
+			return false;
+		}
+
+		int slot = (int) t & mask;
+		lineFds[slot] = lineFd;
+		eventDataIds[slot] = eventDataId;
+		epochTimes[slot] = epochTimeMs;
+		timestamps[slot] = timestampNanos;
+		lineSequenceNumbers[slot] = lineSequenceNumber;
+		// Volatile store - publishes the slot contents and must not be reordered with
+		// the read of waitingConsumer below, otherwise a wake-up could be lost
+		tail.set(t + 1);
+
+		Thread waiter = waitingConsumer;
+		if (waiter != null) {
+			LockSupport.unpark(waiter);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Publish an event, waiting for space to become available if the consumer
+	 * has fallen behind. The wait applies back-pressure to the kernel's own
+	 * per-line event buffer rather than growing without bound.
+	 *
+	 * @return false if the calling thread was interrupted while waiting
+	 */
+	boolean put(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos) {
+		return put(lineFd, eventDataId, epochTimeMs, timestampNanos, 0);
+	}
+
+	boolean put(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos, int lineSequenceNumber) {
+		while (!offer(lineFd, eventDataId, epochTimeMs, timestampNanos, lineSequenceNumber)) {
+			if (Thread.currentThread().isInterrupted()) {
+				return false;
+			}
+			LockSupport.parkNanos(this, PRODUCER_BACK_OFF_NS);
+		}
+		return true;
+	}
+
+	/**
+	 * Publish a batch of event records written by the native batch event loop,
+	 * waiting for space as per {@link #put(int, int, long, long)}.
+	 *
+	 * @param records     buffer of {@link NativeGpioDevice#EVENT_RECORD_SIZE}
+	 *                    byte event records, in native byte order
+	 * @param count       number of records in the buffer
+	 * @param epochTimeMs time of the batch in milliseconds since the epoch
+	 * @return false if the calling thread was interrupted while waiting
+	 */
+	boolean putAll(ByteBuffer records, int count, long epochTimeMs) {
+		for (int i = 0; i < count; i++) {
+			int offset = i * NativeGpioDevice.EVENT_RECORD_SIZE;
+			if (!put(records.getInt(offset), records.getInt(offset + 4), epochTimeMs, records.getLong(offset + 8),
+					records.getInt(offset + 20))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Deliver all available events to the handler, consumer thread only.
+	 *
+	 * @return the number of events delivered
+	 */
+	int drainTo(GpioLineEventListener handler) {
+		long h = head.get();
+		long t = tail.get();
+		for (long i = h; i < t; i++) {
+			int slot = (int) i & mask;
+			handler.event(lineFds[slot], eventDataIds[slot], epochTimes[slot], timestamps[slot],
+					lineSequenceNumbers[slot]);
+			// Release the slot as soon as it has been processed
+			head.lazySet(i + 1);
+		}
+		return (int) (t - h);
+	}
+
+	/**
+	 * Block the consumer thread until at least one event is available.
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	void awaitEvents() throws InterruptedException {
+		if (tail.get() != head.get()) {
+			return;
+		}
+
+		waitingConsumer = Thread.currentThread();
+		try {
+			// Re-check after publishing the waiter to avoid a lost wake-up
+			while (tail.get() == head.get()) {
+				LockSupport.park(this);
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+			}
+		} finally {
+			waitingConsumer = null;
+		}
+	}
+}
@@ -56,6 +56,9 @@ public class GpioLine implements AutoCloseable {
 	private final String name;
 	private final String consumer;
 	private int fd;
+	// True if the line was requested via the GPIO v2 ABI
+	private boolean v2;
+	private final long[] values = new long[1];
 
 	public GpioLine(int offset, int flags, String name, String consumer) {
 		this.offset = offset;
@@ -105,10 +108,28 @@ public class GpioLine implements AutoCloseable {
 	}
 
 	void setFd(int fd) {
+		setFd(fd, false);
+	}
+
+	void setFd(int fd, boolean v2) {
 		this.fd = fd;
+		this.v2 = v2;
+	}
+
+	public boolean isV2() {
+		return v2;
 	}
 
 	public int getValue() {
+		if (v2) {
+			synchronized (values) {
+				int rc = NativeGpioDevice.getValuesV2(fd, 1, values);
+				if (rc < 0) {
+					throw new RuntimeIOException("Error in getValue() for line " + offset + ": " + rc);
+				}
+				return (int) (values[0] & 1);
+			}
+		}
 		int rc = NativeGpioDevice.getValue(fd);
 		if (rc < 0) {
 			throw new RuntimeIOException("Error in getValue() for line " + offset + ": " + rc);
@@ -117,7 +138,7 @@ public class GpioLine implements AutoCloseable {
 	}
 
 	public void setValue(int value) {
-		int rc = NativeGpioDevice.setValue(fd, value);
+		int rc = v2 ? NativeGpioDevice.setValuesV2(fd, 1, value == 0 ? 0 : 1) : NativeGpioDevice.setValue(fd, value);
 		if (rc < 0) {
 			throw new RuntimeIOException("Error in setValue(" + value + ") for line " + offset + ": " + rc);
 		}
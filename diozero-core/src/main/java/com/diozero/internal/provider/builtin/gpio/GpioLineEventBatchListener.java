@@ -0,0 +1,50 @@
+package com.diozero.internal.provider.builtin.gpio;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     GpioLineEventBatchListener.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+/**
+ * Receives all of the GPIO line events read by the native event loop in a
+ * single epoll wakeup. The events are written to a direct
+ * {@link java.nio.ByteBuffer ByteBuffer} shared with the native code, see
+ * {@link NativeGpioDevice#eventLoopBatch(int, int, java.nio.ByteBuffer, GpioLineEventBatchListener)}
+ * for the record layout.
+ */
+public interface GpioLineEventBatchListener {
+	/**
+	 * Process a batch of events; the buffer is only valid for the duration of this
+	 * call.
+	 *
+	 * @param count       number of event records in the shared buffer
+	 * @param epochTimeMs time of the epoll wakeup in milliseconds since the epoch
+	 */
+	void eventBatch(int count, long epochTimeMs);
+}
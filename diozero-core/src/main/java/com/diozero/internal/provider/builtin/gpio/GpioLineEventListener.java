@@ -33,4 +33,13 @@ package com.diozero.internal.provider.builtin.gpio;
 
 public interface GpioLineEventListener {
 	void event(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos);
+
+	/**
+	 * Event for a line requested via the GPIO v2 ABI, which additionally carries
+	 * the kernel's per-line sequence number so that gaps caused by kernel buffer
+	 * overflow can be detected. The sequence number is 0 for v1 lines.
+	 */
+	default void event(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos, int lineSequenceNumber) {
+		event(lineFd, eventDataId, epochTimeMs, timestampNanos);
+	}
 }
@@ -0,0 +1,91 @@
+package com.diozero.internal.provider.builtin.gpio;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     GpioLineRequest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.diozero.api.RuntimeIOException;
+
+/**
+ * A set of lines on a single GPIO chip that were requested together using the
+ * GPIO v2 character device ABI. Bit n of the values and masks corresponds to
+ * the n'th requested line offset; all lines in a request can be read or written
+ * with a single ioctl.
+ */
+public class GpioLineRequest implements AutoCloseable {
+	private final GpioChip chip;
+	private final int fd;
+	private final int[] offsets;
+	private final long[] values = new long[1];
+
+	GpioLineRequest(GpioChip chip, int fd, int[] offsets) {
+		this.chip = chip;
+		this.fd = fd;
+		this.offsets = offsets;
+	}
+
+	public GpioChip getChip() {
+		return chip;
+	}
+
+	public int getFd() {
+		return fd;
+	}
+
+	public int getNumLines() {
+		return offsets.length;
+	}
+
+	public int getOffset(int index) {
+		return offsets[index];
+	}
+
+	public long getValues(long mask) {
+		synchronized (values) {
+			int rc = NativeGpioDevice.getValuesV2(fd, mask, values);
+			if (rc < 0) {
+				throw new RuntimeIOException("Error in getValues() for chip " + chip.getChipId() + ": " + rc);
+			}
+			return values[0];
+		}
+	}
+
+	public void setValues(long mask, long bits) {
+		int rc = NativeGpioDevice.setValuesV2(fd, mask, bits);
+		if (rc < 0) {
+			throw new RuntimeIOException("Error in setValues() for chip " + chip.getChipId() + ": " + rc);
+		}
+	}
+
+	@Override
+	public void close() {
+		NativeGpioDevice.close(fd);
+	}
+}
@@ -31,9 +31,12 @@ package com.diozero.internal.provider.builtin.gpio;
  * #L%
  */
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
 public class NativeGpioDevice {
+	static final int EVENT_RECORD_SIZE = 24;
+
 	static native List<GpioChipInfo> getChips();
 
 	/**
@@ -52,10 +55,30 @@ public class NativeGpioDevice {
 
 	static native int setValue(int lineFd, int value);
 
+	/**
+	 * Request a set of lines on the chip as a single line request using the GPIO
+	 * v2 character device ABI (Linux 5.10+). All lines share the same flags.
+	 *
+	 * @param chipFd            the chip file descriptor
+	 * @param offsets           line offsets, maximum 64
+	 * @param flags             GPIO_V2_LINE_FLAG_* values
+	 * @param outputValues      initial output values if an output, bit n
+	 *                          corresponds to offsets[n]
+	 * @param debouncePeriodUs  debounce period in microseconds, 0 to disable
+	 * @return the line request file descriptor or a negative error number
+	 */
+	static native int requestLinesV2(int chipFd, int[] offsets, long flags, long outputValues, int debouncePeriodUs);
+
+	static native int getValuesV2(int lineFd, long mask, long[] values);
+
+	static native int setValuesV2(int lineFd, long mask, long values);
+
 	static native int epollCreate();
 
 	static native int epollAddFileDescriptor(int epollFd, int lineFd);
 
+	static native int epollAddFileDescriptorV2(int epollFd, int lineFd);
+
 	static native int epollRemoveFileDescriptor(int epollFd, int lineFd);
 
 	/*-
@@ -65,6 +88,23 @@ public class NativeGpioDevice {
 	 */
 	static native void eventLoop(int epollFd, int timeoutMillis, GpioLineEventListener listener);
 
+	/**
+	 * Batched version of {@link #eventLoop(int, int, GpioLineEventListener)}. All
+	 * events that are pending on every ready line fd are read on each epoll wakeup
+	 * and written to the direct buffer, followed by a single call to the listener.
+	 * Each event record is {@link #EVENT_RECORD_SIZE} bytes in native byte order:
+	 * int line fd, int event id, long timestamp (nanoseconds), int sequence number
+	 * and int line sequence number (both are 0 for lines requested via the v1
+	 * ABI).
+	 *
+	 * @param epollFd       the epoll file descriptor
+	 * @param timeoutMillis epoll_wait timeout, -1 to block indefinitely
+	 * @param buffer        direct byte buffer to hold the event records
+	 * @param listener      callback for each batch of events
+	 */
+	static native void eventLoopBatch(int epollFd, int timeoutMillis, ByteBuffer buffer,
+			GpioLineEventBatchListener listener);
+
 	static native int stopEventLoop(int epollFd);
 
 	/**
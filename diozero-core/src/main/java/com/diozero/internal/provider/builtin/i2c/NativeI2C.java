@@ -31,6 +31,8 @@ package com.diozero.internal.provider.builtin.i2c;
  * #L%
  */
 
+import java.nio.ByteBuffer;
+
 import com.diozero.api.I2CDeviceInterface.I2CMessage;
 
 public class NativeI2C {
@@ -79,7 +81,20 @@ public class NativeI2C {
 
 	static native int writeBytes(int fd, int txLength, byte[] txData);
 
+	// Direct ByteBuffer variants, offset is the absolute position in the buffer
+	static native int readI2CBlockDataDirect(int fd, int registerAddress, ByteBuffer rxData, int offset,
+			int rxLength);
+
+	static native int writeI2CBlockDataDirect(int fd, int registerAddress, ByteBuffer txData, int offset,
+			int txLength);
+
+	static native int readBytesDirect(int fd, ByteBuffer rxData, int offset, int rxLength);
+
+	static native int writeBytesDirect(int fd, ByteBuffer txData, int offset, int txLength);
+
 	static native int readWrite(int fd, int deviceAddress, I2CMessage[] messages, byte[] buffer);
 
+	static native int transfer(int fd, int numMessages, int[] addresses, int[] flags, int[] lengths, byte[] buffer);
+
 	static native void smbusClose(int fd);
 }
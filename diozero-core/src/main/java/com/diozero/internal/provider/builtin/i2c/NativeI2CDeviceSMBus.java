@@ -31,6 +31,8 @@ package com.diozero.internal.provider.builtin.i2c;
  * #L%
  */
 
+import java.nio.ByteBuffer;
+
 import org.tinylog.Logger;
 
 import com.diozero.api.DeviceBusyException;
@@ -38,6 +40,7 @@ import com.diozero.api.I2CConstants;
 import com.diozero.api.I2CDevice;
 import com.diozero.api.I2CDeviceInterface;
 import com.diozero.api.I2CException;
+import com.diozero.api.I2CTransaction;
 import com.diozero.internal.spi.AbstractDevice;
 import com.diozero.internal.spi.DeviceFactoryInterface;
 import com.diozero.internal.spi.InternalI2CDeviceInterface;
@@ -67,6 +70,9 @@ public class NativeI2CDeviceSMBus extends AbstractDevice implements InternalI2CD
 	private static final int ETIMEDOUT = -110;
 	private static final int EREMOTEIO = -121;
 
+	private static boolean transferSupported = true;
+	private static boolean directSupported = true;
+
 	private int controller;
 	private int deviceAddress;
 	private int fd = CLOSED;
@@ -488,6 +494,123 @@ public class NativeI2CDeviceSMBus extends AbstractDevice implements InternalI2CD
 		}
 	}
 
+	@Override
+	public int readI2CBlockData(int registerAddress, ByteBuffer dst)
+			throws I2CException, UnsupportedOperationException {
+		if (!dst.isDirect() || !directSupported) {
+			return InternalI2CDeviceInterface.super.readI2CBlockData(registerAddress, dst);
+		}
+		if ((funcs & I2CDeviceInterface.I2C_FUNC_SMBUS_READ_I2C_BLOCK) == 0) {
+			Logger.warn("Function I2C_FUNC_SMBUS_READ_I2C_BLOCK isn't supported for device {}", getKey());
+			throw new UnsupportedOperationException(
+					"Function I2C_FUNC_SMBUS_READ_I2C_BLOCK isn't supported for device " + getKey());
+		}
+
+		int length = Math.min(dst.remaining(), I2CDevice.MAX_I2C_BLOCK_SIZE);
+		int rc = EAGAIN;
+		try {
+			for (int i = 0; i < numRetries && (rc == EAGAIN || rc == ETIMEDOUT); i++) {
+				rc = NativeI2C.readI2CBlockDataDirect(fd, registerAddress, dst, dst.position(), length);
+			}
+		} catch (UnsatisfiedLinkError e) {
+			disableDirect(e);
+			return InternalI2CDeviceInterface.super.readI2CBlockData(registerAddress, dst);
+		}
+
+		if (rc < 0) {
+			throw new I2CException("Error in SMBus.readI2CBlockData for device " + getKey() + ": " + rc, rc);
+		}
+		dst.position(dst.position() + rc);
+
+		return rc;
+	}
+
+	@Override
+	public void writeI2CBlockData(int registerAddress, ByteBuffer src)
+			throws I2CException, UnsupportedOperationException {
+		if (!src.isDirect() || !directSupported) {
+			InternalI2CDeviceInterface.super.writeI2CBlockData(registerAddress, src);
+			return;
+		}
+		if ((funcs & I2CDeviceInterface.I2C_FUNC_SMBUS_WRITE_I2C_BLOCK) == 0) {
+			Logger.warn("Function I2C_FUNC_SMBUS_WRITE_I2C_BLOCK isn't supported for device {}", getKey());
+			throw new UnsupportedOperationException(
+					"Function I2C_FUNC_SMBUS_WRITE_I2C_BLOCK isn't supported for device " + getKey());
+		}
+
+		int length = src.remaining();
+		int rc = EAGAIN;
+		try {
+			for (int i = 0; i < numRetries && (rc == EAGAIN || rc == ETIMEDOUT); i++) {
+				rc = NativeI2C.writeI2CBlockDataDirect(fd, registerAddress, src, src.position(), length);
+			}
+		} catch (UnsatisfiedLinkError e) {
+			disableDirect(e);
+			InternalI2CDeviceInterface.super.writeI2CBlockData(registerAddress, src);
+			return;
+		}
+
+		if (rc < 0) {
+			throw new I2CException("Error in SMBus.writeI2CBlockData for device " + getKey() + ": " + rc, rc);
+		}
+		src.position(src.position() + length);
+	}
+
+	@Override
+	public int readBytes(ByteBuffer dst) throws I2CException {
+		if (!dst.isDirect() || !directSupported) {
+			return InternalI2CDeviceInterface.super.readBytes(dst);
+		}
+
+		int rc = EAGAIN;
+		try {
+			for (int i = 0; i < numRetries && (rc == EAGAIN || rc == ETIMEDOUT); i++) {
+				rc = NativeI2C.readBytesDirect(fd, dst, dst.position(), dst.remaining());
+			}
+		} catch (UnsatisfiedLinkError e) {
+			disableDirect(e);
+			return InternalI2CDeviceInterface.super.readBytes(dst);
+		}
+
+		if (rc < 0) {
+			throw new I2CException("Error in SMBus.readBytes for device " + getKey() + ": " + rc, rc);
+		}
+		dst.position(dst.position() + rc);
+
+		return rc;
+	}
+
+	@Override
+	public void writeBytes(ByteBuffer src) throws I2CException {
+		if (!src.isDirect() || !directSupported) {
+			InternalI2CDeviceInterface.super.writeBytes(src);
+			return;
+		}
+
+		int length = src.remaining();
+		int rc = EAGAIN;
+		try {
+			for (int i = 0; i < numRetries && (rc == EAGAIN || rc == ETIMEDOUT); i++) {
+				rc = NativeI2C.writeBytesDirect(fd, src, src.position(), length);
+			}
+		} catch (UnsatisfiedLinkError e) {
+			disableDirect(e);
+			InternalI2CDeviceInterface.super.writeBytes(src);
+			return;
+		}
+
+		if (rc < 0 || rc < length) {
+			throw new I2CException("Error in SMBus.writeBytes for device " + getKey() + ": " + rc, rc);
+		}
+		src.position(src.position() + length);
+	}
+
+	private static void disableDirect(UnsatisfiedLinkError e) {
+		// Older version of the native library
+		Logger.debug("Direct buffer I2C functions not available, reverting to byte arrays: {}", e);
+		directSupported = false;
+	}
+
 	@Override
 	public void readWrite(I2CMessage[] messages, byte[] buffer) throws I2CException {
 		int rc = EAGAIN;
@@ -499,4 +622,28 @@ public class NativeI2CDeviceSMBus extends AbstractDevice implements InternalI2CD
 			throw new I2CException("Error in I2C readWrite for device " + getKey() + ": " + rc, rc);
 		}
 	}
+
+	@Override
+	public void readWrite(I2CTransaction transaction) throws I2CException {
+		if (transferSupported) {
+			int rc = EAGAIN;
+			try {
+				for (int i = 0; i < numRetries && (rc == EAGAIN || rc == ETIMEDOUT); i++) {
+					rc = NativeI2C.transfer(fd, transaction.getMessageCount(), transaction.getAddresses(),
+							transaction.getFlags(), transaction.getLengths(), transaction.getBuffer());
+				}
+
+				if (rc < 0) {
+					throw new I2CException("Error in I2C transaction for device " + getKey() + ": " + rc, rc);
+				}
+				return;
+			} catch (UnsatisfiedLinkError e) {
+				// Older version of the native library
+				Logger.debug("I2C transfer not available, reverting to readWrite: {}", e);
+				transferSupported = false;
+			}
+		}
+
+		InternalI2CDeviceInterface.super.readWrite(transaction);
+	}
 }
@@ -166,6 +166,24 @@ public class NativeSerialDevice implements AutoCloseable {
 		*/
 	}
 
+	/**
+	 * Read whatever data is available in a single read call rather than looping
+	 * until the buffer is full, blocking for at least one byte if the device was
+	 * opened in blocking mode
+	 *
+	 * @param buffer the buffer to read into
+	 * @param offset offset in the buffer to start writing data
+	 * @param length maximum number of bytes to read
+	 * @return the number of bytes read, or -1 if the end of file was reached
+	 */
+	public int readAvailable(byte[] buffer, int offset, int length) {
+		try {
+			return inputStream.read(buffer, offset, length);
+		} catch (IOException e) {
+			throw new RuntimeIOException("Error in serial device read for '" + deviceFile + "': " + e.getMessage(), e);
+		}
+	}
+
 	public void write(byte[] data) {
 		try {
 			outputStream.write(data);
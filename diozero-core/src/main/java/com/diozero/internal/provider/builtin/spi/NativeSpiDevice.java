@@ -31,6 +31,8 @@ package com.diozero.internal.provider.builtin.spi;
  * #L%
  */
 
+import java.nio.ByteBuffer;
+
 import org.tinylog.Logger;
 
 import com.diozero.api.RuntimeIOException;
@@ -49,6 +51,10 @@ public class NativeSpiDevice implements AutoCloseable {
 	private static native int spiTransfer(int fileDescriptor, byte[] txBuffer, int txOffset, byte[] rxBuffer,
 			int length, int frequency, int delayUSecs, byte bitsPerWord, boolean csChange);
 
+	private static native int spiTransferDirect(int fileDescriptor, ByteBuffer txBuffer, int txOffset,
+			ByteBuffer rxBuffer, int rxOffset, int length, int frequency, int delayUSecs, byte bitsPerWord,
+			boolean csChange);
+
 	private int controller;
 	private int chipSelect;
 	private int frequency;
@@ -111,6 +117,48 @@ public class NativeSpiDevice implements AutoCloseable {
 		return rx;
 	}
 
+	/**
+	 * Write the remaining bytes in the direct buffer <code>txBuffer</code> without
+	 * copying, the buffer position is advanced by the number of bytes written.
+	 *
+	 * @param txBuffer   direct buffer containing the data to write
+	 * @param delayUSecs delay after the transfer in microseconds
+	 */
+	public void write(ByteBuffer txBuffer, int delayUSecs) {
+		int length = txBuffer.remaining();
+		int rc = spiTransferDirect(fd, txBuffer, txBuffer.position(), null, 0, length, frequency, delayUSecs,
+				bitsPerWord, false);
+		if (rc < 0) {
+			throw new RuntimeIOException("Error in spiTransferDirect(), response: " + rc);
+		}
+		txBuffer.position(txBuffer.position() + length);
+	}
+
+	/**
+	 * Full-duplex transfer of the remaining bytes in the direct buffer
+	 * <code>txBuffer</code> into the direct buffer <code>rxBuffer</code> without
+	 * copying, the positions of both buffers are advanced by the number of bytes
+	 * transferred.
+	 *
+	 * @param txBuffer   direct buffer containing the data to write
+	 * @param rxBuffer   direct buffer to read into
+	 * @param delayUSecs delay after the transfer in microseconds
+	 */
+	public void writeAndRead(ByteBuffer txBuffer, ByteBuffer rxBuffer, int delayUSecs) {
+		int length = txBuffer.remaining();
+		if (rxBuffer.remaining() < length) {
+			throw new IllegalArgumentException("Receive buffer too small (" + rxBuffer.remaining() + " < " + length
+					+ ")");
+		}
+		int rc = spiTransferDirect(fd, txBuffer, txBuffer.position(), rxBuffer, rxBuffer.position(), length,
+				frequency, delayUSecs, bitsPerWord, false);
+		if (rc < 0) {
+			throw new RuntimeIOException("Error in spiTransferDirect(), response: " + rc);
+		}
+		txBuffer.position(txBuffer.position() + length);
+		rxBuffer.position(rxBuffer.position() + length);
+	}
+
 	public int getController() {
 		return controller;
 	}
@@ -341,4 +341,41 @@ public abstract class AllwinnerHMmapGpio implements MmapGpioInterface {
 
 		int_buffer.put(data_int_offset, reg_val);
 	}
+
+	@Override
+	public int getBank(int gpio) {
+		final int bank = gpio >> 5;
+		if (gpio < 0 || bank >= numGpiosByBank.length || (gpio % 32) >= numGpiosByBank[bank]) {
+			return -1;
+		}
+		return bank;
+	}
+
+	@Override
+	public int getBankBit(int gpio) {
+		return getBank(gpio) == -1 ? -1 : gpio % 32;
+	}
+
+	@Override
+	public int gpioReadBank(int bank) {
+		if (bank < 11) {
+			return gpioAMmapIntBuffer.get(gpioAIntOffset + DATA_REG_INT_OFFSET + bank * BANK_INT_OFFSET);
+		}
+		return gpioLMmapIntBuffer.get(gpioLIntOffset + DATA_REG_INT_OFFSET + (bank - 11) * BANK_INT_OFFSET);
+	}
+
+	@Override
+	public void gpioWriteBank(int bank, int setBits, int clearBits) {
+		int data_int_offset;
+		MmapIntBuffer int_buffer;
+		if (bank < 11) {
+			data_int_offset = gpioAIntOffset + DATA_REG_INT_OFFSET + bank * BANK_INT_OFFSET;
+			int_buffer = gpioAMmapIntBuffer;
+		} else {
+			data_int_offset = gpioLIntOffset + DATA_REG_INT_OFFSET + (bank - 11) * BANK_INT_OFFSET;
+			int_buffer = gpioLMmapIntBuffer;
+		}
+
+		int_buffer.put(data_int_offset, (int_buffer.get(data_int_offset) & ~clearBits) | setBits);
+	}
 }
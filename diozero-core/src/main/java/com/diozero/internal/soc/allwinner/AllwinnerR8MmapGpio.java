@@ -223,6 +223,35 @@ public class AllwinnerR8MmapGpio implements MmapGpioInterface {
 		}
 	}
 
+	@Override
+	public int getBank(int gpio) {
+		if (gpio < 0) {
+			return -1;
+		}
+		int port = getPort(gpio);
+		if (port >= PORT_CONFIGS.length || PORT_CONFIGS[port] == null
+				|| getPin(gpio) >= PORT_CONFIGS[port].configRegisters.length) {
+			return -1;
+		}
+		return port;
+	}
+
+	@Override
+	public int getBankBit(int gpio) {
+		return getBank(gpio) == -1 ? -1 : getPin(gpio);
+	}
+
+	@Override
+	public int gpioReadBank(int bank) {
+		return mmapIntBuffer.get(PORT_CONFIGS[bank].dataRegister);
+	}
+
+	@Override
+	public void gpioWriteBank(int bank, int setBits, int clearBits) {
+		int data_reg = PORT_CONFIGS[bank].dataRegister;
+		mmapIntBuffer.put(data_reg, (mmapIntBuffer.get(data_reg) & ~clearBits) | setBits);
+	}
+
 	private static int getPort(int gpio) {
 		return gpio / 32;
 	}
@@ -107,6 +107,17 @@ public class AmlogicS905MmapGpio implements MmapGpioInterface {
 	private static final int J7_GPIOA_PUEN_REG_OFFSET = 0x0b;
 	private static final int J7_GPIOA_PUPD_REG_OFFSET = 0x0b;
 
+	// Banks for bank level access: J2 GPIODV, J2 GPIOY, J2 GPIOX and J7 GPIOA
+	private static final int[] BANK_PIN_STARTS = { J2_GPIODV_GPIO_START, J2_GPIOY_PIN_START, J2_GPIOX_PIN_START,
+			J7_GPIOA_PIN_START };
+	private static final int[] BANK_PIN_ENDS = { J2_GPIODV_PIN_END, J2_GPIOY_PIN_END, J2_GPIOX_PIN_END,
+			J7_GPIOA_PIN_END };
+	private static final int[] BANK_OUT_REG_OFFSETS = { J2_GPIODV_OUT_REG_OFFSET, J2_GPIOY_OUT_REG_OFFSET,
+			J2_GPIOX_OUT_REG_OFFSET, J7_GPIOA_OUT_REG_OFFSET };
+	private static final int[] BANK_INP_REG_OFFSETS = { J2_GPIODV_INP_REG_OFFSET, J2_GPIOY_INP_REG_OFFSET,
+			J2_GPIOX_INP_REG_OFFSET, J7_GPIOA_INP_REG_OFFSET };
+	private static final int J7_GPIOA_BANK = 3;
+
 	/*
 	 * private static final int C2_MUX_REG_0_OFFSET = 0x2C; private static final int
 	 * C2_MUX_REG_1_OFFSET = 0x2D; private static final int C2_MUX_REG_2_OFFSET =
@@ -453,6 +464,42 @@ public class AmlogicS905MmapGpio implements MmapGpioInterface {
 		}
 	}
 
+	@Override
+	public int getBank(int gpio) {
+		for (int bank = 0; bank < BANK_PIN_STARTS.length; bank++) {
+			if (gpio >= BANK_PIN_STARTS[bank] && gpio <= BANK_PIN_ENDS[bank]) {
+				return bank;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int getBankBit(int gpio) {
+		return gpioToRegShiftBit(gpio);
+	}
+
+	@Override
+	public int gpioReadBank(int bank) {
+		MmapIntBuffer mmap_int_buffer = bank == J7_GPIOA_BANK ? j7MmapIntBuffer : j2MmapIntBuffer;
+		return mmap_int_buffer.get(BANK_INP_REG_OFFSETS[bank]);
+	}
+
+	@Override
+	public void gpioWriteBank(int bank, int setBits, int clearBits) {
+		MmapIntBuffer mmap_int_buffer;
+		if (bank == J7_GPIOA_BANK) {
+			// The J7 GPIOA output bits share the output enable register, offset by 16
+			setBits <<= 16;
+			clearBits <<= 16;
+			mmap_int_buffer = j7MmapIntBuffer;
+		} else {
+			mmap_int_buffer = j2MmapIntBuffer;
+		}
+		int reg = BANK_OUT_REG_OFFSETS[bank];
+		mmap_int_buffer.put(reg, (mmap_int_buffer.get(reg) & ~clearBits) | setBits);
+	}
+
 	public static void main(String[] args) {
 		System.out.println(ByteOrder.nativeOrder());
 		if (args.length != 2) {
@@ -316,6 +316,34 @@ public class AmlogicS922MmapGpio implements MmapGpioInterface {
 	}
 
 	@SuppressWarnings("boxing")
+	@Override
+	public int getBank(int gpio) {
+		if (gpio >= J2_GPIOA_PIN_START && gpio <= J2_GPIOA_PIN_END) {
+			return 0;
+		}
+		if (gpio >= J2_GPIOX_PIN_START && gpio <= J2_GPIOX_PIN_END) {
+			return 1;
+		}
+		return -1;
+	}
+
+	@Override
+	public int getBankBit(int gpio) {
+		return gpioToRegShiftBit(gpio);
+	}
+
+	@Override
+	public int gpioReadBank(int bank) {
+		return getIntBuffer().get(bank == 0 ? J2_GPIOA_INP_REG_OFFSET : J2_GPIOX_INP_REG_OFFSET);
+	}
+
+	@Override
+	public void gpioWriteBank(int bank, int setBits, int clearBits) {
+		int reg = bank == 0 ? J2_GPIOA_OUT_REG_OFFSET : J2_GPIOX_OUT_REG_OFFSET;
+		MmapIntBuffer mmap_int_buffer = getIntBuffer();
+		mmap_int_buffer.put(reg, (mmap_int_buffer.get(reg) & ~clearBits) | setBits);
+	}
+
 	public static void main(String[] args) {
 		System.out.println(ByteOrder.nativeOrder());
 		if (args.length != 2) {
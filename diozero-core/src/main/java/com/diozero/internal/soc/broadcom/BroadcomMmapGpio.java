@@ -80,6 +80,9 @@ public class BroadcomMmapGpio implements MmapGpioInterface {
 	// private static final int GPIOMEM_LEN = 0xB4;
 	private static final int GPIOMEM_LEN = 4096;
 
+	private static final int GPSET0 = 7;
+	private static final int GPCLR0 = 10;
+	private static final int GPLEV0 = 13;
 	// Offset to the GPIO Set registers for each GPIO pin
 	private static final byte[] GPIO_TO_GPSET = { 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7, 7,
 			7, 7, 7, 7, 7, 7, 7, 7, 7, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8, 8,
@@ -256,6 +259,37 @@ public class BroadcomMmapGpio implements MmapGpioInterface {
 		}
 	}
 
+	@Override
+	public void setMode(DeviceMode mode, int... gpios) {
+		int fsel;
+		switch (mode) {
+		case DIGITAL_INPUT:
+			fsel = FSEL_INPT;
+			break;
+		case DIGITAL_OUTPUT:
+			fsel = FSEL_OUTP;
+			break;
+		default:
+			MmapGpioInterface.super.setMode(mode, gpios);
+			return;
+		}
+
+		// One read-modify-write per function select register (10 GPIOs each)
+		int[] clear_masks = new int[(GPIO_TO_GPSET.length + 9) / 10];
+		int[] set_masks = new int[clear_masks.length];
+		for (int gpio : gpios) {
+			int reg = gpio / 10;
+			int shift = (gpio % 10) * 3;
+			clear_masks[reg] |= 0b111 << shift;
+			set_masks[reg] |= fsel << shift;
+		}
+		for (int reg = 0; reg < clear_masks.length; reg++) {
+			if (clear_masks[reg] != 0) {
+				mmapIntBuffer.put(reg, mmapIntBuffer.get(reg) & ~clear_masks[reg] | set_masks[reg]);
+			}
+		}
+	}
+
 	@Override
 	public void setModeUnchecked(int gpio, int mode) {
 		int reg = gpio / 10;
@@ -375,6 +409,34 @@ public class BroadcomMmapGpio implements MmapGpioInterface {
 		}
 	}
 
+	@Override
+	public int getBank(int gpio) {
+		return gpio >= 0 && gpio < GPIO_TO_GPSET.length ? gpio >> 5 : -1;
+	}
+
+	@Override
+	public int getBankBit(int gpio) {
+		return gpio >= 0 && gpio < GPIO_TO_GPSET.length ? gpio & 0x1F : -1;
+	}
+
+	@Override
+	public int gpioReadBank(int bank) {
+		return mmapIntBuffer.get(GPLEV0 + bank);
+	}
+
+	@Override
+	public void gpioWriteBank(int bank, int setBits, int clearBits) {
+		// The set and clear registers only act on bits that are 1 so no
+		// read-modify-write is required
+		int clear = clearBits & ~setBits;
+		if (clear != 0) {
+			mmapIntBuffer.put(GPCLR0 + bank, clear);
+		}
+		if (setBits != 0) {
+			mmapIntBuffer.put(GPSET0 + bank, setBits);
+		}
+	}
+
 	@SuppressWarnings("boxing")
 	public static void main(String[] args) {
 		String soc = RaspberryPiBoardInfoProvider.BCM2711;
@@ -363,6 +363,37 @@ public class RK3288MmapGpio implements MmapGpioInterface {
 		gpioBanks[bank].put(GPIO_SWPORTA_DR_INT_OFFSET, reg_val);
 	}
 
+	@Override
+	public int getBank(int gpio) {
+		if (gpio < 0) {
+			return -1;
+		}
+		if (gpio < 24) {
+			return 0;
+		}
+		int bank = (gpio + 8) / 32;
+		return bank < gpioBanks.length ? bank : -1;
+	}
+
+	@Override
+	public int getBankBit(int gpio) {
+		if (getBank(gpio) == -1) {
+			return -1;
+		}
+		return gpio < 24 ? gpio : (gpio + 8) % 32;
+	}
+
+	@Override
+	public int gpioReadBank(int bank) {
+		return gpioBanks[bank].get(GPIO_EXT_PORTA_INT_OFFSET);
+	}
+
+	@Override
+	public void gpioWriteBank(int bank, int setBits, int clearBits) {
+		int reg_val = gpioBanks[bank].get(GPIO_SWPORTA_DR_INT_OFFSET);
+		gpioBanks[bank].put(GPIO_SWPORTA_DR_INT_OFFSET, (reg_val & ~clearBits) | setBits);
+	}
+
 	private static int getIoMuxOffsetForGpio(int gpio) {
 		switch (gpio) {
 		// GPIO0_C1
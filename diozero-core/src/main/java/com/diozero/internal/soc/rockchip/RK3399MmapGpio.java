@@ -554,6 +554,28 @@ public class RK3399MmapGpio implements MmapGpioInterface {
 		gpioBanks[bank].put(GPIO_SWPORTA_DR, reg_val);
 	}
 
+	@Override
+	public int getBank(int gpio) {
+		final int bank = gpio >> 5;
+		return gpio >= 0 && bank < GPIOMEM_OFFSETS.length ? bank : -1;
+	}
+
+	@Override
+	public int getBankBit(int gpio) {
+		return getBank(gpio) == -1 ? -1 : gpio % 32;
+	}
+
+	@Override
+	public int gpioReadBank(int bank) {
+		return gpioBanks[bank].get(GPIO_EXT_PORTA);
+	}
+
+	@Override
+	public void gpioWriteBank(int bank, int setBits, int clearBits) {
+		int reg_val = gpioBanks[bank].get(GPIO_SWPORTA_DR);
+		gpioBanks[bank].put(GPIO_SWPORTA_DR, (reg_val & ~clearBits) | setBits);
+	}
+
 	@SuppressWarnings("boxing")
 	public static void main(String[] args) {
 		int[] gpios = { 0, 39, 40, 47, 124, 157 };
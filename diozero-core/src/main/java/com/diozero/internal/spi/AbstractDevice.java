@@ -39,10 +39,34 @@ public abstract class AbstractDevice implements InternalDeviceInterface {
 	private String key;
 	private DeviceFactoryInterface deviceFactory;
 	private boolean child;
+	private final DeviceRecorder recorder;
 
 	public AbstractDevice(String key, DeviceFactoryInterface deviceFactory) {
 		this.key = key;
 		this.deviceFactory = deviceFactory;
+		recorder = deviceFactory.getInstrumentation().createRecorder(key, getDeviceType());
+	}
+
+	private String getDeviceType() {
+		if (this instanceof InternalI2CDeviceInterface) {
+			return "i2c";
+		}
+		if (this instanceof InternalSpiDeviceInterface) {
+			return "spi";
+		}
+		if (this instanceof InternalSerialDeviceInterface) {
+			return "serial";
+		}
+		if (this instanceof InternalPwmOutputDeviceInterface || this instanceof InternalServoDeviceInterface) {
+			return "pwm";
+		}
+		if (this instanceof GpioDeviceInterface) {
+			return "gpio";
+		}
+		if (this instanceof AnalogDeviceInterface) {
+			return "analog";
+		}
+		return "other";
 	}
 
 	@Override
@@ -55,6 +79,11 @@ public abstract class AbstractDevice implements InternalDeviceInterface {
 		return deviceFactory.isDeviceOpened(key);
 	}
 
+	@Override
+	public final DeviceRecorder getRecorder() {
+		return recorder;
+	}
+
 	@Override
 	public boolean isChild() {
 		return child;
@@ -79,6 +108,9 @@ public abstract class AbstractDevice implements InternalDeviceInterface {
 			Logger.error(e, "Error closing device {}: {}", key, e);
 		}
 		deviceFactory.deviceClosed(this);
+		if (recorder != DeviceRecorder.NO_OP) {
+			deviceFactory.getInstrumentation().deviceClosed(key);
+		}
 	}
 
 	protected DeviceFactoryInterface getDeviceFactory() {
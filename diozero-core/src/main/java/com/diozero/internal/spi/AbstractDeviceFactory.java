@@ -44,7 +44,10 @@ import com.diozero.sbc.DeviceFactoryHelper;
  * 3xxx} family of analog-to-digital converters).
  */
 public abstract class AbstractDeviceFactory implements DeviceFactoryInterface {
+	private static DeviceInstrumentation defaultInstrumentation;
+
 	private String deviceFactoryPrefix;
+	private volatile DeviceInstrumentation instrumentation;
 	protected DeviceStates deviceStates;
 	protected boolean closed;
 
@@ -58,6 +61,52 @@ public abstract class AbstractDeviceFactory implements DeviceFactoryInterface {
 		}
 	}
 
+	/**
+	 * Get the instrumentation that is used by all device factories that haven't
+	 * had their own instrumentation set. Loaded via the Java
+	 * {@link java.util.ServiceLoader ServiceLoader} on first use, defaults to
+	 * {@link DeviceInstrumentation#NO_OP}.
+	 *
+	 * @return the default device instrumentation
+	 */
+	public static synchronized DeviceInstrumentation getDefaultInstrumentation() {
+		if (defaultInstrumentation == null) {
+			defaultInstrumentation = DeviceInstrumentation.load();
+			if (defaultInstrumentation != DeviceInstrumentation.NO_OP) {
+				Logger.debug("Using device instrumentation {}", defaultInstrumentation.getClass().getName());
+			}
+		}
+		return defaultInstrumentation;
+	}
+
+	/**
+	 * Set the instrumentation used by all device factories that haven't had their
+	 * own instrumentation set. Only applies to devices provisioned after this call.
+	 *
+	 * @param instrumentation the default device instrumentation, null to revert to
+	 *                        {@link DeviceInstrumentation#NO_OP}
+	 */
+	public static synchronized void setDefaultInstrumentation(DeviceInstrumentation instrumentation) {
+		defaultInstrumentation = instrumentation == null ? DeviceInstrumentation.NO_OP : instrumentation;
+	}
+
+	@Override
+	public DeviceInstrumentation getInstrumentation() {
+		DeviceInstrumentation di = instrumentation;
+		return di == null ? getDefaultInstrumentation() : di;
+	}
+
+	/**
+	 * Set the instrumentation for devices provisioned by this device factory. Only
+	 * applies to devices provisioned after this call.
+	 *
+	 * @param instrumentation the device instrumentation, null to use the
+	 *                        {@link #getDefaultInstrumentation() default}
+	 */
+	public void setInstrumentation(DeviceInstrumentation instrumentation) {
+		this.instrumentation = instrumentation;
+	}
+
 	@Override
 	public void close() {
 		if (!closed) {
@@ -45,15 +45,46 @@ public abstract class AbstractInputDevice<T extends DeviceEvent> extends Abstrac
 
 	public void accept(T event) {
 		if (listener != null) {
+			recordEvent(event.getNanoTime());
 			listener.accept(event);
 		}
 	}
 
+	/**
+	 * Whether the nano time of events generated by this device is in the
+	 * {@link System#nanoTime()} time base, e.g. Linux CLOCK_MONOTONIC. Event
+	 * latency is only recorded for devices that return true; timestamps from
+	 * remote or microcontroller-based providers use a different clock.
+	 *
+	 * @return true if event timestamps can be compared with
+	 *         {@link System#nanoTime()}
+	 */
+	@SuppressWarnings("static-method")
+	protected boolean isEventTimeMonotonic() {
+		return false;
+	}
+
+	/**
+	 * Record the event dispatch latency if the event timestamp is comparable with
+	 * {@link System#nanoTime()}
+	 *
+	 * @param eventNanoTime the event timestamp
+	 */
+	protected final void recordEvent(long eventNanoTime) {
+		if (isEventTimeMonotonic()) {
+			getRecorder().end(DeviceOperation.EVENT, eventNanoTime, 0);
+		}
+	}
+
 	@SuppressWarnings("static-method")
 	public boolean generatesEvents() {
 		return false;
 	}
 
+	protected DeviceEventConsumer<T> getListener() {
+		return listener;
+	}
+
 	public final void setListener(DeviceEventConsumer<T> listener) {
 		this.listener = listener;
 		enableListener();
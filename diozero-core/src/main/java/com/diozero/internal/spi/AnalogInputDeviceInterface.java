@@ -33,6 +33,8 @@ package com.diozero.internal.spi;
 
 import com.diozero.api.AnalogInputEvent;
 import com.diozero.api.DeviceMode;
+import com.diozero.api.RuntimeIOException;
+import com.diozero.api.function.AnalogSampleBlockConsumer;
 import com.diozero.api.function.DeviceEventConsumer;
 
 public interface AnalogInputDeviceInterface extends AnalogDeviceInterface {
@@ -44,6 +46,42 @@ public interface AnalogInputDeviceInterface extends AnalogDeviceInterface {
 
 	void removeListener();
 
+	/**
+	 * Whether this device can capture samples continuously at a hardware-paced
+	 * rate, see {@link #startCapture(float, int, AnalogSampleBlockConsumer)}
+	 *
+	 * @return true if continuous capture is supported
+	 */
+	default boolean isCaptureSupported() {
+		return false;
+	}
+
+	/**
+	 * Start continuously capturing samples, delivering them to the consumer in
+	 * blocks of <code>blockSize</code> samples from a background thread
+	 *
+	 * @param sampleFrequency the requested sample frequency (Hz)
+	 * @param blockSize       number of samples per block
+	 * @param consumer        receives each block of unscaled samples
+	 * @throws RuntimeIOException            if an I/O error occurs
+	 * @throws UnsupportedOperationException if not supported by this device
+	 */
+	default void startCapture(float sampleFrequency, int blockSize, AnalogSampleBlockConsumer consumer)
+			throws RuntimeIOException {
+		throw new UnsupportedOperationException("Continuous capture isn't supported by device " + getKey());
+	}
+
+	/**
+	 * Stop a capture started by
+	 * {@link #startCapture(float, int, AnalogSampleBlockConsumer)}, does nothing if
+	 * a capture isn't in progress
+	 *
+	 * @throws RuntimeIOException if an I/O error occurs
+	 */
+	default void stopCapture() throws RuntimeIOException {
+		// Nothing to do
+	}
+
 	@Override
 	default DeviceMode getMode() {
 		return DeviceMode.ANALOG_INPUT;
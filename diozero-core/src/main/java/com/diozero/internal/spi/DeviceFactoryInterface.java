@@ -107,6 +107,17 @@ public interface DeviceFactoryInterface extends AutoCloseable {
 	 */
 	BoardPinInfo getBoardPinInfo();
 
+	/**
+	 * Get the instrumentation used to record metrics for devices provisioned by
+	 * this device factory
+	 *
+	 * @return the device instrumentation, {@link DeviceInstrumentation#NO_OP} by
+	 *         default
+	 */
+	default DeviceInstrumentation getInstrumentation() {
+		return DeviceInstrumentation.NO_OP;
+	}
+
 	/**
 	 * diozero internal method to generate a unique key for the specified pin. Used
 	 * for maintaining the state of devices provisioned by this device factory.
@@ -0,0 +1,81 @@
+package com.diozero.internal.spi;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     DeviceInstrumentation.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.diozero.util.ServiceLoaderUtil;
+
+/**
+ * Optional instrumentation SPI for recording device-level metrics. An
+ * implementation can be installed either programmatically via
+ * {@link AbstractDeviceFactory#setDefaultInstrumentation(DeviceInstrumentation)}
+ * / {@link AbstractDeviceFactory#setInstrumentation(DeviceInstrumentation)} or
+ * by the Java {@link java.util.ServiceLoader ServiceLoader}. The default is
+ * {@link #NO_OP}.
+ *
+ * <p>
+ * Recorders are created when a device is provisioned, changing the
+ * instrumentation only applies to devices that are provisioned afterwards.
+ * </p>
+ */
+public interface DeviceInstrumentation {
+	DeviceInstrumentation NO_OP = (deviceKey, deviceType) -> DeviceRecorder.NO_OP;
+
+	/**
+	 * Create the recorder for a newly provisioned device
+	 *
+	 * @param deviceKey  the unique device key
+	 * @param deviceType the device type, one of "gpio", "i2c", "spi", "serial",
+	 *                   "pwm", "analog" or "other"
+	 * @return the recorder for this device
+	 */
+	DeviceRecorder createRecorder(String deviceKey, String deviceType);
+
+	/**
+	 * Notification that a device has been closed; implementations should release
+	 * any resources associated with the device key
+	 *
+	 * @param deviceKey the unique device key
+	 */
+	default void deviceClosed(String deviceKey) {
+		// Inherit and override
+	}
+
+	/**
+	 * Locate the first instrumentation implementation via the Java
+	 * {@link java.util.ServiceLoader ServiceLoader}
+	 *
+	 * @return the instrumentation implementation or {@link #NO_OP} if none found
+	 */
+	static DeviceInstrumentation load() {
+		return ServiceLoaderUtil.stream(DeviceInstrumentation.class).findFirst().orElse(NO_OP);
+	}
+}
@@ -0,0 +1,133 @@
+package com.diozero.internal.spi;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     DeviceRecorder.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+/**
+ * Records operation counts, latencies, errors and bytes transferred for a
+ * single device. Instances are created once per device by
+ * {@link DeviceInstrumentation#createRecorder(String, String)} and are invoked
+ * on the device I/O path so implementations must not allocate when recording.
+ *
+ * <p>
+ * Usage pattern:
+ * </p>
+ *
+ * <pre>
+ * long start = recorder.start();
+ * try {
+ * 	int read = delegate.readBytes(buffer);
+ * 	recorder.end(DeviceOperation.READ, start, read);
+ * 	return read;
+ * } catch (RuntimeException e) {
+ * 	recorder.error(DeviceOperation.READ);
+ * 	throw e;
+ * }
+ * </pre>
+ */
+public interface DeviceRecorder {
+	DeviceRecorder NO_OP = new DeviceRecorder() {
+		@Override
+		public boolean isEnabled() {
+			return false;
+		}
+
+		@Override
+		public void record(DeviceOperation operation, long durationNanos, int bytes) {
+			// No-op
+		}
+
+		@Override
+		public void error(DeviceOperation operation) {
+			// No-op
+		}
+	};
+
+	/**
+	 * Get the recorder for the specified device
+	 *
+	 * @param device the internal device
+	 * @return the device's recorder or {@link #NO_OP} if it doesn't have one
+	 */
+	static DeviceRecorder of(InternalDeviceInterface device) {
+		DeviceRecorder recorder = device.getRecorder();
+		return recorder == null ? NO_OP : recorder;
+	}
+
+	/**
+	 * Whether or not this recorder records anything; if false the caller can skip
+	 * timing the operation
+	 *
+	 * @return true if this recorder is enabled
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Record a completed operation
+	 *
+	 * @param operation     the operation type
+	 * @param durationNanos operation latency in nanoseconds
+	 * @param bytes         number of bytes transferred, 0 if not applicable
+	 */
+	void record(DeviceOperation operation, long durationNanos, int bytes);
+
+	/**
+	 * Record a failed operation
+	 *
+	 * @param operation the operation type
+	 */
+	void error(DeviceOperation operation);
+
+	/**
+	 * Get the start time for an operation that is to be completed via
+	 * {@link #end(DeviceOperation, long, int)}
+	 *
+	 * @return the current value of {@link System#nanoTime()} if enabled, otherwise
+	 *         0
+	 */
+	default long start() {
+		return isEnabled() ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Record an operation that started at the specified time
+	 *
+	 * @param operation the operation type
+	 * @param startNanos start time as returned by {@link #start()} or an event
+	 *                  timestamp in the {@link System#nanoTime()} time base
+	 * @param bytes     number of bytes transferred, 0 if not applicable
+	 */
+	default void end(DeviceOperation operation, long startNanos, int bytes) {
+		if (isEnabled()) {
+			record(operation, System.nanoTime() - startNanos, bytes);
+		}
+	}
+}
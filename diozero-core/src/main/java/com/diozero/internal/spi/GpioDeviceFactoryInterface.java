@@ -32,6 +32,7 @@ package com.diozero.internal.spi;
  */
 
 import com.diozero.api.*;
+import com.diozero.internal.SoftwareGpioDigitalOutputGroup;
 
 public interface GpioDeviceFactoryInterface extends DeviceFactoryInterface {
     default GpioDigitalInputDeviceInterface provisionDigitalInputDevice(
@@ -71,6 +72,45 @@ public interface GpioDeviceFactoryInterface extends DeviceFactoryInterface {
         });
     }
 
+    /**
+     * Provision a group of GPIO outputs that can be updated together. Providers
+     * that support multi-line requests should override
+     * {@link #createDigitalOutputGroup(String, PinInfo[], long)}, the default
+     * implementation updates each line individually.
+     *
+     * @param pinInfos      the GPIOs in the group, maximum 64
+     * @param initialValues initial raw values, bit n corresponds to pinInfos[n]
+     * @return the output group
+     * @throws RuntimeIOException if an I/O error occurs
+     */
+    default GpioDigitalOutputGroupInterface provisionDigitalOutputGroup(PinInfo[] pinInfos, long initialValues)
+            throws RuntimeIOException {
+        if (pinInfos.length < 1 || pinInfos.length > GpioDigitalOutputGroupInterface.MAX_LINES) {
+            throw new IllegalArgumentException("Invalid number of GPIOs " + pinInfos.length + ", must be 1.."
+                    + GpioDigitalOutputGroupInterface.MAX_LINES);
+        }
+        StringBuilder key = new StringBuilder();
+        for (PinInfo pinInfo : pinInfos) {
+            if (pinInfo == null) {
+                throw new NoSuchDeviceException("No such device - pinInfo was null");
+            }
+            if (!pinInfo.isSupported(DeviceMode.DIGITAL_OUTPUT)) {
+                throw new InvalidModeException("Invalid mode (digital output) for pin " + pinInfo);
+            }
+            String pin_key = createPinKey(pinInfo);
+            if (isDeviceOpened(pin_key)) {
+                throw new DeviceAlreadyOpenedException("Device '" + pin_key + "' is already opened");
+            }
+            key.append(key.length() == 0 ? pin_key : "+" + pinInfo.getDeviceNumber());
+        }
+
+        return registerDevice(key::toString, (k) -> createDigitalOutputGroup(k, pinInfos, initialValues));
+    }
+
+    default GpioDigitalOutputGroupInterface createDigitalOutputGroup(String key, PinInfo[] pinInfos,
+            long initialValues) {
+        return new SoftwareGpioDigitalOutputGroup(key, this, pinInfos, initialValues);
+    }
 
     GpioDigitalInputDeviceInterface createDigitalInputDevice(String key, PinInfo pinInfo, GpioPullUpDown pud,
                                                              GpioEventTrigger trigger);
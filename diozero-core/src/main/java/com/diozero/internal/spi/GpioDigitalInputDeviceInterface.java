@@ -38,6 +38,18 @@ import com.diozero.api.function.DeviceEventConsumer;
 
 public interface GpioDigitalInputDeviceInterface extends GpioDigitalDeviceInterface {
 	void setDebounceTimeMillis(int debounceTime);
+
+	/**
+	 * Debounce events in hardware or in the kernel rather than in software. A
+	 * level change is only reported once it has been stable for the debounce
+	 * time.
+	 *
+	 * @param debounceTimeMs the debounce time in milliseconds
+	 * @return true if events for this device are now debounced by the provider
+	 */
+	default boolean setHardwareDebounceTimeMillis(int debounceTimeMs) {
+		return false;
+	}
 	void setListener(DeviceEventConsumer<DigitalInputEvent> listener);
 	void removeListener();
 	
@@ -0,0 +1,58 @@
+package com.diozero.internal.spi;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     GpioDigitalOutputGroupInterface.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.diozero.api.RuntimeIOException;
+
+/**
+ * A group of up to 64 GPIO output lines that are updated together. Bit n of the
+ * values and masks corresponds to the n'th GPIO in the group. Values are raw
+ * line levels, i.e. not compensated for active low / high logic.
+ */
+public interface GpioDigitalOutputGroupInterface extends InternalDeviceInterface {
+	int MAX_LINES = 64;
+
+	int getLineCount();
+
+	int getGpio(int index);
+
+	long getValues() throws RuntimeIOException;
+
+	/**
+	 * Set the value of all lines whose bit is set in the mask.
+	 *
+	 * @param mask   the lines to update
+	 * @param values the new line values
+	 * @throws RuntimeIOException if an I/O error occurs
+	 */
+	void setValues(long mask, long values) throws RuntimeIOException;
+}
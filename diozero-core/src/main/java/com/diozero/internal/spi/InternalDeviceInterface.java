@@ -61,4 +61,13 @@ public interface InternalDeviceInterface extends DeviceInterface {
 	boolean isChild();
 
 	void setChild(boolean child);
+
+	/**
+	 * Get the metrics recorder for this device
+	 *
+	 * @return the metrics recorder, {@link DeviceRecorder#NO_OP} by default
+	 */
+	default DeviceRecorder getRecorder() {
+		return DeviceRecorder.NO_OP;
+	}
 }
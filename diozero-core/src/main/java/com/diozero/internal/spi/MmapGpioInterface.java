@@ -114,4 +114,67 @@ public interface MmapGpioInterface extends AutoCloseable {
 	 * @param value New on-off value
 	 */
 	void gpioWrite(int gpio, boolean value);
+
+	/**
+	 * Set the mode for several GPIOs. Implementations may update all GPIOs that
+	 * share a mode register with a single read-modify-write.
+	 *
+	 * @param mode  The new mode
+	 * @param gpios The GPIOs to configure
+	 */
+	default void setMode(DeviceMode mode, int... gpios) {
+		for (int gpio : gpios) {
+			setMode(gpio, mode);
+		}
+	}
+
+	/**
+	 * Get the register bank for the specified GPIO. All GPIOs in the same bank can
+	 * be read with {@link #gpioReadBank(int)} and updated together with
+	 * {@link #gpioWriteBank(int, int, int)}.
+	 *
+	 * @param gpio The GPIO
+	 * @return The bank for the GPIO, -1 if bank operations are not supported for
+	 *         this GPIO
+	 */
+	default int getBank(int gpio) {
+		return -1;
+	}
+
+	/**
+	 * Get the bit that represents the specified GPIO within its
+	 * {@link #getBank(int) bank}.
+	 *
+	 * @param gpio The GPIO
+	 * @return The bit number (0..31) within the bank, -1 if bank operations are
+	 *         not supported for this GPIO
+	 */
+	default int getBankBit(int gpio) {
+		return -1;
+	}
+
+	/**
+	 * Read the levels of all GPIOs in the specified bank.
+	 *
+	 * @param bank The bank as returned by {@link #getBank(int)}
+	 * @return The levels, bit n is set if the GPIO at {@link #getBankBit(int) bank
+	 *         bit} n is high
+	 */
+	default int gpioReadBank(int bank) {
+		throw new UnsupportedOperationException("Bank operations are not supported");
+	}
+
+	/**
+	 * Set and clear GPIOs in the specified bank in as few register stores as
+	 * possible. Bits that are set in both setBits and clearBits are set. Note
+	 * assumes that the GPIOs are configured as
+	 * {@link com.diozero.api.DeviceMode#DIGITAL_OUTPUT DIGITAL_OUTPUT}.
+	 *
+	 * @param bank      The bank as returned by {@link #getBank(int)}
+	 * @param setBits   GPIOs to set high
+	 * @param clearBits GPIOs to set low
+	 */
+	default void gpioWriteBank(int bank, int setBits, int clearBits) {
+		throw new UnsupportedOperationException("Bank operations are not supported");
+	}
 }
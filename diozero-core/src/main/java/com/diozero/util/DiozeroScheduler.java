@@ -31,26 +31,82 @@ package com.diozero.util;
  * #L%
  */
 
+import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.tinylog.Logger;
 
 import com.diozero.api.function.FloatConsumer;
 import com.diozero.api.function.FloatSupplier;
 
+/**
+ * <p>
+ * Thread pools used by diozero for background tasks such as event loops,
+ * software PWM and animations.
+ * </p>
+ *
+ * <p>
+ * The execution mode is selected via the <code>diozero.scheduler.mode</code>
+ * property:
+ * </p>
+ * <dl>
+ * <dt>cached (default)</dt>
+ * <dd>Unbounded pool of platform threads, a new thread is created whenever
+ * there isn't an idle one.</dd>
+ * <dt>bounded</dt>
+ * <dd>At most <code>diozero.scheduler.maxThreads</code> platform threads with a
+ * queue of <code>diozero.scheduler.queueSize</code> tasks. Once the queue is
+ * full submitters wait for up to
+ * <code>diozero.scheduler.rejectTimeoutMs</code> for space before the task is
+ * rejected. Note that long-running loops permanently occupy a thread.</dd>
+ * <dt>virtual</dt>
+ * <dd>One virtual thread per task, requires Java 21 or later; falls back to
+ * cached otherwise. Virtual threads are always daemon threads, hence only the
+ * {@link #getDaemonInstance() daemon instance} uses them; the non-daemon
+ * instance uses cached platform threads so that it still keeps the JVM
+ * alive.</dd>
+ * </dl>
+ *
+ * <p>
+ * Timing-critical loops should use {@link #getHighPriorityInstance()} which is
+ * always a cached pool of maximum priority platform threads.
+ * </p>
+ */
 public class DiozeroScheduler {
+	public static final String MODE_PROP = "diozero.scheduler.mode";
+	public static final String MAX_THREADS_PROP = "diozero.scheduler.maxThreads";
+	public static final String QUEUE_SIZE_PROP = "diozero.scheduler.queueSize";
+	public static final String REJECT_TIMEOUT_PROP = "diozero.scheduler.rejectTimeoutMs";
+
+	private static final int DEFAULT_MAX_THREADS = Math.max(8, 4 * Runtime.getRuntime().availableProcessors());
+	private static final int DEFAULT_QUEUE_SIZE = 256;
+	private static final int DEFAULT_REJECT_TIMEOUT_MS = 1_000;
+
+	public enum Mode {
+		CACHED, BOUNDED, VIRTUAL;
+	}
+
 	private static DiozeroScheduler daemonInstance;
 	private static DiozeroScheduler nonDaemonInstance;
+	private static DiozeroScheduler highPriorityInstance;
 
 	/**
 	 * Get the default scheduler instance (non-daemon).
@@ -73,7 +129,7 @@ public class DiozeroScheduler {
 	 */
 	public static synchronized DiozeroScheduler getNonDaemonInstance() {
 		if (nonDaemonInstance == null || nonDaemonInstance.isShutdown()) {
-			nonDaemonInstance = new DiozeroScheduler(false);
+			nonDaemonInstance = new DiozeroScheduler(false, getConfiguredMode(), Thread.NORM_PRIORITY);
 		}
 		return nonDaemonInstance;
 	}
@@ -89,11 +145,25 @@ public class DiozeroScheduler {
 	 */
 	public static synchronized DiozeroScheduler getDaemonInstance() {
 		if (daemonInstance == null || daemonInstance.isShutdown()) {
-			daemonInstance = new DiozeroScheduler(true);
+			daemonInstance = new DiozeroScheduler(true, getConfiguredMode(), Thread.NORM_PRIORITY);
 		}
 		return daemonInstance;
 	}
 
+	/**
+	 * Get the diozero scheduler instance for timing-critical loops, e.g. GPIO
+	 * event processing and software PWM. Always uses non-daemon platform threads
+	 * at maximum priority, regardless of the configured mode.
+	 *
+	 * @return the high priority diozero scheduler instance
+	 */
+	public static synchronized DiozeroScheduler getHighPriorityInstance() {
+		if (highPriorityInstance == null || highPriorityInstance.isShutdown()) {
+			highPriorityInstance = new DiozeroScheduler(false, Mode.CACHED, Thread.MAX_PRIORITY);
+		}
+		return highPriorityInstance;
+	}
+
 	public static void shutdownAll() {
 		if (daemonInstance != null) {
 			daemonInstance.shutdown();
@@ -101,29 +171,141 @@ public class DiozeroScheduler {
 		if (nonDaemonInstance != null) {
 			nonDaemonInstance.shutdown();
 		}
+		if (highPriorityInstance != null) {
+			highPriorityInstance.shutdown();
+		}
 	}
 
-	private ScheduledExecutorService scheduler;
-	private ExecutorService executor;
-	private DaemonThreadFactory threadFactory;
+	private static Mode getConfiguredMode() {
+		String mode = PropertyUtil.getProperty(MODE_PROP, Mode.CACHED.name());
+		try {
+			return Mode.valueOf(mode.trim().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			Logger.warn("Invalid {} value '{}', using {}", MODE_PROP, mode, Mode.CACHED);
+			return Mode.CACHED;
+		}
+	}
 
-	private DiozeroScheduler(boolean daemon) {
-		threadFactory = new DaemonThreadFactory(daemon);
+	private final Mode mode;
+	private final ScheduledExecutorService scheduler;
+	private final ExecutorService executor;
+	private final DaemonThreadFactory threadFactory;
+	private final AtomicInteger activeCount = new AtomicInteger();
+	private final AtomicInteger queuedCount = new AtomicInteger();
+	private final AtomicLong rejectedCount = new AtomicLong();
+
+	DiozeroScheduler(boolean daemon, Mode requestedMode, int priority) {
+		threadFactory = new DaemonThreadFactory(daemon, priority);
 		scheduler = Executors.newScheduledThreadPool(0, threadFactory);
-		// Note pool size is 0 and keepAliveTime is 0 to prevent shutdown delays
-		executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.SECONDS, new SynchronousQueue<Runnable>());
+
+		ExecutorService virtual_executor = null;
+		if (requestedMode == Mode.VIRTUAL) {
+			if (daemon) {
+				virtual_executor = createVirtualThreadExecutor(threadFactory.getNamePrefix());
+			} else {
+				// Virtual threads cannot be non-daemon threads
+				Logger.debug("Using {} mode for the non-daemon scheduler", Mode.CACHED);
+			}
+		}
+
+		if (virtual_executor != null) {
+			mode = Mode.VIRTUAL;
+			executor = virtual_executor;
+		} else if (requestedMode == Mode.BOUNDED) {
+			mode = Mode.BOUNDED;
+			int max_threads = PropertyUtil.getIntProperty(MAX_THREADS_PROP, DEFAULT_MAX_THREADS);
+			int queue_size = PropertyUtil.getIntProperty(QUEUE_SIZE_PROP, DEFAULT_QUEUE_SIZE);
+			int reject_timeout_ms = PropertyUtil.getIntProperty(REJECT_TIMEOUT_PROP, DEFAULT_REJECT_TIMEOUT_MS);
+			ThreadPoolExecutor tpe = new ThreadPoolExecutor(max_threads, max_threads, 60, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<>(queue_size), threadFactory, new BlockingRejectionHandler(reject_timeout_ms));
+			tpe.allowCoreThreadTimeOut(true);
+			executor = tpe;
+		} else {
+			mode = Mode.CACHED;
+			// Note pool size is 0 and keepAliveTime is 0 to prevent shutdown delays
+			executor = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
+					threadFactory);
+		}
+		Logger.debug("Created {} scheduler, mode: {}", daemon ? "daemon" : "non-daemon", mode);
+	}
+
+	/*
+	 * Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix,
+	 * 1).factory()) via reflection as the compile target is Java 11.
+	 */
+	private static ExecutorService createVirtualThreadExecutor(String namePrefix) {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builder_class = Class.forName("java.lang.Thread$Builder");
+			builder = builder_class.getMethod("name", String.class, long.class).invoke(builder,
+					"virtual-" + namePrefix, Long.valueOf(1));
+			ThreadFactory factory = (ThreadFactory) builder_class.getMethod("factory").invoke(builder);
+			Method new_executor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService) new_executor.invoke(null, factory);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			Logger.warn("Virtual threads not available in Java {}, using {} mode",
+					System.getProperty("java.specification.version"), Mode.CACHED);
+			return null;
+		}
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Get the number of tasks that are currently running.
+	 *
+	 * @return the number of running tasks
+	 */
+	public int getActiveCount() {
+		return activeCount.get();
+	}
+
+	/**
+	 * Get the number of tasks that have been submitted but have not yet started.
+	 *
+	 * @return the number of queued tasks
+	 */
+	public int getQueuedCount() {
+		return queuedCount.get();
+	}
+
+	/**
+	 * Get the total number of tasks that have been rejected.
+	 *
+	 * @return the number of rejected tasks
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.get();
 	}
 
 	public void execute(Runnable command) {
-		executor.execute(command);
+		track(new TrackedTask<>(command, null, true));
 	}
 
 	public Future<?> submit(Runnable task) {
-		return executor.submit(task);
+		return track(new TrackedTask<>(task, null, false));
 	}
 
 	public <T> Future<T> submit(Runnable task, T result) {
-		return executor.submit(task, result);
+		return track(new TrackedTask<>(task, result, false));
+	}
+
+	private <T> TrackedTask<T> track(TrackedTask<T> task) {
+		queuedCount.incrementAndGet();
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			queuedCount.decrementAndGet();
+			rejectedCount.incrementAndGet();
+			throw e;
+		}
+		return task;
+	}
+
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		return scheduler.schedule(command, delay, unit);
 	}
 
 	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
@@ -135,9 +317,14 @@ public class DiozeroScheduler {
 		return scheduler.scheduleAtFixedRate(() -> sink.accept(source.getAsFloat()), initialDelay, period, unit);
 	}
 
-	private void shutdown() {
+	void shutdown() {
 		scheduler.shutdownNow();
-		executor.shutdownNow();
+		for (Runnable task : executor.shutdownNow()) {
+			// Tasks that never started, cancelling them updates the queued count
+			if (task instanceof Future) {
+				((Future<?>) task).cancel(false);
+			}
+		}
 		Logger.trace("Shutdown - done");
 	}
 
@@ -145,31 +332,119 @@ public class DiozeroScheduler {
 		return scheduler.isShutdown() && executor.isShutdown();
 	}
 
+	/**
+	 * Maintains the queued and active counts. A task leaves the queue either when
+	 * it starts running or when it is cancelled before it has started.
+	 */
+	private class TrackedTask<T> extends FutureTask<T> {
+		private final AtomicBoolean dequeued = new AtomicBoolean();
+		private final boolean rethrow;
+
+		TrackedTask(Runnable task, T result, boolean rethrow) {
+			super(task, result);
+			this.rethrow = rethrow;
+		}
+
+		@Override
+		public void run() {
+			if (!dequeued.compareAndSet(false, true)) {
+				// Cancelled before it started
+				return;
+			}
+			queuedCount.decrementAndGet();
+			activeCount.incrementAndGet();
+			try {
+				super.run();
+			} finally {
+				activeCount.decrementAndGet();
+			}
+			if (rethrow) {
+				// Tasks passed to execute() report failures to the thread's uncaught
+				// exception handler
+				try {
+					get();
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof RuntimeException) {
+						throw (RuntimeException) e.getCause();
+					}
+					if (e.getCause() instanceof Error) {
+						throw (Error) e.getCause();
+					}
+				} catch (InterruptedException | CancellationException e) {
+					// Ignore
+				}
+			}
+		}
+
+		@Override
+		protected void done() {
+			if (dequeued.compareAndSet(false, true)) {
+				queuedCount.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Back-pressure for the bounded pool - wait for space in the queue rather than
+	 * rejecting immediately.
+	 */
+	private static class BlockingRejectionHandler implements RejectedExecutionHandler {
+		private final long timeoutMs;
+
+		BlockingRejectionHandler(long timeoutMs) {
+			this.timeoutMs = timeoutMs;
+		}
+
+		@Override
+		public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+			if (executor.isShutdown()) {
+				throw new RejectedExecutionException("Executor has been shutdown");
+			}
+			try {
+				if (!executor.getQueue().offer(r, timeoutMs, TimeUnit.MILLISECONDS)) {
+					throw new RejectedExecutionException(
+							"Timed out waiting " + timeoutMs + "ms for space in the scheduler queue");
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RejectedExecutionException("Interrupted waiting for space in the scheduler queue", e);
+			}
+		}
+	}
+
 	static class DaemonThreadFactory implements ThreadFactory {
 		private static final AtomicInteger poolNumber = new AtomicInteger(1);
 
 		private final boolean daemon;
+		private final int priority;
 		private final ThreadGroup group;
 		private final AtomicInteger threadNumber = new AtomicInteger(1);
 		private final String namePrefix;
 
-		DaemonThreadFactory(boolean daemon) {
+		DaemonThreadFactory(boolean daemon, int priority) {
 			this.daemon = daemon;
+			this.priority = priority;
 
 			SecurityManager s = System.getSecurityManager();
 			group = (s != null) ? s.getThreadGroup() : Thread.currentThread().getThreadGroup();
-			namePrefix = (daemon ? "daemon" : "non-daemon") + "-pool-" + poolNumber.getAndIncrement() + "-thread-";
+			namePrefix = (daemon ? "daemon" : "non-daemon") + (priority == Thread.MAX_PRIORITY ? "-hipri" : "")
+					+ "-pool-" + poolNumber.getAndIncrement() + "-thread-";
+		}
+
+		String getNamePrefix() {
+			return namePrefix;
 		}
 
 		@Override
 		public Thread newThread(Runnable r) {
 			Thread t = new Thread(group, r, namePrefix + threadNumber.getAndIncrement(), 0);
 			t.setDaemon(daemon);
+			t.setPriority(priority);
 			return t;
 		}
 
 		void status() {
-			Logger.debug("[" + (daemon ? "daemon" : "non-daemon") + "] activeCount=" + group.activeCount()
+			Logger.debug("[" + namePrefix + "] activeCount=" + group.activeCount()
 					+ ", activeGroupCount=" + group.activeGroupCount());
 		}
 	}
@@ -182,11 +457,21 @@ public class DiozeroScheduler {
 				Logger.debug(element.toString());
 			}
 		}
-		daemonInstance.status();
-		nonDaemonInstance.status();
+		if (daemonInstance != null) {
+			daemonInstance.status();
+		}
+		if (nonDaemonInstance != null) {
+			nonDaemonInstance.status();
+		}
+		if (highPriorityInstance != null) {
+			highPriorityInstance.status();
+		}
 	}
 
 	private void status() {
 		threadFactory.status();
+		Logger.debug("[{}] mode={}, active={}, queued={}, rejected={}", threadFactory.getNamePrefix(), mode,
+				Integer.valueOf(activeCount.get()), Integer.valueOf(queuedCount.get()),
+				Long.valueOf(rejectedCount.get()));
 	}
 }
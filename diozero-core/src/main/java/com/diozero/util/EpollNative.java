@@ -197,8 +197,8 @@ public class EpollNative implements EpollNativeCallback, AutoCloseable {
 
 	public void enableEvents() {
 		running.getAndSet(true);
-		DiozeroScheduler.getNonDaemonInstance().execute(this::processEvents);
-		DiozeroScheduler.getNonDaemonInstance().execute(this::waitForEvents);
+		DiozeroScheduler.getHighPriorityInstance().execute(this::processEvents);
+		DiozeroScheduler.getHighPriorityInstance().execute(this::waitForEvents);
 	}
 
 	public void disableEvents() {
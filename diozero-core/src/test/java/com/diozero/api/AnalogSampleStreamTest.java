@@ -0,0 +1,186 @@
+package com.diozero.api;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     AnalogSampleStreamTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class AnalogSampleStreamTest {
+	@Test
+	public void testCapacity() {
+		AnalogSampleStream stream = AnalogSampleStream.polled("test", 0, 100, () -> 0, null);
+		Assertions.assertEquals(128, stream.capacity());
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> AnalogSampleStream.polled("test", 0, 1, () -> 0, null));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> stream.subscribe(129, (e, n, s, c) -> {
+			// Ignore
+		}));
+	}
+
+	@Test
+	public void testPullInOrder() throws InterruptedException {
+		AtomicInteger counter = new AtomicInteger();
+		AtomicInteger stopped = new AtomicInteger();
+		AtomicBoolean released = new AtomicBoolean();
+		// Stop producing well before the ring buffer fills so that it can't overrun,
+		// however slowly this thread consumes
+		int limit = 600;
+		try (AnalogSampleStream stream = AnalogSampleStream.polled("test", 20_000, 1024, () -> {
+			while (counter.get() >= limit && !released.get()) {
+				LockSupport.parkNanos(100_000);
+			}
+			return counter.getAndIncrement();
+		}, stopped::incrementAndGet)) {
+			stream.start();
+
+			float[] samples = new float[64];
+			long[] nano_times = new long[64];
+			int expected = 0;
+			while (expected < 500) {
+				int count = stream.read(samples, nano_times, 0, samples.length, 1000);
+				Assertions.assertTrue(count > 0);
+				for (int i = 0; i < count; i++) {
+					Assertions.assertEquals(expected++, samples[i]);
+					if (i > 0) {
+						Assertions.assertTrue(nano_times[i] >= nano_times[i - 1]);
+					}
+				}
+			}
+			Assertions.assertEquals(0, stream.getOverrunCount());
+			released.set(true);
+		}
+		Assertions.assertEquals(1, stopped.get());
+	}
+
+	@Test
+	public void testReaderError() throws InterruptedException {
+		AtomicInteger counter = new AtomicInteger();
+		AtomicInteger stopped = new AtomicInteger();
+		AnalogSampleStream stream = AnalogSampleStream.polled("test", 0, 128, () -> {
+			int value = counter.getAndIncrement();
+			if (value == 10) {
+				throw new RuntimeIOException("Read error");
+			}
+			return value;
+		}, stopped::incrementAndGet);
+		stream.start();
+
+		// Samples read before the failure are still delivered, then the error is thrown
+		float[] samples = new float[32];
+		int expected = 0;
+		while (expected < 10) {
+			int count = stream.read(samples, null, 0, samples.length, 1000);
+			Assertions.assertTrue(count > 0);
+			for (int i = 0; i < count; i++) {
+				Assertions.assertEquals(expected++, samples[i]);
+			}
+		}
+		RuntimeIOException e = Assertions.assertThrows(RuntimeIOException.class,
+				() -> stream.read(samples, null, 0, samples.length, 1000));
+		Assertions.assertEquals("Read error", e.getCause().getMessage());
+		Assertions.assertFalse(stream.isRunning());
+		Assertions.assertSame(e.getCause(), stream.getError());
+
+		// Stopping a failed stream still runs the stop action
+		stream.stop();
+		Assertions.assertEquals(1, stopped.get());
+	}
+
+	@Test
+	public void testSubscriberError() throws InterruptedException {
+		AtomicInteger calls = new AtomicInteger();
+		AtomicInteger stopped = new AtomicInteger();
+		AnalogSampleStream stream = AnalogSampleStream.polled("test", 10_000, 1024, () -> 1, stopped::incrementAndGet);
+		stream.subscribe(10, (epochTime, nanoTime, samples, count) -> {
+			calls.incrementAndGet();
+			throw new IllegalStateException("Subscriber error");
+		});
+		stream.start();
+		long deadline = System.currentTimeMillis() + 5000;
+		while (stream.isRunning() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+
+		Assertions.assertFalse(stream.isRunning());
+		Assertions.assertTrue(stream.getError() instanceof IllegalStateException);
+		Assertions.assertEquals(1, calls.get());
+		stream.stop();
+		Assertions.assertEquals(1, stopped.get());
+	}
+
+	@Test
+	public void testOverrun() throws InterruptedException {
+		AnalogSampleStream stream = AnalogSampleStream.polled("test", 0, 16, () -> 1, null);
+		stream.start();
+		while (stream.getOverrunCount() == 0) {
+			Thread.sleep(1);
+		}
+		stream.stop();
+
+		Assertions.assertEquals(16, stream.available());
+		Assertions.assertEquals(16, stream.getSampleCount());
+		float[] samples = new float[32];
+		Assertions.assertEquals(16, stream.read(samples, null, 0, samples.length, 0));
+		Assertions.assertEquals(0, stream.available());
+	}
+
+	@Test
+	public void testSubscribe() throws InterruptedException {
+		AtomicInteger counter = new AtomicInteger();
+		AtomicInteger received = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(10);
+		AnalogSampleStream stream = AnalogSampleStream.polled("test", 50_000, 4096,
+				() -> counter.getAndIncrement(), null);
+		stream.subscribe(100, (epochTime, nanoTime, samples, count) -> {
+			for (int i = 0; i < count; i++) {
+				if (samples[i] != received.getAndIncrement()) {
+					errors.incrementAndGet();
+				}
+			}
+			latch.countDown();
+		});
+		stream.start();
+		Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+		stream.stop();
+
+		Assertions.assertEquals(0, errors.get());
+		// All samples, including the final partial block, are delivered on stop
+		Assertions.assertEquals(stream.getSampleCount(), received.get());
+	}
+}
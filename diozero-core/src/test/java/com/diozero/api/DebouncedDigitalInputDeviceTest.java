@@ -33,6 +33,7 @@ import java.util.concurrent.Executors;
  * #L%
  */
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -337,6 +338,37 @@ public class DebouncedDigitalInputDeviceTest implements DeviceEventConsumer<Digi
 		Logger.debug("bouncySwitch1() - End");
 	}
 
+	@Test
+	public void listenerNotCalledWithLockHeld() throws Exception {
+		int gpio = 0;
+		int debounce_time_ms = 20;
+		CountDownLatch in_listener = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try (final DebouncedDigitalInputDevice ddid = new DebouncedDigitalInputDevice(gpio, debounce_time_ms)) {
+			ddid.addListener(event -> {
+				in_listener.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					// Ignore
+				}
+			});
+
+			// The deadline timer reports the change and blocks in the listener
+			ddid.accept(new DigitalInputEvent(gpio, System.currentTimeMillis(), System.nanoTime(), true));
+			Assertions.assertTrue(in_listener.await(1, TimeUnit.SECONDS));
+
+			// Further edges must not wait for the blocked listener
+			Future<?> future = executor.submit(() -> ddid
+					.accept(new DigitalInputEvent(gpio, System.currentTimeMillis(), System.nanoTime(), false)));
+			future.get(1, TimeUnit.SECONDS);
+
+			release.countDown();
+		} finally {
+			release.countDown();
+		}
+	}
+
 	static void fastBlip(DigitalInputDevice d, boolean finalValue) {
 		d.accept(new DigitalInputEvent(d.getGpio(), System.currentTimeMillis(), System.nanoTime(), !finalValue));
 		SleepUtil.sleepMillis(1);
@@ -0,0 +1,121 @@
+package com.diozero.api;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     GpioLineGroupTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.diozero.internal.spi.GpioDigitalOutputDeviceInterface;
+import com.diozero.internal.spi.NativeDeviceFactoryInterface;
+import com.diozero.sbc.DeviceFactoryHelper;
+
+/**
+ * GPIO line group test case using the test device factory, which falls back to
+ * updating each line individually
+ */
+@SuppressWarnings("static-method")
+public class GpioLineGroupTest {
+	@Test
+	public void test() {
+		try (NativeDeviceFactoryInterface df = DeviceFactoryHelper.getNativeDeviceFactory()) {
+			try (GpioLineGroup group = new GpioLineGroup(df, 1, 2, 3)) {
+				Assertions.assertEquals(3, group.size());
+				for (int gpio = 1; gpio <= 3; gpio++) {
+					Assertions.assertTrue(df.isDeviceOpened("Native-GPIO-" + gpio), "Pin (" + gpio + ") is opened");
+				}
+				Assertions.assertThrows(DeviceAlreadyOpenedException.class, () -> new DigitalOutputDevice(2));
+
+				group.setValues(0b101);
+				Assertions.assertEquals(0b101, group.getValues());
+				group.setValues(0b011, 0b010);
+				Assertions.assertEquals(0b110, group.getValues());
+				group.setOn(0, true);
+				Assertions.assertTrue(group.isOn(0));
+				group.toggle();
+				Assertions.assertEquals(0b000, group.getValues());
+				group.on();
+				Assertions.assertEquals(0b111, group.getValues());
+			}
+
+			for (int gpio = 1; gpio <= 3; gpio++) {
+				Assertions.assertFalse(df.isDeviceOpened("Native-GPIO-" + gpio), "Pin (" + gpio + ") is closed");
+			}
+		}
+	}
+
+	@Test
+	public void activeLowTest() {
+		try (NativeDeviceFactoryInterface df = DeviceFactoryHelper.getNativeDeviceFactory()) {
+			try (GpioLineGroup group = new GpioLineGroup(df, false, 0b01, 4, 5)) {
+				Assertions.assertEquals(0b01, group.getValues());
+				// Raw line levels are inverted
+				GpioDigitalOutputDeviceInterface line4 = df.getDevice("Native-GPIO-4");
+				GpioDigitalOutputDeviceInterface line5 = df.getDevice("Native-GPIO-5");
+				Assertions.assertFalse(line4.getValue());
+				Assertions.assertTrue(line5.getValue());
+				group.setValues(0b10);
+				Assertions.assertEquals(0b10, group.getValues());
+				Assertions.assertTrue(line4.getValue());
+				Assertions.assertFalse(line5.getValue());
+			}
+		}
+	}
+
+	@Test
+	public void waveformTest() {
+		GpioWaveform waveform = GpioWaveform.Builder.builder() //
+				.set(0b11, 0b01, 100).delay(50) //
+				.set(0b10, 0b10) //
+				.set(0b01, 0b00, 200) //
+				.build();
+		Assertions.assertEquals(3, waveform.getStepCount());
+		Assertions.assertEquals(150, waveform.getDelayNanos(0));
+		Assertions.assertEquals(350, waveform.getDurationNanos());
+
+		GpioWaveform twice = GpioWaveform.Builder.builder().append(waveform).append(waveform).build();
+		Assertions.assertEquals(6, twice.getStepCount());
+		Assertions.assertEquals(700, twice.getDurationNanos());
+
+		try (NativeDeviceFactoryInterface df = DeviceFactoryHelper.getNativeDeviceFactory()) {
+			try (GpioLineGroup group = new GpioLineGroup(df, 6, 7)) {
+				group.play(waveform);
+				Assertions.assertEquals(0b10, group.getValues());
+			}
+			try (GpioLineGroup group = new GpioLineGroup(df, false, 0, 6, 7)) {
+				group.play(waveform);
+				Assertions.assertEquals(0b10, group.getValues());
+				GpioDigitalOutputDeviceInterface line6 = df.getDevice("Native-GPIO-6");
+				Assertions.assertTrue(line6.getValue());
+			}
+		}
+	}
+}
@@ -70,4 +70,22 @@ class I2CDeviceTest {
 
         assertEquals(Arrays.toString(bytes), Arrays.toString(value));
     }
+
+    @Test
+    void writeBytesDirect() {
+        InternalI2CDeviceInterface delegate = mock(InternalI2CDeviceInterface.class);
+        I2CDeviceFactoryInterface factory = mock(I2CDeviceFactoryInterface.class);
+        when(factory.provisionI2CDevice(0, 0, I2CConstants.AddressSize.SIZE_7)).thenReturn(delegate);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(4);
+        buffer.put((byte) 1).put((byte) 2).flip();
+
+        I2CDevice device = new I2CDevice(factory, 0, 0, I2CConstants.AddressSize.SIZE_7,
+                I2CDevice.Builder.DEFAULT_BYTE_ORDER);
+        device.writeBytes(buffer);
+
+        // Direct buffers are handed to the provider as-is, no byte[] copy
+        verify(delegate).writeBytes(buffer);
+        verify(delegate, never()).writeBytes(any(byte[].class));
+    }
 }
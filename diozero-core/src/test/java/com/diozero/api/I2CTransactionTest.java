@@ -0,0 +1,228 @@
+package com.diozero.api;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     I2CTransactionTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteOrder;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.diozero.api.I2CDeviceInterface.I2CMessage;
+import com.diozero.internal.spi.I2CDeviceFactoryInterface;
+import com.diozero.internal.spi.InternalI2CDeviceInterface;
+
+@SuppressWarnings("static-method")
+public class I2CTransactionTest {
+	@Test
+	public void testSingleAddress() {
+		I2CDeviceInterface device = mock(I2CDeviceInterface.class, CALLS_REAL_METHODS);
+		int[] executions = new int[1];
+		doAnswer(invocation -> {
+			I2CMessage[] messages = invocation.getArgument(0);
+			byte[] buffer = invocation.getArgument(1);
+			Assertions.assertEquals(5, messages.length);
+			// Populate the read data with the buffer offset
+			int offset = 0;
+			for (I2CMessage message : messages) {
+				if (message.isRead()) {
+					for (int i = 0; i < message.getLength(); i++) {
+						buffer[offset + i] = (byte) (offset + i + executions[0]);
+					}
+				}
+				offset += message.getLength();
+			}
+			executions[0]++;
+			return null;
+		}).when(device).readWrite(any(I2CMessage[].class), any(byte[].class));
+
+		I2CTransaction txn = new I2CTransaction(device, 0x68).writeByteData(0x6b, 0x00).readRegister(0x3b, 6)
+				.readRegister(0x43, 2);
+		Assertions.assertEquals(5, txn.getMessageCount());
+		Assertions.assertEquals(2, txn.getReadCount());
+		Assertions.assertEquals(12, txn.getDataLength());
+		Assertions.assertTrue(txn.isSingleAddress());
+
+		// Write register + value, register address for the first read
+		Assertions.assertEquals(0x6b, txn.getBuffer()[0]);
+		Assertions.assertEquals(0x3b, txn.getBuffer()[2]);
+		Assertions.assertEquals(3, txn.getReadOffset(0));
+		Assertions.assertEquals(10, txn.getReadOffset(1));
+
+		txn.execute();
+		Assertions.assertEquals(3, txn.getByte(0, 0));
+		Assertions.assertEquals((short) ((3 << 8) | 4), txn.getShort(0, 0));
+		Assertions.assertEquals((short) ((11 << 8) | 10), txn.getShortLE(1, 0));
+		byte[] data = new byte[6];
+		Assertions.assertEquals(6, txn.getBytes(0, data));
+		Assertions.assertArrayEquals(new byte[] { 3, 4, 5, 6, 7, 8 }, data);
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> txn.getShort(1, 1));
+		Assertions.assertThrows(IndexOutOfBoundsException.class, () -> txn.getByte(2, 0));
+
+		// Re-execute, the same buffer is reused
+		byte[] buffer = txn.getBuffer();
+		txn.execute();
+		Assertions.assertSame(buffer, txn.getBuffer());
+		Assertions.assertEquals(4, txn.getByte(0, 0));
+		Assertions.assertEquals(2, executions[0]);
+
+		txn.clear();
+		Assertions.assertEquals(0, txn.getMessageCount());
+		txn.execute();
+		Assertions.assertEquals(2, executions[0]);
+	}
+
+	@Test
+	public void testMultipleAddresses() {
+		I2CDeviceInterface device = mock(I2CDeviceInterface.class, CALLS_REAL_METHODS);
+		I2CTransaction txn = new I2CTransaction(device, 0x68).readRegister(0x3b, 14).address(0x77)
+				.readRegister(0xf7, 6);
+		Assertions.assertFalse(txn.isSingleAddress());
+		Assertions.assertEquals(0x68, txn.getAddresses()[1]);
+		Assertions.assertEquals(0x77, txn.getAddresses()[2]);
+		// Other addresses can only be reached via an I2CDevice
+		Assertions.assertThrows(UnsupportedOperationException.class, txn::execute);
+	}
+
+	@Test
+	public void testMultipleAddressesSequential() {
+		int controller = 1;
+		I2CDeviceFactoryInterface device_factory = mock(I2CDeviceFactoryInterface.class);
+		InternalI2CDeviceInterface imu = mockDevice(0x68);
+		InternalI2CDeviceInterface baro = mockDevice(0x77);
+		when(device_factory.provisionI2CDevice(controller, 0x68, I2CConstants.AddressSize.SIZE_7)).thenReturn(imu);
+		when(device_factory.createI2CKey(controller, 0x77)).thenReturn("I2C-1-0x77");
+		when(device_factory.<InternalI2CDeviceInterface>getDevice("I2C-1-0x77")).thenReturn(baro);
+
+		try (I2CDevice device = new I2CDevice(device_factory, controller, 0x68, I2CConstants.AddressSize.SIZE_7,
+				ByteOrder.BIG_ENDIAN)) {
+			I2CTransaction txn = device.transaction().readRegister(0x3b, 2).address(0x77).readRegister(0xf7, 3)
+					.address(0x68).read(1);
+			txn.execute();
+
+			// One combined transaction per run of messages for the same address
+			verify(imu, times(2)).readWrite(any(I2CMessage[].class), any(byte[].class));
+			verify(baro, times(1)).readWrite(any(I2CMessage[].class), any(byte[].class));
+			Assertions.assertEquals(0x3b, txn.getBuffer()[0]);
+			Assertions.assertEquals((byte) 0xf7, txn.getBuffer()[3]);
+			Assertions.assertArrayEquals(new byte[] { 0x68, 0x69 }, readBytes(txn, 0));
+			Assertions.assertArrayEquals(new byte[] { 0x77, 0x78, 0x79 }, readBytes(txn, 1));
+			Assertions.assertArrayEquals(new byte[] { 0x68 }, readBytes(txn, 2));
+
+			// The other device isn't open - provisioned and closed for the transaction
+			when(device_factory.<InternalI2CDeviceInterface>getDevice("I2C-1-0x77")).thenReturn(null);
+			when(device_factory.provisionI2CDevice(controller, 0x77, I2CConstants.AddressSize.SIZE_7))
+					.thenReturn(baro);
+			txn.execute();
+			verify(baro, times(2)).readWrite(any(I2CMessage[].class), any(byte[].class));
+			verify(baro).close();
+		}
+	}
+
+	private static InternalI2CDeviceInterface mockDevice(int address) {
+		InternalI2CDeviceInterface device = mock(InternalI2CDeviceInterface.class, CALLS_REAL_METHODS);
+		doAnswer(invocation -> {
+			I2CMessage[] messages = invocation.getArgument(0);
+			byte[] buffer = invocation.getArgument(1);
+			// Populate the read data with the device address + index
+			int offset = 0;
+			for (I2CMessage message : messages) {
+				if (message.isRead()) {
+					for (int i = 0; i < message.getLength(); i++) {
+						buffer[offset + i] = (byte) (address + i);
+					}
+				}
+				offset += message.getLength();
+			}
+			return null;
+		}).when(device).readWrite(any(I2CMessage[].class), any(byte[].class));
+		doNothing().when(device).close();
+		when(Boolean.valueOf(device.isOpen())).thenReturn(Boolean.TRUE);
+		return device;
+	}
+
+	private static byte[] readBytes(I2CTransaction txn, int read) {
+		byte[] data = new byte[txn.getReadLength(read)];
+		txn.getBytes(read, data);
+		return data;
+	}
+
+	@Test
+	public void testBufferGrowth() {
+		I2CDeviceInterface device = mock(I2CDeviceInterface.class, CALLS_REAL_METHODS);
+		byte[][] sent = new byte[1][];
+		doAnswer(invocation -> {
+			sent[0] = ((byte[]) invocation.getArgument(1)).clone();
+			return null;
+		}).when(device).readWrite(any(I2CMessage[].class), any(byte[].class));
+
+		byte[] block = new byte[60];
+		for (int i = 0; i < block.length; i++) {
+			block[i] = (byte) i;
+		}
+		byte[] tail = { 100, 101, 102, 103, 104, 105, 106, 107, 108, 109 };
+		// The second write and the register address of the read don't fit in the
+		// initial buffer
+		I2CTransaction txn = new I2CTransaction(device, 0x40).write(block).write(tail).write(new byte[58])
+				.readRegister(0x3b, 2);
+		Assertions.assertEquals(60 + 10 + 58 + 1 + 2, txn.getDataLength());
+		Assertions.assertEquals(128, txn.getReadOffset(0) - 1);
+		txn.execute();
+
+		Assertions.assertTrue(sent[0].length >= txn.getDataLength());
+		for (int i = 0; i < block.length; i++) {
+			Assertions.assertEquals(block[i], sent[0][i]);
+		}
+		for (int i = 0; i < tail.length; i++) {
+			Assertions.assertEquals(tail[i], sent[0][block.length + i]);
+		}
+		Assertions.assertEquals(0x3b, sent[0][128]);
+	}
+
+	@Test
+	public void testMaxMessages() {
+		I2CTransaction txn = new I2CTransaction(mock(I2CDeviceInterface.class), 0x40);
+		for (int i = 0; i < I2CTransaction.MAX_MESSAGES / 2; i++) {
+			txn.readRegister(i, 1);
+		}
+		Assertions.assertThrows(IllegalStateException.class, () -> txn.read(1));
+		Assertions.assertEquals(I2CTransaction.MAX_MESSAGES, txn.getMessageCount());
+	}
+}
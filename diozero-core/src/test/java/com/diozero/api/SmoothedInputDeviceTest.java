@@ -55,6 +55,7 @@ public class SmoothedInputDeviceTest implements DeviceEventConsumer<DigitalInput
 	}
 
 	private int eventCount;
+	private int inactiveEventCount;
 
 	@Test
 	public void testSmoothing() {
@@ -148,11 +149,51 @@ public class SmoothedInputDeviceTest implements DeviceEventConsumer<DigitalInput
 		Logger.info("testDebounce() - end");
 	}
 
+	@Test
+	public void testWithoutBackgroundTask() {
+		eventCount = 0;
+		inactiveEventCount = 0;
+		int pin = 1;
+		// Require 3 events in any 100ms period to be considered 'active', no background
+		// task so the device reverts to inactive on the next inactive event
+		try (SmoothedInputDevice device = SmoothedInputDevice.Builder.builder(pin).setThreshold(3).setEventAgeMs(100)
+				.setEventDetectPeriodMs(0).build()) {
+			device.addListener(this);
+
+			long now = System.currentTimeMillis();
+			device.accept(new DigitalInputEvent(pin, now, 0, true));
+			device.accept(new DigitalInputEvent(pin, now + 10, 0, true));
+			Assertions.assertEquals(0, eventCount);
+			// Third event within 100ms of the first
+			device.accept(new DigitalInputEvent(pin, now + 20, 0, true));
+			Assertions.assertEquals(1, eventCount);
+			// Further active events while active are absorbed
+			device.accept(new DigitalInputEvent(pin, now + 30, 0, true));
+			device.accept(new DigitalInputEvent(pin, now + 40, 0, true));
+			device.accept(new DigitalInputEvent(pin, now + 50, 0, true));
+			Assertions.assertEquals(1, eventCount);
+
+			device.accept(new DigitalInputEvent(pin, now + 60, 0, false));
+			Assertions.assertEquals(1, inactiveEventCount);
+
+			// Events spread over more than 100ms do not reach the threshold
+			device.accept(new DigitalInputEvent(pin, now + 1000, 0, true));
+			device.accept(new DigitalInputEvent(pin, now + 1080, 0, true));
+			device.accept(new DigitalInputEvent(pin, now + 1160, 0, true));
+			Assertions.assertEquals(1, eventCount);
+			// But the last three within the window do
+			device.accept(new DigitalInputEvent(pin, now + 1170, 0, true));
+			Assertions.assertEquals(2, eventCount);
+		}
+	}
+
 	@Override
 	public void accept(DigitalInputEvent event) {
 		Logger.info("accept({})", event);
 		if (event.isActive()) {
 			eventCount++;
+		} else {
+			inactiveEventCount++;
 		}
 	}
 }
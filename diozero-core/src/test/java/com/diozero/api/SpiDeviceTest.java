@@ -0,0 +1,112 @@
+package com.diozero.api;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     SpiDeviceTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.diozero.internal.spi.InternalSpiDeviceInterface;
+import com.diozero.internal.spi.SpiDeviceFactoryInterface;
+
+public class SpiDeviceTest {
+	private static SpiDevice createDevice(InternalSpiDeviceInterface delegate, int bufferSize) {
+		SpiDeviceFactoryInterface factory = mock(SpiDeviceFactoryInterface.class);
+		when(factory.provisionSpiDevice(0, 0, SpiConstants.DEFAULT_SPI_CLOCK_FREQUENCY, SpiClockMode.MODE_0, false))
+				.thenReturn(delegate);
+		when(factory.getSpiBufferSize()).thenReturn(Integer.valueOf(bufferSize));
+		return new SpiDevice(factory, 0, 0, SpiConstants.DEFAULT_SPI_CLOCK_FREQUENCY, SpiClockMode.MODE_0, false);
+	}
+
+	@Test
+	public void writeHeapBuffer() {
+		InternalSpiDeviceInterface delegate = mock(InternalSpiDeviceInterface.class);
+		SpiDevice device = createDevice(delegate, 4);
+
+		ByteBuffer buffer = ByteBuffer.wrap(new byte[10]);
+		buffer.position(1);
+		device.write(buffer);
+
+		verify(delegate).write(any(byte[].class), eq(1), eq(4));
+		verify(delegate).write(any(byte[].class), eq(5), eq(4));
+		verify(delegate).write(any(byte[].class), eq(9), eq(1));
+		verify(delegate, never()).write(any(ByteBuffer.class));
+		assertEquals(10, buffer.position());
+	}
+
+	@Test
+	public void writeDirectBuffer() {
+		InternalSpiDeviceInterface delegate = mock(InternalSpiDeviceInterface.class);
+		List<Integer> chunks = new ArrayList<>();
+		doAnswer(invocation -> {
+			ByteBuffer src = invocation.getArgument(0);
+			chunks.add(Integer.valueOf(src.remaining()));
+			src.position(src.limit());
+			return null;
+		}).when(delegate).write(any(ByteBuffer.class));
+		SpiDevice device = createDevice(delegate, 4);
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(10);
+		device.write(buffer);
+
+		assertEquals(List.of(Integer.valueOf(4), Integer.valueOf(4), Integer.valueOf(2)), chunks);
+		assertEquals(10, buffer.position());
+		assertEquals(10, buffer.limit());
+		verify(delegate, never()).write(any(byte[].class), anyInt(), anyInt());
+	}
+
+	@Test
+	public void writeAndReadDirectBuffer() {
+		InternalSpiDeviceInterface delegate = mock(InternalSpiDeviceInterface.class);
+		SpiDevice device = createDevice(delegate, 4096);
+
+		ByteBuffer src = ByteBuffer.allocateDirect(3);
+		ByteBuffer dst = ByteBuffer.allocateDirect(3);
+		device.writeAndRead(src, dst);
+
+		verify(delegate, times(1)).writeAndRead(src, dst);
+		verify(delegate, never()).writeAndRead(any(byte[].class));
+	}
+}
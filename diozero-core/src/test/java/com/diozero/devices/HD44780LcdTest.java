@@ -0,0 +1,149 @@
+package com.diozero.devices;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     HD44780LcdTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.diozero.devices.LcdConnection.GpioGroupLcdConnection;
+import com.diozero.devices.LcdConnection.GpioLcdConnection;
+import com.diozero.internal.provider.test.TestDeviceFactory;
+import com.diozero.internal.provider.test.TestDigitalOutputDevice;
+import com.diozero.internal.spi.DeviceFactoryInterface;
+
+/**
+ * Drive the LCD via individual GPIOs and via a GPIO line group using the test
+ * device factory, recording the register select and data values latched on each
+ * falling edge of the enable pin.
+ */
+public class HD44780LcdTest {
+	private static final int D4 = 8;
+	private static final int D5 = 9;
+	private static final int D6 = 10;
+	private static final int D7 = 11;
+	private static final int BACKLIGHT = 4;
+	private static final int ENABLE = 3;
+	private static final int DATA_RW = 5;
+	private static final int REGISTER_SELECT = 2;
+
+	private static final Map<Integer, Boolean> pinValues = new HashMap<>();
+	// Register select in bit 4, data in bits 0-3
+	private static final List<Integer> latched = new ArrayList<>();
+
+	@BeforeEach
+	public void setup() {
+		pinValues.clear();
+		latched.clear();
+		TestDeviceFactory.setDigitalOutputDeviceClass(LatchRecordingOutputDevice.class);
+	}
+
+	@AfterEach
+	public void teardown() {
+		TestDeviceFactory.setDigitalOutputDeviceClass(TestDigitalOutputDevice.class);
+	}
+
+	@Test
+	public void groupConnectionMatchesGpioConnection() {
+		List<Integer> expected;
+		try (TestDeviceFactory df = new TestDeviceFactory()) {
+			try (LcdConnection connection = new GpioLcdConnection(df, D4, D5, D6, D7, BACKLIGHT, ENABLE, DATA_RW,
+					REGISTER_SELECT)) {
+				writeText(connection);
+			}
+			expected = new ArrayList<>(latched);
+		}
+
+		latched.clear();
+		try (TestDeviceFactory df = new TestDeviceFactory()) {
+			try (LcdConnection connection = new GpioGroupLcdConnection(df, D4, D5, D6, D7, BACKLIGHT, ENABLE,
+					DATA_RW, REGISTER_SELECT)) {
+				writeText(connection);
+			}
+		}
+
+		// The 4-bit initialisation sequence
+		Assertions.assertEquals(List.of(Integer.valueOf(0x3), Integer.valueOf(0x3), Integer.valueOf(0x3),
+				Integer.valueOf(0x2)), expected.subList(0, 4));
+		Assertions.assertEquals(expected, latched);
+	}
+
+	@Test
+	public void groupConnectionWithoutOptionalPins() {
+		try (TestDeviceFactory df = new TestDeviceFactory();
+				LcdConnection connection = new GpioGroupLcdConnection(df, D4, D5, D6, D7, -1, ENABLE, -1,
+						REGISTER_SELECT)) {
+			HD44780Lcd lcd = new HD44780Lcd(connection, 16, 2);
+			latched.clear();
+			lcd.addText('A');
+			// 'A' = 0x41, sent as two data nibbles
+			Assertions.assertEquals(List.of(Integer.valueOf(0x14), Integer.valueOf(0x11)), latched);
+		}
+	}
+
+	private static void writeText(LcdConnection connection) {
+		try (HD44780Lcd lcd = new HD44780Lcd(connection, 16, 2)) {
+			lcd.setText(0, "Hello");
+			lcd.setText(1, "World");
+		}
+	}
+
+	public static class LatchRecordingOutputDevice extends TestDigitalOutputDevice {
+		public LatchRecordingOutputDevice(String key, DeviceFactoryInterface deviceFactory, int gpio,
+				boolean initialValue) {
+			super(key, deviceFactory, gpio, initialValue);
+
+			pinValues.put(Integer.valueOf(gpio), Boolean.valueOf(initialValue));
+		}
+
+		@Override
+		public void setValue(boolean value) {
+			super.setValue(value);
+
+			Boolean previous = pinValues.put(Integer.valueOf(getGpio()), Boolean.valueOf(value));
+			if (getGpio() == ENABLE && !value && previous != null && previous.booleanValue()) {
+				latched.add(Integer.valueOf((isOn(REGISTER_SELECT) ? 0x10 : 0) | (isOn(D7) ? 8 : 0)
+						| (isOn(D6) ? 4 : 0) | (isOn(D5) ? 2 : 0) | (isOn(D4) ? 1 : 0)));
+			}
+		}
+
+		private static boolean isOn(int gpio) {
+			return pinValues.getOrDefault(Integer.valueOf(gpio), Boolean.FALSE).booleanValue();
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.diozero.devices.oled;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     FrameBufferConverterTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.Raster;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compare the direct data buffer conversions with the equivalent per-pixel
+ * conversion via the generic Raster / Graphics2D accessors.
+ */
+@SuppressWarnings("static-method")
+public class FrameBufferConverterTest {
+	private static final int WIDTH = 128;
+	private static final int HEIGHT = 64;
+
+	@Test
+	public void transpose() {
+		// Identity and a single set bit at [row 1, column 2] -> [row 2, column 1]
+		Assertions.assertEquals(0x8040201008040201L, FrameBufferConverter.transpose8x8(0x8040201008040201L));
+		Assertions.assertEquals(1L << (8 * 2 + 1), FrameBufferConverter.transpose8x8(1L << (8 * 1 + 2)));
+	}
+
+	@Test
+	public void monochrome() {
+		Random random = new Random(1234);
+		int[] image_types = { BufferedImage.TYPE_BYTE_BINARY, BufferedImage.TYPE_BYTE_GRAY,
+				BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR };
+		for (int image_type : image_types) {
+			BufferedImage image = randomImage(random, WIDTH, HEIGHT, image_type);
+			for (int threshold : new int[] { 0, 1, 2, 128 }) {
+				byte[] expected = new byte[WIDTH * HEIGHT / 8];
+				Raster raster = image.getRaster();
+				for (int y = 0; y < HEIGHT; y++) {
+					for (int x = 0; x < WIDTH; x++) {
+						if (raster.getSample(x, y, 0) >= threshold) {
+							expected[x + (y / 8) * WIDTH] |= (byte) (1 << (y & 7));
+						}
+					}
+				}
+
+				// Make sure that previous contents are overwritten
+				byte[] actual = new byte[expected.length];
+				random.nextBytes(actual);
+				FrameBufferConverter.toMonochromePages(image, threshold, actual);
+				Assertions.assertArrayEquals(expected, actual,
+						"Image type " + image_type + ", threshold " + threshold);
+			}
+		}
+	}
+
+	@Test
+	public void monochromeSubImage() {
+		Random random = new Random(5678);
+		BufferedImage parent = randomImage(random, WIDTH + 8, HEIGHT + 8, BufferedImage.TYPE_BYTE_BINARY);
+		BufferedImage image = parent.getSubimage(8, 8, WIDTH, HEIGHT);
+
+		byte[] expected = new byte[WIDTH * HEIGHT / 8];
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH; x++) {
+				if (image.getRaster().getSample(x, y, 0) >= 1) {
+					expected[x + (y / 8) * WIDTH] |= (byte) (1 << (y & 7));
+				}
+			}
+		}
+		byte[] actual = new byte[expected.length];
+		FrameBufferConverter.toMonochromePages(image, 1, actual);
+		Assertions.assertArrayEquals(expected, actual);
+	}
+
+	@Test
+	public void rgb565() {
+		Random random = new Random(4321);
+		int[] image_types = { BufferedImage.TYPE_USHORT_565_RGB, BufferedImage.TYPE_INT_RGB,
+				BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE, BufferedImage.TYPE_3BYTE_BGR,
+				BufferedImage.TYPE_INT_BGR };
+		for (int image_type : image_types) {
+			BufferedImage image = randomImage(random, WIDTH, HEIGHT, image_type);
+
+			BufferedImage native_image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_USHORT_565_RGB);
+			Graphics2D g2d = native_image.createGraphics();
+			g2d.drawImage(image, 0, 0, null);
+			g2d.dispose();
+			short[] native_data = ((DataBufferUShort) native_image.getRaster().getDataBuffer()).getData();
+			byte[] expected = new byte[2 * WIDTH * HEIGHT];
+			for (int i = 0; i < native_data.length; i++) {
+				expected[2 * i] = (byte) (native_data[i] >> 8);
+				expected[2 * i + 1] = (byte) native_data[i];
+			}
+
+			byte[] actual = new byte[expected.length];
+			FrameBufferConverter.toRgb565(image, actual);
+			if (image_type == BufferedImage.TYPE_INT_ARGB) {
+				// Compositing rounds differently for translucent pixels, allow +/- 1 per component
+				for (int i = 0; i < native_data.length; i++) {
+					int e = (expected[2 * i] & 0xff) << 8 | (expected[2 * i + 1] & 0xff);
+					int a = (actual[2 * i] & 0xff) << 8 | (actual[2 * i + 1] & 0xff);
+					Assertions.assertTrue(Math.abs((e >> 11) - (a >> 11)) <= 1, "Red at pixel " + i);
+					Assertions.assertTrue(Math.abs(((e >> 5) & 0x3f) - ((a >> 5) & 0x3f)) <= 1, "Green at pixel " + i);
+					Assertions.assertTrue(Math.abs((e & 0x1f) - (a & 0x1f)) <= 1, "Blue at pixel " + i);
+				}
+			} else {
+				Assertions.assertArrayEquals(expected, actual, "Image type " + image_type);
+			}
+		}
+	}
+
+	private static BufferedImage randomImage(Random random, int width, int height, int imageType) {
+		BufferedImage image = new BufferedImage(width, height, imageType);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				image.setRGB(x, y, random.nextInt());
+			}
+		}
+		return image;
+	}
+}
@@ -31,6 +31,9 @@ package com.diozero.devices.oled;
  * #L%
  */
 
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -43,7 +46,10 @@ import com.diozero.devices.oled.SsdOledCommunicationChannel.I2cCommunicationChan
 import com.diozero.util.Hex;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
@@ -173,6 +179,79 @@ class SSD1306Test {
         assertArrayEquals(dataExpected, fromBuffer());
     }
 
+    @Test
+    void partialUpdateShortDisplayAndI2C() {
+        byte[] dataExpected = new byte[] {
+                // column window 64-65
+                (byte)0x80, 0x21,
+                (byte)0x80, 0x40,
+                (byte)0x80, 0x41,
+                // page window 2-2
+                (byte)0x80, 0x22,
+                (byte)0x80, 0x02,
+                (byte)0x80, 0x02,
+
+                // only the changed columns
+                0x40, 0x01, 0x04
+        };
+
+        SSD1306 display = new SSD1306(new I2cCommunicationChannel(mockDevice), SSD1306.Height.SHORT);
+        display.setPixel(0,0,true);
+        display.show();
+        testBuffer.clear();
+
+        // nothing has changed
+        display.update();
+        assertTrue(testBuffer.isEmpty());
+
+        display.setPixel(64,16,true);
+        display.setPixel(65,18,true);
+        display.update();
+
+        assertArrayEquals(dataExpected, fromBuffer());
+
+        testBuffer.clear();
+        display.update();
+        assertTrue(testBuffer.isEmpty());
+    }
+
+    @Test
+    void updateAfterReinitializationShortDisplayAndI2C() {
+        SSD1306 display = new SSD1306(new I2cCommunicationChannel(mockDevice), SSD1306.Height.SHORT);
+        display.setPixel(0,0,true);
+        display.show();
+
+        // the display contents are unknown after re-initialisation so the entire buffer must be sent
+        display.init();
+        testBuffer.clear();
+        display.update();
+
+        byte[] actual = fromBuffer();
+        assertEquals(12 + 1 + 128 * 32 / 8, actual.length);
+        assertEquals(0x21, actual[1]);
+        assertEquals(0x01, actual[13]);
+    }
+
+    @Test
+    void scaleImageReusesScaledImage() {
+        SSD1306 display = new SSD1306(new I2cCommunicationChannel(mockDevice), SSD1306.Height.SHORT);
+        BufferedImage white = new BufferedImage(256, 64, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = white.createGraphics();
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(0, 0, 256, 64);
+        g2d.dispose();
+        BufferedImage black = new BufferedImage(256, 64, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage scaled = display.scaleImage(white);
+        assertEquals(128, scaled.getWidth());
+        assertEquals(32, scaled.getHeight());
+        assertEquals(1, scaled.getRaster().getSample(127, 31, 0));
+
+        // the same scaled size reuses the image, the previous contents are replaced
+        assertSame(scaled, display.scaleImage(black));
+        assertEquals(0, scaled.getRaster().getSample(127, 31, 0));
+    }
+
     byte[] fromBuffer() {
         byte[] response = new byte[testBuffer.size()];
         for (int i = 0; i < testBuffer.size(); i++) {
@@ -0,0 +1,239 @@
+package com.diozero.devices.oled;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     SsdOledCommunicationChannelTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.diozero.api.DigitalOutputDevice;
+import com.diozero.api.RuntimeIOException;
+import com.diozero.api.SpiDevice;
+import com.diozero.devices.oled.SsdOledCommunicationChannel.AsyncCommunicationChannel;
+import com.diozero.devices.oled.SsdOledCommunicationChannel.SpiCommunicationChannel;
+
+@SuppressWarnings("static-method")
+public class SsdOledCommunicationChannelTest {
+	@Test
+	public void spiDcPinAndChunking() {
+		SpiDevice device = mock(SpiDevice.class);
+		when(Integer.valueOf(device.getMaxBufferSize())).thenReturn(Integer.valueOf(4));
+		DigitalOutputDevice dc_pin = mock(DigitalOutputDevice.class);
+		DigitalOutputDevice reset_pin = mock(DigitalOutputDevice.class);
+
+		SpiCommunicationChannel channel = new SpiCommunicationChannel(device, dc_pin, reset_pin);
+		Assertions.assertEquals(4, channel.getMaxTransferSize());
+
+		byte[] data = new byte[10];
+		channel.sendCommand((byte) 0x21, (byte) 0x00);
+		channel.sendCommand((byte) 0x22);
+		channel.sendData(data, 0, data.length);
+		channel.sendData((byte) 1, (byte) 2);
+
+		// The DC pin is only set when switching between commands and data
+		InOrder in_order = inOrder(dc_pin, device);
+		in_order.verify(dc_pin).setOn(false);
+		in_order.verify(device, times(2)).write(any(byte[].class), anyInt(), anyInt());
+		in_order.verify(dc_pin).setOn(true);
+		in_order.verify(device).write(data, 0, 4);
+		in_order.verify(device).write(data, 4, 4);
+		in_order.verify(device).write(data, 8, 2);
+		in_order.verify(device).write(any(byte[].class), anyInt(), anyInt());
+		verify(dc_pin, times(2)).setOn(anyBoolean());
+		verify(device, never()).write(any(byte[].class));
+	}
+
+	@Test
+	public void asyncOrderingAndCoalescing() throws InterruptedException {
+		RecordingChannel recording_channel = new RecordingChannel();
+		List<String> expected = new ArrayList<>();
+
+		byte[] buffer = new byte[16];
+		try (AsyncCommunicationChannel channel = new AsyncCommunicationChannel(recording_channel, 64)) {
+			// Hold the writer thread in the first transfer so that the rest are queued
+			channel.sendCommand((byte) 0x01);
+			expected.add("C" + 0x01);
+			recording_channel.blocked.await();
+			for (int i = 0; i < 10; i++) {
+				channel.sendCommand((byte) 0x21, (byte) i);
+				channel.sendCommand((byte) 0x22);
+				expected.add("C" + 0x21);
+				expected.add("C" + (byte) i);
+				expected.add("C" + 0x22);
+				// The buffer is reused by the caller
+				for (int j = 0; j < buffer.length; j++) {
+					buffer[j] = (byte) (i + j);
+				}
+				channel.sendData(buffer, 2, 8);
+				channel.sendData(buffer, 12, 4);
+				for (int j = 2; j < buffer.length; j++) {
+					if (j != 10 && j != 11) {
+						expected.add("D" + buffer[j]);
+					}
+				}
+			}
+			Assertions.assertEquals(40, channel.getQueuedCount());
+			recording_channel.release.countDown();
+			channel.flush();
+
+			Assertions.assertEquals(0, channel.getQueuedCount());
+			Assertions.assertEquals(expected, recording_channel.log);
+			// Each queued pair of commands and pair of data writes is coalesced
+			Assertions.assertEquals(1 + 2 * 10, recording_channel.transfers);
+		}
+		Assertions.assertTrue(recording_channel.closed);
+	}
+
+	@Test
+	public void asyncErrorReporting() throws InterruptedException {
+		RecordingChannel recording_channel = new RecordingChannel() {
+			@Override
+			public void sendData(byte[] buffer, int offset, int length) {
+				throw new RuntimeIOException("Bus error");
+			}
+		};
+		try (AsyncCommunicationChannel channel = new AsyncCommunicationChannel(recording_channel)) {
+			channel.sendCommand((byte) 1);
+			recording_channel.blocked.await();
+			channel.sendData((byte) 2);
+			channel.sendCommand((byte) 3);
+			channel.sendCommand((byte) 4);
+			recording_channel.release.countDown();
+			Assertions.assertThrows(RuntimeIOException.class, channel::flush);
+			// Transfers queued after the failure are discarded
+			Assertions.assertEquals(List.of("C1"), recording_channel.log);
+
+			// The error is only reported once
+			channel.sendCommand((byte) 5);
+			channel.flush();
+			Assertions.assertEquals(List.of("C1", "C5"), recording_channel.log);
+		}
+	}
+
+	@Test
+	public void asyncDiscardQueuedBeforeReport() throws InterruptedException {
+		RecordingChannel recording_channel = new RecordingChannel() {
+			@Override
+			public void sendData(byte[] buffer, int offset, int length) {
+				throw new RuntimeIOException("Bus error");
+			}
+		};
+		try (AsyncCommunicationChannel channel = new AsyncCommunicationChannel(recording_channel, 1)) {
+			channel.sendCommand((byte) 1);
+			recording_channel.blocked.await();
+			channel.sendData((byte) 2);
+			// The queue is full, this transfer is queued before the failure is reported
+			Thread sender = new Thread(() -> channel.sendCommand((byte) 3));
+			sender.start();
+			while (sender.getState() != Thread.State.WAITING) {
+				Thread.sleep(1);
+			}
+			recording_channel.release.countDown();
+			sender.join();
+
+			Assertions.assertThrows(RuntimeIOException.class, channel::flush);
+			channel.sendCommand((byte) 4);
+			channel.flush();
+			Assertions.assertEquals(List.of("C1", "C4"), recording_channel.log);
+		}
+	}
+
+	private static class RecordingChannel implements SsdOledCommunicationChannel {
+		final List<String> log = new ArrayList<>();
+		// The first transfer waits for release
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		int transfers;
+		boolean closed;
+
+		@Override
+		public void write(byte... buffer) {
+			write(buffer, 0, buffer.length);
+		}
+
+		@Override
+		public void write(byte[] buffer, int offset, int length) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+
+		@Override
+		public void sendCommand(byte... commandBytes) {
+			awaitRelease();
+			for (byte command : commandBytes) {
+				log.add("C" + command);
+			}
+			transfers++;
+		}
+
+		@Override
+		public void sendData(byte... buffer) {
+			sendData(buffer, 0, buffer.length);
+		}
+
+		@Override
+		public void sendData(byte[] buffer, int offset, int length) {
+			awaitRelease();
+			for (int i = offset; i < offset + length; i++) {
+				log.add("D" + buffer[i]);
+			}
+			transfers++;
+		}
+
+		void awaitRelease() {
+			blocked.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.diozero.internal.provider.builtin;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     IioScanElementTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class IioScanElementTest {
+	@Test
+	public void testParse() {
+		IioScanElement element = IioScanElement.parse(2, "le:s12/16>>4\n");
+		Assertions.assertEquals(2, element.getIndex());
+		Assertions.assertTrue(element.isSigned());
+		Assertions.assertEquals(12, element.getRealBits());
+		Assertions.assertEquals(2047f, element.getRange());
+
+		Assertions.assertEquals(4095f, IioScanElement.parse(0, "be:u12/16>>0").getRange());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> IioScanElement.parse(0, "xx:u12/16>>0"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> IioScanElement.parse(0, "le:u12/12>>0"));
+	}
+
+	@Test
+	public void testExtract() {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(4);
+		// 12-bit value 0xabc stored left-justified in little endian 16-bit storage
+		buffer.put(0, (byte) 0xc0).put(1, (byte) 0xab);
+		Assertions.assertEquals(0xabc, IioScanElement.parse(0, "le:u12/16>>4").extract(buffer, 0));
+		// Same bits as signed are negative
+		Assertions.assertEquals(0xabc - 4096, IioScanElement.parse(0, "le:s12/16>>4").extract(buffer, 0));
+
+		buffer.put(2, (byte) 0x01).put(3, (byte) 0x02);
+		Assertions.assertEquals(0x0102, IioScanElement.parse(0, "be:u16/16>>0").extract(buffer, 2));
+		Assertions.assertEquals(0x0201, IioScanElement.parse(0, "le:u16/16>>0").extract(buffer, 2));
+	}
+
+	@Test
+	public void testLayout() {
+		// Two 16-bit voltage channels followed by a 64-bit timestamp
+		IioScanElement[] elements = { IioScanElement.parse(0, "le:u12/16>>0"), IioScanElement.parse(1, "le:u12/16>>0"),
+				IioScanElement.parse(2, "le:s64/64>>0") };
+		int[] offsets = new int[elements.length];
+		Assertions.assertEquals(16, IioScanElement.layout(elements, offsets));
+		Assertions.assertArrayEquals(new int[] { 0, 2, 8 }, offsets);
+
+		// A single 16-bit channel
+		IioScanElement[] single = { IioScanElement.parse(3, "le:u10/16>>0") };
+		Assertions.assertEquals(2, IioScanElement.layout(single, new int[1]));
+
+		// Frame padded to the largest element
+		IioScanElement[] padded = { IioScanElement.parse(0, "le:u24/32>>0"), IioScanElement.parse(1, "le:u8/8>>0") };
+		Assertions.assertEquals(8, IioScanElement.layout(padded, new int[2]));
+	}
+}
@@ -0,0 +1,144 @@
+package com.diozero.internal.provider.builtin.gpio;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     GpioEventRingBufferTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GpioEventRingBufferTest {
+	@Test
+	public void testCapacity() {
+		Assertions.assertEquals(8, new GpioEventRingBuffer(8).capacity());
+		Assertions.assertEquals(16, new GpioEventRingBuffer(9).capacity());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new GpioEventRingBuffer(1));
+	}
+
+	@Test
+	public void testOfferAndDrain() {
+		GpioEventRingBuffer buffer = new GpioEventRingBuffer(4);
+		for (int i = 0; i < 4; i++) {
+			Assertions.assertTrue(buffer.offer(i, GpioChip.GPIOEVENT_EVENT_RISING_EDGE, 1000 + i, 2000 + i));
+		}
+		// Full
+		Assertions.assertFalse(buffer.offer(4, GpioChip.GPIOEVENT_EVENT_RISING_EDGE, 0, 0));
+		Assertions.assertEquals(4, buffer.size());
+
+		AtomicInteger expected = new AtomicInteger();
+		int count = buffer.drainTo((lineFd, eventDataId, epochTimeMs, timestampNanos) -> {
+			int i = expected.getAndIncrement();
+			Assertions.assertEquals(i, lineFd);
+			Assertions.assertEquals(GpioChip.GPIOEVENT_EVENT_RISING_EDGE, eventDataId);
+			Assertions.assertEquals(1000 + i, epochTimeMs);
+			Assertions.assertEquals(2000 + i, timestampNanos);
+		});
+		Assertions.assertEquals(4, count);
+		Assertions.assertEquals(0, buffer.size());
+
+		// Wraps around
+		Assertions.assertTrue(buffer.offer(5, GpioChip.GPIOEVENT_EVENT_FALLING_EDGE, 0, 0));
+		Assertions.assertEquals(1, buffer.drainTo((lineFd, eventDataId, epochTimeMs, timestampNanos) -> {
+			Assertions.assertEquals(5, lineFd);
+			Assertions.assertEquals(GpioChip.GPIOEVENT_EVENT_FALLING_EDGE, eventDataId);
+		}));
+	}
+
+	@Test
+	public void testPutAll() {
+		// Records as written by the native batch event loop
+		ByteBuffer records = ByteBuffer.allocateDirect(3 * NativeGpioDevice.EVENT_RECORD_SIZE)
+				.order(ByteOrder.nativeOrder());
+		for (int i = 0; i < 3; i++) {
+			records.putInt(10 + i);
+			records.putInt(i % 2 == 0 ? GpioChip.GPIOEVENT_EVENT_RISING_EDGE : GpioChip.GPIOEVENT_EVENT_FALLING_EDGE);
+			records.putLong(5_000_000_000L + i);
+			records.putInt(100 + i);
+			records.putInt(20 + i);
+		}
+
+		GpioEventRingBuffer buffer = new GpioEventRingBuffer(8);
+		Assertions.assertTrue(buffer.putAll(records, 3, 1234));
+		Assertions.assertEquals(3, buffer.size());
+
+		AtomicInteger expected = new AtomicInteger();
+		buffer.drainTo(new GpioLineEventListener() {
+			@Override
+			public void event(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos) {
+				Assertions.fail("Line sequence number not delivered");
+			}
+
+			@Override
+			public void event(int lineFd, int eventDataId, long epochTimeMs, long timestampNanos,
+					int lineSequenceNumber) {
+				int i = expected.getAndIncrement();
+				Assertions.assertEquals(10 + i, lineFd);
+				Assertions.assertEquals(
+						i % 2 == 0 ? GpioChip.GPIOEVENT_EVENT_RISING_EDGE : GpioChip.GPIOEVENT_EVENT_FALLING_EDGE,
+						eventDataId);
+				Assertions.assertEquals(1234, epochTimeMs);
+				Assertions.assertEquals(5_000_000_000L + i, timestampNanos);
+				Assertions.assertEquals(20 + i, lineSequenceNumber);
+			}
+		});
+		Assertions.assertEquals(3, expected.get());
+	}
+
+	@Test
+	public void testProducerConsumer() throws InterruptedException {
+		final int num_events = 100_000;
+		GpioEventRingBuffer buffer = new GpioEventRingBuffer(64);
+
+		Thread producer = new Thread(() -> {
+			for (int i = 0; i < num_events; i++) {
+				buffer.put(i, GpioChip.GPIOEVENT_EVENT_RISING_EDGE, i, i);
+			}
+		});
+		producer.start();
+
+		AtomicInteger next = new AtomicInteger();
+		while (next.get() < num_events) {
+			buffer.awaitEvents();
+			buffer.drainTo((lineFd, eventDataId, epochTimeMs, timestampNanos) -> {
+				// Events must be delivered in order with none lost
+				Assertions.assertEquals(next.getAndIncrement(), lineFd);
+				Assertions.assertEquals(lineFd, timestampNanos);
+			});
+		}
+		producer.join();
+
+		Assertions.assertEquals(num_events, next.get());
+		Assertions.assertEquals(0, buffer.size());
+	}
+}
@@ -0,0 +1,101 @@
+package com.diozero.internal.spi;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     DeviceInstrumentationTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.diozero.api.DigitalOutputDevice;
+import com.diozero.sbc.DeviceFactoryHelper;
+
+@SuppressWarnings("static-method")
+public class DeviceInstrumentationTest {
+	@Test
+	public void testGpioOutput() {
+		CountingInstrumentation instrumentation = new CountingInstrumentation();
+		BaseNativeDeviceFactory df = (BaseNativeDeviceFactory) DeviceFactoryHelper.getNativeDeviceFactory();
+		df.setInstrumentation(instrumentation);
+		try (DigitalOutputDevice output = new DigitalOutputDevice(df, 30, true, false)) {
+			Assertions.assertEquals("Native-GPIO-30", instrumentation.key);
+			Assertions.assertEquals("gpio", instrumentation.type);
+
+			output.on();
+			output.off();
+			output.isOn();
+			Assertions.assertEquals(2, instrumentation.counts[DeviceOperation.WRITE.ordinal()]);
+			Assertions.assertEquals(1, instrumentation.counts[DeviceOperation.READ.ordinal()]);
+			Assertions.assertEquals(0, instrumentation.errors[DeviceOperation.WRITE.ordinal()]);
+		} finally {
+			df.setInstrumentation(null);
+		}
+		Assertions.assertEquals(List.of("Native-GPIO-30"), instrumentation.closed);
+		Assertions.assertSame(DeviceInstrumentation.NO_OP, df.getInstrumentation());
+	}
+
+	private static class CountingInstrumentation implements DeviceInstrumentation, DeviceRecorder {
+		final int[] counts = new int[DeviceOperation.values().length];
+		final int[] errors = new int[DeviceOperation.values().length];
+		final List<String> closed = new ArrayList<>();
+		String key;
+		String type;
+
+		@Override
+		public DeviceRecorder createRecorder(String deviceKey, String deviceType) {
+			key = deviceKey;
+			type = deviceType;
+			return this;
+		}
+
+		@Override
+		public void deviceClosed(String deviceKey) {
+			closed.add(deviceKey);
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return true;
+		}
+
+		@Override
+		public void record(DeviceOperation operation, long durationNanos, int bytes) {
+			counts[operation.ordinal()]++;
+		}
+
+		@Override
+		public void error(DeviceOperation operation) {
+			errors[operation.ordinal()]++;
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package com.diozero.util;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Core
+ * Filename:     DiozeroSchedulerTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("static-method")
+public class DiozeroSchedulerTest {
+	@Test
+	public void testHighPriorityCounters() throws Exception {
+		DiozeroScheduler scheduler = DiozeroScheduler.getHighPriorityInstance();
+		Assertions.assertEquals(DiozeroScheduler.Mode.CACHED, scheduler.getMode());
+
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger priority = new AtomicInteger();
+		Future<?> future = scheduler.submit(() -> {
+			priority.set(Thread.currentThread().getPriority());
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				// Ignore
+			}
+		});
+
+		Assertions.assertTrue(started.await(1, TimeUnit.SECONDS));
+		Assertions.assertEquals(Thread.MAX_PRIORITY, priority.get());
+		Assertions.assertEquals(1, scheduler.getActiveCount());
+		Assertions.assertEquals(0, scheduler.getQueuedCount());
+
+		release.countDown();
+		future.get(1, TimeUnit.SECONDS);
+		Assertions.assertEquals(0, scheduler.getActiveCount());
+		Assertions.assertEquals(0, scheduler.getRejectedCount());
+	}
+
+	@Test
+	public void testQueuedCountWithCancellation() throws Exception {
+		System.setProperty(DiozeroScheduler.MAX_THREADS_PROP, "1");
+		DiozeroScheduler scheduler;
+		try {
+			scheduler = new DiozeroScheduler(true, DiozeroScheduler.Mode.BOUNDED, Thread.NORM_PRIORITY);
+		} finally {
+			System.clearProperty(DiozeroScheduler.MAX_THREADS_PROP);
+		}
+		Assertions.assertEquals(DiozeroScheduler.Mode.BOUNDED, scheduler.getMode());
+
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			scheduler.submit(() -> {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					// Ignore
+				}
+			});
+			Assertions.assertTrue(started.await(1, TimeUnit.SECONDS));
+
+			// Queued behind the running task and cancelled before it starts
+			Future<?> cancelled = scheduler.submit(() -> Assertions.fail("Cancelled task was run"));
+			Assertions.assertEquals(1, scheduler.getQueuedCount());
+			cancelled.cancel(false);
+			Assertions.assertEquals(0, scheduler.getQueuedCount());
+
+			// Discarded by shutdown
+			scheduler.submit(() -> Assertions.fail("Discarded task was run"));
+			Assertions.assertEquals(1, scheduler.getQueuedCount());
+		} finally {
+			scheduler.shutdown();
+			release.countDown();
+		}
+		Assertions.assertEquals(0, scheduler.getQueuedCount());
+	}
+
+	@Test
+	public void testVirtualNonDaemon() {
+		// Virtual threads are always daemon threads
+		DiozeroScheduler scheduler = new DiozeroScheduler(false, DiozeroScheduler.Mode.VIRTUAL, Thread.NORM_PRIORITY);
+		try {
+			Assertions.assertEquals(DiozeroScheduler.Mode.CACHED, scheduler.getMode());
+		} finally {
+			scheduler.shutdown();
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.diozero.metrics.micrometer;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Micrometer metrics
+ * Filename:     DiozeroJmx.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.diozero.internal.spi.AbstractDeviceFactory;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.jmx.JmxConfig;
+import io.micrometer.jmx.JmxMeterRegistry;
+
+/**
+ * Convenience methods for publishing diozero metrics via JMX. Requires
+ * <code>io.micrometer:micrometer-registry-jmx</code> on the classpath.
+ */
+public class DiozeroJmx {
+	private DiozeroJmx() {
+	}
+
+	/**
+	 * Add a JMX registry to the Micrometer global registry and record device and
+	 * scheduler metrics to it. Only applies to devices that are provisioned after
+	 * this call.
+	 *
+	 * @return the JMX meter registry
+	 */
+	public static JmxMeterRegistry enable() {
+		JmxMeterRegistry registry = new JmxMeterRegistry(JmxConfig.DEFAULT, Clock.SYSTEM);
+		Metrics.addRegistry(registry);
+		AbstractDeviceFactory.setDefaultInstrumentation(new MicrometerDeviceInstrumentation(Metrics.globalRegistry));
+		new DiozeroSchedulerMetrics().bindTo(registry);
+
+		return registry;
+	}
+}
@@ -0,0 +1,65 @@
+package com.diozero.metrics.micrometer;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Micrometer metrics
+ * Filename:     DiozeroSchedulerMetrics.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.function.Supplier;
+
+import com.diozero.util.DiozeroScheduler;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the active, queued and rejected task counts for the diozero
+ * scheduler instances, tagged with the scheduler name ("daemon", "non-daemon"
+ * or "high-priority").
+ */
+public class DiozeroSchedulerMetrics implements MeterBinder {
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		bind(registry, "daemon", DiozeroScheduler::getDaemonInstance);
+		bind(registry, "non-daemon", DiozeroScheduler::getNonDaemonInstance);
+		bind(registry, "high-priority", DiozeroScheduler::getHighPriorityInstance);
+	}
+
+	private static void bind(MeterRegistry registry, String name, Supplier<DiozeroScheduler> scheduler) {
+		// Look up the instance each time as it is recreated after shutdown
+		Gauge.builder("diozero.scheduler.active", () -> Integer.valueOf(scheduler.get().getActiveCount()))
+				.tag("scheduler", name).description("Running diozero scheduler tasks").register(registry);
+		Gauge.builder("diozero.scheduler.queued", () -> Integer.valueOf(scheduler.get().getQueuedCount()))
+				.tag("scheduler", name).description("Queued diozero scheduler tasks").register(registry);
+		FunctionCounter.builder("diozero.scheduler.rejected", scheduler, s -> s.get().getRejectedCount())
+				.tag("scheduler", name).description("Rejected diozero scheduler tasks").register(registry);
+	}
+}
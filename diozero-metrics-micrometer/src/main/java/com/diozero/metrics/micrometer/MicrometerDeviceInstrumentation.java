@@ -0,0 +1,189 @@
+package com.diozero.metrics.micrometer;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Micrometer metrics
+ * Filename:     MicrometerDeviceInstrumentation.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.tinylog.Logger;
+
+import com.diozero.internal.spi.DeviceInstrumentation;
+import com.diozero.internal.spi.DeviceOperation;
+import com.diozero.internal.spi.DeviceRecorder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records diozero device metrics to a Micrometer {@link MeterRegistry}. The
+ * following meters are registered per device, tagged with the device key,
+ * device type and operation:
+ * <dl>
+ * <dt>diozero.device.operations</dt>
+ * <dd>Timer with a percentile histogram for operation latency</dd>
+ * <dt>diozero.device.errors</dt>
+ * <dd>Counter of failed operations</dd>
+ * <dt>diozero.device.bytes</dt>
+ * <dd>Counter of bytes transferred</dd>
+ * </dl>
+ * For {@link DeviceOperation#EVENT events} the latency is from the event
+ * timestamp to the listener; it is only recorded by providers whose event
+ * timestamps use the {@link System#nanoTime()} time base.
+ */
+public class MicrometerDeviceInstrumentation implements DeviceInstrumentation {
+	public static final String OPERATIONS_METER = "diozero.device.operations";
+	public static final String ERRORS_METER = "diozero.device.errors";
+	public static final String BYTES_METER = "diozero.device.bytes";
+
+	private static final DeviceOperation[] GPIO_OPERATIONS = { DeviceOperation.READ, DeviceOperation.WRITE,
+			DeviceOperation.EVENT };
+	private static final DeviceOperation[] BUS_OPERATIONS = { DeviceOperation.READ, DeviceOperation.WRITE,
+			DeviceOperation.TRANSFER };
+
+	private final MeterRegistry registry;
+	private final Map<String, List<Meter>> deviceMeters;
+
+	/**
+	 * Record to the Micrometer global registry, used when loaded via the Java
+	 * {@link java.util.ServiceLoader ServiceLoader}.
+	 */
+	public MicrometerDeviceInstrumentation() {
+		this(Metrics.globalRegistry);
+	}
+
+	public MicrometerDeviceInstrumentation(MeterRegistry registry) {
+		this.registry = registry;
+		deviceMeters = new ConcurrentHashMap<>();
+	}
+
+	public MeterRegistry getRegistry() {
+		return registry;
+	}
+
+	@Override
+	public DeviceRecorder createRecorder(String deviceKey, String deviceType) {
+		Logger.debug("Creating recorder for device {}, type {}", deviceKey, deviceType);
+
+		DeviceOperation[] operations;
+		switch (deviceType) {
+		case "gpio":
+			operations = GPIO_OPERATIONS;
+			break;
+		case "i2c":
+		case "spi":
+		case "serial":
+			operations = BUS_OPERATIONS;
+			break;
+		default:
+			operations = DeviceOperation.values();
+		}
+
+		// Meters are created up-front so that recording doesn't allocate
+		int count = DeviceOperation.values().length;
+		Timer[] timers = new Timer[count];
+		Counter[] errors = new Counter[count];
+		Counter[] bytes = new Counter[count];
+		List<Meter> meters = new ArrayList<>();
+		for (DeviceOperation operation : operations) {
+			Tags tags = Tags.of("device", deviceKey, "type", deviceType, "operation",
+					operation.name().toLowerCase());
+			int i = operation.ordinal();
+			timers[i] = Timer.builder(OPERATIONS_METER).tags(tags).publishPercentileHistogram()
+					.description("diozero device operation latency").register(registry);
+			errors[i] = Counter.builder(ERRORS_METER).tags(tags).description("diozero device operation errors")
+					.register(registry);
+			meters.add(timers[i]);
+			meters.add(errors[i]);
+			if (operation != DeviceOperation.EVENT) {
+				bytes[i] = Counter.builder(BYTES_METER).tags(tags).baseUnit("bytes")
+						.description("diozero device bytes transferred").register(registry);
+				meters.add(bytes[i]);
+			}
+		}
+		deviceMeters.put(deviceKey, meters);
+
+		return new MicrometerDeviceRecorder(timers, errors, bytes);
+	}
+
+	@Override
+	public void deviceClosed(String deviceKey) {
+		List<Meter> meters = deviceMeters.remove(deviceKey);
+		if (meters != null) {
+			meters.forEach(registry::remove);
+		}
+	}
+
+	private static class MicrometerDeviceRecorder implements DeviceRecorder {
+		private final Timer[] timers;
+		private final Counter[] errors;
+		private final Counter[] bytes;
+
+		MicrometerDeviceRecorder(Timer[] timers, Counter[] errors, Counter[] bytes) {
+			this.timers = timers;
+			this.errors = errors;
+			this.bytes = bytes;
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return true;
+		}
+
+		@Override
+		public void record(DeviceOperation operation, long durationNanos, int byteCount) {
+			int i = operation.ordinal();
+			Timer timer = timers[i];
+			if (timer != null) {
+				timer.record(durationNanos, TimeUnit.NANOSECONDS);
+			}
+			Counter counter = bytes[i];
+			if (counter != null && byteCount > 0) {
+				counter.increment(byteCount);
+			}
+		}
+
+		@Override
+		public void error(DeviceOperation operation) {
+			Counter counter = errors[operation.ordinal()];
+			if (counter != null) {
+				counter.increment();
+			}
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.diozero.metrics.micrometer;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Micrometer metrics
+ * Filename:     MicrometerDeviceInstrumentationTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.diozero.internal.spi.DeviceOperation;
+import com.diozero.internal.spi.DeviceRecorder;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SuppressWarnings("static-method")
+public class MicrometerDeviceInstrumentationTest {
+	@Test
+	public void testRecord() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		MicrometerDeviceInstrumentation instrumentation = new MicrometerDeviceInstrumentation(registry);
+
+		DeviceRecorder recorder = instrumentation.createRecorder("Test-I2C-1-0x40", "i2c");
+		Assertions.assertTrue(recorder.isEnabled());
+		recorder.record(DeviceOperation.READ, 1_000_000, 2);
+		recorder.record(DeviceOperation.READ, 3_000_000, 2);
+		recorder.error(DeviceOperation.WRITE);
+		// Not applicable for I2C devices, should be ignored
+		recorder.record(DeviceOperation.EVENT, 1_000, 0);
+
+		Timer timer = registry.get(MicrometerDeviceInstrumentation.OPERATIONS_METER).tag("device", "Test-I2C-1-0x40")
+				.tag("operation", "read").timer();
+		Assertions.assertEquals(2, timer.count());
+		Assertions.assertEquals(4, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+		Assertions.assertEquals(4, registry.get(MicrometerDeviceInstrumentation.BYTES_METER)
+				.tag("operation", "read").counter().count(), 0);
+		Assertions.assertEquals(1, registry.get(MicrometerDeviceInstrumentation.ERRORS_METER)
+				.tag("operation", "write").counter().count(), 0);
+		Assertions.assertNull(registry.find(MicrometerDeviceInstrumentation.OPERATIONS_METER)
+				.tag("operation", "event").timer());
+
+		instrumentation.deviceClosed("Test-I2C-1-0x40");
+		Assertions.assertTrue(registry.getMeters().isEmpty());
+	}
+}
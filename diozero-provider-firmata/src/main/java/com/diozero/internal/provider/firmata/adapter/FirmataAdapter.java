@@ -31,7 +31,6 @@ package com.diozero.internal.provider.firmata.adapter;
  * #L%
  */
 
-import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
@@ -43,10 +42,11 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
@@ -61,12 +61,14 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 	private static final int I2C_NO_REGISTER = 0;
 	private static final int NOT_SET = -1;
 	private static final byte ANALOG_NOT_SUPPORTED = 127;
+	private static final int READ_BUFFER_SIZE = 1024;
 
 	private FirmataTransport transport;
 	private FirmataEventListener eventListener;
 	private AtomicBoolean running;
 	private AtomicBoolean inShutdown;
-	private BlockingQueue<ResponseMessage> responseQueue;
+	private ResponseMultiplexer responses;
+	private Object writeLock;
 	private Future<?> future;
 	private ProtocolVersionResponse protocolVersion;
 	private FirmwareDetails firmware;
@@ -81,7 +83,8 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 
 		running = new AtomicBoolean(false);
 		inShutdown = new AtomicBoolean(false);
-		responseQueue = new LinkedBlockingQueue<>();
+		responses = new ResponseMultiplexer();
+		writeLock = new Object();
 		pins = new ConcurrentHashMap<>();
 		adcToPinNumberMapping = new ConcurrentHashMap<>();
 		taskIds = new ConcurrentHashMap<>();
@@ -127,6 +130,7 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 
 		inShutdown.set(false);
 
+		responses.failAll(new CancellationException("Firmata adapter closed"));
 		transport.close();
 
 		Logger.trace("closed.");
@@ -203,7 +207,7 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 
 	public void refreshPinState(int gpio) {
 		PinStateResponse pin_state = sendMessage(new byte[] { START_SYSEX, PIN_STATE_QUERY, (byte) gpio, END_SYSEX },
-				PinStateResponse.class);
+				PinStateResponse.class, gpio);
 
 		// Update the cached pin mode and value
 		Pin pin = pins.get(Integer.valueOf(gpio));
@@ -361,6 +365,21 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 
 	public I2CResponse i2cRead(int slaveAddress, boolean autoRestart, boolean addressSize10Bit, int length)
 			throws RuntimeIOException {
+		return await(i2cReadAsync(slaveAddress, autoRestart, addressSize10Bit, length));
+	}
+
+	/**
+	 * Send an I2C read request without waiting for the response, allowing many
+	 * requests to be in flight at once.
+	 *
+	 * @param slaveAddress     I2C device address
+	 * @param autoRestart      auto restart transmission
+	 * @param addressSize10Bit 10-bit address mode
+	 * @param length           number of bytes to read
+	 * @return future that is completed with the I2C response
+	 */
+	public CompletableFuture<I2CResponse> i2cReadAsync(int slaveAddress, boolean autoRestart,
+			boolean addressSize10Bit, int length) {
 		Logger.trace("i2cRead({}, {}, {}, {})", Integer.valueOf(slaveAddress), Boolean.valueOf(autoRestart),
 				Boolean.valueOf(addressSize10Bit), Integer.valueOf(length));
 		byte[] data = new byte[7];
@@ -376,7 +395,7 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 		data[index++] = length_lsb_msb[1];
 		data[index++] = END_SYSEX;
 
-		return sendMessage(data, I2CResponse.class);
+		return sendMessageAsync(data, I2CResponse.class, ResponseMultiplexer.i2cCorrelation(slaveAddress));
 	}
 
 	public void i2cWrite(int slaveAddress, boolean autoRestart, boolean addressSize10Bit, byte[] data)
@@ -388,6 +407,22 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 
 	public I2CResponse i2cReadData(int slaveAddress, boolean autoRestart, boolean addressSize10Bit, int register,
 			int length) {
+		return await(i2cReadDataAsync(slaveAddress, autoRestart, addressSize10Bit, register, length));
+	}
+
+	/**
+	 * Send an I2C register read request without waiting for the response, allowing
+	 * many requests to be in flight at once.
+	 *
+	 * @param slaveAddress     I2C device address
+	 * @param autoRestart      auto restart transmission
+	 * @param addressSize10Bit 10-bit address mode
+	 * @param register         register to read from
+	 * @param length           number of bytes to read
+	 * @return future that is completed with the I2C response
+	 */
+	public CompletableFuture<I2CResponse> i2cReadDataAsync(int slaveAddress, boolean autoRestart,
+			boolean addressSize10Bit, int register, int length) {
 		Logger.trace("i2cReadData({}, {}, {}, {}, {})", Integer.valueOf(slaveAddress), Boolean.valueOf(autoRestart),
 				Boolean.valueOf(addressSize10Bit), Integer.valueOf(register), Integer.valueOf(length));
 		byte[] data = new byte[9];
@@ -406,7 +441,7 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 		data[index++] = length_lsb_msb[1];
 		data[index++] = END_SYSEX;
 
-		return sendMessage(data, I2CResponse.class);
+		return sendMessageAsync(data, I2CResponse.class, ResponseMultiplexer.i2cCorrelation(slaveAddress, register));
 	}
 
 	public void i2cWriteData(int slaveAddress, boolean autoRestart, boolean addressSize10Bit, int register, byte[] data)
@@ -481,7 +516,7 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 		buffer[index++] = (byte) gpio;
 		buffer[index++] = END_SYSEX;
 
-		return sendMessage(buffer, OneWireSearchResponse.class);
+		return sendMessage(buffer, OneWireSearchResponse.class, gpio);
 	}
 
 	public void oneWireConfig(int gpio, boolean parasiticPower) throws RuntimeIOException {
@@ -556,6 +591,19 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 	public Optional<OneWireReadResponse> oneWireCommands(int gpio, boolean reset, boolean skip,
 			Optional<byte[]> address, OptionalInt bytesToRead, OptionalInt correlationId, OptionalInt delayMs,
 			Optional<byte[]> data) throws RuntimeIOException {
+		return oneWireCommandsAsync(gpio, reset, skip, address, bytesToRead, correlationId, delayMs, data)
+				.map(FirmataAdapter::await);
+	}
+
+	/**
+	 * Send OneWire commands; if a read is requested the returned future is
+	 * completed when the read response with the matching correlation id arrives.
+	 *
+	 * @return future for the read response, empty if no read was requested
+	 */
+	public Optional<CompletableFuture<OneWireReadResponse>> oneWireCommandsAsync(int gpio, boolean reset,
+			boolean skip, Optional<byte[]> address, OptionalInt bytesToRead, OptionalInt correlationId,
+			OptionalInt delayMs, Optional<byte[]> data) throws RuntimeIOException {
 		// Max size is 19 if all commands are sent in one go
 		byte[] data_bytes = new byte[8 + 2 + 2 + 4 + (data.isPresent() ? data.get().length : 0)];
 		ByteBuffer data_buffer = ByteBuffer.wrap(data_bytes);
@@ -612,7 +660,8 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 		buffer[index++] = END_SYSEX;
 
 		if ((command_mask & OneWireCommand.READ.mask()) != 0) {
-			return Optional.of(sendMessage(buffer, OneWireReadResponse.class));
+			return Optional.of(sendMessageAsync(buffer, OneWireReadResponse.class,
+					correlationId.getAsInt() & 0xffff));
 		}
 
 		sendMessage(buffer);
@@ -690,41 +739,64 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 	}
 
 	private void sendMessage(byte[] request) throws RuntimeIOException {
-		transport.write(request);
+		synchronized (writeLock) {
+			transport.write(request);
+		}
 	}
 
-	@SuppressWarnings("unchecked")
 	private <T extends ResponseMessage> T sendMessage(byte[] request, Class<T> responseClass)
 			throws RuntimeIOException, FirmataErrorMessage {
-		ResponseMessage response = null;
+		return sendMessage(request, responseClass, ResponseMultiplexer.NO_CORRELATION);
+	}
 
-		try {
-			transport.write(request);
+	private <T extends ResponseMessage> T sendMessage(byte[] request, Class<T> responseClass, int correlation)
+			throws RuntimeIOException, FirmataErrorMessage {
+		return await(sendMessageAsync(request, responseClass, correlation));
+	}
+
+	private <T extends ResponseMessage> CompletableFuture<T> sendMessageAsync(byte[] request, Class<T> responseClass,
+			int correlation) throws RuntimeIOException {
+		CompletableFuture<T> future;
+		// Register and write atomically so that the order of outstanding requests
+		// matches the order that they are sent
+		synchronized (writeLock) {
+			future = responses.register(responseClass, correlation);
+			try {
+				transport.write(request);
+			} catch (RuntimeException e) {
+				responses.cancel(future);
+				throw e;
+			}
+		}
+		return future;
+	}
 
-			do {
-				Logger.trace("Waiting for a response of type {} ...", responseClass.getName());
-				response = responseQueue.take();
-				Logger.trace("Got response {}", response);
-				if (response.isPoison()) {
-					return null;
-				}
-				if (!response.getClass().isAssignableFrom(responseClass)
-						&& response.getClass().isAssignableFrom(StringDataResponse.class)) {
-					// Most likely a StringData error response
-					StringDataResponse sdr = (StringDataResponse) response;
-					if (sdr.getValue().equals("Unhandled sysex command")) {
-						throw new FirmataErrorMessage(sdr.getValue());
-					}
-					// Otherwise log and ignore
-					Logger.info("Got a string data response: '{}'", sdr.getValue());
-				}
-			} while (!response.getClass().isAssignableFrom(responseClass));
-		} catch (InterruptedException e) {
-			// Ignore
+	private static <T extends ResponseMessage> T await(CompletableFuture<T> future)
+			throws RuntimeIOException, FirmataErrorMessage {
+		try {
+			return future.get();
+		} catch (InterruptedException | CancellationException e) {
 			Logger.trace("Interrupted");
+			return null;
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeIOException) {
+				throw (RuntimeIOException) cause;
+			}
+			if (cause instanceof CancellationException) {
+				return null;
+			}
+			throw new RuntimeIOException(cause);
 		}
+	}
 
-		return (T) response;
+	private void dispatch(ResponseMessage response) {
+		if (response == null) {
+			return;
+		}
+		if (!responses.complete(response) && response instanceof StringDataResponse) {
+			Logger.info("Got a string data response: '{}'", ((StringDataResponse) response).getValue());
+		}
 	}
 
 	@Override
@@ -734,6 +806,9 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 			return;
 		}
 
+		ResponseListener listener = new ResponseListener();
+		FirmataParser parser = new FirmataParser(listener);
+		byte[] read_buffer = new byte[READ_BUFFER_SIZE];
 		try {
 			while (running.get()) {
 				/*-
@@ -743,38 +818,18 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 				 * If O_NONBLOCK is clear, read() shall block the calling thread until
 				 * some data becomes available.
 				 */
-				int i = transport.read();
-				if (i == -1) {
+				int read = transport.read(read_buffer, 0, read_buffer.length);
+				if (read == -1) {
 					Logger.warn("Read -1 from device, exiting read responses loop...");
 					running.compareAndSet(true, false);
 					break;
 				}
 
-				long nano_time = System.nanoTime();
-				long epoch_time = System.currentTimeMillis();
-
-				byte b = (byte) (i & 0xff);
-				if (b == START_SYSEX) {
-					Logger.trace("Processing sysex message...");
-					responseQueue.offer(readSysEx(null));
-					Logger.trace("Added sysex message to queue");
-				} else if (b == PROTOCOL_VERSION) {
-					Logger.trace("Processing protocol version message...");
-					responseQueue.offer(readVersionResponse());
-					Logger.trace("Added protocol version message to queue");
-				} else if (b == REPORT_FIRMWARE) {
-					Logger.trace("Processing firmware version message...");
-					responseQueue.add(readSysEx(Byte.valueOf(b)));
-					Logger.trace("Added firmware version message to queue");
-				} else if (b >= DIGITAL_IO_START && b <= DIGITAL_IO_END) {
-					Logger.trace("Processing digital read response message...");
-					processDigitalResponse(readDataResponse(b - DIGITAL_IO_START), epoch_time, nano_time);
-				} else if (b >= ANALOG_IO_START && b <= ANALOG_IO_END) {
-					Logger.trace("Processing analog read response message...");
-					processAnalogResponse(readDataResponse(b - ANALOG_IO_START), epoch_time, nano_time);
-				} else {
-					Logger.warn("Unrecognised response: 0x{}", Integer.toHexString(b & 0xff));
-				}
+				// All messages in this chunk arrived at (approximately) the same time
+				listener.nanoTime = System.nanoTime();
+				listener.epochTime = System.currentTimeMillis();
+
+				parser.parse(read_buffer, 0, read);
 			}
 		} catch (RuntimeIOException e) {
 			running.compareAndSet(true, false);
@@ -784,12 +839,11 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 			Logger.error(t, "Error: {}", t);
 		}
 
+		responses.failAll(new RuntimeIOException("Firmata response reader stopped"));
 		Logger.debug("Thread: done");
 	}
 
-	private void processDigitalResponse(DataResponse response, long epochTime, long nanoTime) {
-		int port = response.getPort();
-		int value = response.getValue();
+	private void processDigitalResponse(int port, int value, long epochTime, long nanoTime) {
 		// Update the cached values
 		for (int x = 0; x < 8; x++) {
 			int gpio = 8 * port + x;
@@ -802,41 +856,20 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 		}
 	}
 
-	private void processAnalogResponse(DataResponse response, long eventTime, long nanoTime) {
+	private void processAnalogResponse(int adc, int value, long eventTime, long nanoTime) {
 		// Update the cached value
-		int adc = response.getPort();
 		Integer pin_num = adcToPinNumberMapping.get(Integer.valueOf(adc));
 		if (pin_num != null) {
-			Pin pin = pins.get(Integer.valueOf(pin_num.intValue()));
+			Pin pin = pins.get(pin_num);
 			if (pin != null) {
-				pin.setValue(response.getValue());
-				eventListener.event(FirmataEventListener.EventType.ANALOG, pin_num.intValue(), response.getValue(),
-						eventTime, nanoTime);
+				pin.setValue(value);
+				eventListener.event(FirmataEventListener.EventType.ANALOG, pin_num.intValue(), value, eventTime,
+						nanoTime);
 			}
 		}
 	}
 
-	private SysExResponse readSysEx(Byte sysExCommand) {
-		byte sysex_cmd;
-		if (sysExCommand == null) {
-			sysex_cmd = transport.readByte();
-		} else {
-			sysex_cmd = sysExCommand.byteValue();
-		}
-		// long start = System.currentTimeMillis();
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		while (true) {
-			byte b = transport.readByte();
-			if (b == END_SYSEX) {
-				break;
-			}
-			baos.write(b);
-		}
-		byte[] response_data = baos.toByteArray();
-		ByteBuffer buffer = ByteBuffer.wrap(response_data);
-		// long duration = System.currentTimeMillis() - start;
-		// Logger.debug("Took " + duration + "ms to read the SysEx message");
-
+	private SysExResponse parseSysEx(byte sysex_cmd, ByteBuffer buffer) {
 		SysExResponse response = null;
 		switch (sysex_cmd) {
 		case STRING_DATA:
@@ -894,9 +927,9 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 			byte scheduler_reply_type = buffer.get();
 			switch (scheduler_reply_type) {
 			case QUERY_ALL_TASKS_REPLY:
-				byte[] task_ids = new byte[response_data.length - 1];
-				for (int i = 0; i < response_data.length - 1; i++) {
-					task_ids[i] = (byte) (response_data[i + 1] & 0x7f);
+				byte[] task_ids = new byte[buffer.remaining()];
+				for (int i = 0; i < task_ids.length; i++) {
+					task_ids[i] = (byte) (buffer.get() & 0x7f);
 				}
 				response = new SchedulerDataQueryAllTasksResponse(task_ids);
 				taskIds.clear();
@@ -973,18 +1006,37 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 		return response;
 	}
 
-	private ProtocolVersionResponse readVersionResponse() {
-		return new ProtocolVersionResponse(transport.readByte(), transport.readByte());
-	}
+	private final class ResponseListener implements FirmataParser.Listener {
+		long epochTime;
+		long nanoTime;
 
-	private DataResponse readDataResponse(int port) {
-		return new DataResponse(port, readShort());
-	}
+		ResponseListener() {
+		}
+
+		@Override
+		public void digitalReport(int port, int value) {
+			processDigitalResponse(port, value, epochTime, nanoTime);
+		}
+
+		@Override
+		public void analogReport(int adc, int value) {
+			processAnalogResponse(adc, value, epochTime, nanoTime);
+		}
+
+		@Override
+		public void protocolVersion(byte major, byte minor) {
+			dispatch(new ProtocolVersionResponse(major, minor));
+		}
+
+		@Override
+		public void sysEx(byte command, ByteBuffer data) {
+			dispatch(parseSysEx(command, data));
+		}
 
-	private int readShort() {
-		// LSB (bits 0-6), MSB(bits 7-13)
-		return FirmataProtocol.decodeValue(transport.readByte(), transport.readByte());
-		// return ((msb & 0x7f) << 7) | (lsb & 0x7f);
+		@Override
+		public void unrecognised(byte b) {
+			Logger.warn("Unrecognised response: 0x{}", Integer.toHexString(b & 0xff));
+		}
 	}
 
 	private static SysExResponse unpackOneWireResponse(ByteBuffer buffer) {
@@ -1206,34 +1258,6 @@ public class FirmataAdapter implements FirmataProtocol, Runnable, AutoCloseable
 		}
 	}
 
-	static class DataResponse extends ResponseMessage {
-		/**
-		 * For analog responses port is the relative analog pin number, for digital it
-		 * is for a bank of 8 GPIOs.
-		 */
-		private int port;
-		private int value;
-
-		DataResponse(int port, int value) {
-			this.port = port;
-			// LSB (pins 0-6 bit-mask), MSB (pin 7 bit-mask)
-			this.value = value;
-		}
-
-		public int getPort() {
-			return port;
-		}
-
-		public int getValue() {
-			return value;
-		}
-
-		@Override
-		public String toString() {
-			return String.format("DataResponse [port=%d, value=0x%x]", Integer.valueOf(port), Integer.valueOf(value));
-		}
-	}
-
 	static class AnalogMappingResponse extends SysExResponse {
 		private byte[] channels;
 
@@ -0,0 +1,200 @@
+package com.diozero.internal.provider.firmata.adapter;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Firmata
+ * Filename:     FirmataParser.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.tinylog.Logger;
+
+/**
+ * Incremental parser for the Firmata response stream. Data is supplied in
+ * arbitrary sized chunks as it is read from the transport; partial messages
+ * are carried over to the next chunk. Digital and analog reports are decoded
+ * without creating any objects, sysex payloads are collected in a reusable
+ * buffer that is only valid for the duration of the listener callback.
+ *
+ * Instances are not thread safe.
+ */
+public class FirmataParser {
+	private static final int INITIAL_SYSEX_BUFFER_SIZE = 256;
+
+	public interface Listener {
+		/**
+		 * @param port  the digital port (bank of 8 GPIOs)
+		 * @param value bit-mask of the port values
+		 */
+		void digitalReport(int port, int value);
+
+		/**
+		 * @param adc   the relative analog pin number
+		 * @param value the raw 14-bit value
+		 */
+		void analogReport(int adc, int value);
+
+		void protocolVersion(byte major, byte minor);
+
+		/**
+		 * @param command the sysex command
+		 * @param data    the sysex payload, excluding the command, positioned at 0;
+		 *                only valid until this method returns
+		 */
+		void sysEx(byte command, ByteBuffer data);
+
+		void unrecognised(byte b);
+	}
+
+	private enum State {
+		IDLE, DIGITAL, ANALOG, PROTOCOL_VERSION, SYSEX_COMMAND, SYSEX_DATA;
+	}
+
+	private final Listener listener;
+	private State state;
+	// Port / ADC number for digital / analog reports
+	private int port;
+	// Data bytes for digital / analog / version messages
+	private byte lsb;
+	private int dataCount;
+	private byte sysExCommand;
+	private byte[] sysExData;
+	private int sysExLength;
+	private ByteBuffer sysExBuffer;
+
+	public FirmataParser(Listener listener) {
+		this.listener = listener;
+		state = State.IDLE;
+		sysExData = new byte[INITIAL_SYSEX_BUFFER_SIZE];
+		sysExBuffer = ByteBuffer.wrap(sysExData);
+	}
+
+	/**
+	 * Parse the supplied data, invoking the listener for each complete message
+	 *
+	 * @param buffer the data read from the transport
+	 * @param offset offset of the first byte to parse
+	 * @param length the number of bytes to parse
+	 */
+	public void parse(byte[] buffer, int offset, int length) {
+		int end = offset + length;
+		for (int i = offset; i < end; i++) {
+			byte b = buffer[i];
+			switch (state) {
+			case SYSEX_DATA:
+				if (b == FirmataProtocol.END_SYSEX) {
+					state = State.IDLE;
+					sysExBuffer.clear().limit(sysExLength);
+					listener.sysEx(sysExCommand, sysExBuffer);
+				} else {
+					appendSysEx(b);
+				}
+				break;
+			case SYSEX_COMMAND:
+				sysExCommand = b;
+				sysExLength = 0;
+				state = State.SYSEX_DATA;
+				break;
+			case DIGITAL:
+			case ANALOG:
+			case PROTOCOL_VERSION:
+				if (b < 0) {
+					// A command byte in the middle of a message - resynchronise
+					Logger.warn("Incomplete {} message, got command byte 0x{}", state,
+							Integer.toHexString(b & 0xff));
+					idle(b);
+				} else if (dataCount++ == 0) {
+					lsb = b;
+				} else {
+					dispatch(b);
+					state = State.IDLE;
+				}
+				break;
+			case IDLE:
+			default:
+				idle(b);
+			}
+		}
+	}
+
+	/**
+	 * Discard any partially parsed message
+	 */
+	public void reset() {
+		state = State.IDLE;
+		sysExLength = 0;
+	}
+
+	private void idle(byte b) {
+		dataCount = 0;
+		if (b == FirmataProtocol.START_SYSEX) {
+			state = State.SYSEX_COMMAND;
+		} else if (b == FirmataProtocol.PROTOCOL_VERSION) {
+			state = State.PROTOCOL_VERSION;
+		} else if (b == FirmataProtocol.REPORT_FIRMWARE) {
+			// Firmware report without the leading START_SYSEX
+			sysExCommand = b;
+			sysExLength = 0;
+			state = State.SYSEX_DATA;
+		} else if (b >= FirmataProtocol.DIGITAL_IO_START && b <= FirmataProtocol.DIGITAL_IO_END) {
+			port = b - FirmataProtocol.DIGITAL_IO_START;
+			state = State.DIGITAL;
+		} else if (b >= FirmataProtocol.ANALOG_IO_START && b <= FirmataProtocol.ANALOG_IO_END) {
+			port = b - FirmataProtocol.ANALOG_IO_START;
+			state = State.ANALOG;
+		} else {
+			state = State.IDLE;
+			listener.unrecognised(b);
+		}
+	}
+
+	private void dispatch(byte msb) {
+		switch (state) {
+		case DIGITAL:
+			listener.digitalReport(port, FirmataProtocol.decodeValue(lsb, msb));
+			break;
+		case ANALOG:
+			listener.analogReport(port, FirmataProtocol.decodeValue(lsb, msb));
+			break;
+		case PROTOCOL_VERSION:
+			listener.protocolVersion(lsb, msb);
+			break;
+		default:
+		}
+	}
+
+	private void appendSysEx(byte b) {
+		if (sysExLength == sysExData.length) {
+			sysExData = Arrays.copyOf(sysExData, sysExData.length * 2);
+			sysExBuffer = ByteBuffer.wrap(sysExData);
+		}
+		sysExData[sysExLength++] = b;
+	}
+}
@@ -325,6 +325,11 @@ public interface FirmataProtocol {
 		return decoded;
 	}
 
+	static int decodeValue(byte lsb, byte msb) {
+		// Non-varargs version to avoid creating an array for the common case
+		return (lsb & 0x7f) | ((msb & 0x7f) << 7);
+	}
+
 	static int decodeValue(byte... values) {
 		int value = 0;
 		for (int i = 0; i < values.length; i++) {
@@ -38,6 +38,28 @@ public interface FirmataTransport extends AutoCloseable {
 
 	byte readByte();
 
+	/**
+	 * Read as many bytes as are available, up to <code>length</code>, blocking
+	 * until at least one byte is available
+	 *
+	 * @param buffer the buffer to read into
+	 * @param offset offset in the buffer to start writing data
+	 * @param length maximum number of bytes to read
+	 * @return the number of bytes read, or -1 if the end of stream was reached
+	 */
+	default int read(byte[] buffer, int offset, int length) {
+		int i = read();
+		if (i == -1) {
+			return -1;
+		}
+		buffer[offset] = (byte) i;
+		int count = Math.min(bytesAvailable(), length - 1);
+		for (int x = 1; x <= count; x++) {
+			buffer[offset + x] = readByte();
+		}
+		return count + 1;
+	}
+
 	void write(byte[] data);
 
 	@Override
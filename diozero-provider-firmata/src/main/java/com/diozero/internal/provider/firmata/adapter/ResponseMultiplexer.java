@@ -0,0 +1,260 @@
+package com.diozero.internal.provider.firmata.adapter;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Firmata
+ * Filename:     ResponseMultiplexer.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import org.tinylog.Logger;
+
+import com.diozero.internal.provider.firmata.adapter.FirmataAdapter.FirmataErrorMessage;
+import com.diozero.internal.provider.firmata.adapter.FirmataAdapter.I2CResponse;
+import com.diozero.internal.provider.firmata.adapter.FirmataAdapter.OneWireReadResponse;
+import com.diozero.internal.provider.firmata.adapter.FirmataAdapter.OneWireSearchResponse;
+import com.diozero.internal.provider.firmata.adapter.FirmataAdapter.PinStateResponse;
+import com.diozero.internal.provider.firmata.adapter.FirmataAdapter.ResponseMessage;
+import com.diozero.internal.provider.firmata.adapter.FirmataAdapter.StringDataResponse;
+
+/**
+ * Matches Firmata responses to outstanding requests so that many requests can
+ * be in flight at once. Requests are keyed by the expected response type plus
+ * a correlation value taken from the request - the I2C slave address and
+ * register, OneWire correlation id or pin number. Requests with the same key
+ * are completed in the order that they were sent, which is the order that the
+ * board processes them.
+ */
+class ResponseMultiplexer {
+	static final int NO_CORRELATION = -1;
+	static final String UNHANDLED_SYSEX_COMMAND = "Unhandled sysex command";
+	// I2C register value for reads that didn't specify a register
+	private static final int I2C_ANY_REGISTER = 0xffff;
+
+	private final Map<RequestKey, ArrayDeque<PendingRequest>> pending;
+	private long nextSequence;
+	private int outstanding;
+
+	ResponseMultiplexer() {
+		pending = new HashMap<>();
+	}
+
+	static int i2cCorrelation(int slaveAddress, int register) {
+		return (slaveAddress << 16) | (register & 0xffff);
+	}
+
+	static int i2cCorrelation(int slaveAddress) {
+		return i2cCorrelation(slaveAddress, I2C_ANY_REGISTER);
+	}
+
+	/**
+	 * Register a request that expects a response, must be called before the
+	 * request is written to the transport
+	 *
+	 * @param <T>           the response type
+	 * @param responseClass the expected response type
+	 * @param correlation   correlation value for the request, or
+	 *                      {@link #NO_CORRELATION}
+	 * @return future that is completed when the matching response arrives
+	 */
+	<T extends ResponseMessage> CompletableFuture<T> register(Class<T> responseClass, int correlation) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		synchronized (pending) {
+			pending.computeIfAbsent(new RequestKey(responseClass, correlation), k -> new ArrayDeque<>())
+					.add(new PendingRequest(nextSequence++, future));
+			outstanding++;
+		}
+		return future;
+	}
+
+	/**
+	 * Deregister a request, e.g. if the request couldn't be written
+	 *
+	 * @param future the future returned by {@link #register(Class, int)}
+	 */
+	void cancel(CompletableFuture<?> future) {
+		synchronized (pending) {
+			for (Iterator<ArrayDeque<PendingRequest>> it = pending.values().iterator(); it.hasNext();) {
+				ArrayDeque<PendingRequest> queue = it.next();
+				if (queue.removeIf(p -> p.future == future)) {
+					outstanding--;
+					if (queue.isEmpty()) {
+						it.remove();
+					}
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Complete the oldest outstanding request that matches this response
+	 *
+	 * @param response the response message
+	 * @return true if the response completed a request
+	 */
+	@SuppressWarnings("unchecked")
+	boolean complete(ResponseMessage response) {
+		PendingRequest request;
+		synchronized (pending) {
+			request = poll(new RequestKey(response.getClass(), correlationOf(response)));
+			if (request == null && response instanceof I2CResponse) {
+				// The request may not have specified a register
+				request = poll(new RequestKey(I2CResponse.class,
+						i2cCorrelation(((I2CResponse) response).getSlaveAddress())));
+			}
+			if (request == null && response instanceof StringDataResponse
+					&& ((StringDataResponse) response).getValue().equals(UNHANDLED_SYSEX_COMMAND)) {
+				// The board processes requests in order, so this error is for the oldest
+				// outstanding request
+				request = pollOldest();
+				if (request != null) {
+					request.future.completeExceptionally(new FirmataErrorMessage(UNHANDLED_SYSEX_COMMAND));
+					return true;
+				}
+			}
+		}
+
+		if (request == null) {
+			Logger.trace("No outstanding request for response {}", response);
+			return false;
+		}
+
+		((CompletableFuture<ResponseMessage>) request.future).complete(response);
+		return true;
+	}
+
+	/**
+	 * Fail all outstanding requests, e.g. when the connection is closed
+	 *
+	 * @param t the cause
+	 */
+	void failAll(Throwable t) {
+		synchronized (pending) {
+			for (ArrayDeque<PendingRequest> queue : pending.values()) {
+				for (PendingRequest request : queue) {
+					request.future.completeExceptionally(t);
+				}
+			}
+			pending.clear();
+			outstanding = 0;
+		}
+	}
+
+	int getOutstandingCount() {
+		synchronized (pending) {
+			return outstanding;
+		}
+	}
+
+	private PendingRequest poll(RequestKey key) {
+		ArrayDeque<PendingRequest> queue = pending.get(key);
+		if (queue == null) {
+			return null;
+		}
+		PendingRequest request = queue.poll();
+		if (queue.isEmpty()) {
+			pending.remove(key);
+		}
+		outstanding--;
+		return request;
+	}
+
+	private PendingRequest pollOldest() {
+		RequestKey oldest_key = null;
+		long oldest_sequence = Long.MAX_VALUE;
+		for (Map.Entry<RequestKey, ArrayDeque<PendingRequest>> entry : pending.entrySet()) {
+			long sequence = entry.getValue().peek().sequence;
+			if (sequence < oldest_sequence) {
+				oldest_sequence = sequence;
+				oldest_key = entry.getKey();
+			}
+		}
+		return oldest_key == null ? null : poll(oldest_key);
+	}
+
+	private static int correlationOf(ResponseMessage response) {
+		if (response instanceof I2CResponse) {
+			I2CResponse i2c_response = (I2CResponse) response;
+			return i2cCorrelation(i2c_response.getSlaveAddress(), i2c_response.getRegister());
+		}
+		if (response instanceof OneWireReadResponse) {
+			return ((OneWireReadResponse) response).getCorrelationId();
+		}
+		if (response instanceof OneWireSearchResponse) {
+			return ((OneWireSearchResponse) response).getGpio();
+		}
+		if (response instanceof PinStateResponse) {
+			return ((PinStateResponse) response).getPin() & 0xff;
+		}
+		return NO_CORRELATION;
+	}
+
+	private static final class RequestKey {
+		private final Class<?> responseClass;
+		private final int correlation;
+
+		RequestKey(Class<?> responseClass, int correlation) {
+			this.responseClass = responseClass;
+			this.correlation = correlation;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(responseClass, Integer.valueOf(correlation));
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof RequestKey)) {
+				return false;
+			}
+			RequestKey other = (RequestKey) obj;
+			return responseClass == other.responseClass && correlation == other.correlation;
+		}
+	}
+
+	private static final class PendingRequest {
+		final long sequence;
+		final CompletableFuture<? extends ResponseMessage> future;
+
+		PendingRequest(long sequence, CompletableFuture<? extends ResponseMessage> future) {
+			this.sequence = sequence;
+			this.future = future;
+		}
+	}
+}
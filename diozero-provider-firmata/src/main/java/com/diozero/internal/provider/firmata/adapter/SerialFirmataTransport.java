@@ -68,6 +68,11 @@ public class SerialFirmataTransport implements FirmataTransport {
 		return device.read();
 	}
 
+	@Override
+	public int read(byte[] buffer, int offset, int length) {
+		return device.readAvailable(buffer, offset, length);
+	}
+
 	@Override
 	public byte readByte() {
 		return device.readByte();
@@ -71,6 +71,15 @@ public class SocketFirmataTransport implements FirmataTransport {
 		}
 	}
 
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws RuntimeIOException {
+		try {
+			return is.read(buffer, offset, length);
+		} catch (IOException e) {
+			throw new RuntimeIOException(e);
+		}
+	}
+
 	@Override
 	public byte readByte() throws RuntimeIOException {
 		try {
@@ -0,0 +1,126 @@
+package com.diozero.internal.provider.firmata.adapter;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Firmata
+ * Filename:     FirmataParserTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("static-method")
+public class FirmataParserTest {
+	private static final byte[] STREAM = { //
+			(byte) 0x91, 0x05, 0x01, // Digital port 1 = 0x85
+			(byte) 0xE3, 0x7f, 0x07, // Analog 3 = 1023
+			(byte) 0xF9, 0x02, 0x05, // Protocol version 2.5
+			(byte) 0xF0, 0x71, 0x41, 0x00, 0x42, 0x00, (byte) 0xF7, // String data "AB"
+			0x10, // Unrecognised
+			(byte) 0xE0, 0x01, // Incomplete analog report...
+			(byte) 0x90, 0x7f, 0x00, // ...interrupted by a digital report
+	};
+
+	@Test
+	public void parseWhole() {
+		RecordingListener listener = new RecordingListener();
+		new FirmataParser(listener).parse(STREAM, 0, STREAM.length);
+		assertEvents(listener);
+	}
+
+	@Test
+	public void parseSplit() {
+		// Every possible split point must give the same result
+		for (int split = 1; split < STREAM.length; split++) {
+			RecordingListener listener = new RecordingListener();
+			FirmataParser parser = new FirmataParser(listener);
+			parser.parse(STREAM, 0, split);
+			parser.parse(STREAM, split, STREAM.length - split);
+			assertEvents(listener);
+		}
+	}
+
+	@Test
+	public void parseLargeSysEx() {
+		RecordingListener listener = new RecordingListener();
+		FirmataParser parser = new FirmataParser(listener);
+		byte[] data = new byte[1000];
+		data[0] = FirmataProtocol.START_SYSEX;
+		data[1] = FirmataProtocol.I2C_REPLY;
+		for (int i = 2; i < data.length - 1; i++) {
+			data[i] = (byte) (i & 0x7f);
+		}
+		data[data.length - 1] = FirmataProtocol.END_SYSEX;
+		for (int i = 0; i < data.length; i++) {
+			parser.parse(data, i, 1);
+		}
+		Assertions.assertEquals(1, listener.events.size());
+		Assertions.assertEquals("sysex " + FirmataProtocol.I2C_REPLY + " " + (data.length - 3), listener.events.get(0));
+	}
+
+	private static void assertEvents(RecordingListener listener) {
+		Assertions.assertEquals(List.of("digital 1 133", "analog 3 1023", "version 2.5", "sysex 113 4", "unrecognised 16",
+				"digital 0 127"), listener.events);
+	}
+
+	private static class RecordingListener implements FirmataParser.Listener {
+		List<String> events = new ArrayList<>();
+
+		RecordingListener() {
+		}
+
+		@Override
+		public void digitalReport(int port, int value) {
+			events.add("digital " + port + " " + value);
+		}
+
+		@Override
+		public void analogReport(int adc, int value) {
+			events.add("analog " + adc + " " + value);
+		}
+
+		@Override
+		public void protocolVersion(byte major, byte minor) {
+			events.add("version " + major + "." + minor);
+		}
+
+		@Override
+		public void sysEx(byte command, ByteBuffer data) {
+			events.add("sysex " + command + " " + data.remaining());
+		}
+
+		@Override
+		public void unrecognised(byte b) {
+			events.add("unrecognised " + b);
+		}
+	}
+}
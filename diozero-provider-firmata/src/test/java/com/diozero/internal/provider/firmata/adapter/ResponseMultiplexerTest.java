@@ -0,0 +1,113 @@
+package com.diozero.internal.provider.firmata.adapter;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Firmata
+ * Filename:     ResponseMultiplexerTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.diozero.api.RuntimeIOException;
+import com.diozero.internal.provider.firmata.adapter.FirmataAdapter.FirmataErrorMessage;
+import com.diozero.internal.provider.firmata.adapter.FirmataAdapter.I2CResponse;
+import com.diozero.internal.provider.firmata.adapter.FirmataAdapter.StringDataResponse;
+
+@SuppressWarnings("static-method")
+public class ResponseMultiplexerTest {
+	@Test
+	public void outOfOrderI2CResponses() throws Exception {
+		ResponseMultiplexer mux = new ResponseMultiplexer();
+		CompletableFuture<I2CResponse> f1 = mux.register(I2CResponse.class, ResponseMultiplexer.i2cCorrelation(0x40, 1));
+		CompletableFuture<I2CResponse> f2 = mux.register(I2CResponse.class, ResponseMultiplexer.i2cCorrelation(0x41, 1));
+		CompletableFuture<I2CResponse> f3 = mux.register(I2CResponse.class, ResponseMultiplexer.i2cCorrelation(0x40, 2));
+		Assertions.assertEquals(3, mux.getOutstandingCount());
+
+		Assertions.assertTrue(mux.complete(new I2CResponse(0x40, 2, new byte[] { 3 })));
+		Assertions.assertTrue(mux.complete(new I2CResponse(0x41, 1, new byte[] { 2 })));
+		Assertions.assertFalse(f1.isDone());
+		Assertions.assertTrue(mux.complete(new I2CResponse(0x40, 1, new byte[] { 1 })));
+
+		Assertions.assertEquals(1, f1.get().getData()[0]);
+		Assertions.assertEquals(2, f2.get().getData()[0]);
+		Assertions.assertEquals(3, f3.get().getData()[0]);
+		Assertions.assertEquals(0, mux.getOutstandingCount());
+
+		// Unsolicited response
+		Assertions.assertFalse(mux.complete(new I2CResponse(0x40, 1, new byte[0])));
+	}
+
+	@Test
+	public void i2cReadWithoutRegister() throws Exception {
+		ResponseMultiplexer mux = new ResponseMultiplexer();
+		CompletableFuture<I2CResponse> f1 = mux.register(I2CResponse.class, ResponseMultiplexer.i2cCorrelation(0x40));
+		CompletableFuture<I2CResponse> f2 = mux.register(I2CResponse.class, ResponseMultiplexer.i2cCorrelation(0x40));
+
+		Assertions.assertTrue(mux.complete(new I2CResponse(0x40, 0, new byte[] { 1 })));
+		Assertions.assertTrue(f1.isDone());
+		Assertions.assertFalse(f2.isDone());
+		Assertions.assertTrue(mux.complete(new I2CResponse(0x40, 0, new byte[] { 2 })));
+		Assertions.assertEquals(2, f2.get().getData()[0]);
+	}
+
+	@Test
+	public void unhandledSysexFailsOldestRequest() {
+		ResponseMultiplexer mux = new ResponseMultiplexer();
+		CompletableFuture<I2CResponse> f1 = mux.register(I2CResponse.class, ResponseMultiplexer.i2cCorrelation(0x41));
+		CompletableFuture<I2CResponse> f2 = mux.register(I2CResponse.class, ResponseMultiplexer.i2cCorrelation(0x40));
+
+		Assertions.assertTrue(mux.complete(new StringDataResponse(ResponseMultiplexer.UNHANDLED_SYSEX_COMMAND)));
+		ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> f1.get());
+		Assertions.assertTrue(e.getCause() instanceof FirmataErrorMessage);
+		Assertions.assertFalse(f2.isDone());
+
+		// Not an error and nobody is waiting for string data
+		Assertions.assertFalse(mux.complete(new StringDataResponse("Hello")));
+	}
+
+	@Test
+	public void failAll() {
+		ResponseMultiplexer mux = new ResponseMultiplexer();
+		CompletableFuture<I2CResponse> f1 = mux.register(I2CResponse.class, ResponseMultiplexer.i2cCorrelation(0x40));
+		CompletableFuture<StringDataResponse> f2 = mux.register(StringDataResponse.class,
+				ResponseMultiplexer.NO_CORRELATION);
+		CompletableFuture<I2CResponse> f3 = mux.register(I2CResponse.class, ResponseMultiplexer.i2cCorrelation(0x41));
+		mux.cancel(f3);
+		Assertions.assertEquals(2, mux.getOutstandingCount());
+
+		mux.failAll(new RuntimeIOException("Closed"));
+		Assertions.assertTrue(f1.isCompletedExceptionally());
+		Assertions.assertTrue(f2.isCompletedExceptionally());
+		Assertions.assertFalse(f3.isDone());
+		Assertions.assertEquals(0, mux.getOutstandingCount());
+	}
+}
@@ -42,6 +42,7 @@ import com.diozero.api.SerialConstants.DataBits;
 import com.diozero.api.SerialConstants.Parity;
 import com.diozero.api.SerialConstants.StopBits;
 import com.diozero.devices.PCA9685;
+import com.diozero.internal.board.GenericLinuxArmBoardInfo;
 import com.diozero.internal.provider.mock.devices.MockPca9685;
 import com.diozero.internal.spi.*;
 import com.diozero.sbc.BoardInfo;
@@ -300,7 +301,16 @@ public class MockDeviceFactory extends BaseNativeDeviceFactory {
 	@Override
 	public InternalSpiDeviceInterface createSpiDevice(String key, int controller, int chipSelect, int frequency,
 			SpiClockMode spiClockMode, boolean lsbFirst) throws RuntimeIOException {
-		throw new UnsupportedOperationException("Not yet implemented");
+		try {
+			return spiDeviceClass
+					.orElseThrow(() -> new UnsupportedOperationException("SPI implementation class hasn't been set"))
+					.getConstructor(String.class, MockDeviceFactory.class, int.class, int.class, int.class,
+							SpiClockMode.class, boolean.class)
+					.newInstance(key, this, Integer.valueOf(controller), Integer.valueOf(chipSelect),
+							Integer.valueOf(frequency), spiClockMode, Boolean.valueOf(lsbFirst));
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
 	}
 
 	@Override
@@ -310,7 +320,16 @@ public class MockDeviceFactory extends BaseNativeDeviceFactory {
 		case PCA9685.DEFAULT_ADDRESS:
 			return new MockPca9685(key);
 		default:
-			throw new UnsupportedOperationException("Not yet implemented");
+			try {
+				return i2cDeviceClass
+						.orElseThrow(
+								() -> new UnsupportedOperationException("I2C implementation class hasn't been set"))
+						.getConstructor(String.class, MockDeviceFactory.class, int.class, int.class,
+								AddressSize.class)
+						.newInstance(key, this, Integer.valueOf(controller), Integer.valueOf(address), addressSize);
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
 		}
 	}
 
@@ -321,15 +340,11 @@ public class MockDeviceFactory extends BaseNativeDeviceFactory {
 		throw new UnsupportedOperationException("Not yet implemented");
 	}
 
-	private static class MockBoardInfo extends BoardInfo {
+	private static class MockBoardInfo extends GenericLinuxArmBoardInfo {
 		public MockBoardInfo(Properties props) {
-			super(props.getProperty("Make"), props.getProperty("Model"),Integer.parseInt(props.getProperty("Memory")),
-				  "mock","1.0");
-		}
-
-		@Override
-		public void populateBoardPinInfo() {
-
+			// Pin definitions are loaded from /boarddefs/mockboard.txt
+			super(props.getProperty("Make"), props.getProperty("Model"), props.getProperty("SoC"),
+					Integer.parseInt(props.getProperty("Memory")), List.of("mockboard"));
 		}
 	}
 
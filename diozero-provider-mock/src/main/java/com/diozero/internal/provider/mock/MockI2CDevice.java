@@ -0,0 +1,216 @@
+package com.diozero.internal.provider.mock;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Mock provider
+ * Filename:     MockI2CDevice.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.tinylog.Logger;
+
+import com.diozero.api.I2CConstants;
+import com.diozero.api.I2CDevice.ProbeMode;
+import com.diozero.api.RuntimeIOException;
+import com.diozero.internal.spi.AbstractDevice;
+import com.diozero.internal.spi.InternalI2CDeviceInterface;
+
+/**
+ * Generic I2C device with a 256 byte register file. The register pointer is
+ * set by the first byte of any write and auto-increments on every subsequent
+ * byte read or written, as is the case for the majority of I2C sensors.
+ */
+public class MockI2CDevice extends AbstractDevice implements InternalI2CDeviceInterface {
+	private static final int NUM_REGISTERS = 256;
+
+	private final int controller;
+	private final int address;
+	private final byte[] registers;
+	private int pointer;
+
+	public MockI2CDevice(String key, MockDeviceFactory deviceFactory, int controller, int address,
+			I2CConstants.AddressSize addressSize) {
+		super(key, deviceFactory);
+
+		this.controller = controller;
+		this.address = address;
+		registers = new byte[NUM_REGISTERS];
+	}
+
+	public int getController() {
+		return controller;
+	}
+
+	public int getAddress() {
+		return address;
+	}
+
+	@Override
+	protected void closeDevice() throws RuntimeIOException {
+		Logger.trace("closeDevice() {}", getKey());
+	}
+
+	@Override
+	public boolean probe(ProbeMode mode) throws RuntimeIOException {
+		return true;
+	}
+
+	@Override
+	public void writeQuick(byte bit) throws RuntimeIOException {
+		Logger.trace("writeQuick({})", Byte.valueOf(bit));
+	}
+
+	@Override
+	public byte readByte() throws RuntimeIOException {
+		return next();
+	}
+
+	@Override
+	public void writeByte(byte data) throws RuntimeIOException {
+		pointer = data & 0xff;
+	}
+
+	@Override
+	public byte readByteData(int register) throws RuntimeIOException {
+		Logger.trace("readByteData({})", Integer.valueOf(register));
+		return registers[register & 0xff];
+	}
+
+	@Override
+	public void writeByteData(int register, byte data) throws RuntimeIOException {
+		Logger.trace("writeByteData({}, {})", Integer.valueOf(register), Byte.valueOf(data));
+		registers[register & 0xff] = data;
+	}
+
+	@Override
+	public short readWordData(int register) throws RuntimeIOException {
+		// SMBus word data is little endian
+		return (short) ((registers[register & 0xff] & 0xff) | (registers[(register + 1) & 0xff] << 8));
+	}
+
+	@Override
+	public void writeWordData(int register, short data) throws RuntimeIOException {
+		registers[register & 0xff] = (byte) data;
+		registers[(register + 1) & 0xff] = (byte) (data >> 8);
+	}
+
+	@Override
+	public short processCall(int register, short data) throws RuntimeIOException {
+		writeWordData(register, data);
+		return readWordData(register);
+	}
+
+	@Override
+	public byte[] readBlockData(int register) throws RuntimeIOException {
+		int length = Math.min(registers[register & 0xff] & 0xff, MAX_I2C_BLOCK_SIZE);
+		byte[] data = new byte[length];
+		pointer = (register + 1) & 0xff;
+		for (int i = 0; i < length; i++) {
+			data[i] = next();
+		}
+		return data;
+	}
+
+	@Override
+	public void writeBlockData(int register, byte... data) throws RuntimeIOException {
+		registers[register & 0xff] = (byte) data.length;
+		pointer = (register + 1) & 0xff;
+		for (byte b : data) {
+			put(b);
+		}
+	}
+
+	@Override
+	public byte[] blockProcessCall(int register, byte... txData) throws RuntimeIOException {
+		writeBlockData(register, txData);
+		return readBlockData(register);
+	}
+
+	@Override
+	public int readI2CBlockData(int register, byte[] buffer) throws RuntimeIOException {
+		pointer = register & 0xff;
+		for (int i = 0; i < buffer.length; i++) {
+			buffer[i] = next();
+		}
+		return buffer.length;
+	}
+
+	@Override
+	public void writeI2CBlockData(int register, byte... data) throws RuntimeIOException {
+		pointer = register & 0xff;
+		for (byte b : data) {
+			put(b);
+		}
+	}
+
+	@Override
+	public int readBytes(byte[] buffer) throws RuntimeIOException {
+		for (int i = 0; i < buffer.length; i++) {
+			buffer[i] = next();
+		}
+		return buffer.length;
+	}
+
+	@Override
+	public void writeBytes(byte... data) throws RuntimeIOException {
+		if (data.length == 0) {
+			return;
+		}
+		pointer = data[0] & 0xff;
+		for (int i = 1; i < data.length; i++) {
+			put(data[i]);
+		}
+	}
+
+	@Override
+	public void readWrite(I2CMessage[] messages, byte[] buffer) {
+		int buffer_pos = 0;
+		for (I2CMessage message : messages) {
+			if (message.isRead()) {
+				for (int i = 0; i < message.getLength(); i++) {
+					buffer[buffer_pos++] = next();
+				}
+			} else if (message.getLength() > 0) {
+				pointer = buffer[buffer_pos++] & 0xff;
+				for (int i = 1; i < message.getLength(); i++) {
+					put(buffer[buffer_pos++]);
+				}
+			}
+		}
+	}
+
+	private byte next() {
+		byte b = registers[pointer];
+		pointer = (pointer + 1) % NUM_REGISTERS;
+		return b;
+	}
+
+	private void put(byte b) {
+		registers[pointer] = b;
+		pointer = (pointer + 1) % NUM_REGISTERS;
+	}
+}
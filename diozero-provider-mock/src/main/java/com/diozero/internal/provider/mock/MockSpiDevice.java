@@ -0,0 +1,88 @@
+package com.diozero.internal.provider.mock;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Mock provider
+ * Filename:     MockSpiDevice.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.tinylog.Logger;
+
+import com.diozero.api.RuntimeIOException;
+import com.diozero.api.SpiClockMode;
+import com.diozero.internal.spi.AbstractDevice;
+import com.diozero.internal.spi.InternalSpiDeviceInterface;
+
+/**
+ * Loopback SPI device - {@link #writeAndRead(byte...)} returns the bytes
+ * written in the same transfer as if MOSI was wired to MISO; write-only
+ * transfers are discarded.
+ */
+public class MockSpiDevice extends AbstractDevice implements InternalSpiDeviceInterface {
+	private final int controller;
+	private final int chipSelect;
+
+	public MockSpiDevice(String key, MockDeviceFactory deviceFactory, int controller, int chipSelect, int frequency,
+			SpiClockMode spiClockMode, boolean lsbFirst) {
+		super(key, deviceFactory);
+
+		this.controller = controller;
+		this.chipSelect = chipSelect;
+	}
+
+	@Override
+	protected void closeDevice() throws RuntimeIOException {
+		Logger.trace("closeDevice() {}", getKey());
+	}
+
+	@Override
+	public int getController() {
+		return controller;
+	}
+
+	@Override
+	public int getChipSelect() {
+		return chipSelect;
+	}
+
+	@Override
+	public void write(byte... data) throws RuntimeIOException {
+		Logger.trace("write({} bytes)", Integer.valueOf(data.length));
+	}
+
+	@Override
+	public void write(byte[] data, int offset, int length) throws RuntimeIOException {
+		Logger.trace("write({} bytes)", Integer.valueOf(length));
+	}
+
+	@Override
+	public byte[] writeAndRead(byte... data) throws RuntimeIOException {
+		Logger.trace("writeAndRead({} bytes)", Integer.valueOf(data.length));
+		return data.clone();
+	}
+}
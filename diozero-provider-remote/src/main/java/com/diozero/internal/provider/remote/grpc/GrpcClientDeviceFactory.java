@@ -36,6 +36,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.tinylog.Logger;
 
@@ -81,6 +82,9 @@ import com.diozero.remote.message.protobuf.SPIServiceGrpc.SPIServiceBlockingStub
 import com.diozero.remote.message.protobuf.SerialServiceGrpc;
 import com.diozero.remote.message.protobuf.SerialServiceGrpc.SerialServiceBlockingStub;
 import com.diozero.remote.message.protobuf.Status;
+import com.diozero.remote.message.protobuf.Stream;
+import com.diozero.remote.message.protobuf.StreamServiceGrpc;
+import com.diozero.remote.message.protobuf.StreamServiceGrpc.StreamServiceBlockingStub;
 import com.diozero.sbc.BoardInfo;
 import com.diozero.util.DiozeroScheduler;
 import com.diozero.util.PropertyUtil;
@@ -101,10 +105,14 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 	private I2CServiceBlockingStub i2cBlockingStub;
 	private SPIServiceBlockingStub spiBlockingStub;
 	private SerialServiceBlockingStub serialBlockingStub;
+	private StreamServiceBlockingStub streamBlockingStub;
+	private GrpcClientStream stream;
 	private int boardPwmFrequency;
 	private int boardServoFrequency;
 	private int spiBufferSize;
 	private Map<Integer, Future<?>> subscriptions;
+	private Gpio.SubscribeRequest.Builder subscribeOptions;
+	private Map<Integer, EdgeCounts> edgeCounts;
 
 	public GrpcClientDeviceFactory() {
 		this(PropertyUtil.getProperty(GrpcConstants.HOST_PROPERTY_NAME).orElseThrow(
@@ -126,8 +134,21 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 		i2cBlockingStub = I2CServiceGrpc.newBlockingStub(channel);
 		spiBlockingStub = SPIServiceGrpc.newBlockingStub(channel);
 		serialBlockingStub = SerialServiceGrpc.newBlockingStub(channel);
+		streamBlockingStub = StreamServiceGrpc.newBlockingStub(channel);
+		if (PropertyUtil.getBooleanProperty(GrpcConstants.STREAMING_PROPERTY_NAME, false)) {
+			stream = new GrpcClientStream(channel);
+		}
 
 		subscriptions = new ConcurrentHashMap<>();
+		edgeCounts = new ConcurrentHashMap<>();
+		PropertyUtil.getProperty(GrpcConstants.SUBSCRIPTION_MODE_PROPERTY_NAME).ifPresent(mode -> {
+			subscribeOptions = Gpio.SubscribeRequest.newBuilder()
+					.setMode(Gpio.SubscriptionMode.valueOf(mode.trim().toUpperCase()))
+					.setBatchSize(PropertyUtil.getIntProperty(GrpcConstants.SUBSCRIPTION_BATCH_SIZE_PROPERTY_NAME, 0))
+					.setIntervalMs(PropertyUtil.getIntProperty(GrpcConstants.SUBSCRIPTION_INTERVAL_MS_PROPERTY_NAME, 0))
+					.setMaxBufferedEvents(
+							PropertyUtil.getIntProperty(GrpcConstants.SUBSCRIPTION_MAX_BUFFERED_EVENTS_PROPERTY_NAME, 0));
+		});
 	}
 
 	public String getServerHostname() {
@@ -137,6 +158,9 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 	@Override
 	public void shutdown() {
 		Logger.trace("shutdown()");
+		if (stream != null) {
+			stream.close();
+		}
 		channel.shutdown();
 	}
 
@@ -157,6 +181,33 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 		return serialBlockingStub;
 	}
 
+	/**
+	 * @return the stream for pipelined device operations, null if streaming is
+	 *         not enabled
+	 */
+	GrpcClientStream getStream() {
+		return stream;
+	}
+
+	/**
+	 * Create a transaction that is executed by the server in a single call
+	 *
+	 * @return a new empty transaction
+	 */
+	public GrpcClientTransaction transaction() {
+		return new GrpcClientTransaction(this, streamBlockingStub);
+	}
+
+	/**
+	 * Wait for any pipelined stream operations to complete, must be called before
+	 * any blocking call that depends on earlier stream operations
+	 */
+	void syncStream() {
+		if (stream != null) {
+			stream.sync();
+		}
+	}
+
 	@Override
 	protected BoardInfo lookupBoardInfo() {
 		try {
@@ -447,6 +498,10 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 	}
 
 	boolean digitalRead(int gpio) {
+		if (stream != null) {
+			return stream.call(Stream.Request.newBuilder().setDigitalRead(Gpio.Identifier.newBuilder().setGpio(gpio)))
+					.getBooleanData();
+		}
 		try {
 			BooleanResponse response = gpioBlockingStub.digitalRead(Gpio.Identifier.newBuilder().setGpio(gpio).build());
 			if (response.getStatus() != Status.OK) {
@@ -460,6 +515,11 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 	}
 
 	void digitalWrite(int gpio, boolean value) {
+		if (stream != null) {
+			stream.send(Stream.Request.newBuilder()
+					.setDigitalWrite(Gpio.BooleanMessage.newBuilder().setGpio(gpio).setValue(value)));
+			return;
+		}
 		try {
 			Response response = gpioBlockingStub
 					.digitalWrite(Gpio.BooleanMessage.newBuilder().setGpio(gpio).setValue(value).build());
@@ -472,6 +532,10 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 	}
 
 	float pwmRead(int gpio) {
+		if (stream != null) {
+			return stream.call(Stream.Request.newBuilder().setPwmRead(Gpio.Identifier.newBuilder().setGpio(gpio)))
+					.getFloatData();
+		}
 		try {
 			FloatResponse response = gpioBlockingStub.pwmRead(Gpio.Identifier.newBuilder().setGpio(gpio).build());
 			if (response.getStatus() != Status.OK) {
@@ -485,6 +549,11 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 	}
 
 	void pwmWrite(int gpio, float value) {
+		if (stream != null) {
+			stream.send(Stream.Request.newBuilder()
+					.setPwmWrite(Gpio.FloatMessage.newBuilder().setGpio(gpio).setValue(value)));
+			return;
+		}
 		try {
 			Response response = gpioBlockingStub
 					.pwmWrite(Gpio.FloatMessage.newBuilder().setGpio(gpio).setValue(value).build());
@@ -497,6 +566,10 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 	}
 
 	int servoRead(int gpio) {
+		if (stream != null) {
+			return stream.call(Stream.Request.newBuilder().setServoRead(Gpio.Identifier.newBuilder().setGpio(gpio)))
+					.getIntData();
+		}
 		try {
 			IntegerResponse response = gpioBlockingStub.servoRead(Gpio.Identifier.newBuilder().setGpio(gpio).build());
 			if (response.getStatus() != Status.OK) {
@@ -510,6 +583,11 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 	}
 
 	void servoWrite(int gpio, int value) {
+		if (stream != null) {
+			stream.send(Stream.Request.newBuilder()
+					.setServoWrite(Gpio.IntegerMessage.newBuilder().setGpio(gpio).setValue(value)));
+			return;
+		}
 		try {
 			Response response = gpioBlockingStub
 					.servoWrite(Gpio.IntegerMessage.newBuilder().setGpio(gpio).setValue(value).build());
@@ -536,6 +614,7 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 	}
 
 	void setPwmFrequency(int gpio, int frequency) {
+		syncStream();
 		try {
 			Response response = gpioBlockingStub
 					.setPwmFrequency(Gpio.IntegerMessage.newBuilder().setGpio(gpio).setValue(frequency).build());
@@ -562,6 +641,7 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 	}
 
 	void setServoFrequency(int gpio, int frequency) {
+		syncStream();
 		try {
 			Response response = gpioBlockingStub
 					.setServoFrequency(Gpio.IntegerMessage.newBuilder().setGpio(gpio).setValue(frequency).build());
@@ -574,6 +654,10 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 	}
 
 	float analogRead(int gpio) {
+		if (stream != null) {
+			return stream.call(Stream.Request.newBuilder().setAnalogRead(Gpio.Identifier.newBuilder().setGpio(gpio)))
+					.getFloatData();
+		}
 		try {
 			FloatResponse response = gpioBlockingStub.analogRead(Gpio.Identifier.newBuilder().setGpio(gpio).build());
 			if (response.getStatus() != Status.OK) {
@@ -587,6 +671,11 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 	}
 
 	void analogWrite(int gpio, float value) {
+		if (stream != null) {
+			stream.send(Stream.Request.newBuilder()
+					.setAnalogWrite(Gpio.FloatMessage.newBuilder().setGpio(gpio).setValue(value)));
+			return;
+		}
 		try {
 			Response response = gpioBlockingStub
 					.analogWrite(Gpio.FloatMessage.newBuilder().setGpio(gpio).setValue(value).build());
@@ -599,6 +688,7 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 	}
 
 	void setOutput(int gpio, boolean output) {
+		syncStream();
 		try {
 			Response response = gpioBlockingStub
 					.setOutput(Gpio.BooleanMessage.newBuilder().setGpio(gpio).setValue(output).build());
@@ -618,6 +708,11 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 			return;
 		}
 
+		if (subscribeOptions != null) {
+			subscribeWithOptions(gpio);
+			return;
+		}
+
 		Future<?> future = DiozeroScheduler.getNonDaemonInstance().submit(() -> {
 			try {
 				Iterator<Gpio.Event> it = gpioBlockingStub
@@ -640,6 +735,76 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 		subscriptions.put(Integer.valueOf(gpio), future);
 	}
 
+	private void subscribeWithOptions(int gpio) {
+		Gpio.SubscribeRequest request = subscribeOptions.clone().setGpio(gpio).build();
+		EdgeCounts counts = edgeCounts.computeIfAbsent(Integer.valueOf(gpio), k -> new EdgeCounts());
+
+		Future<?> future = DiozeroScheduler.getNonDaemonInstance().submit(() -> {
+			try {
+				Iterator<Gpio.EventBatch> it = gpioBlockingStub.subscribeWithOptions(request);
+				while (it.hasNext()) {
+					Gpio.EventBatch batch = it.next();
+					if (batch.getStatus() != Status.OK) {
+						Logger.warn("Subscription for GPIO {} failed: {}", Integer.valueOf(gpio), batch.getDetail());
+						break;
+					}
+					if (batch.getMerged() > 0) {
+						Logger.trace("{} events merged for GPIO {}", Integer.valueOf(batch.getMerged()),
+								Integer.valueOf(gpio));
+					}
+					counts.rising.addAndGet(batch.getRisingEdgeCount());
+					counts.falling.addAndGet(batch.getFallingEdgeCount());
+
+					if (request.getMode() == Gpio.SubscriptionMode.COUNT) {
+						// Just report the latest value, the server repeats it every interval
+						if (batch.getValueCount() > 0
+								&& batch.getRisingEdgeCount() + batch.getFallingEdgeCount() > 0) {
+							accept(new DigitalInputEvent(gpio, batch.getEpochTime(), batch.getNanoTime(),
+									batch.getValue(0)));
+						}
+						continue;
+					}
+					for (int i = 0; i < batch.getValueCount(); i++) {
+						long delta_ns = batch.getNanoTimeDelta(i);
+						accept(new DigitalInputEvent(gpio, batch.getEpochTime() + delta_ns / 1_000_000,
+								batch.getNanoTime() + delta_ns, batch.getValue(i)));
+					}
+				}
+			} catch (StatusRuntimeException e) {
+				Logger.error(e, "Subscribe request failed: {}", e);
+			}
+			subscriptions.remove(Integer.valueOf(gpio));
+		});
+
+		subscriptions.put(Integer.valueOf(gpio), future);
+	}
+
+	/**
+	 * Total rising edges reported by the server for the GPIO, only available if
+	 * the {@link GrpcConstants#SUBSCRIPTION_MODE_PROPERTY_NAME subscription mode}
+	 * is COUNT
+	 *
+	 * @param gpio the GPIO number
+	 * @return the total number of rising edges
+	 */
+	public long getRisingEdgeCount(int gpio) {
+		EdgeCounts counts = edgeCounts.get(Integer.valueOf(gpio));
+		return counts == null ? 0 : counts.rising.get();
+	}
+
+	/**
+	 * Total falling edges reported by the server for the GPIO, only available if
+	 * the {@link GrpcConstants#SUBSCRIPTION_MODE_PROPERTY_NAME subscription mode}
+	 * is COUNT
+	 *
+	 * @param gpio the GPIO number
+	 * @return the total number of falling edges
+	 */
+	public long getFallingEdgeCount(int gpio) {
+		EdgeCounts counts = edgeCounts.get(Integer.valueOf(gpio));
+		return counts == null ? 0 : counts.falling.get();
+	}
+
 	void unsubscribe(int gpio) {
 		Logger.trace("unsubscribe({})", Integer.valueOf(gpio));
 
@@ -661,6 +826,7 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 	}
 
 	void closeGpio(int gpio) {
+		syncStream();
 		try {
 			Response response = gpioBlockingStub.close(Gpio.Identifier.newBuilder().setGpio(gpio).build());
 			if (response.getStatus() != Status.OK) {
@@ -687,6 +853,14 @@ public class GrpcClientDeviceFactory extends BaseNativeDeviceFactory {
 		}
 	}
 
+	private static final class EdgeCounts {
+		final AtomicLong rising = new AtomicLong();
+		final AtomicLong falling = new AtomicLong();
+
+		EdgeCounts() {
+		}
+	}
+
 	static class RemoteBoardInfo extends BoardInfo {
 		private Board.BoardInfoResponse boardInfoResponse;
 
@@ -50,13 +50,16 @@ import com.diozero.remote.message.protobuf.I2C;
 import com.diozero.remote.message.protobuf.I2CServiceGrpc.I2CServiceBlockingStub;
 import com.diozero.remote.message.protobuf.Response;
 import com.diozero.remote.message.protobuf.Status;
+import com.diozero.remote.message.protobuf.Stream;
 import com.diozero.remote.message.protobuf.WordResponse;
 import com.google.protobuf.ByteString;
 
 import io.grpc.StatusRuntimeException;
 
 public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDeviceInterface {
+	private GrpcClientDeviceFactory deviceFactory;
 	private I2CServiceBlockingStub i2cBlockingStub;
+	private GrpcClientStream stream;
 	private int controller;
 	private int address;
 
@@ -64,7 +67,9 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 			I2CConstants.AddressSize addressSize) {
 		super(key, deviceFactory);
 
+		this.deviceFactory = deviceFactory;
 		i2cBlockingStub = deviceFactory.getI2CServiceStub();
+		stream = deviceFactory.getStream();
 
 		this.controller = controller;
 		this.address = address;
@@ -82,6 +87,7 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public boolean probe(ProbeMode mode) throws RuntimeIOException {
+		deviceFactory.syncStream();
 		try {
 			BooleanResponse response = i2cBlockingStub.probe(I2C.Probe.newBuilder().setController(controller)
 					.setAddress(address).setProbeMode(DiozeroProtosConverter.convert(mode)).build());
@@ -97,6 +103,7 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public void writeQuick(byte bit) {
+		deviceFactory.syncStream();
 		try {
 			Response response = i2cBlockingStub
 					.writeQuick(I2C.Bit.newBuilder().setController(controller).setAddress(address).setBit(bit).build());
@@ -110,6 +117,11 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public byte readByte() throws RuntimeIOException {
+		if (stream != null) {
+			return (byte) stream.call(Stream.Request.newBuilder()
+					.setI2CReadByte(I2C.Identifier.newBuilder().setController(controller).setAddress(address)))
+					.getIntData();
+		}
 		try {
 			ByteResponse response = i2cBlockingStub
 					.readByte(I2C.Identifier.newBuilder().setController(controller).setAddress(address).build());
@@ -125,6 +137,11 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public void writeByte(byte b) throws RuntimeIOException {
+		if (stream != null) {
+			stream.send(Stream.Request.newBuilder().setI2CWriteByte(
+					I2C.ByteMessage.newBuilder().setController(controller).setAddress(address).setData(b & 0xff)));
+			return;
+		}
 		try {
 			Response response = i2cBlockingStub.writeByte(I2C.ByteMessage.newBuilder().setController(controller)
 					.setAddress(address).setData(b & 0xff).build());
@@ -138,6 +155,11 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public byte readByteData(int register) throws RuntimeIOException {
+		if (stream != null) {
+			return (byte) stream.call(Stream.Request.newBuilder().setI2CReadByteData(
+					I2C.Register.newBuilder().setController(controller).setAddress(address).setRegister(register)))
+					.getIntData();
+		}
 		try {
 			ByteResponse response = i2cBlockingStub.readByteData(I2C.Register.newBuilder().setController(controller)
 					.setAddress(address).setRegister(register).build());
@@ -153,6 +175,11 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public void writeByteData(int register, byte b) throws RuntimeIOException {
+		if (stream != null) {
+			stream.send(Stream.Request.newBuilder().setI2CWriteByteData(I2C.RegisterAndByte.newBuilder()
+					.setController(controller).setAddress(address).setRegister(register).setData(b & 0xff)));
+			return;
+		}
 		try {
 			Response response = i2cBlockingStub.writeByteData(I2C.RegisterAndByte.newBuilder().setController(controller)
 					.setAddress(address).setRegister(register).setData(b & 0xff).build());
@@ -166,6 +193,11 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public short readWordData(int register) throws RuntimeIOException {
+		if (stream != null) {
+			return (short) stream.call(Stream.Request.newBuilder().setI2CReadWordData(
+					I2C.Register.newBuilder().setController(controller).setAddress(address).setRegister(register)))
+					.getIntData();
+		}
 		try {
 			WordResponse response = i2cBlockingStub.readWordData(I2C.Register.newBuilder().setController(controller)
 					.setAddress(address).setRegister(register).build());
@@ -181,6 +213,11 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public void writeWordData(int register, short s) throws RuntimeIOException {
+		if (stream != null) {
+			stream.send(Stream.Request.newBuilder().setI2CWriteWordData(I2C.RegisterAndWordData.newBuilder()
+					.setController(controller).setAddress(address).setRegister(register).setData(s & 0xffff)));
+			return;
+		}
 		try {
 			Response response = i2cBlockingStub.writeWordData(I2C.RegisterAndWordData.newBuilder()
 					.setController(controller).setAddress(address).setRegister(register).setData(s & 0xffff).build());
@@ -194,6 +231,7 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public short processCall(int register, short s) throws RuntimeIOException {
+		deviceFactory.syncStream();
 		try {
 			WordResponse response = i2cBlockingStub.processCall(I2C.RegisterAndWordData.newBuilder()
 					.setController(controller).setAddress(address).setRegister(register).setData(s & 0xffff).build());
@@ -209,6 +247,7 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public byte[] readBlockData(int register) throws RuntimeIOException {
+		deviceFactory.syncStream();
 		try {
 			I2C.ByteArrayWithLengthResponse response = i2cBlockingStub.readBlockData(I2C.Register.newBuilder()
 					.setController(controller).setAddress(address).setRegister(register).build());
@@ -224,6 +263,7 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public void writeBlockData(int register, byte... data) throws RuntimeIOException {
+		deviceFactory.syncStream();
 		try {
 			Response response = i2cBlockingStub
 					.writeBlockData(I2C.RegisterAndByteArray.newBuilder().setController(controller).setAddress(address)
@@ -238,6 +278,7 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public byte[] blockProcessCall(int register, byte... txData) throws RuntimeIOException {
+		deviceFactory.syncStream();
 		try {
 			BytesResponse response = i2cBlockingStub
 					.blockProcessCall(I2C.RegisterAndByteArray.newBuilder().setController(controller)
@@ -254,6 +295,14 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public int readI2CBlockData(int register, byte[] buffer) throws RuntimeIOException {
+		if (stream != null) {
+			byte[] response_data = stream.call(Stream.Request.newBuilder()
+					.setI2CReadI2CBlockData(I2C.RegisterAndNumBytes.newBuilder().setController(controller)
+							.setAddress(address).setRegister(register).setLength(buffer.length)))
+					.getBytesData().toByteArray();
+			System.arraycopy(response_data, 0, buffer, 0, response_data.length);
+			return response_data.length;
+		}
 		try {
 			BytesResponse response = i2cBlockingStub
 					.readI2CBlockData(I2C.RegisterAndNumBytes.newBuilder().setController(controller).setAddress(address)
@@ -273,6 +322,12 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public void writeI2CBlockData(int register, byte... data) throws RuntimeIOException {
+		if (stream != null) {
+			stream.send(Stream.Request.newBuilder()
+					.setI2CWriteI2CBlockData(I2C.RegisterAndByteArray.newBuilder().setController(controller)
+							.setAddress(address).setRegister(register).setData(ByteString.copyFrom(data))));
+			return;
+		}
 		try {
 			Response response = i2cBlockingStub
 					.writeI2CBlockData(I2C.RegisterAndByteArray.newBuilder().setController(controller)
@@ -287,6 +342,13 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public int readBytes(byte[] buffer) throws RuntimeIOException {
+		if (stream != null) {
+			byte[] response_data = stream.call(Stream.Request.newBuilder().setI2CReadBytes(
+					I2C.NumBytes.newBuilder().setController(controller).setAddress(address).setLength(buffer.length)))
+					.getBytesData().toByteArray();
+			System.arraycopy(response_data, 0, buffer, 0, response_data.length);
+			return response_data.length;
+		}
 		try {
 			BytesResponse response = i2cBlockingStub.readBytes(I2C.NumBytes.newBuilder().setController(controller)
 					.setAddress(address).setLength(buffer.length).build());
@@ -305,6 +367,11 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public void writeBytes(byte... data) throws RuntimeIOException {
+		if (stream != null) {
+			stream.send(Stream.Request.newBuilder().setI2CWriteBytes(I2C.ByteArray.newBuilder()
+					.setController(controller).setAddress(address).setData(ByteString.copyFrom(data))));
+			return;
+		}
 		try {
 			Response response = i2cBlockingStub.writeBytes(I2C.ByteArray.newBuilder().setController(controller)
 					.setAddress(address).setData(ByteString.copyFrom(data)).build());
@@ -318,6 +385,7 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 
 	@Override
 	public void readWrite(I2CDeviceInterface.I2CMessage[] messages, byte[] buffer) {
+		deviceFactory.syncStream();
 		try {
 			I2C.ReadWrite.Builder request_builder = I2C.ReadWrite.newBuilder().setController(controller)
 					.setAddress(address);
@@ -364,6 +432,7 @@ public class GrpcClientI2CDevice extends AbstractDevice implements InternalI2CDe
 	@Override
 	protected void closeDevice() throws RuntimeIOException {
 		Logger.trace("closeDevice() {}", getKey());
+		deviceFactory.syncStream();
 		try {
 			Response response = i2cBlockingStub
 					.close(I2C.Identifier.newBuilder().setController(controller).setAddress(address).build());
@@ -43,12 +43,15 @@ import com.diozero.remote.message.protobuf.Response;
 import com.diozero.remote.message.protobuf.SPI;
 import com.diozero.remote.message.protobuf.SPIServiceGrpc.SPIServiceBlockingStub;
 import com.diozero.remote.message.protobuf.Status;
+import com.diozero.remote.message.protobuf.Stream;
 import com.google.protobuf.ByteString;
 
 import io.grpc.StatusRuntimeException;
 
 public class GrpcClientSpiDevice extends AbstractDevice implements InternalSpiDeviceInterface {
+	private GrpcClientDeviceFactory deviceFactory;
 	private SPIServiceBlockingStub spiBlockingStub;
+	private GrpcClientStream stream;
 	private int controller;
 	private int chipSelect;
 
@@ -56,7 +59,9 @@ public class GrpcClientSpiDevice extends AbstractDevice implements InternalSpiDe
 			int frequency, SpiClockMode spiClockMode, boolean lsbFirst) {
 		super(key, deviceFactory);
 
+		this.deviceFactory = deviceFactory;
 		spiBlockingStub = deviceFactory.getSpiServiceStub();
+		stream = deviceFactory.getStream();
 
 		this.controller = controller;
 		this.chipSelect = chipSelect;
@@ -90,6 +95,11 @@ public class GrpcClientSpiDevice extends AbstractDevice implements InternalSpiDe
 
 	@Override
 	public void write(byte[] txBuffer, int txOffset, int length) {
+		if (stream != null) {
+			stream.send(Stream.Request.newBuilder().setSpiWrite(SPI.ByteArray.newBuilder().setController(controller)
+					.setChipSelect(chipSelect).setTxData(ByteString.copyFrom(txBuffer, txOffset, length))));
+			return;
+		}
 		try {
 			byte[] data = new byte[length];
 			System.arraycopy(txBuffer, txOffset, data, 0, length);
@@ -105,6 +115,12 @@ public class GrpcClientSpiDevice extends AbstractDevice implements InternalSpiDe
 
 	@Override
 	public byte[] writeAndRead(byte... txBuffer) throws RuntimeIOException {
+		if (stream != null) {
+			return stream
+					.call(Stream.Request.newBuilder().setSpiWriteAndRead(SPI.ByteArray.newBuilder()
+							.setController(controller).setChipSelect(chipSelect).setTxData(ByteString.copyFrom(txBuffer))))
+					.getBytesData().toByteArray();
+		}
 		try {
 			BytesResponse response = spiBlockingStub.writeAndRead(SPI.ByteArray.newBuilder().setController(controller)
 					.setChipSelect(chipSelect).setTxData(ByteString.copyFrom(txBuffer)).build());
@@ -121,6 +137,7 @@ public class GrpcClientSpiDevice extends AbstractDevice implements InternalSpiDe
 	@Override
 	protected void closeDevice() throws RuntimeIOException {
 		Logger.trace("closeDevice() {}", getKey());
+		deviceFactory.syncStream();
 		try {
 			Response response = spiBlockingStub
 					.close(SPI.Identifier.newBuilder().setController(controller).setChipSelect(chipSelect).build());
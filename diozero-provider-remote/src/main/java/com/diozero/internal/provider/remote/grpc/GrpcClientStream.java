@@ -0,0 +1,315 @@
+package com.diozero.internal.provider.remote.grpc;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Remote Provider
+ * Filename:     GrpcClientStream.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.tinylog.Logger;
+
+import com.diozero.api.RuntimeIOException;
+import com.diozero.remote.message.protobuf.Status;
+import com.diozero.remote.message.protobuf.Stream;
+import com.diozero.remote.message.protobuf.StreamServiceGrpc;
+import com.diozero.remote.message.protobuf.StreamServiceGrpc.StreamServiceStub;
+
+import io.grpc.Channel;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * <p>
+ * Client side of the bidirectional {@link StreamServiceGrpc StreamService}.
+ * Each request is assigned a sequence number. The server executes requests in
+ * the order they are sent, and only responds when a response is required or
+ * the operation fails.
+ * </p>
+ * <p>
+ * Writes are pipelined and do not wait for the server. A failed pipelined
+ * write is reported by the next operation on this stream. Reads wait for their
+ * response, and because requests are executed in order, a completed read also
+ * means all earlier writes have been executed. Several reads can be sent in a
+ * single message with {@link #callAll(List)}.
+ * </p>
+ * <p>
+ * Sending blocks while the transport isn't ready for more messages, so a
+ * client that sends faster than the server executes cannot buffer an unbounded
+ * number of messages.
+ * </p>
+ * <p>
+ * The stream is opened on first use and re-opened after a transport error.
+ * </p>
+ */
+public class GrpcClientStream implements AutoCloseable {
+	private final StreamServiceStub asyncStub;
+	private final Map<Long, CompletableFuture<Stream.Response>> pending;
+	private final Object lock;
+	// All guarded by lock
+	private ClientCallStreamObserver<Stream.Requests> requestObserver;
+	private long nextSequence;
+	private boolean unsynced;
+	private volatile RuntimeIOException pipelineError;
+
+	public GrpcClientStream(Channel channel) {
+		asyncStub = StreamServiceGrpc.newStub(channel);
+		pending = new ConcurrentHashMap<>();
+		lock = new Object();
+	}
+
+	/**
+	 * Send a pipelined request without waiting for it to be executed
+	 *
+	 * @param request the request, the sequence number is assigned by this method
+	 * @throws RuntimeIOException if an earlier pipelined request failed
+	 */
+	public void send(Stream.Request.Builder request) throws RuntimeIOException {
+		checkPipelineError();
+		synchronized (lock) {
+			StreamObserver<Stream.Requests> observer = awaitReady();
+			request.setSequence(nextSequence++).setResponseRequired(false);
+			observer.onNext(Stream.Requests.newBuilder().addRequest(request).build());
+			unsynced = true;
+		}
+	}
+
+	/**
+	 * Send a request and wait for the response
+	 *
+	 * @param request the request, the sequence number is assigned by this method
+	 * @return the response
+	 * @throws RuntimeIOException if this or an earlier pipelined request failed
+	 */
+	public Stream.Response call(Stream.Request.Builder request) throws RuntimeIOException {
+		return checkResponse(await(submit(List.of(request)).get(0)));
+	}
+
+	/**
+	 * Send several requests in a single message and wait for all responses
+	 *
+	 * @param requests the requests, the sequence numbers are assigned by this
+	 *                 method
+	 * @return the responses, in the same order as the requests
+	 * @throws RuntimeIOException if any of the requests or an earlier pipelined
+	 *                            request failed
+	 */
+	public List<Stream.Response> callAll(List<Stream.Request.Builder> requests) throws RuntimeIOException {
+		List<CompletableFuture<Stream.Response>> futures = submit(requests);
+		List<Stream.Response> responses = new ArrayList<>(futures.size());
+		for (CompletableFuture<Stream.Response> future : futures) {
+			responses.add(await(future));
+		}
+		for (Stream.Response response : responses) {
+			checkResponse(response);
+		}
+		return responses;
+	}
+
+	/**
+	 * Send requests in a single message without waiting for the responses
+	 *
+	 * @param requests the requests, the sequence numbers are assigned by this
+	 *                 method
+	 * @return futures that complete with the responses, in the same order as the
+	 *         requests
+	 * @throws RuntimeIOException if an earlier pipelined request failed
+	 */
+	public List<CompletableFuture<Stream.Response>> submit(List<Stream.Request.Builder> requests)
+			throws RuntimeIOException {
+		checkPipelineError();
+		List<CompletableFuture<Stream.Response>> futures = new ArrayList<>(requests.size());
+		synchronized (lock) {
+			StreamObserver<Stream.Requests> observer = awaitReady();
+			Stream.Requests.Builder builder = Stream.Requests.newBuilder();
+			for (Stream.Request.Builder request : requests) {
+				long sequence = nextSequence++;
+				CompletableFuture<Stream.Response> future = new CompletableFuture<>();
+				pending.put(Long.valueOf(sequence), future);
+				futures.add(future);
+				builder.addRequest(request.setSequence(sequence).setResponseRequired(true));
+			}
+			observer.onNext(builder.build());
+			unsynced = false;
+		}
+		return futures;
+	}
+
+	/**
+	 * Wait until all pipelined requests have been executed by the server
+	 *
+	 * @throws RuntimeIOException if a pipelined request failed
+	 */
+	public void sync() throws RuntimeIOException {
+		boolean send_barrier;
+		synchronized (lock) {
+			send_barrier = unsynced;
+		}
+		if (send_barrier) {
+			call(Stream.Request.newBuilder());
+		} else {
+			checkPipelineError();
+		}
+	}
+
+	@Override
+	public void close() {
+		synchronized (lock) {
+			if (requestObserver != null) {
+				requestObserver.onCompleted();
+				requestObserver = null;
+			}
+			lock.notifyAll();
+		}
+		failPending(new RuntimeIOException("Stream closed"));
+	}
+
+	/*
+	 * Get the request observer, opening the stream if required, waiting until the
+	 * transport is ready to accept another message. Must be called while holding
+	 * lock.
+	 */
+	private StreamObserver<Stream.Requests> awaitReady() throws RuntimeIOException {
+		while (true) {
+			if (requestObserver == null) {
+				requestObserver = (ClientCallStreamObserver<Stream.Requests>) asyncStub
+						.execute(new ResponseObserver());
+			}
+			if (requestObserver.isReady()) {
+				return requestObserver;
+			}
+			try {
+				// Woken by the on ready handler, or if the stream fails or is closed
+				lock.wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeIOException("Interrupted waiting for the stream to be ready", e);
+			}
+		}
+	}
+
+	private void checkPipelineError() throws RuntimeIOException {
+		RuntimeIOException e = pipelineError;
+		if (e != null) {
+			pipelineError = null;
+			throw e;
+		}
+	}
+
+	private Stream.Response checkResponse(Stream.Response response) throws RuntimeIOException {
+		checkPipelineError();
+		if (response.getStatus() != Status.OK) {
+			throw new RuntimeIOException("Error in stream request: " + response.getDetail());
+		}
+		return response;
+	}
+
+	private static Stream.Response await(CompletableFuture<Stream.Response> future) throws RuntimeIOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeIOException("Interrupted waiting for stream response", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeIOException) {
+				throw (RuntimeIOException) e.getCause();
+			}
+			throw new RuntimeIOException(e.getCause());
+		}
+	}
+
+	private void failPending(RuntimeIOException e) {
+		for (Long sequence : pending.keySet()) {
+			CompletableFuture<Stream.Response> future = pending.remove(sequence);
+			if (future != null) {
+				future.completeExceptionally(e);
+			}
+		}
+	}
+
+	private class ResponseObserver implements ClientResponseObserver<Stream.Requests, Stream.Responses> {
+		ResponseObserver() {
+		}
+
+		@Override
+		public void beforeStart(ClientCallStreamObserver<Stream.Requests> requestStream) {
+			requestStream.setOnReadyHandler(() -> {
+				synchronized (lock) {
+					lock.notifyAll();
+				}
+			});
+		}
+
+		@Override
+		public void onNext(Stream.Responses responses) {
+			for (Stream.Response response : responses.getResponseList()) {
+				CompletableFuture<Stream.Response> future = pending.remove(Long.valueOf(response.getSequence()));
+				if (future != null) {
+					future.complete(response);
+				} else {
+					// A pipelined request failed
+					Logger.warn("Stream request {} failed: {}", Long.valueOf(response.getSequence()),
+							response.getDetail());
+					if (pipelineError == null) {
+						pipelineError = new RuntimeIOException(
+								"Error in pipelined stream request " + response.getSequence() + ": " + response.getDetail());
+					}
+				}
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			Logger.error(t, "Stream error: {}", t);
+			RuntimeIOException e = new RuntimeIOException("Stream error: " + t, t);
+			synchronized (lock) {
+				// Re-open the stream on next use
+				requestObserver = null;
+				if (unsynced) {
+					// Pipelined requests may not have been executed
+					pipelineError = e;
+					unsynced = false;
+				}
+				lock.notifyAll();
+			}
+			failPending(e);
+		}
+
+		@Override
+		public void onCompleted() {
+			Logger.debug("Stream completed");
+		}
+	}
+}
@@ -0,0 +1,306 @@
+package com.diozero.internal.provider.remote.grpc;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Remote Provider
+ * Filename:     GrpcClientTransaction.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.diozero.api.RuntimeIOException;
+import com.diozero.remote.message.protobuf.Gpio;
+import com.diozero.remote.message.protobuf.I2C;
+import com.diozero.remote.message.protobuf.SPI;
+import com.diozero.remote.message.protobuf.Status;
+import com.diozero.remote.message.protobuf.Stream;
+import com.diozero.remote.message.protobuf.StreamServiceGrpc.StreamServiceBlockingStub;
+import com.diozero.remote.message.protobuf.Transaction;
+import com.google.protobuf.ByteString;
+
+import io.grpc.StatusRuntimeException;
+
+/**
+ * <p>
+ * A fixed sequence of GPIO, I2C and SPI operations that the remote server runs
+ * in a single call. The sequence can include waits for a register bit or GPIO
+ * value. Only the results of the read operations come back, in one response.
+ * A sequence such as "write config register, wait for data ready, read 6
+ * bytes" therefore takes one network round trip instead of one per operation.
+ * </p>
+ *
+ * <pre>
+ * GrpcClientTransaction txn = factory.transaction().i2cWriteByteData(1, 0x76, 0xf4, 0x25)
+ * 		.pollI2CRegister(1, 0x76, 0xf3, 0x08, 0x00, 100, 50).i2cReadI2CBlockData(1, 0x76, 0xf7, 6);
+ * GrpcClientTransaction.Result result = txn.execute();
+ * byte[] data = result.getBytes(2, 6);
+ * </pre>
+ *
+ * <p>
+ * Read results are packed in order into a single buffer. Booleans and bytes
+ * take 1 byte. Words take 2 bytes and servo pulse widths 4 bytes, both LSB
+ * first. Floats take 4 bytes (IEEE 754, LSB first). Byte arrays are copied
+ * unchanged. Transactions can be executed repeatedly.
+ * </p>
+ */
+public class GrpcClientTransaction {
+	private final GrpcClientDeviceFactory deviceFactory;
+	private final StreamServiceBlockingStub blockingStub;
+	private final Transaction.Request.Builder builder;
+
+	GrpcClientTransaction(GrpcClientDeviceFactory deviceFactory, StreamServiceBlockingStub blockingStub) {
+		this.deviceFactory = deviceFactory;
+		this.blockingStub = blockingStub;
+		builder = Transaction.Request.newBuilder();
+	}
+
+	public GrpcClientTransaction digitalWrite(int gpio, boolean value) {
+		return add(Stream.Request.newBuilder()
+				.setDigitalWrite(Gpio.BooleanMessage.newBuilder().setGpio(gpio).setValue(value)));
+	}
+
+	public GrpcClientTransaction digitalRead(int gpio) {
+		return add(Stream.Request.newBuilder().setDigitalRead(Gpio.Identifier.newBuilder().setGpio(gpio)));
+	}
+
+	public GrpcClientTransaction analogRead(int gpio) {
+		return add(Stream.Request.newBuilder().setAnalogRead(Gpio.Identifier.newBuilder().setGpio(gpio)));
+	}
+
+	public GrpcClientTransaction i2cWriteByteData(int controller, int address, int register, int value) {
+		return add(Stream.Request.newBuilder().setI2CWriteByteData(I2C.RegisterAndByte.newBuilder()
+				.setController(controller).setAddress(address).setRegister(register).setData(value & 0xff)));
+	}
+
+	public GrpcClientTransaction i2cReadByteData(int controller, int address, int register) {
+		return add(Stream.Request.newBuilder().setI2CReadByteData(
+				I2C.Register.newBuilder().setController(controller).setAddress(address).setRegister(register)));
+	}
+
+	public GrpcClientTransaction i2cReadWordData(int controller, int address, int register) {
+		return add(Stream.Request.newBuilder().setI2CReadWordData(
+				I2C.Register.newBuilder().setController(controller).setAddress(address).setRegister(register)));
+	}
+
+	public GrpcClientTransaction i2cWriteI2CBlockData(int controller, int address, int register, byte... data) {
+		return add(Stream.Request.newBuilder().setI2CWriteI2CBlockData(I2C.RegisterAndByteArray.newBuilder()
+				.setController(controller).setAddress(address).setRegister(register).setData(ByteString.copyFrom(data))));
+	}
+
+	public GrpcClientTransaction i2cReadI2CBlockData(int controller, int address, int register, int length) {
+		return add(Stream.Request.newBuilder().setI2CReadI2CBlockData(I2C.RegisterAndNumBytes.newBuilder()
+				.setController(controller).setAddress(address).setRegister(register).setLength(length)));
+	}
+
+	public GrpcClientTransaction i2cWriteBytes(int controller, int address, byte... data) {
+		return add(Stream.Request.newBuilder().setI2CWriteBytes(I2C.ByteArray.newBuilder().setController(controller)
+				.setAddress(address).setData(ByteString.copyFrom(data))));
+	}
+
+	public GrpcClientTransaction i2cReadBytes(int controller, int address, int length) {
+		return add(Stream.Request.newBuilder().setI2CReadBytes(
+				I2C.NumBytes.newBuilder().setController(controller).setAddress(address).setLength(length)));
+	}
+
+	public GrpcClientTransaction spiWrite(int controller, int chipSelect, byte... txData) {
+		return add(Stream.Request.newBuilder().setSpiWrite(SPI.ByteArray.newBuilder().setController(controller)
+				.setChipSelect(chipSelect).setTxData(ByteString.copyFrom(txData))));
+	}
+
+	public GrpcClientTransaction spiWriteAndRead(int controller, int chipSelect, byte... txData) {
+		return add(Stream.Request.newBuilder().setSpiWriteAndRead(SPI.ByteArray.newBuilder().setController(controller)
+				.setChipSelect(chipSelect).setTxData(ByteString.copyFrom(txData))));
+	}
+
+	/**
+	 * Read an I2C register until <code>(value &amp; mask) == expected</code>
+	 *
+	 * @param controller I2C controller
+	 * @param address    I2C device address
+	 * @param register   the register to poll
+	 * @param mask       bit mask applied to the register value
+	 * @param expected   expected value after applying the mask
+	 * @param intervalUs delay between reads in microseconds
+	 * @param timeoutMs  fail the transaction if the condition isn't met within
+	 *                   this time
+	 * @return this transaction
+	 */
+	public GrpcClientTransaction pollI2CRegister(int controller, int address, int register, int mask, int expected,
+			int intervalUs, int timeoutMs) {
+		builder.addOperation(Transaction.Operation.newBuilder()
+				.setPollI2CRegister(Transaction.PollI2CRegister.newBuilder().setController(controller)
+						.setAddress(address).setRegister(register).setMask(mask).setExpected(expected)
+						.setIntervalUs(intervalUs).setTimeoutMs(timeoutMs)));
+		return this;
+	}
+
+	/**
+	 * Read a digital input until it has the expected value
+	 *
+	 * @param gpio       the GPIO to poll
+	 * @param expected   the expected value
+	 * @param intervalUs delay between reads in microseconds
+	 * @param timeoutMs  fail the transaction if the condition isn't met within
+	 *                   this time
+	 * @return this transaction
+	 */
+	public GrpcClientTransaction pollGpio(int gpio, boolean expected, int intervalUs, int timeoutMs) {
+		builder.addOperation(Transaction.Operation.newBuilder().setPollGpio(Transaction.PollGpio.newBuilder()
+				.setGpio(gpio).setExpected(expected).setIntervalUs(intervalUs).setTimeoutMs(timeoutMs)));
+		return this;
+	}
+
+	public GrpcClientTransaction delayUs(int delayUs) {
+		builder.addOperation(
+				Transaction.Operation.newBuilder().setDelay(Transaction.Delay.newBuilder().setDelayUs(delayUs)));
+		return this;
+	}
+
+	public int getOperationCount() {
+		return builder.getOperationCount();
+	}
+
+	/**
+	 * Execute all operations on the server in a single call
+	 *
+	 * @return the results of the read operations
+	 * @throws TransactionException if any of the operations fail, includes the
+	 *                              index of the failed operation and the results
+	 *                              of the operations before it
+	 * @throws RuntimeIOException   if the transaction couldn't be sent
+	 */
+	public Result execute() throws RuntimeIOException {
+		// Must observe any pipelined stream writes
+		deviceFactory.syncStream();
+		try {
+			Transaction.Response response = blockingStub.executeTransaction(builder.build());
+			if (response.getStatus() != Status.OK) {
+				throw new TransactionException(response);
+			}
+
+			return new Result(response);
+		} catch (StatusRuntimeException e) {
+			throw new RuntimeIOException("Error in transaction: " + e, e);
+		}
+	}
+
+	private GrpcClientTransaction add(Stream.Request.Builder request) {
+		builder.addOperation(Transaction.Operation.newBuilder().setDevice(request));
+		return this;
+	}
+
+	/**
+	 * A transaction operation failed; operations after the failed operation were
+	 * not executed
+	 */
+	public static class TransactionException extends RuntimeIOException {
+		private static final long serialVersionUID = -3071824925364578310L;
+
+		private final int failedOperation;
+		private final transient Result partialResult;
+
+		TransactionException(Transaction.Response response) {
+			super("Error in transaction: " + response.getDetail());
+
+			failedOperation = response.getFailedOperation();
+			partialResult = new Result(response);
+		}
+
+		/**
+		 * @return index of the operation that failed, -1 if the failure wasn't caused
+		 *         by an operation
+		 */
+		public int getFailedOperation() {
+			return failedOperation;
+		}
+
+		/**
+		 * @return results of the operations that completed before the failure
+		 */
+		public Result getPartialResult() {
+			return partialResult;
+		}
+	}
+
+	public static class Result {
+		private final byte[] results;
+		private final Transaction.Response response;
+
+		Result(Transaction.Response response) {
+			this.response = response;
+			results = response.getResults().toByteArray();
+		}
+
+		/**
+		 * @return all read results packed in operation order
+		 */
+		public byte[] getResults() {
+			return results;
+		}
+
+		/**
+		 * @param operation the operation index
+		 * @return offset in {@link #getResults() results} for the operation's data
+		 * @throws IllegalArgumentException if the operation didn't return data
+		 */
+		public int getOffset(int operation) {
+			if (operation >= response.getResultOffsetCount()) {
+				throw new IllegalArgumentException("Operation " + operation + " wasn't executed");
+			}
+			int offset = response.getResultOffset(operation);
+			if (offset < 0) {
+				throw new IllegalArgumentException("Operation " + operation + " didn't return any data");
+			}
+			return offset;
+		}
+
+		public boolean getBoolean(int operation) {
+			return results[getOffset(operation)] != 0;
+		}
+
+		public byte getByte(int operation) {
+			return results[getOffset(operation)];
+		}
+
+		public short getWord(int operation) {
+			int offset = getOffset(operation);
+			return (short) ((results[offset] & 0xff) | (results[offset + 1] << 8));
+		}
+
+		public float getFloat(int operation) {
+			int offset = getOffset(operation);
+			int bits = (results[offset] & 0xff) | ((results[offset + 1] & 0xff) << 8)
+					| ((results[offset + 2] & 0xff) << 16) | (results[offset + 3] << 24);
+			return Float.intBitsToFloat(bits);
+		}
+
+		public byte[] getBytes(int operation, int length) {
+			byte[] data = new byte[length];
+			System.arraycopy(results, getOffset(operation), data, 0, length);
+			return data;
+		}
+	}
+}
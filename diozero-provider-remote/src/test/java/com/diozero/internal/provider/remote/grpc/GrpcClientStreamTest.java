@@ -0,0 +1,205 @@
+package com.diozero.internal.provider.remote.grpc;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Remote Provider
+ * Filename:     GrpcClientStreamTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.diozero.api.I2CDevice;
+import com.diozero.api.RuntimeIOException;
+import com.diozero.internal.provider.mock.MockDeviceFactory;
+import com.diozero.remote.message.protobuf.I2C;
+import com.diozero.remote.message.protobuf.SPI;
+import com.diozero.remote.message.protobuf.Stream;
+import com.diozero.remote.message.protobuf.StreamServiceGrpc;
+import com.diozero.remote.server.grpc.StreamServiceImpl;
+import com.google.protobuf.ByteString;
+
+import io.grpc.BindableService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Runs the streaming client against the stream service over an in-process
+ * transport, using the mock provider's I2C register file as the device.
+ */
+public class GrpcClientStreamTest {
+	private static final int CONTROLLER = 1;
+	private static final int ADDRESS = 0x50;
+
+	private MockDeviceFactory deviceFactory;
+	private Server server;
+	private ManagedChannel channel;
+
+	@BeforeEach
+	public void setup() {
+		deviceFactory = new MockDeviceFactory();
+		I2CDevice.builder(ADDRESS).setController(CONTROLLER).setDeviceFactory(deviceFactory).build();
+	}
+
+	@AfterEach
+	public void teardown() throws InterruptedException {
+		if (channel != null) {
+			channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+		}
+		if (server != null) {
+			server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+		}
+		deviceFactory.close();
+	}
+
+	@Test
+	public void pipelinedWritesAreExecutedInOrder() {
+		try (GrpcClientStream stream = new GrpcClientStream(start(new StreamServiceImpl(deviceFactory)))) {
+			for (int i = 0; i < 1024; i++) {
+				stream.send(writeByteData(ADDRESS, i % 16, i));
+			}
+
+			// Reads are executed after all of the earlier writes
+			List<Stream.Request.Builder> reads = new ArrayList<>();
+			for (int register = 0; register < 16; register++) {
+				reads.add(Stream.Request.newBuilder().setI2CReadByteData(
+						I2C.Register.newBuilder().setController(CONTROLLER).setAddress(ADDRESS).setRegister(register)));
+			}
+			List<Stream.Response> responses = stream.callAll(reads);
+			Assertions.assertEquals(16, responses.size());
+			for (int register = 0; register < 16; register++) {
+				// The last write to each register was 1008 + register
+				Assertions.assertEquals((byte) (1008 + register), (byte) responses.get(register).getIntData());
+			}
+		}
+	}
+
+	@Test
+	public void pipelinedErrorIsReportedByNextOperation() {
+		try (GrpcClientStream stream = new GrpcClientStream(start(new StreamServiceImpl(deviceFactory)))) {
+			// Not provisioned
+			stream.send(writeByteData(ADDRESS + 1, 0, 0));
+			stream.send(writeByteData(ADDRESS, 0, 0x55));
+			Assertions.assertThrows(RuntimeIOException.class, stream::sync);
+
+			// The error is only reported once and later requests still succeed
+			Stream.Response response = stream.call(Stream.Request.newBuilder().setI2CReadByteData(
+					I2C.Register.newBuilder().setController(CONTROLLER).setAddress(ADDRESS).setRegister(0)));
+			Assertions.assertEquals(0x55, response.getIntData());
+		}
+	}
+
+	@Test
+	public void sendWaitsWhileTransportIsNotReady() throws InterruptedException {
+		int num_requests = 20;
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger received = new AtomicInteger();
+		StreamServiceGrpc.StreamServiceImplBase blocking_service = new StreamServiceGrpc.StreamServiceImplBase() {
+			@Override
+			public StreamObserver<Stream.Requests> execute(StreamObserver<Stream.Responses> responseObserver) {
+				return new StreamObserver<>() {
+					@Override
+					public void onNext(Stream.Requests requests) {
+						try {
+							release.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+						received.addAndGet(requests.getRequestCount());
+					}
+
+					@Override
+					public void onError(Throwable t) {
+						// Ignore
+					}
+
+					@Override
+					public void onCompleted() {
+						responseObserver.onCompleted();
+					}
+				};
+			}
+		};
+
+		AtomicInteger sent = new AtomicInteger();
+		try (GrpcClientStream stream = new GrpcClientStream(start(blocking_service))) {
+			byte[] tx_data = new byte[64 * 1024];
+			Thread sender = new Thread(() -> {
+				for (int i = 0; i < num_requests; i++) {
+					stream.send(Stream.Request.newBuilder().setSpiWrite(
+							SPI.ByteArray.newBuilder().setController(0).setTxData(ByteString.copyFrom(tx_data))));
+					sent.incrementAndGet();
+				}
+			});
+			sender.start();
+
+			// The server isn't consuming messages so the sender must be held back
+			sender.join(500);
+			Assertions.assertTrue(sender.isAlive());
+			Assertions.assertTrue(sent.get() < num_requests, "Sent " + sent.get());
+
+			release.countDown();
+			sender.join(5000);
+			Assertions.assertFalse(sender.isAlive());
+			Assertions.assertEquals(num_requests, sent.get());
+			long deadline = System.currentTimeMillis() + 5000;
+			while (received.get() < num_requests && System.currentTimeMillis() < deadline) {
+				Thread.sleep(1);
+			}
+			Assertions.assertEquals(num_requests, received.get());
+		}
+	}
+
+	private ManagedChannel start(BindableService service) {
+		String name = InProcessServerBuilder.generateName();
+		try {
+			server = InProcessServerBuilder.forName(name).addService(service).build().start();
+		} catch (IOException e) {
+			throw new RuntimeIOException(e);
+		}
+		channel = InProcessChannelBuilder.forName(name).build();
+		return channel;
+	}
+
+	private static Stream.Request.Builder writeByteData(int address, int register, int value) {
+		return Stream.Request.newBuilder().setI2CWriteByteData(I2C.RegisterAndByte.newBuilder()
+				.setController(CONTROLLER).setAddress(address).setRegister(register).setData(value & 0xff));
+	}
+}
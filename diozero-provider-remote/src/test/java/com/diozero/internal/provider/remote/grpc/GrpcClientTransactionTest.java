@@ -0,0 +1,130 @@
+package com.diozero.internal.provider.remote.grpc;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Remote Provider
+ * Filename:     GrpcClientTransactionTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.diozero.api.I2CDevice;
+import com.diozero.internal.provider.mock.MockDeviceFactory;
+import com.diozero.internal.provider.remote.grpc.GrpcClientTransaction.TransactionException;
+import com.diozero.remote.message.protobuf.I2C;
+import com.diozero.remote.message.protobuf.Stream;
+import com.diozero.remote.message.protobuf.StreamServiceGrpc;
+import com.diozero.remote.server.grpc.StreamServiceImpl;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+
+/**
+ * Runs client transactions against the stream service over an in-process
+ * transport, using the mock provider's I2C register file as the device.
+ */
+public class GrpcClientTransactionTest {
+	private static final int CONTROLLER = 1;
+	private static final int ADDRESS = 0x50;
+
+	private MockDeviceFactory deviceFactory;
+	private Server server;
+	private ManagedChannel channel;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		deviceFactory = new MockDeviceFactory();
+		I2CDevice.builder(ADDRESS).setController(CONTROLLER).setDeviceFactory(deviceFactory).build();
+
+		String name = InProcessServerBuilder.generateName();
+		server = InProcessServerBuilder.forName(name).addService(new StreamServiceImpl(deviceFactory)).build()
+				.start();
+		channel = InProcessChannelBuilder.forName(name).build();
+	}
+
+	@AfterEach
+	public void teardown() throws InterruptedException {
+		channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+		server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+		deviceFactory.close();
+	}
+
+	@Test
+	public void failedOperationAndPartialResults() {
+		GrpcClientTransaction txn = newTransaction().i2cWriteByteData(CONTROLLER, ADDRESS, 0, 0x12)
+				.i2cReadByteData(CONTROLLER, ADDRESS, 0)
+				// Not provisioned
+				.i2cReadByteData(CONTROLLER, ADDRESS + 1, 0).i2cReadByteData(CONTROLLER, ADDRESS, 0);
+
+		TransactionException e = Assertions.assertThrows(TransactionException.class, txn::execute);
+		Assertions.assertEquals(2, e.getFailedOperation());
+		Assertions.assertEquals(0x12, e.getPartialResult().getByte(1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> e.getPartialResult().getOffset(0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> e.getPartialResult().getOffset(3));
+	}
+
+	@Test
+	public void pollHoldsExecutionLock() throws InterruptedException, ExecutionException, TimeoutException {
+		// Poll register 1 until bit 0 is set; the stream request that sets it cannot
+		// interleave with the transaction so the poll times out
+		GrpcClientTransaction txn = newTransaction().pollI2CRegister(CONTROLLER, ADDRESS, 1, 0x01, 0x01, 1_000, 300)
+				.i2cReadByteData(CONTROLLER, ADDRESS, 1);
+		CompletableFuture<GrpcClientTransaction.Result> future = CompletableFuture.supplyAsync(txn::execute);
+		Thread.sleep(50);
+		Assertions.assertFalse(future.isDone());
+
+		try (GrpcClientStream stream = new GrpcClientStream(channel)) {
+			stream.call(Stream.Request.newBuilder().setI2CWriteByteData(I2C.RegisterAndByte.newBuilder()
+					.setController(CONTROLLER).setAddress(ADDRESS).setRegister(1).setData(0x81)));
+		}
+
+		ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+				() -> future.get(1, TimeUnit.SECONDS));
+		Assertions.assertInstanceOf(TransactionException.class, e.getCause());
+		Assertions.assertEquals(0, ((TransactionException) e.getCause()).getFailedOperation());
+		Assertions.assertEquals((byte) 0x81,
+				newTransaction().i2cReadByteData(CONTROLLER, ADDRESS, 1).execute().getByte(0));
+	}
+
+	private GrpcClientTransaction newTransaction() {
+		return new GrpcClientTransaction(mock(GrpcClientDeviceFactory.class), StreamServiceGrpc.newBlockingStub(channel));
+	}
+}
@@ -35,4 +35,17 @@ public interface GrpcConstants {
 	String HOST_PROPERTY_NAME = "diozero.remote.hostname";
 	String PORT_PROPERTY_NAME = "diozero.remote.port";
 	int DEFAULT_PORT = 9090;
+	/**
+	 * Route high-rate device operations over a single bidirectional stream with
+	 * pipelined writes rather than one blocking call per operation
+	 */
+	String STREAMING_PROPERTY_NAME = "diozero.remote.streaming";
+	/**
+	 * GPIO event subscription mode (EVENTS, BATCH, COALESCE or COUNT), if not set
+	 * each event is sent individually without any flow control
+	 */
+	String SUBSCRIPTION_MODE_PROPERTY_NAME = "diozero.remote.subscription.mode";
+	String SUBSCRIPTION_BATCH_SIZE_PROPERTY_NAME = "diozero.remote.subscription.batchSize";
+	String SUBSCRIPTION_INTERVAL_MS_PROPERTY_NAME = "diozero.remote.subscription.intervalMs";
+	String SUBSCRIPTION_MAX_BUFFERED_EVENTS_PROPERTY_NAME = "diozero.remote.subscription.maxBufferedEvents";
 }
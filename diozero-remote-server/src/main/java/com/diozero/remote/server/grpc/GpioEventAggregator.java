@@ -0,0 +1,233 @@
+package com.diozero.remote.server.grpc;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Remote Server
+ * Filename:     GpioEventAggregator.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.diozero.api.DigitalInputEvent;
+import com.diozero.remote.message.protobuf.Gpio;
+import com.diozero.remote.message.protobuf.Status;
+
+import io.grpc.stub.ServerCallStreamObserver;
+
+/**
+ * Buffers GPIO events for a subscription according to the subscription mode.
+ * The buffer is bounded, so events never queue without limit while the client
+ * is slow to receive them or the transport isn't ready. When the buffer is
+ * full, new events are merged into the most recent buffered event.
+ */
+class GpioEventAggregator {
+	private static final int DEFAULT_BATCH_SIZE = 32;
+	private static final int DEFAULT_INTERVAL_MS = 100;
+	private static final int DEFAULT_MAX_BUFFERED_EVENTS = 1024;
+
+	private final int gpio;
+	private final Gpio.SubscriptionMode mode;
+	private final int batchSize;
+	private final long intervalNs;
+	private final long[] epochTimes;
+	private final long[] nanoTimes;
+	private final boolean[] values;
+	private int count;
+	private int merged;
+	private long firstBufferedNanoTime;
+	private long nextDeadline;
+	private long risingEdgeCount;
+	private long fallingEdgeCount;
+	private boolean closed;
+	private ServerCallStreamObserver<Gpio.EventBatch> observer;
+
+	GpioEventAggregator(Gpio.SubscribeRequest request) {
+		gpio = request.getGpio();
+		mode = request.getMode();
+		switch (mode) {
+		case BATCH:
+			batchSize = request.getBatchSize() > 0 ? request.getBatchSize() : DEFAULT_BATCH_SIZE;
+			break;
+		case EVENTS:
+		case COALESCE:
+		case COUNT:
+		default:
+			batchSize = 1;
+		}
+		intervalNs = (request.getIntervalMs() > 0 ? request.getIntervalMs() : DEFAULT_INTERVAL_MS) * 1_000_000L;
+		int capacity = Math.max(batchSize,
+				request.getMaxBufferedEvents() > 0 ? request.getMaxBufferedEvents() : DEFAULT_MAX_BUFFERED_EVENTS);
+		epochTimes = new long[capacity];
+		nanoTimes = new long[capacity];
+		values = new boolean[capacity];
+		nextDeadline = System.nanoTime() + intervalNs;
+	}
+
+	/**
+	 * Attach the subscription's response observer; must be called before the
+	 * subscription call returns as the transport readiness and cancellation
+	 * handlers wake up {@link #awaitBatch()}
+	 *
+	 * @param responseObserver the subscription's response observer
+	 */
+	void attach(ServerCallStreamObserver<Gpio.EventBatch> responseObserver) {
+		synchronized (this) {
+			observer = responseObserver;
+		}
+		responseObserver.setOnReadyHandler(this::wakeUp);
+		responseObserver.setOnCancelHandler(this::wakeUp);
+	}
+
+	synchronized void accept(DigitalInputEvent event) {
+		if (count == 0) {
+			// A deadline now applies
+			notifyAll();
+		}
+		switch (mode) {
+		case COUNT:
+			if (event.getValue()) {
+				risingEdgeCount++;
+			} else {
+				fallingEdgeCount++;
+			}
+			// Only the latest value is retained
+			set(0, event);
+			count = 1;
+			break;
+		case COALESCE:
+			if (count > 0) {
+				merged++;
+			}
+			set(0, event);
+			count = 1;
+			break;
+		case EVENTS:
+		case BATCH:
+		default:
+			if (count == epochTimes.length) {
+				// Full - merge into the most recent event
+				merged++;
+				set(count - 1, event);
+			} else {
+				if (count == 0) {
+					firstBufferedNanoTime = System.nanoTime();
+				}
+				set(count++, event);
+			}
+			if (count >= batchSize) {
+				notifyAll();
+			}
+		}
+	}
+
+	synchronized void close() {
+		closed = true;
+		notifyAll();
+	}
+
+	/**
+	 * Wait until the next message is due and the transport is ready to send it
+	 *
+	 * @return the next message, null if this subscription was closed or cancelled
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	synchronized Gpio.EventBatch awaitBatch() throws InterruptedException {
+		while (!closed && !observer.isCancelled()) {
+			long now = System.nanoTime();
+			long wait_ns;
+			switch (mode) {
+			case COALESCE:
+			case COUNT:
+				wait_ns = count > 0 || mode == Gpio.SubscriptionMode.COUNT ? nextDeadline - now : Long.MAX_VALUE;
+				break;
+			case EVENTS:
+			case BATCH:
+			default:
+				if (count >= batchSize) {
+					wait_ns = 0;
+				} else {
+					wait_ns = count > 0 ? firstBufferedNanoTime + intervalNs - now : Long.MAX_VALUE;
+				}
+			}
+
+			if (wait_ns <= 0) {
+				if (observer.isReady()) {
+					nextDeadline = now + intervalNs;
+					return build();
+				}
+				// Not ready - keep merging events until the on ready handler is invoked
+				wait_ns = Long.MAX_VALUE;
+			}
+
+			if (wait_ns == Long.MAX_VALUE) {
+				wait();
+			} else {
+				// Round up so that the deadline has passed when woken
+				wait((wait_ns + 999_999) / 1_000_000);
+			}
+		}
+
+		return null;
+	}
+
+	private synchronized void wakeUp() {
+		notifyAll();
+	}
+
+	private Gpio.EventBatch build() {
+		Gpio.EventBatch.Builder builder = Gpio.EventBatch.newBuilder().setGpio(gpio).setStatus(Status.OK)
+				.setMerged(merged);
+		if (count > 0) {
+			builder.setEpochTime(epochTimes[0]).setNanoTime(nanoTimes[0]);
+			if (mode == Gpio.SubscriptionMode.COUNT) {
+				builder.addValue(values[0]);
+			} else {
+				for (int i = 0; i < count; i++) {
+					builder.addNanoTimeDelta(nanoTimes[i] - nanoTimes[0]);
+					builder.addValue(values[i]);
+				}
+			}
+		}
+		if (mode == Gpio.SubscriptionMode.COUNT) {
+			builder.setRisingEdgeCount(risingEdgeCount).setFallingEdgeCount(fallingEdgeCount);
+			risingEdgeCount = 0;
+			fallingEdgeCount = 0;
+		}
+
+		if (mode != Gpio.SubscriptionMode.COUNT) {
+			count = 0;
+		}
+		merged = 0;
+
+		return builder.build();
+	}
+
+	private void set(int index, DigitalInputEvent event) {
+		epochTimes[index] = event.getEpochTime();
+		nanoTimes[index] = event.getNanoTime();
+		values[index] = event.getValue();
+	}
+}
@@ -64,11 +64,13 @@ import com.diozero.remote.message.protobuf.Response;
 import com.diozero.remote.message.protobuf.Status;
 import com.diozero.sbc.DeviceFactoryHelper;
 
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 
 public class GpioServiceImpl extends GpioServiceGrpc.GpioServiceImplBase {
 	private NativeDeviceFactoryInterface deviceFactory;
 	private Map<Integer, BlockingQueue<DigitalInputEvent>> subscriberQueues;
+	private Map<Integer, GpioEventAggregator> aggregators;
 
 	public GpioServiceImpl() {
 		this(DeviceFactoryHelper.getNativeDeviceFactory());
@@ -77,6 +79,7 @@ public class GpioServiceImpl extends GpioServiceGrpc.GpioServiceImplBase {
 	public GpioServiceImpl(NativeDeviceFactoryInterface deviceFactory) {
 		this.deviceFactory = deviceFactory;
 		subscriberQueues = new ConcurrentHashMap<>();
+		aggregators = new ConcurrentHashMap<>();
 	}
 
 	@Override
@@ -781,7 +784,7 @@ public class GpioServiceImpl extends GpioServiceGrpc.GpioServiceImplBase {
 
 		BlockingQueue<DigitalInputEvent> queue = subscriberQueues.get(Integer.valueOf(request.getGpio()));
 		// Is there already a subscriber?
-		if (queue != null) {
+		if (queue != null || aggregators.containsKey(Integer.valueOf(request.getGpio()))) {
 			Logger.warn("Already a subscriber for gpio {}", Integer.valueOf(request.getGpio()));
 
 			Gpio.Event.Builder response_builder = Gpio.Event.newBuilder().setGpio(request.getGpio());
@@ -873,6 +876,75 @@ public class GpioServiceImpl extends GpioServiceGrpc.GpioServiceImplBase {
 		responseObserver.onCompleted();
 	}
 
+	@Override
+	public void subscribeWithOptions(Gpio.SubscribeRequest request, StreamObserver<Gpio.EventBatch> responseObserver) {
+		Logger.debug("GPIO subscribe with options request {} {}", Integer.valueOf(request.getGpio()),
+				request.getMode());
+
+		Integer gpio = Integer.valueOf(request.getGpio());
+		PinInfo pin_info = deviceFactory.getBoardPinInfo().getByGpioNumberOrThrow(request.getGpio());
+		String key = deviceFactory.createPinKey(pin_info);
+		InternalDeviceInterface device = deviceFactory.getDevice(key);
+
+		Gpio.EventBatch.Builder error_builder = Gpio.EventBatch.newBuilder().setGpio(request.getGpio())
+				.setStatus(Status.ERROR);
+		if (device == null) {
+			responseObserver.onNext(error_builder.setDetail("GPIO not provisioned").build());
+			responseObserver.onCompleted();
+			return;
+		}
+		if (!(device instanceof GpioDigitalInputOutputDeviceInterface
+				|| device instanceof GpioDigitalInputDeviceInterface)) {
+			Logger.warn("Device class {} for GPIO {} does not support event listeners", device.getClass().getName(),
+					gpio);
+			responseObserver.onNext(error_builder.setDetail("GPIO does not support listeners").build());
+			responseObserver.onCompleted();
+			return;
+		}
+
+		GpioEventAggregator aggregator = new GpioEventAggregator(request);
+		if (subscriberQueues.containsKey(gpio) || aggregators.putIfAbsent(gpio, aggregator) != null) {
+			Logger.warn("Already a subscriber for gpio {}", gpio);
+			responseObserver.onNext(error_builder.setDetail("Subscriber already present").build());
+			responseObserver.onCompleted();
+			return;
+		}
+
+		// Events are merged rather than queued while the transport isn't ready
+		ServerCallStreamObserver<Gpio.EventBatch> server_observer = //
+				(ServerCallStreamObserver<Gpio.EventBatch>) responseObserver;
+		aggregator.attach(server_observer);
+		try {
+			if (device instanceof GpioDigitalInputOutputDeviceInterface) {
+				((GpioDigitalInputOutputDeviceInterface) device).setListener(aggregator::accept);
+			} else {
+				((GpioDigitalInputDeviceInterface) device).setListener(aggregator::accept);
+			}
+
+			Gpio.EventBatch batch;
+			while ((batch = aggregator.awaitBatch()) != null) {
+				server_observer.onNext(batch);
+			}
+		} catch (RuntimeIOException e) {
+			Logger.error(e, "Error: {}", e);
+			server_observer.onNext(error_builder.setDetail("Runtime Error: " + e).build());
+		} catch (InterruptedException e) {
+			Logger.error(e, "Error: {}", e);
+			server_observer.onNext(error_builder.setDetail("Interrupted: " + e).build());
+		} finally {
+			if (device instanceof GpioDigitalInputOutputDeviceInterface) {
+				((GpioDigitalInputOutputDeviceInterface) device).removeListener();
+			} else {
+				((GpioDigitalInputDeviceInterface) device).removeListener();
+			}
+			aggregators.remove(gpio, aggregator);
+		}
+
+		if (!server_observer.isCancelled()) {
+			server_observer.onCompleted();
+		}
+	}
+
 	@Override
 	public void unsubscribe(Gpio.Identifier request, StreamObserver<Response> responseObserver) {
 		Logger.debug("GPIO unsubscribe request {}", Integer.valueOf(request.getGpio()));
@@ -894,7 +966,12 @@ public class GpioServiceImpl extends GpioServiceGrpc.GpioServiceImplBase {
 			response_builder.setDetail("GPIO not provisioned");
 		} else {
 			BlockingQueue<DigitalInputEvent> queue = subscriberQueues.get(Integer.valueOf(gpio));
-			if (queue == null) {
+			GpioEventAggregator aggregator = aggregators.get(Integer.valueOf(gpio));
+			if (aggregator != null) {
+				aggregator.close();
+
+				response_builder.setStatus(Status.OK);
+			} else if (queue == null) {
 				response_builder.setStatus(Status.ERROR);
 				response_builder.setDetail("No GPIO subscription found");
 			} else {
@@ -46,7 +46,8 @@ public class GrpcServer {
 		Server server = ServerBuilder
 				.forPort(PropertyUtil.getIntProperty(GrpcConstants.PORT_PROPERTY_NAME, GrpcConstants.DEFAULT_PORT))
 				.addService(new BoardServiceImpl()).addService(new GpioServiceImpl()).addService(new I2CServiceImpl())
-				.addService(new SpiServiceImpl()).addService(new SerialServiceImpl()).build();
+				.addService(new SpiServiceImpl()).addService(new SerialServiceImpl()).addService(new StreamServiceImpl())
+				.build();
 
 		server.start();
 
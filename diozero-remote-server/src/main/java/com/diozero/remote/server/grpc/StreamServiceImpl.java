@@ -0,0 +1,422 @@
+package com.diozero.remote.server.grpc;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Remote Server
+ * Filename:     StreamServiceImpl.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+
+import org.tinylog.Logger;
+
+import com.diozero.api.PinInfo;
+import com.diozero.api.RuntimeIOException;
+import com.diozero.internal.spi.AnalogDeviceInterface;
+import com.diozero.internal.spi.AnalogOutputDeviceInterface;
+import com.diozero.internal.spi.GpioDigitalDeviceInterface;
+import com.diozero.internal.spi.GpioDigitalOutputDeviceInterface;
+import com.diozero.internal.spi.InternalDeviceInterface;
+import com.diozero.internal.spi.InternalI2CDeviceInterface;
+import com.diozero.internal.spi.InternalPwmOutputDeviceInterface;
+import com.diozero.internal.spi.InternalServoDeviceInterface;
+import com.diozero.internal.spi.InternalSpiDeviceInterface;
+import com.diozero.internal.spi.NativeDeviceFactoryInterface;
+import com.diozero.remote.message.protobuf.Gpio;
+import com.diozero.remote.message.protobuf.I2C;
+import com.diozero.remote.message.protobuf.SPI;
+import com.diozero.remote.message.protobuf.Status;
+import com.diozero.remote.message.protobuf.Stream;
+import com.diozero.remote.message.protobuf.StreamServiceGrpc;
+import com.diozero.remote.message.protobuf.Transaction;
+import com.diozero.sbc.DeviceFactoryHelper;
+import com.diozero.util.SleepUtil;
+import com.google.protobuf.ByteString;
+
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Executes pipelined device operations and transactions against the local
+ * device factory. gRPC delivers the messages for a call one at a time, so the
+ * requests on a stream are executed strictly in the order that they were sent.
+ * Transactions are executed while holding a lock that is also held for each
+ * stream request, so stream requests and other transactions cannot interleave
+ * with a transaction, including while it waits in a poll or delay operation.
+ * Those waits are capped at {@link #MAX_WAIT_MS} regardless of the timeout
+ * requested by the client so that a slow device cannot block all other clients
+ * indefinitely.
+ */
+public class StreamServiceImpl extends StreamServiceGrpc.StreamServiceImplBase {
+	// Delays shorter than this are busy waits for accuracy
+	private static final long BUSY_SLEEP_MAX_NS = 100_000;
+	/**
+	 * Maximum time in milliseconds that a single poll or delay operation can wait
+	 */
+	public static final int MAX_WAIT_MS = 10_000;
+
+	private NativeDeviceFactoryInterface deviceFactory;
+	private Object executionLock;
+
+	public StreamServiceImpl() {
+		this(DeviceFactoryHelper.getNativeDeviceFactory());
+	}
+
+	public StreamServiceImpl(NativeDeviceFactoryInterface deviceFactory) {
+		this.deviceFactory = deviceFactory;
+		executionLock = new Object();
+	}
+
+	@Override
+	public StreamObserver<Stream.Requests> execute(StreamObserver<Stream.Responses> responseObserver) {
+		Logger.debug("Stream execute request");
+
+		return new StreamObserver<>() {
+			private long lastSequence = -1;
+
+			@Override
+			public void onNext(Stream.Requests requests) {
+				Stream.Responses.Builder responses_builder = Stream.Responses.newBuilder();
+				for (Stream.Request request : requests.getRequestList()) {
+					if (request.getSequence() <= lastSequence) {
+						Logger.warn("Out of order stream request {}, last sequence {}",
+								Long.valueOf(request.getSequence()), Long.valueOf(lastSequence));
+					}
+					lastSequence = request.getSequence();
+
+					Stream.Response.Builder response_builder = Stream.Response.newBuilder()
+							.setSequence(request.getSequence());
+					try {
+						synchronized (executionLock) {
+							execute(request, response_builder);
+						}
+						response_builder.setStatus(Status.OK);
+					} catch (RuntimeException e) {
+						Logger.error(e, "Error: {}", e);
+						response_builder.setStatus(Status.ERROR);
+						response_builder.setDetail("Runtime Error: " + e);
+					}
+
+					if (request.getResponseRequired() || response_builder.getStatus() != Status.OK) {
+						responses_builder.addResponse(response_builder);
+					}
+				}
+
+				if (responses_builder.getResponseCount() > 0) {
+					responseObserver.onNext(responses_builder.build());
+				}
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				Logger.debug("Stream error: {}", t);
+			}
+
+			@Override
+			public void onCompleted() {
+				Logger.debug("Stream completed");
+				responseObserver.onCompleted();
+			}
+		};
+	}
+
+	@Override
+	public void executeTransaction(Transaction.Request request,
+			StreamObserver<Transaction.Response> responseObserver) {
+		Logger.debug("Transaction request, {} operations", Integer.valueOf(request.getOperationCount()));
+
+		Transaction.Response.Builder response_builder = Transaction.Response.newBuilder().setFailedOperation(-1);
+		ByteArrayOutputStream results = new ByteArrayOutputStream();
+		int index = 0;
+		try {
+			synchronized (executionLock) {
+				for (Transaction.Operation operation : request.getOperationList()) {
+					int offset = results.size();
+					execute(operation, results);
+					response_builder.addResultOffset(results.size() == offset ? -1 : offset);
+					index++;
+				}
+			}
+			response_builder.setStatus(Status.OK);
+		} catch (RuntimeException e) {
+			Logger.error(e, "Error in transaction operation {}: {}", Integer.valueOf(index), e);
+			response_builder.setStatus(Status.ERROR);
+			response_builder.setDetail("Runtime Error in operation " + index + ": " + e);
+			response_builder.setFailedOperation(index);
+		}
+		response_builder.setResults(ByteString.copyFrom(results.toByteArray()));
+
+		responseObserver.onNext(response_builder.build());
+		responseObserver.onCompleted();
+	}
+
+	private void execute(Transaction.Operation operation, ByteArrayOutputStream results) throws RuntimeIOException {
+		switch (operation.getOperationCase()) {
+		case DEVICE:
+			Stream.Request request = operation.getDevice();
+			Stream.Response.Builder response_builder = Stream.Response.newBuilder();
+			execute(request, response_builder);
+			appendResult(request.getOperationCase(), response_builder, results);
+			break;
+		case POLLI2CREGISTER:
+			Transaction.PollI2CRegister poll_register = operation.getPollI2CRegister();
+			InternalI2CDeviceInterface device = getI2CDevice(poll_register.getController(), poll_register.getAddress());
+			int register_timeout_ms = capWait(poll_register.getTimeoutMs());
+			long register_deadline = System.nanoTime() + register_timeout_ms * 1_000_000L;
+			while ((device.readByteData(poll_register.getRegister()) & poll_register.getMask()) != poll_register
+					.getExpected()) {
+				if (System.nanoTime() - register_deadline > 0) {
+					throw new RuntimeIOException("Timeout polling I2C register 0x"
+							+ Integer.toHexString(poll_register.getRegister()) + " after " + register_timeout_ms + "ms");
+				}
+				cappedDelay(poll_register.getIntervalUs());
+			}
+			break;
+		case POLLGPIO:
+			Transaction.PollGpio poll_gpio = operation.getPollGpio();
+			GpioDigitalDeviceInterface gpio_device = getGpioDevice(poll_gpio.getGpio(),
+					GpioDigitalDeviceInterface.class);
+			int gpio_timeout_ms = capWait(poll_gpio.getTimeoutMs());
+			long gpio_deadline = System.nanoTime() + gpio_timeout_ms * 1_000_000L;
+			while (gpio_device.getValue() != poll_gpio.getExpected()) {
+				if (System.nanoTime() - gpio_deadline > 0) {
+					throw new RuntimeIOException(
+							"Timeout polling GPIO " + poll_gpio.getGpio() + " after " + gpio_timeout_ms + "ms");
+				}
+				cappedDelay(poll_gpio.getIntervalUs());
+			}
+			break;
+		case DELAY:
+			cappedDelay(operation.getDelay().getDelayUs());
+			break;
+		case OPERATION_NOT_SET:
+		default:
+			throw new IllegalArgumentException("Transaction operation not set");
+		}
+	}
+
+	private static void appendResult(Stream.Request.OperationCase operationCase, Stream.Response.Builder response,
+			ByteArrayOutputStream results) {
+		switch (response.getDataCase()) {
+		case BOOLEANDATA:
+			results.write(response.getBooleanData() ? 1 : 0);
+			break;
+		case INTDATA:
+			int value = response.getIntData();
+			int num_bytes;
+			if (operationCase == Stream.Request.OperationCase.I2CREADWORDDATA) {
+				num_bytes = 2;
+			} else if (operationCase == Stream.Request.OperationCase.SERVOREAD) {
+				num_bytes = 4;
+			} else {
+				num_bytes = 1;
+			}
+			for (int i = 0; i < num_bytes; i++) {
+				results.write(value >> (8 * i));
+			}
+			break;
+		case FLOATDATA:
+			int bits = Float.floatToIntBits(response.getFloatData());
+			for (int i = 0; i < 4; i++) {
+				results.write(bits >> (8 * i));
+			}
+			break;
+		case BYTESDATA:
+			results.writeBytes(response.getBytesData().toByteArray());
+			break;
+		case DATA_NOT_SET:
+		default:
+		}
+	}
+
+	private static int capWait(int timeoutMs) {
+		if (timeoutMs > MAX_WAIT_MS) {
+			Logger.debug("Capping wait of {}ms to {}ms", Integer.valueOf(timeoutMs), Integer.valueOf(MAX_WAIT_MS));
+			return MAX_WAIT_MS;
+		}
+		return timeoutMs;
+	}
+
+	private static void cappedDelay(int delayUs) {
+		delay((int) Math.min(delayUs, MAX_WAIT_MS * 1_000L));
+	}
+
+	private static void delay(int delayUs) {
+		long nanos = delayUs * 1_000L;
+		if (nanos <= 0) {
+			return;
+		}
+		if (nanos < BUSY_SLEEP_MAX_NS) {
+			SleepUtil.busySleep(nanos);
+		} else {
+			SleepUtil.parkNanos(nanos);
+		}
+	}
+
+	/**
+	 * Execute a single stream operation
+	 *
+	 * @param request         the request
+	 * @param responseBuilder populated with any data returned by the operation
+	 * @throws RuntimeIOException if the device isn't provisioned or an I/O error
+	 *                            occurs
+	 */
+	void execute(Stream.Request request, Stream.Response.Builder responseBuilder) throws RuntimeIOException {
+		switch (request.getOperationCase()) {
+		case OPERATION_NOT_SET:
+			// Barrier
+			break;
+		case DIGITALREAD:
+			responseBuilder.setBooleanData(
+					getGpioDevice(request.getDigitalRead().getGpio(), GpioDigitalDeviceInterface.class).getValue());
+			break;
+		case DIGITALWRITE:
+			Gpio.BooleanMessage digital_write = request.getDigitalWrite();
+			getGpioDevice(digital_write.getGpio(), GpioDigitalOutputDeviceInterface.class)
+					.setValue(digital_write.getValue());
+			break;
+		case PWMREAD:
+			responseBuilder.setFloatData(
+					getGpioDevice(request.getPwmRead().getGpio(), InternalPwmOutputDeviceInterface.class).getValue());
+			break;
+		case PWMWRITE:
+			Gpio.FloatMessage pwm_write = request.getPwmWrite();
+			getGpioDevice(pwm_write.getGpio(), InternalPwmOutputDeviceInterface.class).setValue(pwm_write.getValue());
+			break;
+		case SERVOREAD:
+			responseBuilder.setIntData(getGpioDevice(request.getServoRead().getGpio(), InternalServoDeviceInterface.class)
+					.getPulseWidthUs());
+			break;
+		case SERVOWRITE:
+			Gpio.IntegerMessage servo_write = request.getServoWrite();
+			getGpioDevice(servo_write.getGpio(), InternalServoDeviceInterface.class)
+					.setPulseWidthUs(servo_write.getValue());
+			break;
+		case ANALOGREAD:
+			responseBuilder.setFloatData(
+					getGpioDevice(request.getAnalogRead().getGpio(), AnalogDeviceInterface.class).getValue());
+			break;
+		case ANALOGWRITE:
+			Gpio.FloatMessage analog_write = request.getAnalogWrite();
+			getGpioDevice(analog_write.getGpio(), AnalogOutputDeviceInterface.class).setValue(analog_write.getValue());
+			break;
+		case I2CREADBYTE:
+			I2C.Identifier read_byte = request.getI2CReadByte();
+			responseBuilder.setIntData(getI2CDevice(read_byte.getController(), read_byte.getAddress()).readByte());
+			break;
+		case I2CWRITEBYTE:
+			I2C.ByteMessage write_byte = request.getI2CWriteByte();
+			getI2CDevice(write_byte.getController(), write_byte.getAddress()).writeByte((byte) write_byte.getData());
+			break;
+		case I2CREADBYTEDATA:
+			I2C.Register read_byte_data = request.getI2CReadByteData();
+			responseBuilder.setIntData(getI2CDevice(read_byte_data.getController(), read_byte_data.getAddress())
+					.readByteData(read_byte_data.getRegister()));
+			break;
+		case I2CWRITEBYTEDATA:
+			I2C.RegisterAndByte write_byte_data = request.getI2CWriteByteData();
+			getI2CDevice(write_byte_data.getController(), write_byte_data.getAddress())
+					.writeByteData(write_byte_data.getRegister(), (byte) write_byte_data.getData());
+			break;
+		case I2CREADWORDDATA:
+			I2C.Register read_word_data = request.getI2CReadWordData();
+			responseBuilder.setIntData(getI2CDevice(read_word_data.getController(), read_word_data.getAddress())
+					.readWordData(read_word_data.getRegister()));
+			break;
+		case I2CWRITEWORDDATA:
+			I2C.RegisterAndWordData write_word_data = request.getI2CWriteWordData();
+			getI2CDevice(write_word_data.getController(), write_word_data.getAddress())
+					.writeWordData(write_word_data.getRegister(), (short) write_word_data.getData());
+			break;
+		case I2CREADI2CBLOCKDATA:
+			I2C.RegisterAndNumBytes read_block = request.getI2CReadI2CBlockData();
+			byte[] block_buffer = new byte[read_block.getLength()];
+			getI2CDevice(read_block.getController(), read_block.getAddress()).readI2CBlockData(read_block.getRegister(),
+					block_buffer);
+			responseBuilder.setBytesData(ByteString.copyFrom(block_buffer));
+			break;
+		case I2CWRITEI2CBLOCKDATA:
+			I2C.RegisterAndByteArray write_block = request.getI2CWriteI2CBlockData();
+			getI2CDevice(write_block.getController(), write_block.getAddress())
+					.writeI2CBlockData(write_block.getRegister(), write_block.getData().toByteArray());
+			break;
+		case I2CREADBYTES:
+			I2C.NumBytes read_bytes = request.getI2CReadBytes();
+			byte[] buffer = new byte[read_bytes.getLength()];
+			getI2CDevice(read_bytes.getController(), read_bytes.getAddress()).readBytes(buffer);
+			responseBuilder.setBytesData(ByteString.copyFrom(buffer));
+			break;
+		case I2CWRITEBYTES:
+			I2C.ByteArray write_bytes = request.getI2CWriteBytes();
+			getI2CDevice(write_bytes.getController(), write_bytes.getAddress())
+					.writeBytes(write_bytes.getData().toByteArray());
+			break;
+		case SPIWRITE:
+			SPI.ByteArray spi_write = request.getSpiWrite();
+			getSpiDevice(spi_write.getController(), spi_write.getChipSelect())
+					.write(spi_write.getTxData().toByteArray());
+			break;
+		case SPIWRITEANDREAD:
+			SPI.ByteArray spi_write_and_read = request.getSpiWriteAndRead();
+			byte[] rx_data = getSpiDevice(spi_write_and_read.getController(), spi_write_and_read.getChipSelect())
+					.writeAndRead(spi_write_and_read.getTxData().toByteArray());
+			responseBuilder.setBytesData(ByteString.copyFrom(rx_data));
+			break;
+		default:
+			throw new UnsupportedOperationException("Unsupported stream operation " + request.getOperationCase());
+		}
+	}
+
+	private <T> T getGpioDevice(int gpio, Class<T> deviceClass) {
+		PinInfo pin_info = deviceFactory.getBoardPinInfo().getByGpioNumberOrThrow(gpio);
+		InternalDeviceInterface device = deviceFactory.getDevice(deviceFactory.createPinKey(pin_info));
+		if (device == null) {
+			throw new RuntimeIOException("GPIO " + gpio + " not provisioned");
+		}
+		if (!deviceClass.isInstance(device)) {
+			throw new RuntimeIOException("Invalid mode, device class: " + device.getClass().getName());
+		}
+		return deviceClass.cast(device);
+	}
+
+	private InternalI2CDeviceInterface getI2CDevice(int controller, int address) {
+		InternalI2CDeviceInterface device = deviceFactory.getDevice(deviceFactory.createI2CKey(controller, address));
+		if (device == null) {
+			throw new RuntimeIOException(
+					"I2C device " + controller + "-0x" + Integer.toHexString(address) + " not provisioned");
+		}
+		return device;
+	}
+
+	private InternalSpiDeviceInterface getSpiDevice(int controller, int chipSelect) {
+		InternalSpiDeviceInterface device = deviceFactory.getDevice(deviceFactory.createSpiKey(controller, chipSelect));
+		if (device == null) {
+			throw new RuntimeIOException("SPI device " + controller + "-" + chipSelect + " not provisioned");
+		}
+		return device;
+	}
+}
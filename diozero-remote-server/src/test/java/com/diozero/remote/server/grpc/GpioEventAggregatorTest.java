@@ -0,0 +1,216 @@
+package com.diozero.remote.server.grpc;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - Remote Server
+ * Filename:     GpioEventAggregatorTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.diozero.api.DigitalInputEvent;
+import com.diozero.remote.message.protobuf.Gpio;
+
+import io.grpc.stub.ServerCallStreamObserver;
+
+public class GpioEventAggregatorTest {
+	private static final int GPIO = 18;
+
+	private ExecutorService executor;
+	private ServerCallStreamObserver<Gpio.EventBatch> observer;
+	private final AtomicBoolean ready = new AtomicBoolean(true);
+	private final AtomicBoolean cancelled = new AtomicBoolean();
+	private Runnable onReadyHandler;
+	private Runnable onCancelHandler;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		executor = Executors.newSingleThreadExecutor();
+		observer = mock(ServerCallStreamObserver.class);
+		when(Boolean.valueOf(observer.isReady())).thenAnswer(invocation -> Boolean.valueOf(ready.get()));
+		when(Boolean.valueOf(observer.isCancelled())).thenAnswer(invocation -> Boolean.valueOf(cancelled.get()));
+		doAnswer(invocation -> {
+			onReadyHandler = invocation.getArgument(0);
+			return null;
+		}).when(observer).setOnReadyHandler(any(Runnable.class));
+		doAnswer(invocation -> {
+			onCancelHandler = invocation.getArgument(0);
+			return null;
+		}).when(observer).setOnCancelHandler(any(Runnable.class));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void batch() throws InterruptedException {
+		GpioEventAggregator aggregator = create(Gpio.SubscribeRequest.newBuilder().setGpio(GPIO)
+				.setMode(Gpio.SubscriptionMode.BATCH).setBatchSize(3).setIntervalMs(60_000));
+		for (int i = 0; i < 3; i++) {
+			aggregator.accept(event(i));
+		}
+
+		// A full batch is sent without waiting for the interval
+		Gpio.EventBatch batch = aggregator.awaitBatch();
+		Assertions.assertEquals(GPIO, batch.getGpio());
+		Assertions.assertEquals(0, batch.getMerged());
+		Assertions.assertEquals(List.of(Boolean.TRUE, Boolean.FALSE, Boolean.TRUE), batch.getValueList());
+		Assertions.assertEquals(1_000, batch.getEpochTime());
+		Assertions.assertEquals(1_000_000, batch.getNanoTime());
+		Assertions.assertEquals(List.of(Long.valueOf(0), Long.valueOf(1_000_000), Long.valueOf(2_000_000)),
+				batch.getNanoTimeDeltaList());
+	}
+
+	@Test
+	public void batchDeadline() throws InterruptedException {
+		GpioEventAggregator aggregator = create(Gpio.SubscribeRequest.newBuilder().setGpio(GPIO)
+				.setMode(Gpio.SubscriptionMode.BATCH).setBatchSize(10).setIntervalMs(50));
+		long start = System.nanoTime();
+		aggregator.accept(event(0));
+
+		// A partial batch is sent once the first event has been buffered for the
+		// interval
+		Gpio.EventBatch batch = aggregator.awaitBatch();
+		Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+		Assertions.assertEquals(1, batch.getValueCount());
+	}
+
+	@Test
+	public void overflowMergedUntilReady() throws Exception {
+		ready.set(false);
+		GpioEventAggregator aggregator = create(Gpio.SubscribeRequest.newBuilder().setGpio(GPIO)
+				.setMode(Gpio.SubscriptionMode.EVENTS).setMaxBufferedEvents(4));
+		Future<Gpio.EventBatch> future = executor.submit(aggregator::awaitBatch);
+		for (int i = 0; i < 7; i++) {
+			aggregator.accept(event(i));
+		}
+		assertBlocked(future);
+
+		ready.set(true);
+		onReadyHandler.run();
+		Gpio.EventBatch batch = future.get(1, TimeUnit.SECONDS);
+		// Events beyond the buffer capacity are merged into the most recent event
+		Assertions.assertEquals(3, batch.getMerged());
+		Assertions.assertEquals(4, batch.getValueCount());
+		Assertions.assertEquals(7_000_000 - 1_000_000, batch.getNanoTimeDelta(3));
+		Assertions.assertTrue(batch.getValue(3));
+	}
+
+	@Test
+	public void coalesce() throws InterruptedException {
+		GpioEventAggregator aggregator = create(Gpio.SubscribeRequest.newBuilder().setGpio(GPIO)
+				.setMode(Gpio.SubscriptionMode.COALESCE).setIntervalMs(20));
+		for (int i = 0; i < 4; i++) {
+			aggregator.accept(event(i));
+		}
+
+		Gpio.EventBatch batch = aggregator.awaitBatch();
+		Assertions.assertEquals(3, batch.getMerged());
+		Assertions.assertEquals(List.of(Boolean.FALSE), batch.getValueList());
+		Assertions.assertEquals(4_000_000, batch.getNanoTime());
+		Assertions.assertEquals(List.of(Long.valueOf(0)), batch.getNanoTimeDeltaList());
+	}
+
+	@Test
+	public void count() throws InterruptedException {
+		GpioEventAggregator aggregator = create(Gpio.SubscribeRequest.newBuilder().setGpio(GPIO)
+				.setMode(Gpio.SubscriptionMode.COUNT).setIntervalMs(20));
+		for (int i = 0; i < 5; i++) {
+			aggregator.accept(event(i));
+		}
+
+		Gpio.EventBatch batch = aggregator.awaitBatch();
+		Assertions.assertEquals(3, batch.getRisingEdgeCount());
+		Assertions.assertEquals(2, batch.getFallingEdgeCount());
+		Assertions.assertEquals(List.of(Boolean.TRUE), batch.getValueList());
+
+		// The counts are reset and the latest value is repeated every interval
+		long start = System.nanoTime();
+		batch = aggregator.awaitBatch();
+		Assertions.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(15));
+		Assertions.assertEquals(0, batch.getRisingEdgeCount());
+		Assertions.assertEquals(0, batch.getFallingEdgeCount());
+		Assertions.assertEquals(5_000_000, batch.getNanoTime());
+	}
+
+	@Test
+	public void closeAndCancel() throws Exception {
+		GpioEventAggregator aggregator = create(
+				Gpio.SubscribeRequest.newBuilder().setGpio(GPIO).setMode(Gpio.SubscriptionMode.EVENTS));
+		Future<Gpio.EventBatch> future = executor.submit(aggregator::awaitBatch);
+		assertBlocked(future);
+		aggregator.close();
+		Assertions.assertNull(future.get(1, TimeUnit.SECONDS));
+
+		aggregator = create(Gpio.SubscribeRequest.newBuilder().setGpio(GPIO).setMode(Gpio.SubscriptionMode.EVENTS));
+		future = executor.submit(aggregator::awaitBatch);
+		assertBlocked(future);
+		cancelled.set(true);
+		onCancelHandler.run();
+		Assertions.assertNull(future.get(1, TimeUnit.SECONDS));
+	}
+
+	private GpioEventAggregator create(Gpio.SubscribeRequest.Builder request) {
+		GpioEventAggregator aggregator = new GpioEventAggregator(request.build());
+		aggregator.attach(observer);
+		return aggregator;
+	}
+
+	private static DigitalInputEvent event(int i) {
+		return new DigitalInputEvent(GPIO, (i + 1) * 1_000, (i + 1) * 1_000_000, i % 2 == 0);
+	}
+
+	private static void assertBlocked(Future<?> future) throws InterruptedException, ExecutionException {
+		try {
+			future.get(100, TimeUnit.MILLISECONDS);
+			Assertions.fail("Expected awaitBatch to block");
+		} catch (TimeoutException e) {
+			// Expected
+		}
+	}
+}
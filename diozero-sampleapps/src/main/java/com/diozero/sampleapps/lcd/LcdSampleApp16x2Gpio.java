@@ -35,7 +35,7 @@ import org.tinylog.Logger;
 
 import com.diozero.api.RuntimeIOException;
 import com.diozero.devices.HD44780Lcd;
-import com.diozero.devices.LcdConnection.GpioLcdConnection;
+import com.diozero.devices.LcdConnection.GpioGroupLcdConnection;
 import com.diozero.devices.LcdConnection;
 import com.diozero.util.Diozero;
 
@@ -61,7 +61,7 @@ public class LcdSampleApp16x2Gpio {
 		// Not used - connect RW pin to ground
 		int read_write = 5;
 		int enable = 3;
-		try (LcdConnection lcd_connection = new GpioLcdConnection(8, 9, 10, 11, backlight, enable, read_write,
+		try (LcdConnection lcd_connection = new GpioGroupLcdConnection(8, 9, 10, 11, backlight, enable, read_write,
 				register_select); HD44780Lcd lcd = new HD44780Lcd(lcd_connection, columns, rows)) {
 			LcdSampleApp16x2Base.test(lcd);
 		} catch (RuntimeIOException e) {
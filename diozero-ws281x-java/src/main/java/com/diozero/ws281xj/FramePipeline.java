@@ -0,0 +1,355 @@
+package com.diozero.ws281xj;
+
+/*
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - WS281x Java Wrapper
+ * Filename:     FramePipeline.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.tinylog.Logger;
+
+import com.diozero.api.RuntimeIOException;
+import com.diozero.util.DiozeroScheduler;
+import com.diozero.util.SleepUtil;
+
+/**
+ * Asynchronous, multi-buffered frame pipeline for any {@link LedDriverInterface}
+ * implementation. Pixels are drawn into a back buffer; {@link #render()} queues
+ * a copy of the back buffer and returns immediately. A dedicated render thread
+ * takes the oldest queued frame at a fixed target frame rate, hands it to the
+ * underlying driver and renders it, thereby decoupling animation computation
+ * from bus I/O.
+ * <p>
+ * If frames are queued faster than they can be transmitted the oldest queued
+ * frame is dropped; frames that overrun the frame interval are counted as late.
+ * </p>
+ * <p>
+ * If the underlying driver fails the render thread stops and the pipeline no
+ * longer accepts frames; the failure is thrown by the next call to
+ * {@link #render()}.
+ * </p>
+ *
+ * <pre>
+ * try (LedDriverInterface leds = new FramePipeline(new WS281xSpi(2, 0, StripType.WS2812, 300, 127), 60)) {
+ * 	PixelAnimations.demo(leds);
+ * }
+ * </pre>
+ */
+public class FramePipeline implements LedDriverInterface {
+	private static final int DEFAULT_BUFFER_COUNT = 2;
+
+	private final LedDriverInterface delegate;
+	private final float targetFrameRate;
+	private final long frameIntervalNs;
+	// Drawn into by the user
+	private final int[] backBuffer;
+	// Frames queued for transmission, a ring of buffers guarded by queueLock,
+	// which also guards the statistics
+	private final int[][] queue;
+	private final Object queueLock;
+	private int queueHead;
+	private int queueCount;
+	// Owned by the render thread
+	private final int[] frontBuffer;
+
+	private volatile boolean running;
+	private volatile RuntimeException error;
+	private Future<?> future;
+
+	private long framesRendered;
+	private long framesDropped;
+	private long framesLate;
+	private long totalEncodeNs;
+	private long maxEncodeNs;
+	private long totalTransmitNs;
+	private long maxTransmitNs;
+
+	/**
+	 * Double-buffered pipeline, i.e. one back buffer and one queued frame.
+	 *
+	 * @param delegate        the LED driver to render frames to
+	 * @param targetFrameRate maximum frames per second to render
+	 */
+	public FramePipeline(LedDriverInterface delegate, float targetFrameRate) {
+		this(delegate, targetFrameRate, DEFAULT_BUFFER_COUNT);
+	}
+
+	/**
+	 * @param delegate        the LED driver to render frames to
+	 * @param targetFrameRate maximum frames per second to render
+	 * @param bufferCount     total number of pixel buffers (minimum 2), one back
+	 *                        buffer plus up to bufferCount - 1 queued frames
+	 */
+	public FramePipeline(LedDriverInterface delegate, float targetFrameRate, int bufferCount) {
+		if (targetFrameRate <= 0) {
+			throw new IllegalArgumentException("Invalid target frame rate " + targetFrameRate + ", must be > 0");
+		}
+		if (bufferCount < 2) {
+			throw new IllegalArgumentException("Invalid buffer count " + bufferCount + ", must be >= 2");
+		}
+
+		this.delegate = delegate;
+		this.targetFrameRate = targetFrameRate;
+		frameIntervalNs = (long) (SleepUtil.NS_IN_SEC / targetFrameRate);
+
+		int num_pixels = delegate.getNumPixels();
+		backBuffer = new int[num_pixels];
+		for (int i = 0; i < num_pixels; i++) {
+			backBuffer[i] = delegate.getPixelColour(i);
+		}
+		frontBuffer = new int[num_pixels];
+		queue = new int[bufferCount - 1][num_pixels];
+		queueLock = new Object();
+
+		running = true;
+		future = DiozeroScheduler.getHighPriorityInstance().submit(this::renderLoop);
+	}
+
+	@Override
+	public void close() {
+		Logger.trace("close()");
+		running = false;
+		if (future != null) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				Logger.warn(e, "Error in render loop: {}", e);
+			}
+			future = null;
+		}
+		delegate.close();
+	}
+
+	@Override
+	public int getNumPixels() {
+		return backBuffer.length;
+	}
+
+	/**
+	 * Queue the back buffer for rendering and return immediately. The back buffer
+	 * keeps its contents so that the next frame can be drawn incrementally.
+	 *
+	 * @throws RuntimeIOException if rendering a previous frame failed
+	 */
+	@Override
+	public void render() throws RuntimeIOException {
+		RuntimeException e = error;
+		if (e != null) {
+			throw new RuntimeIOException("Error rendering frame: " + e, e);
+		}
+		synchronized (queueLock) {
+			if (queueCount == queue.length) {
+				// Drop the oldest queued frame
+				queueHead = (queueHead + 1) % queue.length;
+				queueCount--;
+				framesDropped++;
+			}
+			System.arraycopy(backBuffer, 0, queue[(queueHead + queueCount) % queue.length], 0, backBuffer.length);
+			queueCount++;
+		}
+	}
+
+	@Override
+	public void allOff() {
+		Arrays.fill(backBuffer, 0);
+		render();
+	}
+
+	@Override
+	public int getPixelColour(int pixel) {
+		return backBuffer[pixel];
+	}
+
+	@Override
+	public void setPixelColour(int pixel, int colour) {
+		backBuffer[pixel] = colour;
+	}
+
+	public float getTargetFrameRate() {
+		return targetFrameRate;
+	}
+
+	/**
+	 * Get the number of frames that are queued but not yet rendered.
+	 *
+	 * @return the number of queued frames
+	 */
+	public int getQueuedFrameCount() {
+		synchronized (queueLock) {
+			return queueCount;
+		}
+	}
+
+	public long getFramesRendered() {
+		synchronized (queueLock) {
+			return framesRendered;
+		}
+	}
+
+	/**
+	 * Get the number of frames that were replaced by a newer frame before they
+	 * could be rendered.
+	 *
+	 * @return the number of dropped frames
+	 */
+	public long getFramesDropped() {
+		synchronized (queueLock) {
+			return framesDropped;
+		}
+	}
+
+	/**
+	 * Get the number of frames for which encoding and transmission took longer
+	 * than the target frame interval.
+	 *
+	 * @return the number of late frames
+	 */
+	public long getFramesLate() {
+		synchronized (queueLock) {
+			return framesLate;
+		}
+	}
+
+	/**
+	 * Average time to pass a frame to the underlying driver. Note that some
+	 * drivers (e.g. WS281xSpi) encode pixel data in render() in which case that
+	 * time is included in the transmit time.
+	 *
+	 * @return average encode time in nanoseconds
+	 */
+	public long getAverageEncodeNanos() {
+		synchronized (queueLock) {
+			return framesRendered == 0 ? 0 : totalEncodeNs / framesRendered;
+		}
+	}
+
+	public long getMaxEncodeNanos() {
+		synchronized (queueLock) {
+			return maxEncodeNs;
+		}
+	}
+
+	/**
+	 * Average duration of the underlying driver's render() method.
+	 *
+	 * @return average transmit time in nanoseconds
+	 */
+	public long getAverageTransmitNanos() {
+		synchronized (queueLock) {
+			return framesRendered == 0 ? 0 : totalTransmitNs / framesRendered;
+		}
+	}
+
+	public long getMaxTransmitNanos() {
+		synchronized (queueLock) {
+			return maxTransmitNs;
+		}
+	}
+
+	public void resetStatistics() {
+		synchronized (queueLock) {
+			framesRendered = 0;
+			framesDropped = 0;
+			framesLate = 0;
+			totalEncodeNs = 0;
+			maxEncodeNs = 0;
+			totalTransmitNs = 0;
+			maxTransmitNs = 0;
+		}
+	}
+
+	private void renderLoop() {
+		Logger.debug("Started render loop at {} fps", Float.valueOf(targetFrameRate));
+		long next_frame_time = System.nanoTime();
+		while (running) {
+			boolean have_frame = false;
+			synchronized (queueLock) {
+				if (queueCount > 0) {
+					System.arraycopy(queue[queueHead], 0, frontBuffer, 0, frontBuffer.length);
+					queueHead = (queueHead + 1) % queue.length;
+					queueCount--;
+					have_frame = true;
+				}
+			}
+
+			if (have_frame) {
+				long start = System.nanoTime();
+				long encoded;
+				long transmitted;
+				try {
+					for (int i = 0; i < frontBuffer.length; i++) {
+						delegate.setPixelColour(i, frontBuffer[i]);
+					}
+					encoded = System.nanoTime();
+					delegate.render();
+					transmitted = System.nanoTime();
+				} catch (RuntimeException e) {
+					Logger.error(e, "Error rendering frame: {}", e);
+					error = e;
+					running = false;
+					break;
+				}
+
+				long encode_ns = encoded - start;
+				long transmit_ns = transmitted - encoded;
+				synchronized (queueLock) {
+					totalEncodeNs += encode_ns;
+					totalTransmitNs += transmit_ns;
+					if (encode_ns > maxEncodeNs) {
+						maxEncodeNs = encode_ns;
+					}
+					if (transmit_ns > maxTransmitNs) {
+						maxTransmitNs = transmit_ns;
+					}
+					framesRendered++;
+				}
+			}
+
+			next_frame_time += frameIntervalNs;
+			long now = System.nanoTime();
+			if (now > next_frame_time) {
+				if (have_frame) {
+					synchronized (queueLock) {
+						framesLate++;
+					}
+				}
+				// Don't try to catch up
+				next_frame_time = now;
+			} else {
+				SleepUtil.parkNanos(next_frame_time - now);
+			}
+		}
+		Logger.debug("Render loop finished");
+	}
+}
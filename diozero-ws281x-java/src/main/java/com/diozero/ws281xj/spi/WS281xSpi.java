@@ -74,6 +74,19 @@ public class WS281xSpi implements LedDriverInterface {
 	private int[] leds;
 	private byte[] gamma;
 	private byte[] pixelRaw;
+	// 3 byte SPI encoding (in the low 24 bits) for each 8-bit colour value, with
+	// brightness and gamma applied
+	private int[] symbolLut;
+	// Colour component shifts in transmit order (R, G, B, W)
+	private int[] colourShifts;
+	// Number of encoded bytes per LED
+	private int ledByteCount;
+	// Inclusive range of LEDs that need to be re-encoded, dirtyStart > dirtyEnd if
+	// nothing has changed
+	private int dirtyStart;
+	private int dirtyEnd;
+	// Maximum bytes per SPI message, a multiple of ledByteCount
+	private int chunkSize;
 
 	public WS281xSpi(int controller, int chipSelect, StripType stripType, int numLeds, int brightness) {
 		this(controller, chipSelect, Protocol.PROTOCOL_800KHZ, stripType, numLeds, brightness);
@@ -81,9 +94,20 @@ public class WS281xSpi implements LedDriverInterface {
 
 	public WS281xSpi(int controller, int chipSelect, Protocol protocol, StripType stripType, int numLeds,
 			int brightness) {
-		device = SpiDevice.builder(chipSelect).setController(controller).setFrequency(protocol.getFrequency() * 3)
-				.build();
+		this(SpiDevice.builder(chipSelect).setController(controller).setFrequency(protocol.getFrequency() * 3)
+				.build(), protocol, stripType, numLeds, brightness);
+	}
 
+	/**
+	 * @param device     SPI device, must be clocked at 3 times the protocol
+	 *                   frequency
+	 * @param protocol   the LED protocol
+	 * @param stripType  the LED strip type
+	 * @param numLeds    the number of LEDs in the strip
+	 * @param brightness brightness value between 0 and 255
+	 */
+	public WS281xSpi(SpiDevice device, Protocol protocol, StripType stripType, int numLeds, int brightness) {
+		this.device = device;
 		this.protocol = protocol;
 		this.stripType = stripType;
 		this.numLeds = numLeds;
@@ -99,6 +123,17 @@ public class WS281xSpi implements LedDriverInterface {
 		// Allocate SPI transmit buffer (same size as PCM)
 		pixelRaw = new byte[PCM_BYTE_COUNT(numLeds, protocol.getFrequency())];
 
+		colourShifts = new int[] { stripType.getRedShift(), stripType.getGreenShift(), stripType.getBlueShift(),
+				stripType.getWhiteShift() };
+		ledByteCount = stripType.getColourCount() * 3;
+		symbolLut = new int[256];
+		updateSymbolLut();
+
+		// Align SPI messages to LED boundaries so that any gap between messages falls
+		// between bits (the line idles low) rather than within a symbol
+		int max_buffer_size = device.getMaxBufferSize();
+		chunkSize = Math.max(ledByteCount, max_buffer_size - max_buffer_size % ledByteCount);
+
 		// 1.25us per bit (1250ns)
 		renderWaitTime = numLeds * stripType.getColourCount() * 8 * 1250 + LED_RESET_WAIT_TIME;
 	}
@@ -122,7 +157,61 @@ public class WS281xSpi implements LedDriverInterface {
 
 	@Override
 	public void setPixelColour(int pixel, int colour) {
-		leds[pixel] = colour;
+		if (leds[pixel] != colour) {
+			leds[pixel] = colour;
+			markDirty(pixel, pixel);
+		}
+	}
+
+	public int getBrightness() {
+		return brightness;
+	}
+
+	/**
+	 * Set the brightness, applied to all pixels on the next render.
+	 *
+	 * @param brightness Brightness value between 0 and 255
+	 */
+	public void setBrightness(int brightness) {
+		this.brightness = brightness & 0xff;
+		updateSymbolLut();
+	}
+
+	/**
+	 * Set the gamma correction table, applied to all pixels on the next render.
+	 *
+	 * @param gamma 256 entry lookup table from colour value to corrected value
+	 */
+	public void setGamma(byte[] gamma) {
+		if (gamma.length != 256) {
+			throw new IllegalArgumentException("Gamma table must have 256 entries, got " + gamma.length);
+		}
+		this.gamma = gamma.clone();
+		updateSymbolLut();
+	}
+
+	private void updateSymbolLut() {
+		int scale = brightness + 1;
+		for (int x = 0; x < 256; x++) {
+			int value = gamma[(x * scale) >> 8] & 0xff;
+			int encoded = 0;
+			// Most significant bit first, 3 symbol bits per colour bit
+			for (int k = 7; k >= 0; k--) {
+				encoded = (encoded << 3) | (((value & (1 << k)) != 0) ? SYMBOL_HIGH : SYMBOL_LOW);
+			}
+			symbolLut[x] = encoded;
+		}
+		markDirty(0, numLeds - 1);
+	}
+
+	private void markDirty(int start, int end) {
+		if (dirtyStart > dirtyEnd) {
+			dirtyStart = start;
+			dirtyEnd = end;
+		} else {
+			dirtyStart = Math.min(dirtyStart, start);
+			dirtyEnd = Math.max(dirtyEnd, end);
+		}
 	}
 
 	/**
@@ -138,45 +227,20 @@ public class WS281xSpi implements LedDriverInterface {
 	 */
 	@Override
 	public void render() {
-		int bitpos = 7;
-		int bytepos = 0;
-		int scale = brightness + 1;
-		// int array_size = stripType.getWhiteShift() == 0 ? 3 : 4; // RGB or RGBW
-		int colour_count = stripType.getColourCount();
-
-		for (int i = 0; i < numLeds; i++) {
-			// Swap the colours around based on the led strip type
-			byte[] colour = { gamma[(((leds[i] >> stripType.getRedShift()) & 0xff) * scale) >> 8],
-					gamma[(((leds[i] >> stripType.getGreenShift()) & 0xff) * scale) >> 8],
-					gamma[(((leds[i] >> stripType.getBlueShift()) & 0xff) * scale) >> 8],
-					gamma[(((leds[i] >> stripType.getWhiteShift()) & 0xff) * scale) >> 8] };
-
-			// Colour
+		// Only re-encode pixels that have changed since the last render
+		final int colour_count = stripType.getColourCount();
+		int bytepos = dirtyStart * ledByteCount;
+		for (int i = dirtyStart; i <= dirtyEnd; i++) {
+			final int led = leds[i];
 			for (int j = 0; j < colour_count; j++) {
-				// Bit
-				for (int k = 7; k >= 0; k--) {
-					int symbol = ((colour[j] & (1 << k)) != 0) ? SYMBOL_HIGH : SYMBOL_LOW;
-
-					// Symbol
-					for (int l = 2; l >= 0; l--) {
-						/*
-						 * volatile byte *byteptr = &pxl_raw[bytepos]; byteptr &= ~(1 << bitpos); if
-						 * (symbol & (1 << l)) { byteptr |= (1 << bitpos); }
-						 */
-						pixelRaw[bytepos] &= ~(1 << bitpos);
-						if ((symbol & (1 << l)) != 0) {
-							pixelRaw[bytepos] |= (1 << bitpos);
-						}
-
-						bitpos--;
-						if (bitpos < 0) {
-							bytepos++;
-							bitpos = 7;
-						}
-					}
-				}
+				int encoded = symbolLut[(led >> colourShifts[j]) & 0xff];
+				pixelRaw[bytepos++] = (byte) (encoded >> 16);
+				pixelRaw[bytepos++] = (byte) (encoded >> 8);
+				pixelRaw[bytepos++] = (byte) encoded;
 			}
 		}
+		dirtyStart = numLeds;
+		dirtyEnd = -1;
 
 		if (lastRenderTime != 0) {
 			int diff = (int) (System.nanoTime() - lastRenderTime);
@@ -185,13 +249,16 @@ public class WS281xSpi implements LedDriverInterface {
 			}
 		}
 
-		device.write(pixelRaw);
+		for (int offset = 0; offset < pixelRaw.length; offset += chunkSize) {
+			device.write(pixelRaw, offset, Math.min(chunkSize, pixelRaw.length - offset));
+		}
 		lastRenderTime = System.nanoTime();
 	}
 
 	@Override
 	public void allOff() {
 		Arrays.fill(leds, 0);
+		markDirty(0, numLeds - 1);
 		render();
 	}
 
@@ -0,0 +1,235 @@
+package com.diozero.ws281xj;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - WS281x Java Wrapper
+ * Filename:     FramePipelineTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.diozero.api.RuntimeIOException;
+
+@SuppressWarnings("static-method")
+public class FramePipelineTest {
+	private static final int NUM_PIXELS = 8;
+
+	@Test
+	public void framesAreRenderedInOrder() throws InterruptedException {
+		int num_frames = 20;
+		RecordingDriver driver = new RecordingDriver();
+		// Enough buffers to queue every frame so none are dropped
+		FramePipeline pipeline = new FramePipeline(driver, 1000, num_frames + 1);
+		try {
+			for (int frame = 1; frame <= num_frames; frame++) {
+				for (int i = 0; i < NUM_PIXELS; i++) {
+					pipeline.setPixelColour(i, 0);
+				}
+				pipeline.setPixelColour(frame % NUM_PIXELS, frame);
+				pipeline.render();
+			}
+			driver.awaitFrames(num_frames);
+		} finally {
+			// Waits for the render thread to finish
+			pipeline.close();
+		}
+		Assertions.assertEquals(0, pipeline.getFramesDropped());
+		Assertions.assertEquals(num_frames, pipeline.getFramesRendered());
+
+		List<int[]> frames = driver.getFrames();
+		Assertions.assertEquals(num_frames, frames.size());
+		for (int frame = 1; frame <= num_frames; frame++) {
+			Assertions.assertEquals(frame, frames.get(frame - 1)[frame % NUM_PIXELS]);
+		}
+	}
+
+	@Test
+	public void oldestQueuedFrameIsDropped() throws InterruptedException {
+		CountDownLatch rendering = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingDriver driver = new RecordingDriver() {
+			@Override
+			public void render() {
+				rendering.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				super.render();
+			}
+		};
+
+		FramePipeline pipeline = new FramePipeline(driver, 1000);
+		try {
+			pipeline.setPixelColour(0, 1);
+			pipeline.render();
+			// Wait until the render thread is busy with the first frame
+			Assertions.assertTrue(rendering.await(5, TimeUnit.SECONDS));
+
+			// Only one frame can be queued, each new frame replaces the queued frame
+			for (int frame = 2; frame <= 6; frame++) {
+				pipeline.setPixelColour(0, frame);
+				pipeline.render();
+			}
+			Assertions.assertEquals(4, pipeline.getFramesDropped());
+			Assertions.assertEquals(1, pipeline.getQueuedFrameCount());
+
+			release.countDown();
+			driver.awaitFrames(2);
+		} finally {
+			release.countDown();
+			pipeline.close();
+		}
+		Assertions.assertEquals(2, pipeline.getFramesRendered());
+		pipeline.resetStatistics();
+		Assertions.assertEquals(0, pipeline.getFramesDropped());
+		Assertions.assertEquals(0, pipeline.getFramesRendered());
+
+		List<int[]> frames = driver.getFrames();
+		Assertions.assertEquals(2, frames.size());
+		Assertions.assertEquals(1, frames.get(0)[0]);
+		Assertions.assertEquals(6, frames.get(1)[0]);
+	}
+
+	@Test
+	public void renderErrorIsRethrown() throws InterruptedException {
+		RecordingDriver driver = new RecordingDriver() {
+			@Override
+			public void render() {
+				throw new RuntimeIOException("SPI error");
+			}
+		};
+
+		FramePipeline pipeline = new FramePipeline(driver, 1000);
+		pipeline.render();
+
+		// The failure is reported by a later call to render
+		RuntimeIOException e = null;
+		long deadline = System.currentTimeMillis() + 5000;
+		while (e == null && System.currentTimeMillis() < deadline) {
+			try {
+				pipeline.render();
+				Thread.sleep(1);
+			} catch (RuntimeIOException ex) {
+				e = ex;
+			}
+		}
+		Assertions.assertNotNull(e);
+		Assertions.assertEquals("SPI error", e.getCause().getMessage());
+		// No more frames are accepted
+		Assertions.assertThrows(RuntimeIOException.class, pipeline::render);
+
+		pipeline.close();
+		Assertions.assertTrue(driver.isClosed());
+	}
+
+	@Test
+	public void closeStopsRenderThreadAndClosesDriver() {
+		RecordingDriver driver = new RecordingDriver();
+		FramePipeline pipeline = new FramePipeline(driver, 1000);
+		pipeline.close();
+
+		Assertions.assertTrue(driver.isClosed());
+		// Frames queued after close are never rendered
+		pipeline.render();
+		Assertions.assertEquals(1, pipeline.getQueuedFrameCount());
+		Assertions.assertEquals(0, driver.getFrames().size());
+	}
+
+	private static class RecordingDriver implements LedDriverInterface {
+		private final int[] pixels = new int[NUM_PIXELS];
+		private final List<int[]> frames = new ArrayList<>();
+		private volatile boolean closed;
+
+		RecordingDriver() {
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+
+		boolean isClosed() {
+			return closed;
+		}
+
+		@Override
+		public int getNumPixels() {
+			return pixels.length;
+		}
+
+		@Override
+		public void render() {
+			synchronized (frames) {
+				frames.add(pixels.clone());
+				frames.notifyAll();
+			}
+		}
+
+		@Override
+		public void allOff() {
+			Arrays.fill(pixels, 0);
+			render();
+		}
+
+		@Override
+		public int getPixelColour(int pixel) {
+			return pixels[pixel];
+		}
+
+		@Override
+		public void setPixelColour(int pixel, int colour) {
+			pixels[pixel] = colour;
+		}
+
+		List<int[]> getFrames() {
+			synchronized (frames) {
+				return new ArrayList<>(frames);
+			}
+		}
+
+		void awaitFrames(int count) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + 5000;
+			synchronized (frames) {
+				while (frames.size() < count) {
+					long remaining = deadline - System.currentTimeMillis();
+					Assertions.assertTrue(remaining > 0, "Timed out waiting for " + count + " frames");
+					frames.wait(remaining);
+				}
+			}
+		}
+	}
+}
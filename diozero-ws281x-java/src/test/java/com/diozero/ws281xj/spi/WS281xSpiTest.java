@@ -0,0 +1,182 @@
+package com.diozero.ws281xj.spi;
+
+/*-
+ * #%L
+ * Organisation: diozero
+ * Project:      diozero - WS281x Java Wrapper
+ * Filename:     WS281xSpiTest.java
+ * 
+ * This file is part of the diozero project. More information about this project
+ * can be found at https://www.diozero.com/.
+ * %%
+ * Copyright (C) 2016 - 2024 diozero
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.diozero.api.SpiDevice;
+import com.diozero.ws281xj.StripType;
+import com.diozero.ws281xj.spi.WS281xSpi.Protocol;
+
+/**
+ * Compare the lookup table encoder with dirty region tracking against the
+ * original per-bit encoder that re-encoded every pixel on each render.
+ */
+@SuppressWarnings("static-method")
+public class WS281xSpiTest {
+	private static final int NUM_LEDS = 37;
+	private static final int NUM_FRAMES = 100;
+	// Small enough that each render is split into several SPI messages
+	private static final int MAX_BUFFER_SIZE = 100;
+
+	// Symbol definitions
+	private static final byte SYMBOL_HIGH = 0b110;
+	private static final byte SYMBOL_LOW = 0b100;
+
+	@Test
+	public void randomFramesMatchPerBitEncoder() {
+		for (StripType strip_type : new StripType[] { StripType.WS2811_GRB, StripType.WS2811_BRG,
+				StripType.SK6812_RGBW, StripType.SK6812_GBRW }) {
+			Random random = new Random(strip_type.ordinal());
+			ByteArrayOutputStream transmitted = new ByteArrayOutputStream();
+			SpiDevice device = mock(SpiDevice.class);
+			when(Integer.valueOf(device.getMaxBufferSize())).thenReturn(Integer.valueOf(MAX_BUFFER_SIZE));
+			doAnswer(invocation -> {
+				byte[] buffer = invocation.getArgument(0);
+				int offset = invocation.getArgument(1);
+				int length = invocation.getArgument(2);
+				Assertions.assertTrue(length <= MAX_BUFFER_SIZE);
+				transmitted.write(buffer, offset, length);
+				return null;
+			}).when(device).write(any(byte[].class), anyInt(), anyInt());
+
+			int brightness = 255;
+			byte[] gamma = new byte[256];
+			for (int i = 0; i < gamma.length; i++) {
+				gamma[i] = (byte) i;
+			}
+			int[] leds = new int[NUM_LEDS];
+			WS281xSpi driver = new WS281xSpi(device, Protocol.PROTOCOL_800KHZ, strip_type, NUM_LEDS, brightness);
+
+			for (int frame = 0; frame < NUM_FRAMES; frame++) {
+				switch (random.nextInt(6)) {
+				case 0:
+					// Full frame
+					for (int i = 0; i < NUM_LEDS; i++) {
+						leds[i] = random.nextInt();
+						driver.setPixelColour(i, leds[i]);
+					}
+					break;
+				case 1:
+					// Nothing changed
+					break;
+				case 2:
+					// Same colour again
+					int pixel = random.nextInt(NUM_LEDS);
+					driver.setPixelColour(pixel, leds[pixel]);
+					break;
+				case 3:
+					brightness = random.nextInt(256);
+					driver.setBrightness(brightness);
+					break;
+				case 4:
+					random.nextBytes(gamma);
+					driver.setGamma(gamma);
+					break;
+				default:
+					// Partial update of a few scattered pixels
+					int count = 1 + random.nextInt(4);
+					for (int i = 0; i < count; i++) {
+						int p = random.nextInt(NUM_LEDS);
+						leds[p] = random.nextInt();
+						driver.setPixelColour(p, leds[p]);
+					}
+				}
+
+				transmitted.reset();
+				driver.render();
+				byte[] actual = transmitted.toByteArray();
+				byte[] expected = encode(leds, strip_type, brightness, gamma, actual.length);
+				Assertions.assertArrayEquals(expected, actual, "Strip type " + strip_type + ", frame " + frame);
+			}
+
+			transmitted.reset();
+			driver.allOff();
+			byte[] actual = transmitted.toByteArray();
+			Assertions.assertArrayEquals(encode(new int[NUM_LEDS], strip_type, brightness, gamma, actual.length),
+					actual);
+		}
+	}
+
+	/*
+	 * The original per-bit encoder
+	 */
+	private static byte[] encode(int[] leds, StripType stripType, int brightness, byte[] gamma, int length) {
+		byte[] pixel_raw = new byte[length];
+		int bitpos = 7;
+		int bytepos = 0;
+		int scale = brightness + 1;
+		int colour_count = stripType.getColourCount();
+
+		for (int i = 0; i < leds.length; i++) {
+			// Swap the colours around based on the led strip type
+			byte[] colour = { gamma[(((leds[i] >> stripType.getRedShift()) & 0xff) * scale) >> 8],
+					gamma[(((leds[i] >> stripType.getGreenShift()) & 0xff) * scale) >> 8],
+					gamma[(((leds[i] >> stripType.getBlueShift()) & 0xff) * scale) >> 8],
+					gamma[(((leds[i] >> stripType.getWhiteShift()) & 0xff) * scale) >> 8] };
+
+			// Colour
+			for (int j = 0; j < colour_count; j++) {
+				// Bit
+				for (int k = 7; k >= 0; k--) {
+					int symbol = ((colour[j] & (1 << k)) != 0) ? SYMBOL_HIGH : SYMBOL_LOW;
+
+					// Symbol
+					for (int l = 2; l >= 0; l--) {
+						pixel_raw[bytepos] &= ~(1 << bitpos);
+						if ((symbol & (1 << l)) != 0) {
+							pixel_raw[bytepos] |= (1 << bitpos);
+						}
+
+						bitpos--;
+						if (bitpos < 0) {
+							bytepos++;
+							bitpos = 7;
+						}
+					}
+				}
+			}
+		}
+
+		return pixel_raw;
+	}
+}
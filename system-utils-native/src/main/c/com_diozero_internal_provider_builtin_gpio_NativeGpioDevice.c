@@ -40,6 +40,7 @@ extern jclass gpioLineClassRef;
 extern jmethodID gpioLineConstructor;
 
 extern jmethodID gpioLineEventListenerMethod;
+extern jmethodID gpioLineEventBatchListenerMethod;
 
 static int dir_filter(const struct dirent *dir) {
 	return !strncmp(dir->d_name, "gpiochip", 8);
@@ -213,17 +214,116 @@ JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpi
 	return 0;
 }
 
+/*-
+ * GPIO character device v2 uAPI (Linux 5.10+)
+ * https://github.com/torvalds/linux/blob/v5.10/include/uapi/linux/gpio.h
+ */
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_requestLinesV2(
+		JNIEnv* env, jclass clz, jint chipFd, jintArray offsets, jlong flags, jlong outputValues,
+		jint debouncePeriodUs) {
+#ifdef GPIO_V2_LINES_MAX
+	jsize num_lines = (*env)->GetArrayLength(env, offsets);
+	if (num_lines < 1 || num_lines > GPIO_V2_LINES_MAX) {
+		fprintf(stderr, "Invalid number of lines %d, must be 1..%d\n", num_lines, GPIO_V2_LINES_MAX);
+		return -EINVAL;
+	}
+
+	struct gpio_v2_line_request req;
+	memset(&req, 0, sizeof(req));
+	strncpy(req.consumer, CONSUMER, sizeof(req.consumer) - 1);
+
+	jint line_offsets[GPIO_V2_LINES_MAX];
+	(*env)->GetIntArrayRegion(env, offsets, 0, num_lines, line_offsets);
+	int i;
+	for (i=0; i<num_lines; i++) {
+		req.offsets[i] = line_offsets[i];
+	}
+	req.num_lines = num_lines;
+	req.config.flags = flags;
+
+	__u64 all_lines = num_lines == 64 ? ~0ULL : (1ULL << num_lines) - 1;
+	int num_attrs = 0;
+	if (flags & GPIO_V2_LINE_FLAG_OUTPUT) {
+		req.config.attrs[num_attrs].attr.id = GPIO_V2_LINE_ATTR_ID_OUTPUT_VALUES;
+		req.config.attrs[num_attrs].attr.values = outputValues;
+		req.config.attrs[num_attrs].mask = all_lines;
+		num_attrs++;
+	}
+	if (debouncePeriodUs > 0) {
+		req.config.attrs[num_attrs].attr.id = GPIO_V2_LINE_ATTR_ID_DEBOUNCE;
+		req.config.attrs[num_attrs].attr.debounce_period_us = debouncePeriodUs;
+		req.config.attrs[num_attrs].mask = all_lines;
+		num_attrs++;
+	}
+	req.config.num_attrs = num_attrs;
+
+	if (ioctl(chipFd, GPIO_V2_GET_LINE_IOCTL, &req) < 0) {
+		perror("Error requesting lines (v2)");
+		return -errno;
+	}
+
+	return req.fd;
+#else
+	return -ENOTSUP;
+#endif
+}
+
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_getValuesV2(
+		JNIEnv* env, jclass clz, jint lineFd, jlong mask, jlongArray values) {
+#ifdef GPIO_V2_LINES_MAX
+	struct gpio_v2_line_values data;
+	data.bits = 0;
+	data.mask = mask;
+	if (ioctl(lineFd, GPIO_V2_LINE_GET_VALUES_IOCTL, &data) < 0) {
+		perror("Error getting GPIO values (v2)");
+		return -errno;
+	}
+
+	jlong bits = data.bits;
+	(*env)->SetLongArrayRegion(env, values, 0, 1, &bits);
+
+	return 0;
+#else
+	return -ENOTSUP;
+#endif
+}
+
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_setValuesV2(
+		JNIEnv* env, jclass clz, jint lineFd, jlong mask, jlong values) {
+#ifdef GPIO_V2_LINES_MAX
+	struct gpio_v2_line_values data;
+	data.bits = values;
+	data.mask = mask;
+	if (ioctl(lineFd, GPIO_V2_LINE_SET_VALUES_IOCTL, &data) < 0) {
+		perror("Error setting GPIO values (v2)");
+		return -errno;
+	}
+
+	return 0;
+#else
+	return -ENOTSUP;
+#endif
+}
+
 JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_epollCreate(
 		JNIEnv* env, jclass clz) {
 	// Note since Linux 2.6.8, the size argument is ignored, but must be greater than zero
 	return epoll_create(1);
 }
 
-JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_epollAddFileDescriptor(
-		JNIEnv* env, jclass clz, jint epollFd, jint lineFd) {
+/*-
+ * The epoll user data holds the fd in the lower 32 bits and the event record format
+ * (v1 gpioevent_data or v2 gpio_v2_line_event) in the upper 32 bits
+ */
+#define EPOLL_DATA_V2_LINE (1ULL << 32)
+#define EPOLL_DATA_FD(data) ((int) ((data).u64 & 0xffffffffULL))
+#define EPOLL_DATA_IS_V2(data) (((data).u64 & EPOLL_DATA_V2_LINE) != 0)
+
+static int epollAdd(int epollFd, int lineFd, uint64_t flags) {
 	struct epoll_event ev;
+	memset(&ev, 0, sizeof(ev));
 	ev.events = EPOLLIN | EPOLLPRI;
-	ev.data.fd = lineFd;
+	ev.data.u64 = ((uint32_t) lineFd) | flags;
 
 	int rc = epoll_ctl(epollFd, EPOLL_CTL_ADD, lineFd, &ev);
 	if (rc < 0) {
@@ -234,6 +334,16 @@ JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpi
 	return 0;
 }
 
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_epollAddFileDescriptor(
+		JNIEnv* env, jclass clz, jint epollFd, jint lineFd) {
+	return epollAdd(epollFd, lineFd, 0);
+}
+
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_epollAddFileDescriptorV2(
+		JNIEnv* env, jclass clz, jint epollFd, jint lineFd) {
+	return epollAdd(epollFd, lineFd, EPOLL_DATA_V2_LINE);
+}
+
 JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_epollRemoveFileDescriptor(
 		JNIEnv* env, jclass clz, jint epollFd, jint lineFd) {
 	int rc = epoll_ctl(epollFd, EPOLL_CTL_DEL, lineFd, NULL);
@@ -245,15 +355,74 @@ JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpi
 	return 0;
 }
 
+#define MAX_EVENTS_PER_READ 64
+
+// Common representation of v1 and v2 line events
+struct line_event {
+	uint32_t id;
+	uint64_t timestamp;
+	uint32_t seqno;
+	uint32_t line_seqno;
+};
+
+/*
+ * Read all pending events from a line fd. A line fd only blocks if there are no
+ * events queued; once the kernel fifo has been emptied read returns the events
+ * collected so far.
+ * Returns the number of events read or -1 on error.
+ */
+static int readLineEvents(int lineFd, bool v2, struct line_event* events) {
+	int num_events = 0;
+	int i;
+#ifdef GPIO_V2_LINES_MAX
+	if (v2) {
+		struct gpio_v2_line_event v2_events[MAX_EVENTS_PER_READ];
+		ssize_t bytes_read = read(lineFd, v2_events, sizeof(v2_events));
+		if (bytes_read < 0) {
+			return -1;
+		}
+		num_events = bytes_read / sizeof(struct gpio_v2_line_event);
+		for (i=0; i<num_events; i++) {
+			events[i].id = v2_events[i].id;
+			events[i].timestamp = v2_events[i].timestamp_ns;
+			events[i].seqno = v2_events[i].seqno;
+			events[i].line_seqno = v2_events[i].line_seqno;
+		}
+		return num_events;
+	}
+#endif
+	// https://github.com/torvalds/linux/blob/v5.4/include/uapi/linux/gpio.h#L148
+	struct gpioevent_data v1_events[MAX_EVENTS_PER_READ];
+	ssize_t bytes_read = read(lineFd, v1_events, sizeof(v1_events));
+	if (bytes_read < 0) {
+		return -1;
+	}
+	num_events = bytes_read / sizeof(struct gpioevent_data);
+	for (i=0; i<num_events; i++) {
+		events[i].id = v1_events[i].id;
+		events[i].timestamp = v1_events[i].timestamp;
+		// Sequence numbers not available in v1
+		events[i].seqno = 0;
+		events[i].line_seqno = 0;
+	}
+	return num_events;
+}
+
+static bool isLineFdClosed(struct epoll_event* event, int fd) {
+	if (event->events & (EPOLLRDHUP | EPOLLERR | EPOLLHUP)) {
+		fprintf(stderr, "TODO: epoll events indicates that fd %d should be removed\n", fd);
+		return true;
+	}
+	return false;
+}
+
 JNIEXPORT void JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_eventLoop(
 		JNIEnv* env, jclass clz, jint epollFd, jint timeout, jobject callback) {
 	int max_events = 40;
 	struct epoll_event epoll_events[max_events];
 	memset(&epoll_events, 0, sizeof(epoll_events));
 
-	// https://github.com/torvalds/linux/blob/v5.4/include/uapi/linux/gpio.h#L148
-	struct gpioevent_data evdata;
-	memset(&evdata, 0, sizeof(evdata));
+	struct line_event events[MAX_EVENTS_PER_READ];
 
 	int num_fds;
 	running = true;
@@ -276,39 +445,141 @@ JNIEXPORT void JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpi
 
 		int i;
 		for (i=0; i<num_fds; i++) {
-			if (epoll_events[i].events & (EPOLLRDHUP | EPOLLERR | EPOLLHUP)) {
-				fprintf(stderr, "TODO: epoll events indicates that fd %d should be removed\n",
-						epoll_events[i].data.fd);
+			int fd = EPOLL_DATA_FD(epoll_events[i].data);
+			if (isLineFdClosed(&epoll_events[i], fd)) {
 				running = false;
 				continue;
 			}
 
-			if (epoll_events[i].data.fd == exitLoopFd) {
+			if (fd == exitLoopFd) {
 				running = false;
 				break;
 			}
 
 			if (epoll_events[i].events & EPOLLIN) {
 				// Read the event data
-				if (read(epoll_events[i].data.fd, &evdata, sizeof(evdata)) < 0) {
+				int num_events = readLineEvents(fd, EPOLL_DATA_IS_V2(epoll_events[i].data), events);
+				if (num_events < 0) {
 					perror("Error reading event data from line fd");
 					running = false;
 					break;
 				}
 
-				/*-
-				struct timespec tp;
-				clock_gettime(CLOCK_REALTIME, &tp);
-				uint64_t nanotime = ((uint64_t) tp.tv_sec) * 1000*1000*1000 + tp.tv_nsec;
-				printf("Calling event method, delta: %lld\n", (nanotime - evdata.timestamp));
-				*/
-
 				// https://github.com/torvalds/linux/blob/v5.4/include/uapi/linux/gpio.h#L140
-				// evdata.id: either GPIOEVENT_EVENT_RISING_EDGE or GPIOEVENT_EVENT_FALLING_EDGE
+				// id: either GPIOEVENT_EVENT_RISING_EDGE or GPIOEVENT_EVENT_FALLING_EDGE
 				// timestamp: best estimate of time of event occurrence, in nanoseconds
 				// Note uses CLOCK_MONOTONIC, not CLOCK_REALTIME
-				(*env)->CallVoidMethod(env, callback, gpioLineEventListenerMethod,
-						epoll_events[i].data.fd, evdata.id, epoch_time_ms, evdata.timestamp);
+				int j;
+				for (j=0; j<num_events; j++) {
+					(*env)->CallVoidMethod(env, callback, gpioLineEventListenerMethod,
+							fd, events[j].id, epoch_time_ms, events[j].timestamp);
+					if ((*env)->ExceptionCheck(env)) {
+						// Leave the exception pending so that it is thrown on return to Java
+						running = false;
+						return;
+					}
+				}
+			}
+		}
+	}
+}
+
+/*-
+ * Batch record layout, native byte order, must match NativeGpioDevice.EVENT_RECORD_SIZE:
+ *   int32 line fd, int32 event id (GPIOEVENT_EVENT_RISING_EDGE / FALLING_EDGE),
+ *   int64 timestamp (nanoseconds, CLOCK_MONOTONIC),
+ *   int32 sequence number, int32 line sequence number (both 0 for v1 line fds)
+ */
+#define EVENT_RECORD_SIZE 24
+
+static void putEventRecord(uint8_t* record, int lineFd, struct line_event* event) {
+	int32_t fd = lineFd;
+	int32_t id = event->id;
+	int64_t timestamp = event->timestamp;
+	int32_t seqno = event->seqno;
+	int32_t line_seqno = event->line_seqno;
+	memcpy(record, &fd, sizeof(fd));
+	memcpy(record + 4, &id, sizeof(id));
+	memcpy(record + 8, &timestamp, sizeof(timestamp));
+	memcpy(record + 16, &seqno, sizeof(seqno));
+	memcpy(record + 20, &line_seqno, sizeof(line_seqno));
+}
+
+JNIEXPORT void JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_eventLoopBatch(
+		JNIEnv* env, jclass clz, jint epollFd, jint timeout, jobject buffer, jobject callback) {
+	uint8_t* records = (*env)->GetDirectBufferAddress(env, buffer);
+	jlong capacity = (*env)->GetDirectBufferCapacity(env, buffer) / EVENT_RECORD_SIZE;
+	if (records == NULL || capacity <= 0) {
+		fprintf(stderr, "Error, event batch buffer must be a direct ByteBuffer of at least %d bytes\n",
+				EVENT_RECORD_SIZE);
+		return;
+	}
+
+	int max_events = 40;
+	struct epoll_event epoll_events[max_events];
+	memset(&epoll_events, 0, sizeof(epoll_events));
+
+	struct line_event events[MAX_EVENTS_PER_READ];
+
+	int num_fds;
+	running = true;
+	while (running) {
+		num_fds = epoll_pwait(epollFd, epoll_events, max_events, timeout, NULL);
+		jlong epoch_time_ms = getEpochTimeMillis();
+
+		if (num_fds < 0) {
+			perror("Error polling");
+			break;
+		}
+		if (num_fds == 0) {
+			continue;
+		}
+
+		int count = 0;
+		int i;
+		for (i=0; i<num_fds; i++) {
+			int fd = EPOLL_DATA_FD(epoll_events[i].data);
+			if (isLineFdClosed(&epoll_events[i], fd)) {
+				running = false;
+				continue;
+			}
+
+			if (fd == exitLoopFd) {
+				running = false;
+				break;
+			}
+
+			if (epoll_events[i].events & EPOLLIN) {
+				int num_events = readLineEvents(fd, EPOLL_DATA_IS_V2(epoll_events[i].data), events);
+				if (num_events < 0) {
+					perror("Error reading event data from line fd");
+					running = false;
+					break;
+				}
+
+				int j;
+				for (j=0; j<num_events; j++) {
+					if (count == capacity) {
+						// Buffer full - hand over what we have and start again
+						(*env)->CallVoidMethod(env, callback, gpioLineEventBatchListenerMethod, count, epoch_time_ms);
+						if ((*env)->ExceptionCheck(env)) {
+							running = false;
+							return;
+						}
+						count = 0;
+					}
+					putEventRecord(records + count * EVENT_RECORD_SIZE, fd, &events[j]);
+					count++;
+				}
+			}
+		}
+
+		// One upcall for all of the events collected in this wakeup
+		if (count > 0) {
+			(*env)->CallVoidMethod(env, callback, gpioLineEventBatchListenerMethod, count, epoch_time_ms);
+			if ((*env)->ExceptionCheck(env)) {
+				running = false;
+				return;
 			}
 		}
 	}
@@ -340,7 +611,7 @@ int stopEventLoopPipe(int epollFd) {
 	// Add the read end to the epoll
 	struct epoll_event ev = {};
 	ev.events = EPOLLIN;
-	ev.data.fd = read_pipe;
+	ev.data.u64 = (uint32_t) read_pipe;
 	rc = epoll_ctl(epollFd, EPOLL_CTL_ADD, read_pipe, &ev);
 	if (rc < 0) {
 		perror("epoll_ctl EPOLL_CTL_ADD error");
@@ -386,8 +657,9 @@ int stopEventLoopEventFd(int epollFd) {
 	}
 
 	struct epoll_event ev;
+	memset(&ev, 0, sizeof(ev));
 	ev.events = EPOLLIN | EPOLLPRI | EPOLLET;
-	ev.data.fd = exitLoopFd;
+	ev.data.u64 = (uint32_t) exitLoopFd;
 
 	int rc = epoll_ctl(epollFd, EPOLL_CTL_ADD, exitLoopFd, &ev);
 	if (rc < 0) {
@@ -56,6 +56,30 @@ JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpi
 JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_setValue
   (JNIEnv *, jclass, jint, jint);
 
+/*
+ * Class:     com_diozero_internal_provider_builtin_gpio_NativeGpioDevice
+ * Method:    requestLinesV2
+ * Signature: (I[IJJI)I
+ */
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_requestLinesV2
+  (JNIEnv *, jclass, jint, jintArray, jlong, jlong, jint);
+
+/*
+ * Class:     com_diozero_internal_provider_builtin_gpio_NativeGpioDevice
+ * Method:    getValuesV2
+ * Signature: (IJ[J)I
+ */
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_getValuesV2
+  (JNIEnv *, jclass, jint, jlong, jlongArray);
+
+/*
+ * Class:     com_diozero_internal_provider_builtin_gpio_NativeGpioDevice
+ * Method:    setValuesV2
+ * Signature: (IJJ)I
+ */
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_setValuesV2
+  (JNIEnv *, jclass, jint, jlong, jlong);
+
 /*
  * Class:     com_diozero_internal_provider_builtin_gpio_NativeGpioDevice
  * Method:    epollCreate
@@ -72,6 +96,14 @@ JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpi
 JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_epollAddFileDescriptor
   (JNIEnv *, jclass, jint, jint);
 
+/*
+ * Class:     com_diozero_internal_provider_builtin_gpio_NativeGpioDevice
+ * Method:    epollAddFileDescriptorV2
+ * Signature: (II)I
+ */
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_epollAddFileDescriptorV2
+  (JNIEnv *, jclass, jint, jint);
+
 /*
  * Class:     com_diozero_internal_provider_builtin_gpio_NativeGpioDevice
  * Method:    epollRemoveFileDescriptor
@@ -88,6 +120,14 @@ JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpi
 JNIEXPORT void JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_eventLoop
   (JNIEnv *, jclass, jint, jint, jobject);
 
+/*
+ * Class:     com_diozero_internal_provider_builtin_gpio_NativeGpioDevice
+ * Method:    eventLoopBatch
+ * Signature: (IILjava/nio/ByteBuffer;Lcom/diozero/internal/provider/builtin/gpio/GpioLineEventBatchListener;)V
+ */
+JNIEXPORT void JNICALL Java_com_diozero_internal_provider_builtin_gpio_NativeGpioDevice_eventLoopBatch
+  (JNIEnv *, jclass, jint, jint, jobject, jobject);
+
 /*
  * Class:     com_diozero_internal_provider_builtin_gpio_NativeGpioDevice
  * Method:    stopEventLoop
@@ -362,6 +362,63 @@ JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_
 	return rc;
 }
 
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_readI2CBlockDataDirect(
+		JNIEnv* env, jclass clz, jint fd, jint registerAddress, jobject rxData, jint offset, jint rxLength) {
+	uint8_t* rx_buf = (uint8_t*) (*env)->GetDirectBufferAddress(env, rxData);
+	if (rx_buf == NULL) {
+		return -EINVAL;
+	}
+
+	int rc = i2c_smbus_read_i2c_block_data(fd, registerAddress, rxLength, rx_buf + offset);
+	if (rc < 0) {
+		return -errno;
+	}
+	return rc;
+}
+
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_writeI2CBlockDataDirect(
+		JNIEnv* env, jclass clz, jint fd, jint registerAddress, jobject txData, jint offset, jint txLength) {
+	uint8_t* tx_buf = (uint8_t*) (*env)->GetDirectBufferAddress(env, txData);
+	if (tx_buf == NULL) {
+		return -EINVAL;
+	}
+
+	int rc = i2c_smbus_write_i2c_block_data(fd, registerAddress, txLength, tx_buf + offset);
+	if (rc < 0) {
+		return -errno;
+	}
+	return rc;
+}
+
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_readBytesDirect(
+		JNIEnv* env, jclass clz, jint fd, jobject rxData, jint offset, jint rxLength) {
+	// Direct buffer memory can be passed straight to read(), no need to pin or copy
+	uint8_t* rx_buf = (uint8_t*) (*env)->GetDirectBufferAddress(env, rxData);
+	if (rx_buf == NULL) {
+		return -EINVAL;
+	}
+
+	int rc = read(fd, rx_buf + offset, rxLength);
+	if (rc < 0) {
+		return -errno;
+	}
+	return rc;
+}
+
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_writeBytesDirect(
+		JNIEnv* env, jclass clz, jint fd, jobject txData, jint offset, jint txLength) {
+	uint8_t* tx_buf = (uint8_t*) (*env)->GetDirectBufferAddress(env, txData);
+	if (tx_buf == NULL) {
+		return -EINVAL;
+	}
+
+	int rc = write(fd, tx_buf + offset, txLength);
+	if (rc < 0) {
+		return -errno;
+	}
+	return rc;
+}
+
 JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_readWrite(
 		JNIEnv* env, jclass clz, jint fd, jint deviceAddress, jobjectArray messages, jbyteArray buffer) {
 	jbyte* data = (*env)->GetByteArrayElements(env, buffer, NULL);
@@ -400,3 +457,61 @@ JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_
 	}
 	return rc;
 }
+
+#ifndef I2C_RDWR_IOCTL_MAX_MSGS
+#define I2C_RDWR_IOCTL_MAX_MSGS 42
+#endif
+
+/*
+ * Execute a batch of messages, potentially to different device addresses, in
+ * a single I2C_RDWR ioctl. Uses primitive arrays rather than I2CMessage objects
+ * to avoid JNI field lookups per message.
+ */
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_transfer(
+		JNIEnv* env, jclass clz, jint fd, jint numMessages, jintArray addresses, jintArray flags,
+		jintArray lengths, jbyteArray buffer) {
+	if (numMessages <= 0 || numMessages > I2C_RDWR_IOCTL_MAX_MSGS) {
+		return -EINVAL;
+	}
+
+	jint msg_addrs[I2C_RDWR_IOCTL_MAX_MSGS];
+	jint msg_flags[I2C_RDWR_IOCTL_MAX_MSGS];
+	jint msg_lens[I2C_RDWR_IOCTL_MAX_MSGS];
+	(*env)->GetIntArrayRegion(env, addresses, 0, numMessages, msg_addrs);
+	(*env)->GetIntArrayRegion(env, flags, 0, numMessages, msg_flags);
+	(*env)->GetIntArrayRegion(env, lengths, 0, numMessages, msg_lens);
+
+	jsize buffer_len = (*env)->GetArrayLength(env, buffer);
+	jbyte* data = (*env)->GetByteArrayElements(env, buffer, NULL);
+
+	struct i2c_msg rdwr_msg[I2C_RDWR_IOCTL_MAX_MSGS];
+	int offset = 0;
+	int i;
+	for (i = 0; i < numMessages; i++) {
+		if (msg_lens[i] < 0 || offset + msg_lens[i] > buffer_len) {
+			(*env)->ReleaseByteArrayElements(env, buffer, data, JNI_ABORT);
+			return -EINVAL;
+		}
+		rdwr_msg[i].addr = msg_addrs[i];
+		rdwr_msg[i].flags = msg_flags[i];
+		rdwr_msg[i].len = msg_lens[i];
+		rdwr_msg[i].buf = (unsigned char*) &data[offset];
+
+		offset += msg_lens[i];
+	}
+
+	struct i2c_rdwr_ioctl_data rdwr_data = {
+		.msgs = rdwr_msg,
+		.nmsgs = numMessages
+	};
+
+	int rc = ioctl(fd, I2C_RDWR, &rdwr_data);
+	int err = errno;
+
+	(*env)->ReleaseByteArrayElements(env, buffer, data, 0);
+
+	if (rc < 0) {
+		return -err;
+	}
+	return rc;
+}
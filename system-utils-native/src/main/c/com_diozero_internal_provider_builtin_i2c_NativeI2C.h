@@ -176,6 +176,38 @@ JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_
 JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_writeBytes
   (JNIEnv *, jclass, jint, jint, jbyteArray);
 
+/*
+ * Class:     com_diozero_internal_provider_builtin_i2c_NativeI2C
+ * Method:    readI2CBlockDataDirect
+ * Signature: (IILjava/nio/ByteBuffer;II)I
+ */
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_readI2CBlockDataDirect
+  (JNIEnv *, jclass, jint, jint, jobject, jint, jint);
+
+/*
+ * Class:     com_diozero_internal_provider_builtin_i2c_NativeI2C
+ * Method:    writeI2CBlockDataDirect
+ * Signature: (IILjava/nio/ByteBuffer;II)I
+ */
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_writeI2CBlockDataDirect
+  (JNIEnv *, jclass, jint, jint, jobject, jint, jint);
+
+/*
+ * Class:     com_diozero_internal_provider_builtin_i2c_NativeI2C
+ * Method:    readBytesDirect
+ * Signature: (ILjava/nio/ByteBuffer;II)I
+ */
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_readBytesDirect
+  (JNIEnv *, jclass, jint, jobject, jint, jint);
+
+/*
+ * Class:     com_diozero_internal_provider_builtin_i2c_NativeI2C
+ * Method:    writeBytesDirect
+ * Signature: (ILjava/nio/ByteBuffer;II)I
+ */
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_writeBytesDirect
+  (JNIEnv *, jclass, jint, jobject, jint, jint);
+
 /*
  * Class:     com_diozero_internal_provider_builtin_i2c_NativeI2C
  * Method:    readWrite
@@ -184,6 +216,14 @@ JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_
 JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_readWrite
   (JNIEnv *, jclass, jint, jint, jobjectArray, jbyteArray);
 
+/*
+ * Class:     com_diozero_internal_provider_builtin_i2c_NativeI2C
+ * Method:    transfer
+ * Signature: (II[I[I[I[B)I
+ */
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_i2c_NativeI2C_transfer
+  (JNIEnv *, jclass, jint, jint, jintArray, jintArray, jintArray, jbyteArray);
+
 #ifdef __cplusplus
 }
 #endif
@@ -214,3 +214,50 @@ JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_spi_NativeSpiD
 
 	return ret;
 }
+
+/*
+ * Class:     com_diozero_internal_provider_builtin_spi_NativeSpiDevice
+ * Method:    spiTransferDirect
+ * Signature: (ILjava/nio/ByteBuffer;ILjava/nio/ByteBuffer;IIIIBZ)I
+ */
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_spi_NativeSpiDevice_spiTransferDirect(
+		JNIEnv* env, jclass clz, jint fileDescriptor, jobject txBuffer, jint txOffset,
+		jobject rxBuffer, jint rxOffset, jint length, jint speedHz, jint delayUSecs, jbyte bitsPerWord,
+		jboolean csChange) {
+	// Direct buffers are passed straight to the kernel, no copying or pinning required
+	uint8_t* tx_buf = NULL;
+	if (txBuffer != NULL) {
+		tx_buf = (uint8_t*) (*env)->GetDirectBufferAddress(env, txBuffer);
+		if (tx_buf == NULL) {
+			return -EINVAL;
+		}
+		tx_buf += txOffset;
+	}
+	uint8_t* rx_buf = NULL;
+	if (rxBuffer != NULL) {
+		rx_buf = (uint8_t*) (*env)->GetDirectBufferAddress(env, rxBuffer);
+		if (rx_buf == NULL) {
+			return -EINVAL;
+		}
+		rx_buf += rxOffset;
+	}
+
+	struct spi_ioc_transfer tr = {
+		.tx_buf = (long_t) tx_buf
+		, .rx_buf = (long_t) rx_buf
+
+		, .len = (uint32_t) length
+		, .speed_hz = (uint32_t) speedHz
+
+		, .delay_usecs = (uint16_t) delayUSecs
+		, .bits_per_word = (uint8_t) bitsPerWord
+		, .cs_change = csChange == JNI_TRUE ? 1 : 0
+	};
+
+	int ret = ioctl(fileDescriptor, SPI_IOC_MESSAGE(1), &tr);
+	if (ret < 0) {
+		printf("SPI message transfer failed: %s", strerror(errno));
+	}
+
+	return ret;
+}
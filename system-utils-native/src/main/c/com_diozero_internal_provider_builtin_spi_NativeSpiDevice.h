@@ -39,6 +39,14 @@ JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_spi_NativeSpiD
 JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_spi_NativeSpiDevice_spiTransfer
   (JNIEnv *, jclass, jint, jbyteArray, jint, jbyteArray, jint, jint, jint, jbyte, jboolean);
 
+/*
+ * Class:     com_diozero_internal_provider_builtin_spi_NativeSpiDevice
+ * Method:    spiTransferDirect
+ * Signature: (ILjava/nio/ByteBuffer;ILjava/nio/ByteBuffer;IIIIBZ)I
+ */
+JNIEXPORT jint JNICALL Java_com_diozero_internal_provider_builtin_spi_NativeSpiDevice_spiTransferDirect
+  (JNIEnv *, jclass, jint, jobject, jint, jobject, jint, jint, jint, jint, jbyte, jboolean);
+
 #ifdef __cplusplus
 }
 #endif
@@ -68,6 +68,7 @@ jclass gpioLineClassRef = NULL;
 jmethodID gpioLineConstructor = NULL;
 
 jmethodID gpioLineEventListenerMethod = NULL;
+jmethodID gpioLineEventBatchListenerMethod = NULL;
 
 jfieldID i2cMessageFlagsField = NULL;
 jfieldID i2cMessageLenField = NULL;
@@ -247,6 +248,22 @@ jint JNI_OnLoad(JavaVM* jvm, void* reserved) {
 	}
 	(*env)->DeleteLocalRef(env, gpio_line_event_listener_class);
 
+	// Cache the GpioLineEventBatchListener class and method on startup
+	class_name = "com/diozero/internal/provider/builtin/gpio/GpioLineEventBatchListener";
+	jclass gpio_line_event_batch_listener_class = (*env)->FindClass(env, class_name);
+	if ((*env)->ExceptionCheck(env) || gpio_line_event_batch_listener_class == NULL) {
+		fprintf(stderr, "Error looking up class %s\n", class_name);
+		return JNI_ERR;
+	}
+	method_name = "eventBatch";
+	signature = "(IJ)V";
+	gpioLineEventBatchListenerMethod = (*env)->GetMethodID(env, gpio_line_event_batch_listener_class, method_name, signature);
+	if ((*env)->ExceptionCheck(env) || gpioLineEventBatchListenerMethod == NULL) {
+		fprintf(stderr, "Error looking up methodID for %s.%s%s\n", class_name, method_name, signature);
+		return JNI_ERR;
+	}
+	(*env)->DeleteLocalRef(env, gpio_line_event_batch_listener_class);
+
 	// Cache the I2CMessage class and fields on startup
 	class_name = "com/diozero/api/I2CDeviceInterface$I2CMessage";
 	jclass i2c_message_class = (*env)->FindClass(env, class_name);